@@ -0,0 +1,194 @@
+package com.vladsch.flexmark.benchmarks;
+
+import com.vladsch.flexmark.Extension;
+import com.vladsch.flexmark.ext.abbreviation.AbbreviationExtension;
+import com.vladsch.flexmark.ext.admonition.AdmonitionExtension;
+import com.vladsch.flexmark.ext.anchorlink.AnchorLinkExtension;
+import com.vladsch.flexmark.ext.aside.AsideExtension;
+import com.vladsch.flexmark.ext.attributes.AttributesExtension;
+import com.vladsch.flexmark.ext.autolink.AutolinkExtension;
+import com.vladsch.flexmark.ext.definition.DefinitionExtension;
+import com.vladsch.flexmark.ext.emoji.EmojiExtension;
+import com.vladsch.flexmark.ext.enumerated.reference.EnumeratedReferenceExtension;
+import com.vladsch.flexmark.ext.escaped.character.EscapedCharacterExtension;
+import com.vladsch.flexmark.ext.footnotes.FootnoteExtension;
+import com.vladsch.flexmark.ext.gfm.issues.GfmIssuesExtension;
+import com.vladsch.flexmark.ext.gfm.strikethrough.StrikethroughSubscriptExtension;
+import com.vladsch.flexmark.ext.gfm.tasklist.TaskListExtension;
+import com.vladsch.flexmark.ext.gfm.users.GfmUsersExtension;
+import com.vladsch.flexmark.ext.gitlab.GitLabExtension;
+import com.vladsch.flexmark.ext.ins.InsExtension;
+import com.vladsch.flexmark.ext.jekyll.front.matter.JekyllFrontMatterExtension;
+import com.vladsch.flexmark.ext.jekyll.tag.JekyllTagExtension;
+import com.vladsch.flexmark.ext.macros.MacrosExtension;
+import com.vladsch.flexmark.ext.media.tags.MediaTagsExtension;
+import com.vladsch.flexmark.ext.tables.TablesExtension;
+import com.vladsch.flexmark.ext.toc.SimTocExtension;
+import com.vladsch.flexmark.ext.toc.TocExtension;
+import com.vladsch.flexmark.ext.typographic.TypographicExtension;
+import com.vladsch.flexmark.ext.wikilink.WikiLinkExtension;
+import com.vladsch.flexmark.ext.xwiki.macros.MacroExtension;
+import com.vladsch.flexmark.ext.yaml.front.matter.YamlFrontMatterExtension;
+import com.vladsch.flexmark.ext.youtube.embedded.YouTubeLinkExtension;
+import com.vladsch.flexmark.superscript.SuperscriptExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Extensions available to benchmarks, used as a JMH parameter for measuring extensions in isolation
+ * <p>
+ * Extensions marked as part of the full pipeline do not conflict with each other and are all
+ * enabled by {@link #fullPipeline()}.
+ */
+public enum BenchmarkExtension {
+    ABBREVIATION(true) {
+        @Override
+        public Extension create() { return AbbreviationExtension.create(); }
+    },
+    ADMONITION(true) {
+        @Override
+        public Extension create() { return AdmonitionExtension.create(); }
+    },
+    ANCHORLINK(true) {
+        @Override
+        public Extension create() { return AnchorLinkExtension.create(); }
+    },
+    ASIDE(false) {
+        @Override
+        public Extension create() { return AsideExtension.create(); }
+    },
+    ATTRIBUTES(true) {
+        @Override
+        public Extension create() { return AttributesExtension.create(); }
+    },
+    AUTOLINK(true) {
+        @Override
+        public Extension create() { return AutolinkExtension.create(); }
+    },
+    DEFINITION(true) {
+        @Override
+        public Extension create() { return DefinitionExtension.create(); }
+    },
+    EMOJI(true) {
+        @Override
+        public Extension create() { return EmojiExtension.create(); }
+    },
+    ENUMERATED_REFERENCE(true) {
+        @Override
+        public Extension create() { return EnumeratedReferenceExtension.create(); }
+    },
+    ESCAPED_CHARACTER(true) {
+        @Override
+        public Extension create() { return EscapedCharacterExtension.create(); }
+    },
+    FOOTNOTES(true) {
+        @Override
+        public Extension create() { return FootnoteExtension.create(); }
+    },
+    GFM_ISSUES(true) {
+        @Override
+        public Extension create() { return GfmIssuesExtension.create(); }
+    },
+    GFM_STRIKETHROUGH(true) {
+        @Override
+        public Extension create() { return StrikethroughSubscriptExtension.create(); }
+    },
+    GFM_TABLES(false) {
+        @Override
+        public Extension create() { return com.vladsch.flexmark.ext.gfm.tables.TablesExtension.create(); }
+    },
+    GFM_TASKLIST(true) {
+        @Override
+        public Extension create() { return TaskListExtension.create(); }
+    },
+    GFM_USERS(true) {
+        @Override
+        public Extension create() { return GfmUsersExtension.create(); }
+    },
+    GITLAB(false) {
+        @Override
+        public Extension create() { return GitLabExtension.create(); }
+    },
+    INS(true) {
+        @Override
+        public Extension create() { return InsExtension.create(); }
+    },
+    JEKYLL_FRONT_MATTER(false) {
+        @Override
+        public Extension create() { return JekyllFrontMatterExtension.create(); }
+    },
+    JEKYLL_TAG(false) {
+        @Override
+        public Extension create() { return JekyllTagExtension.create(); }
+    },
+    MACROS(false) {
+        @Override
+        public Extension create() { return MacrosExtension.create(); }
+    },
+    MEDIA_TAGS(false) {
+        @Override
+        public Extension create() { return MediaTagsExtension.create(); }
+    },
+    SIM_TOC(false) {
+        @Override
+        public Extension create() { return SimTocExtension.create(); }
+    },
+    SUPERSCRIPT(true) {
+        @Override
+        public Extension create() { return SuperscriptExtension.create(); }
+    },
+    TABLES(true) {
+        @Override
+        public Extension create() { return TablesExtension.create(); }
+    },
+    TOC(true) {
+        @Override
+        public Extension create() { return TocExtension.create(); }
+    },
+    TYPOGRAPHIC(true) {
+        @Override
+        public Extension create() { return TypographicExtension.create(); }
+    },
+    WIKILINK(true) {
+        @Override
+        public Extension create() { return WikiLinkExtension.create(); }
+    },
+    XWIKI_MACROS(false) {
+        @Override
+        public Extension create() { return MacroExtension.create(); }
+    },
+    YAML_FRONT_MATTER(true) {
+        @Override
+        public Extension create() { return YamlFrontMatterExtension.create(); }
+    },
+    YOUTUBE_EMBEDDED(false) {
+        @Override
+        public Extension create() { return YouTubeLinkExtension.create(); }
+    };
+
+    private final boolean inFullPipeline;
+
+    BenchmarkExtension(boolean inFullPipeline) {
+        this.inFullPipeline = inFullPipeline;
+    }
+
+    public abstract Extension create();
+
+    public boolean isInFullPipeline() {
+        return inFullPipeline;
+    }
+
+    /**
+     * @return new instances of all extensions which make up the full pipeline
+     */
+    public static List<Extension> fullPipeline() {
+        ArrayList<Extension> extensions = new ArrayList<>();
+        for (BenchmarkExtension extension : values()) {
+            if (extension.inFullPipeline) {
+                extensions.add(extension.create());
+            }
+        }
+        return extensions;
+    }
+}
@@ -0,0 +1,52 @@
+package com.vladsch.flexmark.benchmarks;
+
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.options.DataHolder;
+import com.vladsch.flexmark.util.options.MutableDataSet;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collections;
+
+/**
+ * Runs all benchmarks in this package, reporting throughput and allocation rate
+ * <p>
+ * JMH command line options are accepted, for example {@code -f 1 -wi 3 -i 5 ParserBenchmark} to run
+ * only the parser benchmarks with fewer iterations.
+ */
+public class Benchmarks {
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLineOptions);
+
+        if (commandLineOptions.getIncludes().isEmpty()) {
+            builder.include(Benchmarks.class.getPackage().getName() + ".*Benchmark.*");
+        }
+
+        Options options = builder
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * @return options with all non-conflicting extensions enabled
+     */
+    public static DataHolder fullPipelineOptions() {
+        return new MutableDataSet()
+                .set(Parser.EXTENSIONS, BenchmarkExtension.fullPipeline());
+    }
+
+    /**
+     * @param extension extension to enable
+     * @return options with only the given extension enabled
+     */
+    public static DataHolder extensionOptions(BenchmarkExtension extension) {
+        return new MutableDataSet()
+                .set(Parser.EXTENSIONS, Collections.singletonList(extension.create()));
+    }
+}
@@ -0,0 +1,314 @@
+package com.vladsch.flexmark.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Generated benchmark inputs, each one stressing a different part of the parser and renderers
+ * <p>
+ * Inputs are generated from a fixed seed so every run and every JVM measures exactly the same text.
+ */
+public enum Corpus {
+    TABLES,
+    NESTING,
+    LINKS,
+    EMOJI,
+    CODE_FENCES,
+    MIXED;
+
+    private static final long SEED = 0x5eed_f1e7L;
+
+    private static final String[] WORDS = {
+            "lorem", "ipsum", "dolor", "sit", "amet", "consectetur", "adipiscing", "elit", "sed", "do",
+            "eiusmod", "tempor", "incididunt", "ut", "labore", "et", "dolore", "magna", "aliqua", "markdown",
+            "parser", "node", "block", "inline", "render", "format", "segment", "sequence", "document", "table",
+    };
+
+    private static final String[] EMOJI_SHORTCUTS = {
+            "smile", "heart", "+1", "-1", "rocket", "tada", "warning", "fire", "star", "white_check_mark",
+            "sparkles", "bug", "memo", "zap", "eyes", "thinking", "100", "x", "question", "bulb",
+    };
+
+    private static final String[] LANGUAGES = { "java", "markdown", "xml", "json", "text", "" };
+
+    private String markdown;
+
+    /**
+     * @return markdown text of the corpus, generated on first use
+     */
+    public synchronized String getMarkdown() {
+        if (markdown == null) {
+            markdown = generate(this, new Random(SEED));
+        }
+        return markdown;
+    }
+
+    private static String generate(Corpus corpus, Random random) {
+        StringBuilder sb = new StringBuilder();
+        switch (corpus) {
+            case TABLES:
+                appendTables(sb, random, 8, 100, 8);
+                break;
+            case NESTING:
+                appendNesting(sb, random, 40, 8);
+                break;
+            case LINKS:
+                appendLinks(sb, random, 600, 1500);
+                break;
+            case EMOJI:
+                appendEmoji(sb, random, 1500);
+                break;
+            case CODE_FENCES:
+                appendCodeFences(sb, random, 16, 300);
+                break;
+            case MIXED:
+                appendMixed(sb, random);
+                break;
+        }
+        return sb.toString();
+    }
+
+    private static void appendWords(StringBuilder sb, Random random, int count) {
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+    }
+
+    private static void appendInline(StringBuilder sb, Random random, int count) {
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(' ');
+            String word = WORDS[random.nextInt(WORDS.length)];
+            switch (random.nextInt(8)) {
+                case 0:
+                    sb.append('*').append(word).append('*');
+                    break;
+                case 1:
+                    sb.append("**").append(word).append("**");
+                    break;
+                case 2:
+                    sb.append('`').append(word).append('`');
+                    break;
+                case 3:
+                    sb.append('[').append(word).append("](http://example.com/").append(word).append(')');
+                    break;
+                default:
+                    sb.append(word);
+                    break;
+            }
+        }
+    }
+
+    private static void appendTables(StringBuilder sb, Random random, int tables, int rows, int columns) {
+        for (int t = 0; t < tables; t++) {
+            sb.append("## Table ").append(t + 1).append("\n\n");
+
+            sb.append('|');
+            for (int c = 0; c < columns; c++) {
+                sb.append(' ');
+                appendWords(sb, random, 1 + random.nextInt(2));
+                sb.append(" |");
+            }
+            sb.append('\n');
+
+            sb.append('|');
+            for (int c = 0; c < columns; c++) {
+                switch (c % 4) {
+                    case 0:
+                        sb.append(":---|");
+                        break;
+                    case 1:
+                        sb.append(":---:|");
+                        break;
+                    case 2:
+                        sb.append("---:|");
+                        break;
+                    default:
+                        sb.append("---|");
+                        break;
+                }
+            }
+            sb.append('\n');
+
+            for (int r = 0; r < rows; r++) {
+                sb.append('|');
+                for (int c = 0; c < columns; c++) {
+                    sb.append(' ');
+                    if (random.nextInt(10) == 0) {
+                        // spanned cell
+                        sb.append(random.nextInt(1000)).append(" ||");
+                        c++;
+                    } else {
+                        appendInline(sb, random, 1 + random.nextInt(4));
+                        sb.append(" |");
+                    }
+                }
+                sb.append('\n');
+            }
+            sb.append("[Table ").append(t + 1).append(" caption]\n\n");
+        }
+    }
+
+    private static void appendNesting(StringBuilder sb, Random random, int repeats, int depth) {
+        for (int r = 0; r < repeats; r++) {
+            // nested lists alternating bullet and ordered items
+            for (int d = 0; d < depth; d++) {
+                appendIndent(sb, d);
+                sb.append(d % 2 == 0 ? "- " : "1. ");
+                appendInline(sb, random, 4 + random.nextInt(8));
+                sb.append('\n');
+                if (random.nextBoolean()) {
+                    sb.append('\n');
+                    appendIndent(sb, d + 1);
+                    appendInline(sb, random, 6);
+                    sb.append("\n\n");
+                }
+            }
+            sb.append('\n');
+
+            // nested block quotes with lists inside
+            for (int d = 1; d <= depth; d++) {
+                appendRepeated(sb, "> ", d);
+                appendInline(sb, random, 6 + random.nextInt(6));
+                sb.append('\n');
+                appendRepeated(sb, "> ", d);
+                sb.append("* ");
+                appendWords(sb, random, 4);
+                sb.append('\n');
+            }
+            sb.append('\n');
+
+            // deeply nested emphasis
+            for (int d = 0; d < depth; d++) {
+                sb.append(d % 2 == 0 ? "*" : "_");
+                sb.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            for (int d = depth; d-- > 0; ) {
+                sb.append(d % 2 == 0 ? "*" : "_");
+            }
+            sb.append("\n\n");
+        }
+    }
+
+    private static void appendLinks(StringBuilder sb, Random random, int paragraphs, int references) {
+        for (int p = 0; p < paragraphs; p++) {
+            for (int i = 0; i < 8; i++) {
+                int ref = random.nextInt(references);
+                switch (random.nextInt(6)) {
+                    case 0:
+                        sb.append("[inline link ").append(ref).append("](http://example.com/path/").append(ref).append(" \"Title ").append(ref).append("\")");
+                        break;
+                    case 1:
+                        sb.append("[full reference][ref").append(ref).append(']');
+                        break;
+                    case 2:
+                        sb.append("[ref").append(ref).append(']');
+                        break;
+                    case 3:
+                        sb.append("![image ").append(ref).append("](images/image-").append(ref).append(".png)");
+                        break;
+                    case 4:
+                        sb.append("<http://example.com/auto/").append(ref).append('>');
+                        break;
+                    default:
+                        sb.append("https://www.example.com/bare/").append(ref);
+                        break;
+                }
+                sb.append(' ');
+                appendWords(sb, random, 1 + random.nextInt(4));
+                sb.append(' ');
+            }
+            sb.append("\n\n");
+        }
+
+        for (int i = 0; i < references; i++) {
+            sb.append("[ref").append(i).append("]: http://example.com/reference/").append(i).append(" \"Reference ").append(i).append("\"\n");
+        }
+    }
+
+    private static void appendEmoji(StringBuilder sb, Random random, int paragraphs) {
+        for (int p = 0; p < paragraphs; p++) {
+            for (int i = 0; i < 10; i++) {
+                sb.append(':').append(EMOJI_SHORTCUTS[random.nextInt(EMOJI_SHORTCUTS.length)]).append(": ");
+                appendWords(sb, random, random.nextInt(3));
+                if (random.nextInt(6) == 0) {
+                    // colons that are not emoji
+                    sb.append(" 12:30 a:b ");
+                }
+                sb.append(' ');
+            }
+            sb.append("\n\n");
+        }
+    }
+
+    private static void appendCodeFences(StringBuilder sb, Random random, int fences, int lines) {
+        for (int f = 0; f < fences; f++) {
+            String fence = f % 2 == 0 ? "```" : "~~~~";
+            sb.append(fence).append(LANGUAGES[f % LANGUAGES.length]).append('\n');
+            for (int l = 0; l < lines; l++) {
+                appendIndent(sb, random.nextInt(4));
+                sb.append("int ");
+                appendWords(sb, random, 1);
+                sb.append(l).append(" = <").append(l).append("> & ");
+                appendWords(sb, random, 2 + random.nextInt(6));
+                sb.append("; // *not* _emphasis_ [not](link)\n");
+            }
+            sb.append(fence).append("\n\n");
+            appendInline(sb, random, 20);
+            sb.append("\n\n");
+        }
+    }
+
+    private static void appendMixed(StringBuilder sb, Random random) {
+        sb.append("---\ntitle: Mixed Corpus\ntags: [benchmark, flexmark]\n---\n\n");
+        sb.append("[TOC]: # \"Contents\"\n\n");
+
+        for (int s = 0; s < 60; s++) {
+            sb.append("# Section ").append(s + 1).append(" {#section-").append(s + 1).append("}\n\n");
+
+            appendInline(sb, random, 30);
+            sb.append(" ~~struck~~ ++inserted++ ^super^ ~sub~ HTML and CSS [^note").append(s).append("] ");
+            sb.append(":smile: @user").append(s).append(" #").append(s + 100).append(" [[Wiki Page ").append(s).append("]] ");
+            sb.append("\"quoted\" -- dashes... \\*escaped\\*\n\n");
+
+            sb.append("- [ ] open task\n- [x] done task\n    1. nested item\n    2. nested item\n\n");
+
+            sb.append("Term ").append(s).append("\n: definition of ");
+            appendWords(sb, random, 6);
+            sb.append("\n\n");
+
+            sb.append("!!! note \"Admonition ").append(s).append("\"\n    ");
+            appendInline(sb, random, 12);
+            sb.append("\n\n");
+
+            sb.append("| Name | Value |\n|:-----|------:|\n");
+            for (int r = 0; r < 6; r++) {
+                sb.append("| ");
+                appendWords(sb, random, 2);
+                sb.append(" | ").append(random.nextInt(10000)).append(" |\n");
+            }
+            sb.append('\n');
+
+            sb.append("```java\nclass Section").append(s).append(" {\n    int value = ").append(s).append(";\n}\n```\n\n");
+
+            sb.append("> ");
+            appendInline(sb, random, 16);
+            sb.append("\n\n");
+
+            sb.append("[^note").append(s).append("]: footnote text ");
+            appendWords(sb, random, 8);
+            sb.append("\n\n");
+        }
+
+        sb.append("*[HTML]: Hyper Text Markup Language\n*[CSS]: Cascading Style Sheets\n");
+    }
+
+    private static void appendIndent(StringBuilder sb, int level) {
+        appendRepeated(sb, "    ", level);
+    }
+
+    private static void appendRepeated(StringBuilder sb, String text, int count) {
+        for (int i = 0; i < count; i++) {
+            sb.append(text);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.vladsch.flexmark.benchmarks;
+
+import com.vladsch.flexmark.docx.converter.DocxRenderer;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.ast.Node;
+import com.vladsch.flexmark.util.options.DataHolder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class DocxRendererBenchmark {
+    @Param
+    public Corpus corpus;
+
+    private Node document;
+    private DocxRenderer renderer;
+
+    @Setup
+    public void setup() {
+        DataHolder options = Benchmarks.fullPipelineOptions();
+        document = Parser.builder(options).build().parse(corpus.getMarkdown());
+        renderer = DocxRenderer.builder(options).build();
+    }
+
+    @Benchmark
+    public String render() {
+        return renderer.render(document);
+    }
+}
@@ -0,0 +1,55 @@
+package com.vladsch.flexmark.benchmarks;
+
+import com.vladsch.flexmark.formatter.Formatter;
+import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.ast.Node;
+import com.vladsch.flexmark.util.options.DataHolder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Each extension enabled on its own, measured over the mixed corpus which contains syntax for most extensions
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class ExtensionBenchmark {
+    @Param
+    public BenchmarkExtension extension;
+
+    private String markdown;
+    private Parser parser;
+    private Node document;
+    private HtmlRenderer renderer;
+    private Formatter formatter;
+
+    @Setup
+    public void setup() {
+        DataHolder options = Benchmarks.extensionOptions(extension);
+        markdown = Corpus.MIXED.getMarkdown();
+        parser = Parser.builder(options).build();
+        document = parser.parse(markdown);
+        renderer = HtmlRenderer.builder(options).build();
+        formatter = Formatter.builder(options).build();
+    }
+
+    @Benchmark
+    public Node parse() {
+        return parser.parse(markdown);
+    }
+
+    @Benchmark
+    public String renderHtml() {
+        return renderer.render(document);
+    }
+
+    @Benchmark
+    public String renderMarkdown() {
+        return formatter.render(document);
+    }
+}
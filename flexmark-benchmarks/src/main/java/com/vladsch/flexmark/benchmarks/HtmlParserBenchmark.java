@@ -0,0 +1,36 @@
+package com.vladsch.flexmark.benchmarks;
+
+import com.vladsch.flexmark.convert.html.FlexmarkHtmlParser;
+import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.options.DataHolder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * HTML to Markdown conversion of the HTML rendered for each corpus
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class HtmlParserBenchmark {
+    @Param
+    public Corpus corpus;
+
+    private String html;
+
+    @Setup
+    public void setup() {
+        DataHolder options = Benchmarks.fullPipelineOptions();
+        html = HtmlRenderer.builder(options).build().render(Parser.builder(options).build().parse(corpus.getMarkdown()));
+    }
+
+    @Benchmark
+    public String parse() {
+        return FlexmarkHtmlParser.parse(html);
+    }
+}
@@ -0,0 +1,39 @@
+package com.vladsch.flexmark.benchmarks;
+
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.ast.Node;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class ParserBenchmark {
+    @Param
+    public Corpus corpus;
+
+    private String markdown;
+    private Parser commonMarkParser;
+    private Parser fullParser;
+
+    @Setup
+    public void setup() {
+        markdown = corpus.getMarkdown();
+        commonMarkParser = Parser.builder().build();
+        fullParser = Parser.builder(Benchmarks.fullPipelineOptions()).build();
+    }
+
+    @Benchmark
+    public Node commonMark() {
+        return commonMarkParser.parse(markdown);
+    }
+
+    @Benchmark
+    public Node fullPipeline() {
+        return fullParser.parse(markdown);
+    }
+}
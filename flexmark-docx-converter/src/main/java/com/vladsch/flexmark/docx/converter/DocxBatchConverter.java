@@ -0,0 +1,250 @@
+package com.vladsch.flexmark.docx.converter;
+
+import com.vladsch.flexmark.docx.converter.util.DocxTemplate;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.BatchExecutor;
+import com.vladsch.flexmark.util.Consumer;
+import com.vladsch.flexmark.util.Function;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.options.DataHolder;
+import com.vladsch.flexmark.util.options.DataKey;
+import com.vladsch.flexmark.util.sequence.BasedSequenceImpl;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Converts markdown documents to docx files on a bounded pool of worker threads
+ * <p>
+ * Each job is parsed, rendered into a copy of the template and saved to its target file by a worker thread, the package
+ * is not kept once saved. The parser, renderer and template are shared by all workers, they are immutable and
+ * thread-safe, as is the renderer's {@link DocxRenderer#IMAGE_CACHE}.
+ * <p>
+ * Jobs are scheduled by a {@link BatchExecutor}, results are passed to the result handler on the thread calling
+ * {@link #convert(Iterator, ResultHandler)} in completion order.
+ */
+public class DocxBatchConverter {
+    public static final DataKey<Integer> BATCH_THREADS = BatchExecutor.BATCH_THREADS;
+    public static final DataKey<String> BATCH_TEMPLATE = new DataKey<>("BATCH_TEMPLATE", "/empty.xml"); // template resource path
+
+    private final Parser parser;
+    private final DocxRenderer renderer;
+    private final DocxTemplate template;
+    private final BatchExecutor executor;
+
+    /**
+     * Create a batch converter with parser and renderer built from options
+     *
+     * @param options parser, renderer and batch options
+     * @throws Docx4JException if thrown while loading the template
+     */
+    public DocxBatchConverter(DataHolder options) throws Docx4JException {
+        this(Parser.builder(options).build(), DocxRenderer.builder(options).build(), DocxRenderer.getTemplate(BATCH_TEMPLATE.getFrom(options)), BATCH_THREADS.getFrom(options));
+    }
+
+    /**
+     * @param parser   parser for jobs
+     * @param renderer renderer for jobs
+     * @param template template of the jobs' packages
+     * @param threads  number of worker threads, 0 or less for number of available processors
+     */
+    public DocxBatchConverter(Parser parser, DocxRenderer renderer, DocxTemplate template, int threads) {
+        this.parser = parser;
+        this.renderer = renderer;
+        this.template = template;
+        this.executor = new BatchExecutor(threads);
+    }
+
+    public int getThreads() {
+        return executor.getThreads();
+    }
+
+    /**
+     * Convert jobs, collecting their results
+     *
+     * @param jobs jobs to convert
+     * @return results of all jobs in completion order
+     * @throws InterruptedException if interrupted while waiting for jobs to complete, pending jobs are cancelled
+     */
+    public List<Result> convert(Iterable<Job> jobs) throws InterruptedException {
+        final ArrayList<Result> results = new ArrayList<Result>();
+        convert(jobs.iterator(), new ResultHandler() {
+            @Override
+            public void handle(Result result) {
+                results.add(result);
+            }
+        });
+        return results;
+    }
+
+    /**
+     * Convert jobs, passing each job's result to the handler as it completes
+     * <p>
+     * A job's failure does not affect other jobs, it is reported in its result. An exception thrown by the handler
+     * cancels pending jobs and is propagated.
+     *
+     * @param jobs    jobs to convert, taken as workers become available
+     * @param handler handler of results, called on this thread
+     * @throws InterruptedException if interrupted while waiting for jobs to complete, pending jobs are cancelled
+     */
+    public void convert(Iterator<Job> jobs, final ResultHandler handler) throws InterruptedException {
+        executor.execute(jobs, new Function<Job, Result>() {
+            @Override
+            public Result apply(Job job) {
+                return convert(job);
+            }
+        }, new Consumer<Result>() {
+            @Override
+            public void accept(Result result) {
+                handler.handle(result);
+            }
+        });
+    }
+
+    /**
+     * Convert a single job on the calling thread
+     *
+     * @param job job to convert
+     * @return result of the job
+     */
+    public Result convert(Job job) {
+        long start = System.nanoTime();
+        long parseNanos = 0;
+        long renderNanos = 0;
+        long saveNanos = 0;
+        Throwable failure = null;
+
+        try {
+            final Document document = job.source != null ? parser.parseFile(job.source, job.charset) : parser.parse(BasedSequenceImpl.of(job.text));
+            long parsed = System.nanoTime();
+            parseNanos = parsed - start;
+
+            final WordprocessingMLPackage mlPackage = template.copy();
+            renderer.render(document, mlPackage);
+            long rendered = System.nanoTime();
+            renderNanos = rendered - parsed;
+
+            mlPackage.save(job.target);
+            saveNanos = System.nanoTime() - rendered;
+        } catch (Throwable t) {
+            failure = t;
+        }
+
+        return new Result(job, parseNanos, renderNanos, saveNanos, System.nanoTime() - start, failure);
+    }
+
+    /**
+     * Markdown source and docx target file of a conversion
+     */
+    public static class Job {
+        final Path source;
+        final Charset charset;
+        final CharSequence text;
+        final File target;
+
+        /**
+         * @param source  markdown file
+         * @param charset charset of the markdown file
+         * @param target  docx file
+         */
+        public Job(Path source, Charset charset, File target) {
+            this.source = source;
+            this.charset = charset;
+            this.text = null;
+            this.target = target;
+        }
+
+        /**
+         * @param text   markdown text
+         * @param target docx file
+         */
+        public Job(CharSequence text, File target) {
+            this.source = null;
+            this.charset = null;
+            this.text = text;
+            this.target = target;
+        }
+
+        public Path getSource() {
+            return source;
+        }
+
+        public CharSequence getText() {
+            return text;
+        }
+
+        public File getTarget() {
+            return target;
+        }
+
+        @Override
+        public String toString() {
+            return (source != null ? source.toString() : "text") + " -> " + target;
+        }
+    }
+
+    /**
+     * Timing and failure of a job, times are in nanoseconds
+     */
+    public static class Result {
+        private final Job job;
+        private final long parseNanos;
+        private final long renderNanos;
+        private final long saveNanos;
+        private final long totalNanos;
+        private final Throwable failure;
+
+        Result(Job job, long parseNanos, long renderNanos, long saveNanos, long totalNanos, Throwable failure) {
+            this.job = job;
+            this.parseNanos = parseNanos;
+            this.renderNanos = renderNanos;
+            this.saveNanos = saveNanos;
+            this.totalNanos = totalNanos;
+            this.failure = failure;
+        }
+
+        public Job getJob() {
+            return job;
+        }
+
+        public long getParseNanos() {
+            return parseNanos;
+        }
+
+        /**
+         * @return time to copy the template and render the document into it
+         */
+        public long getRenderNanos() {
+            return renderNanos;
+        }
+
+        public long getSaveNanos() {
+            return saveNanos;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * @return exception or error which failed the job, null if the job succeeded
+         */
+        public Throwable getFailure() {
+            return failure;
+        }
+
+        public boolean isSuccess() {
+            return failure == null;
+        }
+    }
+
+    public interface ResultHandler {
+        void handle(Result result);
+    }
+}
@@ -7,8 +7,11 @@ import com.vladsch.flexmark.util.ast.AllNodesVisitor;
 import com.vladsch.flexmark.util.ast.Block;
 import com.vladsch.flexmark.util.ast.Document;
 import com.vladsch.flexmark.util.ast.Node;
+import com.vladsch.flexmark.util.ast.NodeTypeMap;
 import com.vladsch.flexmark.docx.converter.util.DocumentContentHandler;
 import com.vladsch.flexmark.docx.converter.util.DocxContextImpl;
+import com.vladsch.flexmark.docx.converter.util.DocxImageCache;
+import com.vladsch.flexmark.docx.converter.util.DocxTemplate;
 import com.vladsch.flexmark.docx.converter.util.XmlDocxSorter;
 import com.vladsch.flexmark.docx.converter.util.XmlFormatter;
 import com.vladsch.flexmark.ext.emoji.EmojiExtension;
@@ -45,6 +48,7 @@ public class DocxRenderer implements IRender {
 
     public static final DataKey<Boolean> RENDER_BODY_ONLY = new DataKey<>("RENDER_BODY_ONLY", false);
     public static final DataKey<Integer> MAX_IMAGE_WIDTH = new DataKey<>("MAX_IMAGE_WIDTH", 0);
+    public static final DataKey<DocxImageCache> IMAGE_CACHE = new DataKey<>("IMAGE_CACHE", (DocxImageCache) null); // loaded images shared by conversions, see LruDocxImageCache
 
     public static final DataKey<Boolean> DEFAULT_LINK_RESOLVER = new DataKey<>("DEFAULT_LINK_RESOLVER", true);
     public static final DataKey<String> DOC_RELATIVE_URL = new DataKey<>("DOC_RELATIVE_URL", "");
@@ -143,6 +147,8 @@ public class DocxRenderer implements IRender {
         }
     });
 
+    private static final HashMap<String, DocxTemplate> ourTemplates = new HashMap<String, DocxTemplate>(); // templates by resource path
+
     final List<NodeDocxRendererFactory> nodeFormatterFactories;
     //final DocxRendererOptions rendererOptions;
     private final DataHolder options;
@@ -153,7 +159,7 @@ public class DocxRenderer implements IRender {
 
     private DocxRenderer(Builder builder) {
         this.builder = new Builder(builder); // take a copy to avoid after creation side effects
-        this.options = new DataSet(builder);
+        this.options = new FrozenDataSet(builder);
         this.htmlIdGeneratorFactory = builder.htmlIdGeneratorFactory;
         //this.rendererOptions = new DocxRendererOptions(this.options);
         this.nodeFormatterFactories = new ArrayList<NodeDocxRendererFactory>(builder.nodeDocxRendererFactories.size() + 1);
@@ -199,9 +205,47 @@ public class DocxRenderer implements IRender {
         return getDefaultTemplate("/empty.xml");
     }
 
+    /**
+     * Get a new package for a template resource
+     * <p>
+     * The resource is loaded once and kept, following calls for the same resource copy the loaded template, see {@link DocxTemplate}.
+     *
+     * @param emptyXMLResourcePath resource path of the template's flat XML
+     * @return new package with the template's contents
+     */
     public static WordprocessingMLPackage getDefaultTemplate(String emptyXMLResourcePath) {
-        final InputStream inputStream = getResourceInputStream(emptyXMLResourcePath);
-        return getDefaultTemplate(inputStream);
+        try {
+            return getTemplate(emptyXMLResourcePath).copy();
+        } catch (Docx4JException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Get the template for a template resource, loading it on first use
+     *
+     * @param emptyXMLResourcePath resource path of the template's flat XML
+     * @return template shared by all users of the resource
+     * @throws Docx4JException if thrown while loading the template
+     */
+    public static DocxTemplate getTemplate(String emptyXMLResourcePath) throws Docx4JException {
+        synchronized (ourTemplates) {
+            DocxTemplate template = ourTemplates.get(emptyXMLResourcePath);
+            if (template == null) {
+                final InputStream inputStream = getResourceInputStream(emptyXMLResourcePath);
+                try {
+                    template = DocxTemplate.of(inputStream);
+                } finally {
+                    try {
+                        inputStream.close();
+                    } catch (IOException ignored) {
+                    }
+                }
+                ourTemplates.put(emptyXMLResourcePath, template);
+            }
+            return template;
+        }
     }
 
     public static WordprocessingMLPackage getDefaultTemplate(InputStream inputStream) {
@@ -519,7 +563,7 @@ public class DocxRenderer implements IRender {
 
     private class MainDocxRenderer extends DocxContextImpl<Node> implements DocxRendererContext {
         private final Document document;
-        private final Map<Class<?>, NodeDocxRendererHandler> renderers;
+        private final NodeTypeMap<NodeDocxRendererHandler> renderers;
         private final SubClassingBag<Node> collectedNodes;
         final HashSet<Class<?>> bookmarkWrapsChildren;
 
@@ -541,7 +585,7 @@ public class DocxRenderer implements IRender {
             super(out, new ScopedDataSet(document, options));
             rendererOptions = this.myRendererOptions;
             this.document = document;
-            this.renderers = new HashMap<Class<?>, NodeDocxRendererHandler>(32);
+            this.renderers = new NodeTypeMap<NodeDocxRendererHandler>(32);
             this.renderingPhases = new HashSet<DocxRendererPhase>(DocxRendererPhase.values().length);
             final Set<Class> collectNodeTypes = new HashSet<Class>(100);
             this.phasedFormatters = new ArrayList<PhasedNodeDocxRenderer>(nodeFormatterFactories.size());
@@ -822,7 +866,7 @@ public class DocxRenderer implements IRender {
                     this.phase = phase;
                     // here we render multiple phases
                     if (this.phase == DocxRendererPhase.DOCUMENT) {
-                        NodeDocxRendererHandler nodeRenderer = renderers.get(node.getClass());
+                        NodeDocxRendererHandler nodeRenderer = renderers.get(node);
                         if (nodeRenderer != null) {
                             renderingNode = node;
                             nodeRenderer.render(node, this);
@@ -840,7 +884,7 @@ public class DocxRenderer implements IRender {
                     }
                 }
             } else {
-                NodeDocxRendererHandler nodeRenderer = renderers.get(node.getClass());
+                NodeDocxRendererHandler nodeRenderer = renderers.get(node);
 
                 if (nodeRenderer == null) {
                     nodeRenderer = renderers.get(Node.class);
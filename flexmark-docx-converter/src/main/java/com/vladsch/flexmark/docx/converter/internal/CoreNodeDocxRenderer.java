@@ -96,6 +96,8 @@ public class CoreNodeDocxRenderer implements PhasedNodeDocxRenderer {
     protected final int tableLeftIndent;
     protected final String tableStyle;
     private int imageId;
+    private final DocxImageCache imageCache;
+    private final HashMap<Part, HashMap<String, BinaryPartAbstractImage>> imageParts; // image parts of this document by container part and image key
     private final HashMap<Node, BigInteger> footnoteIDs; // cannot re-use footnote ids, so this is dead code, left in for future if needed
     private TocBlockBase lastTocBlock;
     private long[] numberedLists = new long[128];
@@ -141,6 +143,8 @@ public class CoreNodeDocxRenderer implements PhasedNodeDocxRenderer {
         options1.set(EmojiExtension.ROOT_IMAGE_PATH, DocxRenderer.DOC_EMOJI_ROOT_IMAGE_PATH.getFrom(options));
         emojiOptions = new EmojiOptions(options1);
         headerIdGenerator = new HeaderIdGenerator.Factory().create();
+        imageCache = DocxRenderer.IMAGE_CACHE.getFrom(options);
+        imageParts = new HashMap<Part, HashMap<String, BinaryPartAbstractImage>>();
     }
 
     @Override
@@ -1152,8 +1156,17 @@ public class CoreNodeDocxRenderer implements PhasedNodeDocxRenderer {
 
     public R newImage(final DocxRendererContext docx, byte[] bytes, String filenameHint, Attributes attributes, int id1, int id2) {
         try {
-            BinaryPartAbstractImage imagePart = null;
-            imagePart = BinaryPartAbstractImage.createImagePart(docx.getPackage(), docx.getContainerPart(), bytes);
+            BinaryPartAbstractImage imagePart = BinaryPartAbstractImage.createImagePart(docx.getPackage(), docx.getContainerPart(), bytes);
+            return newImage(docx, imagePart, filenameHint, attributes, id1, id2);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+
+    public R newImage(final DocxRendererContext docx, BinaryPartAbstractImage imagePart, String filenameHint, Attributes attributes, int id1, int id2) {
+        try {
             Inline inline = null;
             String altText = attributes.contains("alt") ? attributes.getValue("alt") : "";
             List<SectionWrapper> sections = docx.getPackage().getDocumentModel().getSections();
@@ -1353,7 +1366,7 @@ public class CoreNodeDocxRenderer implements PhasedNodeDocxRenderer {
     }
 
     private R renderImage(final DocxRendererContext docx, String url, final Attributes attributes) {
-        BufferedImage image = null;
+        DocxImage image = null;
         int id1 = imageId++;
         int id2 = imageId++;
         String filenameHint = String.format("Image%d", id1 / 2 + 1);
@@ -1365,22 +1378,39 @@ public class CoreNodeDocxRenderer implements PhasedNodeDocxRenderer {
             int tmp = 0;
         }
 
+        // cached bytes are the unscaled image, the maximum width is applied to the drawing of each use
+        String imageKey = url;
+
         if (url.startsWith("http:") || url.startsWith("https:") || url.startsWith("file:")) {
             // hyperlinked image  or file
-            if (url.startsWith("file:")) {
-                // try to load from file, from URL fails on some images while file load succeeds
-                try {
-                    File imageFile = new File(new URI(url));
-                    image = ImageUtils.loadImageFromFile(imageFile);
-                } catch (URISyntaxException e) {
-                    e.printStackTrace();
-                }
-            } else {
-                image = ImageUtils.loadImageFromURL(url, options.logImageProcessing);
+            if (imageCache != null) {
+                image = imageCache.get(imageKey);
             }
 
-            if (image == null && options.logImageProcessing) {
-                System.out.println("loadImageFromURL(" + url + ") returned null");
+            if (image == null) {
+                BufferedImage bufferedImage = null;
+                if (url.startsWith("file:")) {
+                    // try to load from file, from URL fails on some images while file load succeeds
+                    try {
+                        File imageFile = new File(new URI(url));
+                        bufferedImage = ImageUtils.loadImageFromFile(imageFile);
+                    } catch (URISyntaxException e) {
+                        e.printStackTrace();
+                    }
+                } else {
+                    bufferedImage = ImageUtils.loadImageFromURL(url, options.logImageProcessing);
+                }
+
+                if (bufferedImage == null) {
+                    if (options.logImageProcessing) {
+                        System.out.println("loadImageFromURL(" + url + ") returned null");
+                    }
+                } else {
+                    image = new DocxImage(ImageUtils.getImageBytes(bufferedImage), bufferedImage.getWidth(), bufferedImage.getHeight());
+                    if (imageCache != null) {
+                        imageCache.put(imageKey, image);
+                    }
+                }
             }
         } else if (options.logImageProcessing) {
             System.out.println("renderImage of \"" + url + "\") skipped (not file:, http: or https:)");
@@ -1393,8 +1423,24 @@ public class CoreNodeDocxRenderer implements PhasedNodeDocxRenderer {
                 attributes.replaceValue("width", String.valueOf(cx));
             }
 
-            byte[] imageBytes = ImageUtils.getImageBytes(image);
-            return newImage(docx, imageBytes, filenameHint, attributes, id1, id2);
+            // identical images of a container part share the image part
+            HashMap<String, BinaryPartAbstractImage> containerImageParts = imageParts.get(docx.getContainerPart());
+            if (containerImageParts == null) {
+                containerImageParts = new HashMap<String, BinaryPartAbstractImage>();
+                imageParts.put(docx.getContainerPart(), containerImageParts);
+            }
+
+            BinaryPartAbstractImage imagePart = containerImageParts.get(imageKey);
+            if (imagePart == null) {
+                try {
+                    imagePart = BinaryPartAbstractImage.createImagePart(docx.getPackage(), docx.getContainerPart(), image.getBytes());
+                    containerImageParts.put(imageKey, imagePart);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    return null;
+                }
+            }
+            return newImage(docx, imagePart, filenameHint, attributes, id1, id2);
         }
         return null;
     }
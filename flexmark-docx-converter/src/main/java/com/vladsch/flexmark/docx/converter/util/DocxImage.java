@@ -0,0 +1,31 @@
+package com.vladsch.flexmark.docx.converter.util;
+
+/**
+ * Image loaded for a docx document: PNG bytes of the decoded image and its size in pixels
+ */
+public class DocxImage {
+    private final byte[] bytes;
+    private final int width;
+    private final int height;
+
+    public DocxImage(byte[] bytes, int width, int height) {
+        this.bytes = bytes;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * @return image bytes, must not be modified
+     */
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,24 @@
+package com.vladsch.flexmark.docx.converter.util;
+
+/**
+ * Cache of loaded images shared by docx conversions, see {@link com.vladsch.flexmark.docx.converter.DocxRenderer#IMAGE_CACHE}
+ * <p>
+ * Implementations must be safe for use by concurrent conversions.
+ */
+public interface DocxImageCache {
+    /**
+     * Get a cached image
+     *
+     * @param key image key, resolved image URL
+     * @return cached image or null if not cached
+     */
+    DocxImage get(String key);
+
+    /**
+     * Add an image to the cache
+     *
+     * @param key   image key
+     * @param image loaded image
+     */
+    void put(String key, DocxImage image);
+}
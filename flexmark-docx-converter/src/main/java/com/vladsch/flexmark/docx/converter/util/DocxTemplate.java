@@ -0,0 +1,112 @@
+package com.vladsch.flexmark.docx.converter.util;
+
+import org.docx4j.XmlUtils;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.openpackaging.parts.WordprocessingML.MainDocumentPart;
+import org.docx4j.openpackaging.parts.WordprocessingML.NumberingDefinitionsPart;
+import org.docx4j.openpackaging.parts.WordprocessingML.StyleDefinitionsPart;
+import org.docx4j.openpackaging.parts.relationships.Namespaces;
+import org.docx4j.openpackaging.parts.relationships.RelationshipsPart;
+import org.docx4j.relationships.Relationship;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Word processing package template loaded once and copied for every conversion
+ * <p>
+ * Loading a template parses its flat XML and unmarshals all its parts. A template consisting only of the main document,
+ * styles and numbering parts is instead copied from the loaded prototype, which only copies these parts' content.
+ * Templates with other parts are loaded from the template's source for every copy.
+ * <p>
+ * The prototype is never modified, copies are independent of it and of each other and can be freely modified
+ * by conversions.
+ */
+public class DocxTemplate {
+    private final byte[] source;
+    private final WordprocessingMLPackage prototype;
+
+    private DocxTemplate(byte[] source, WordprocessingMLPackage prototype) {
+        this.source = source;
+        this.prototype = prototype;
+    }
+
+    /**
+     * @return new package with the contents of the template
+     * @throws Docx4JException if thrown while loading or copying the template
+     */
+    public WordprocessingMLPackage copy() throws Docx4JException {
+        if (prototype == null) {
+            return WordprocessingMLPackage.load(new ByteArrayInputStream(source));
+        }
+
+        final MainDocumentPart protoDocumentPart = prototype.getMainDocumentPart();
+        final WordprocessingMLPackage mlPackage = new WordprocessingMLPackage();
+        final MainDocumentPart documentPart = new MainDocumentPart();
+        documentPart.setJaxbElement(XmlUtils.deepCopy(protoDocumentPart.getJaxbElement()));
+        mlPackage.addTargetPart(documentPart);
+
+        // same order as in the template so relationship ids are the same as for a loaded template
+        for (Relationship relationship : protoDocumentPart.getRelationshipsPart().getRelationships().getRelationship()) {
+            if (relationship.getType().equals(Namespaces.STYLES)) {
+                final StyleDefinitionsPart stylesPart = new StyleDefinitionsPart();
+                stylesPart.setJaxbElement(XmlUtils.deepCopy(protoDocumentPart.getStyleDefinitionsPart().getJaxbElement()));
+                documentPart.addTargetPart(stylesPart, RelationshipsPart.AddPartBehaviour.OVERWRITE_IF_NAME_EXISTS, relationship.getId());
+            } else {
+                final NumberingDefinitionsPart numberingPart = new NumberingDefinitionsPart();
+                numberingPart.setJaxbElement(XmlUtils.deepCopy(protoDocumentPart.getNumberingDefinitionsPart().getJaxbElement()));
+                documentPart.addTargetPart(numberingPart, RelationshipsPart.AddPartBehaviour.OVERWRITE_IF_NAME_EXISTS, relationship.getId());
+            }
+        }
+        return mlPackage;
+    }
+
+    /**
+     * Load a template
+     *
+     * @param inputStream stream of the template's flat XML or docx, the stream is read fully but not closed
+     * @return template
+     * @throws Docx4JException if thrown while reading or loading the template
+     */
+    public static DocxTemplate of(InputStream inputStream) throws Docx4JException {
+        final byte[] source;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[16384];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                bytes.write(buffer, 0, read);
+            }
+            source = bytes.toByteArray();
+        } catch (IOException e) {
+            throw new Docx4JException("Error reading template", e);
+        }
+
+        final WordprocessingMLPackage prototype = WordprocessingMLPackage.load(new ByteArrayInputStream(source));
+        return new DocxTemplate(source, isCopyable(prototype) ? prototype : null);
+    }
+
+    private static boolean isCopyable(WordprocessingMLPackage mlPackage) {
+        final MainDocumentPart documentPart = mlPackage.getMainDocumentPart();
+        if (documentPart == null || documentPart.getJaxbElement() == null) return false;
+        if (mlPackage.getRelationshipsPart().getRelationships().getRelationship().size() != 1) return false;
+
+        final RelationshipsPart relationshipsPart = documentPart.getRelationshipsPart();
+        if (relationshipsPart == null) return false;
+
+        int styles = 0;
+        int numbering = 0;
+        for (Relationship relationship : relationshipsPart.getRelationships().getRelationship()) {
+            if (relationship.getType().equals(Namespaces.STYLES)) styles++;
+            else if (relationship.getType().equals(Namespaces.NUMBERING)) numbering++;
+            else return false;
+        }
+
+        return styles == 1 && numbering == 1
+                && documentPart.getStyleDefinitionsPart() != null && documentPart.getStyleDefinitionsPart().getJaxbElement() != null
+                && documentPart.getNumberingDefinitionsPart() != null && documentPart.getNumberingDefinitionsPart().getJaxbElement() != null;
+    }
+}
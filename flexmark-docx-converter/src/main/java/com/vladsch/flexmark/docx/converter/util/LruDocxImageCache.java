@@ -0,0 +1,68 @@
+package com.vladsch.flexmark.docx.converter.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Image cache bounded by the total size of cached image bytes, least recently used images are removed first
+ */
+public class LruDocxImageCache implements DocxImageCache {
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, DocxImage> images;
+    private long totalBytes;
+
+    public LruDocxImageCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * @param maxBytes maximum total size of image bytes kept in the cache, an image larger than this is not cached
+     */
+    public LruDocxImageCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.images = new LinkedHashMap<String, DocxImage>(16, 0.75f, true);
+        this.totalBytes = 0;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int size() {
+        return images.size();
+    }
+
+    public synchronized void clear() {
+        images.clear();
+        totalBytes = 0;
+    }
+
+    @Override
+    public synchronized DocxImage get(String key) {
+        return images.get(key);
+    }
+
+    @Override
+    public synchronized void put(String key, DocxImage image) {
+        int length = image.getBytes().length;
+        if (length > maxBytes) return;
+
+        DocxImage previous = images.put(key, image);
+        if (previous != null) totalBytes -= previous.getBytes().length;
+        totalBytes += length;
+
+        Iterator<Map.Entry<String, DocxImage>> iterator = images.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, DocxImage> eldest = iterator.next();
+            totalBytes -= eldest.getValue().getBytes().length;
+            iterator.remove();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.vladsch.flexmark.docx.converter;
+
+import com.vladsch.flexmark.util.options.MutableDataSet;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DocxBatchConverterTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void test_batch() throws Exception {
+        DocxBatchConverter converter = new DocxBatchConverter(new MutableDataSet().set(DocxBatchConverter.BATCH_THREADS, 2));
+        File source = folder.newFile("source.md");
+        Files.write(source.toPath(), "# File Heading\n\nfile paragraph\n".getBytes("UTF-8"));
+
+        ArrayList<DocxBatchConverter.Job> jobs = new ArrayList<DocxBatchConverter.Job>();
+        for (int i = 0; i < 10; i++) {
+            jobs.add(new DocxBatchConverter.Job("# Heading " + i + "\n\n* item " + i + "\n", new File(folder.getRoot(), "text" + i + ".docx")));
+        }
+        jobs.add(new DocxBatchConverter.Job(source.toPath(), Charset.forName("UTF-8"), new File(folder.getRoot(), "source.docx")));
+        jobs.add(new DocxBatchConverter.Job("# Heading\n", new File(folder.getRoot(), "missing/failed.docx")));
+
+        List<DocxBatchConverter.Result> results = converter.convert(jobs);
+        assertEquals(jobs.size(), results.size());
+
+        HashSet<DocxBatchConverter.Job> converted = new HashSet<DocxBatchConverter.Job>();
+        for (DocxBatchConverter.Result result : results) {
+            converted.add(result.getJob());
+            if (result.getJob().getTarget().getParentFile().equals(folder.getRoot())) {
+                assertTrue(result.getJob().toString(), result.isSuccess());
+                assertTrue(result.getTotalNanos() >= result.getParseNanos() + result.getRenderNanos() + result.getSaveNanos());
+                assertTrue(result.getJob().getTarget().length() > 0);
+            } else {
+                assertFalse(result.isSuccess());
+                assertNotNull(result.getFailure());
+            }
+        }
+        assertEquals(jobs.size(), converted.size());
+
+        String text = WordprocessingMLPackage.load(new File(folder.getRoot(), "text3.docx")).getMainDocumentPart().getXML();
+        assertTrue(text.contains("Heading 3"));
+        assertTrue(text.contains("item 3"));
+        assertFalse(text.contains("Heading 4"));
+
+        String file = WordprocessingMLPackage.load(new File(folder.getRoot(), "source.docx")).getMainDocumentPart().getXML();
+        assertTrue(file.contains("file paragraph"));
+    }
+}
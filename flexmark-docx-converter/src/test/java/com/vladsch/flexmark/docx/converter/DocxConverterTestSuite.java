@@ -11,6 +11,9 @@ import org.junit.runners.Suite;
         ComboEnDocxConverterSpec2Test.class,
         ComboDeDocxConverterSpec2Test.class,
         ComboDocxConverterIssuesSpecTest.class,
+        DocxBatchConverterTest.class,
+        DocxImageCacheTest.class,
+        DocxTemplateTest.class,
         //ComboDocxUserSpecDisabled.class, // added to test suite so it runs locally but not  on the travis
 })
 public class DocxConverterTestSuite {
@@ -0,0 +1,152 @@
+package com.vladsch.flexmark.docx.converter;
+
+import com.vladsch.flexmark.docx.converter.util.DocxImage;
+import com.vladsch.flexmark.docx.converter.util.DocxImageCache;
+import com.vladsch.flexmark.docx.converter.util.LruDocxImageCache;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.options.DataHolder;
+import com.vladsch.flexmark.util.options.MutableDataSet;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.openpackaging.parts.Part;
+import org.docx4j.openpackaging.parts.PartName;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class DocxImageCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static DocxImage image(int length) {
+        return new DocxImage(new byte[length], 1, 1);
+    }
+
+    @Test
+    public void test_evictLeastRecentlyUsed() {
+        LruDocxImageCache cache = new LruDocxImageCache(10);
+        DocxImage a = image(4);
+        DocxImage b = image(4);
+        DocxImage c = image(4);
+
+        cache.put("a", a);
+        cache.put("b", b);
+        assertEquals(8, cache.getTotalBytes());
+
+        // a is used after b so b is the least recently used when c does not fit
+        assertSame(a, cache.get("a"));
+        cache.put("c", c);
+
+        assertEquals(2, cache.size());
+        assertEquals(8, cache.getTotalBytes());
+        assertSame(a, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertSame(c, cache.get("c"));
+
+        // replaced image is no longer counted
+        cache.put("a", image(2));
+        assertEquals(6, cache.getTotalBytes());
+    }
+
+    @Test
+    public void test_rejectLargerThanMaxBytes() {
+        LruDocxImageCache cache = new LruDocxImageCache(10);
+        DocxImage a = image(4);
+        cache.put("a", a);
+
+        cache.put("large", image(11));
+        assertNull(cache.get("large"));
+        assertSame(a, cache.get("a"));
+        assertEquals(4, cache.getTotalBytes());
+
+        cache.put("max", image(10));
+        assertNotNull(cache.get("max"));
+        assertNull(cache.get("a"));
+        assertEquals(10, cache.getTotalBytes());
+    }
+
+    @Test
+    public void test_conversionUsesCachedImage() throws Exception {
+        File imageFile = newImageFile("image.png");
+        CountingImageCache cache = new CountingImageCache(new LruDocxImageCache());
+        DataHolder options = new MutableDataSet().set(DocxRenderer.IMAGE_CACHE, cache);
+        String markdown = "![image](" + imageFile.toURI() + ")\n";
+
+        WordprocessingMLPackage first = render(options, markdown);
+        assertEquals(1, imageParts(first));
+        assertEquals(1, cache.puts);
+
+        // image is no longer loadable, the second conversion gets it from the cache
+        assertTrue(imageFile.delete());
+        WordprocessingMLPackage second = render(options, markdown);
+        assertEquals(1, imageParts(second));
+        assertEquals(1, cache.puts);
+        assertEquals(1, cache.hits);
+    }
+
+    @Test
+    public void test_repeatedImagesShareImagePart() throws Exception {
+        File imageFile = newImageFile("image.png");
+        String markdown = "![first](" + imageFile.toURI() + ")\n\n![second](" + imageFile.toURI() + ")\n";
+
+        WordprocessingMLPackage mlPackage = render(new MutableDataSet(), markdown);
+        assertEquals(1, imageParts(mlPackage));
+
+        String xml = mlPackage.getMainDocumentPart().getXML();
+        int first = xml.indexOf("r:embed=\"");
+        assertTrue(first >= 0);
+        String embed = xml.substring(first, xml.indexOf('"', first + "r:embed=\"".length()));
+        assertTrue(xml.indexOf(embed, first + 1) > first);
+    }
+
+    private File newImageFile(String name) throws Exception {
+        File file = new File(folder.getRoot(), name);
+        BufferedImage image = new BufferedImage(4, 2, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(1, 1, 0xFF0000);
+        assertTrue(ImageIO.write(image, "png", file));
+        return file;
+    }
+
+    private static WordprocessingMLPackage render(DataHolder options, String markdown) {
+        WordprocessingMLPackage mlPackage = DocxRenderer.getDefaultTemplate();
+        DocxRenderer.builder(options).build().render(Parser.builder(options).build().parse(markdown), mlPackage);
+        return mlPackage;
+    }
+
+    private static int imageParts(WordprocessingMLPackage mlPackage) {
+        int count = 0;
+        for (Map.Entry<PartName, Part> entry : mlPackage.getParts().getParts().entrySet()) {
+            if (entry.getKey().getName().startsWith("/word/media/")) count++;
+        }
+        return count;
+    }
+
+    private static class CountingImageCache implements DocxImageCache {
+        final DocxImageCache cache;
+        int hits;
+        int puts;
+
+        CountingImageCache(DocxImageCache cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public synchronized DocxImage get(String key) {
+            DocxImage image = cache.get(key);
+            if (image != null) hits++;
+            return image;
+        }
+
+        @Override
+        public synchronized void put(String key, DocxImage image) {
+            puts++;
+            cache.put(key, image);
+        }
+    }
+}
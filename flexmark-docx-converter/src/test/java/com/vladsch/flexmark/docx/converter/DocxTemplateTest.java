@@ -0,0 +1,108 @@
+package com.vladsch.flexmark.docx.converter;
+
+import com.vladsch.flexmark.docx.converter.util.DocxTemplate;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.openpackaging.parts.WordprocessingML.DocumentSettingsPart;
+import org.docx4j.openpackaging.parts.WordprocessingML.MainDocumentPart;
+import org.docx4j.relationships.Relationship;
+import org.docx4j.wml.ObjectFactory;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+
+import static org.junit.Assert.*;
+
+public class DocxTemplateTest {
+    private static final String TEMPLATE = "/empty.xml";
+
+    private static DocxTemplate template() throws Exception {
+        InputStream inputStream = DocxRenderer.class.getResourceAsStream(TEMPLATE);
+        try {
+            return DocxTemplate.of(inputStream);
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    private static WordprocessingMLPackage load() throws Exception {
+        InputStream inputStream = DocxRenderer.class.getResourceAsStream(TEMPLATE);
+        try {
+            return WordprocessingMLPackage.load(inputStream);
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    private static LinkedHashMap<String, String> relationships(MainDocumentPart documentPart) {
+        LinkedHashMap<String, String> relationships = new LinkedHashMap<String, String>();
+        for (Relationship relationship : documentPart.getRelationshipsPart().getRelationships().getRelationship()) {
+            relationships.put(relationship.getId(), relationship.getType());
+        }
+        return relationships;
+    }
+
+    @Test
+    public void test_copiesIndependent() throws Exception {
+        DocxTemplate template = template();
+        MainDocumentPart loaded = load().getMainDocumentPart();
+
+        // changes to one copy are not seen by the following copies
+        MainDocumentPart changed = template.copy().getMainDocumentPart();
+        assertFalse(changed.getStyleDefinitionsPart().getJaxbElement().getStyle().isEmpty());
+        assertFalse(changed.getNumberingDefinitionsPart().getJaxbElement().getNum().isEmpty());
+        changed.getStyleDefinitionsPart().getJaxbElement().getStyle().clear();
+        changed.getNumberingDefinitionsPart().getJaxbElement().getNum().clear();
+        changed.getJaxbElement().getBody().getContent().add(new ObjectFactory().createP());
+
+        MainDocumentPart next = template.copy().getMainDocumentPart();
+        assertEquals(loaded.getStyleDefinitionsPart().getXML(), next.getStyleDefinitionsPart().getXML());
+        assertEquals(loaded.getNumberingDefinitionsPart().getXML(), next.getNumberingDefinitionsPart().getXML());
+        assertEquals(loaded.getXML(), next.getXML());
+    }
+
+    @Test
+    public void test_sharedTemplateCopiesIndependent() throws Exception {
+        // template of a resource is loaded once and shared by all conversions
+        assertSame(DocxRenderer.getTemplate(TEMPLATE), DocxRenderer.getTemplate(TEMPLATE));
+
+        WordprocessingMLPackage changed = DocxRenderer.getDefaultTemplate(TEMPLATE);
+        changed.getMainDocumentPart().getStyleDefinitionsPart().getJaxbElement().getStyle().clear();
+        changed.getMainDocumentPart().getNumberingDefinitionsPart().getJaxbElement().getNum().clear();
+
+        MainDocumentPart next = DocxRenderer.getDefaultTemplate(TEMPLATE).getMainDocumentPart();
+        assertEquals(load().getMainDocumentPart().getStyleDefinitionsPart().getXML(), next.getStyleDefinitionsPart().getXML());
+        assertEquals(load().getMainDocumentPart().getNumberingDefinitionsPart().getXML(), next.getNumberingDefinitionsPart().getXML());
+    }
+
+    @Test
+    public void test_relationshipIdsOfLoadedTemplate() throws Exception {
+        MainDocumentPart loaded = load().getMainDocumentPart();
+        MainDocumentPart copied = template().copy().getMainDocumentPart();
+
+        assertEquals(2, relationships(loaded).size());
+        assertEquals(relationships(loaded), relationships(copied));
+    }
+
+    @Test
+    public void test_otherPartsLoaded() throws Exception {
+        // template with a settings part cannot be copied part by part, it is loaded for every copy
+        WordprocessingMLPackage mlPackage = load();
+        DocumentSettingsPart settingsPart = new DocumentSettingsPart();
+        settingsPart.setJaxbElement(new ObjectFactory().createCTSettings());
+        mlPackage.getMainDocumentPart().addTargetPart(settingsPart);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        mlPackage.save(bytes);
+        DocxTemplate template = DocxTemplate.of(new ByteArrayInputStream(bytes.toByteArray()));
+
+        WordprocessingMLPackage first = template.copy();
+        WordprocessingMLPackage second = template.copy();
+        assertNotNull(first.getMainDocumentPart().getDocumentSettingsPart());
+        assertNotNull(first.getMainDocumentPart().getStyleDefinitionsPart());
+        assertNotSame(first.getMainDocumentPart().getDocumentSettingsPart(), second.getMainDocumentPart().getDocumentSettingsPart());
+        assertEquals(relationships(mlPackage.getMainDocumentPart()), relationships(first.getMainDocumentPart()));
+    }
+}
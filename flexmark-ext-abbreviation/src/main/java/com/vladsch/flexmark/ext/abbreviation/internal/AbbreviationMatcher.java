@@ -0,0 +1,203 @@
+package com.vladsch.flexmark.ext.abbreviation.internal;
+
+import com.vladsch.flexmark.util.sequence.Range;
+
+import java.util.*;
+
+/**
+ * Aho-Corasick automaton finding abbreviations in text in a single pass, regardless of the number of abbreviations
+ * <p>
+ * Matches are the same as those of an alternation of all abbreviations, longest first: the leftmost abbreviation is
+ * matched, the longest one when several start at the same position, and matching continues after its end.
+ * An abbreviation starting with a letter or digit only matches at a word start, one ending with a letter or digit
+ * only matches at a word end, word characters being letters, digits and '_' as for {@code \b} in regular expressions.
+ * <p>
+ * Matchers are immutable and cached by abbreviation set, see {@link #of(Collection)}.
+ */
+public class AbbreviationMatcher {
+    private static final int CACHE_SIZE = 16;
+
+    private static final LinkedHashMap<List<String>, AbbreviationMatcher> ourMatcherCache = new LinkedHashMap<List<String>, AbbreviationMatcher>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<String>, AbbreviationMatcher> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    // transitions of each state, keys sorted for binary search
+    private final char[][] transitionChars;
+    private final int[][] transitionStates;
+    private final int[] failure;        // state of longest proper suffix of the state's text
+    private final int[] output;         // state of longest suffix which is an abbreviation, including the state itself, -1 if none
+    private final int[] outputLink;     // next shorter suffix state which is an abbreviation, -1 if none
+    private final int[] depth;          // length of the state's text
+    private final boolean[] wordStart;  // abbreviation of the state must start at a word boundary
+    private final boolean[] wordEnd;    // abbreviation of the state must end at a word boundary
+
+    private AbbreviationMatcher(List<String> abbreviations) {
+        // build trie
+        ArrayList<TreeMap<Character, Integer>> trie = new ArrayList<TreeMap<Character, Integer>>();
+        ArrayList<Integer> depths = new ArrayList<Integer>();
+        HashSet<Integer> terminals = new HashSet<Integer>();
+        trie.add(new TreeMap<Character, Integer>());
+        depths.add(0);
+
+        for (String abbreviation : abbreviations) {
+            int state = 0;
+            for (int i = 0; i < abbreviation.length(); i++) {
+                char c = abbreviation.charAt(i);
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.get(state).put(c, next);
+                    trie.add(new TreeMap<Character, Integer>());
+                    depths.add(i + 1);
+                }
+                state = next;
+            }
+            terminals.add(state);
+        }
+
+        int states = trie.size();
+        transitionChars = new char[states][];
+        transitionStates = new int[states][];
+        failure = new int[states];
+        output = new int[states];
+        outputLink = new int[states];
+        depth = new int[states];
+        wordStart = new boolean[states];
+        wordEnd = new boolean[states];
+
+        for (int state = 0; state < states; state++) {
+            TreeMap<Character, Integer> transitions = trie.get(state);
+            char[] chars = new char[transitions.size()];
+            int[] targets = new int[transitions.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> entry : transitions.entrySet()) {
+                chars[i] = entry.getKey();
+                targets[i] = entry.getValue();
+                i++;
+            }
+            transitionChars[state] = chars;
+            transitionStates[state] = targets;
+            depth[state] = depths.get(state);
+        }
+
+        for (String abbreviation : abbreviations) {
+            int state = 0;
+            for (int i = 0; i < abbreviation.length(); i++) {
+                state = transition(state, abbreviation.charAt(i));
+            }
+            wordStart[state] = Character.isLetterOrDigit(abbreviation.charAt(0));
+            wordEnd[state] = Character.isLetterOrDigit(abbreviation.charAt(abbreviation.length() - 1));
+        }
+
+        // failure and output links, breadth first so that links of shorter states are already computed
+        output[0] = -1;
+        outputLink[0] = -1;
+        ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+        queue.add(0);
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            char[] chars = transitionChars[state];
+            int[] targets = transitionStates[state];
+
+            for (int i = 0; i < chars.length; i++) {
+                int next = targets[i];
+                int fail = 0;
+                if (state != 0) {
+                    fail = failure[state];
+                    int target;
+                    while ((target = transition(fail, chars[i])) == -1 && fail != 0) {
+                        fail = failure[fail];
+                    }
+                    fail = target == -1 ? 0 : target;
+                }
+
+                failure[next] = fail;
+                outputLink[next] = output[fail];
+                output[next] = terminals.contains(next) ? next : outputLink[next];
+                queue.add(next);
+            }
+        }
+    }
+
+    private int transition(int state, char c) {
+        int index = Arrays.binarySearch(transitionChars[state], c);
+        return index < 0 ? -1 : transitionStates[state][index];
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    /**
+     * Find abbreviations in text
+     *
+     * @param text text to search
+     * @return ranges of abbreviations in text, in order
+     */
+    public List<Range> findAll(CharSequence text) {
+        int iMax = text.length();
+        int[] matchLengths = null;
+        int state = 0;
+
+        for (int i = 0; i < iMax; i++) {
+            char c = text.charAt(i);
+
+            int next;
+            while ((next = transition(state, c)) == -1 && state != 0) {
+                state = failure[state];
+            }
+            state = next == -1 ? 0 : next;
+
+            for (int match = output[state]; match != -1; match = outputLink[match]) {
+                int start = i + 1 - depth[match];
+                if (wordStart[match] && start > 0 && isWordChar(text.charAt(start - 1))) continue;
+                if (wordEnd[match] && i + 1 < iMax && isWordChar(text.charAt(i + 1))) continue;
+
+                if (matchLengths == null) matchLengths = new int[iMax];
+                if (matchLengths[start] < depth[match]) matchLengths[start] = depth[match];
+            }
+        }
+
+        if (matchLengths == null) return Collections.emptyList();
+
+        ArrayList<Range> matches = new ArrayList<Range>();
+        for (int i = 0; i < iMax; ) {
+            int length = matchLengths[i];
+            if (length > 0) {
+                matches.add(new Range(i, i + length));
+                i += length;
+            } else {
+                i++;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Get the matcher for a set of abbreviations, documents sharing a set of abbreviations share its matcher
+     *
+     * @param abbreviations non-empty abbreviations
+     * @return matcher
+     */
+    public static AbbreviationMatcher of(Collection<String> abbreviations) {
+        ArrayList<String> key = new ArrayList<String>(abbreviations);
+        Collections.sort(key);
+
+        AbbreviationMatcher matcher;
+        synchronized (ourMatcherCache) {
+            matcher = ourMatcherCache.get(key);
+        }
+
+        if (matcher == null) {
+            matcher = new AbbreviationMatcher(key);
+            synchronized (ourMatcherCache) {
+                ourMatcherCache.put(key, matcher);
+            }
+        }
+        return matcher;
+    }
+}
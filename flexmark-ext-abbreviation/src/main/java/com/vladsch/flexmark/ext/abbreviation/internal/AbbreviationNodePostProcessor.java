@@ -16,18 +16,19 @@ import com.vladsch.flexmark.util.ast.Document;
 import com.vladsch.flexmark.util.ast.Node;
 import com.vladsch.flexmark.util.html.Escaping;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
+import com.vladsch.flexmark.util.sequence.Range;
 import com.vladsch.flexmark.util.sequence.ReplacedTextMapper;
 
-import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
 
 public class AbbreviationNodePostProcessor extends NodePostProcessor {
     //public static final String SINGLE_QUOTES = "'’‘";
     //public static final String DOUBLE_QUOTES = "\"“”";
     //private static final Pattern QUOTES = Pattern.compile("(?:[" + SINGLE_QUOTES + DOUBLE_QUOTES + "])");
 
-    private Pattern abbreviations = null;
+    private AbbreviationMatcher abbreviations = null;
     private HashMap<String, BasedSequence> abbreviationMap = null;
 
     private AbbreviationNodePostProcessor(Document document) {
@@ -39,35 +40,19 @@ public class AbbreviationNodePostProcessor extends NodePostProcessor {
 
         if (!abbrRepository.isEmpty()) {
             abbreviationMap = new HashMap<String, BasedSequence>();
-            StringBuilder sb = new StringBuilder();
-
-            // sort reverse alphabetical order so longer ones match first. for sdk7
-            ArrayList<String> abbreviations = new ArrayList<String>(abbrRepository.keySet());
-            Collections.sort(abbreviations, new Comparator<String>() {
-                @Override
-                public int compare(String o1, String o2) {
-                    return o2.compareTo(o1);
-                }
-            });
 
-            for (String abbr : abbreviations) {
+            for (String abbr : abbrRepository.keySet()) {
                 AbbreviationBlock abbreviationBlock = abbrRepository.get(abbr);
                 // Issue #198, test for empty abbr
                 if (!abbr.isEmpty()) {
                     BasedSequence abbreviation = abbreviationBlock.getAbbreviation();
                     if (!abbreviation.isEmpty()) {
                         abbreviationMap.put(abbr, abbreviation);
-
-                        if (sb.length() > 0) sb.append("|");
-
-                        if (Character.isLetterOrDigit(abbr.charAt(0))) sb.append("\\b");
-                        sb.append("\\Q").append(abbr).append("\\E");
-                        if (Character.isLetterOrDigit(abbr.charAt(abbr.length() - 1))) sb.append("\\b");
                     }
                 }
             }
 
-            if (sb.length() > 0) this.abbreviations = Pattern.compile(sb.toString());
+            if (!abbreviationMap.isEmpty()) this.abbreviations = AbbreviationMatcher.of(abbreviationMap.keySet());
         }
     }
 
@@ -79,19 +64,16 @@ public class AbbreviationNodePostProcessor extends NodePostProcessor {
         ReplacedTextMapper textMapper = new ReplacedTextMapper(original);
         BasedSequence literal = Escaping.unescape(original, textMapper);
 
-        Matcher m = abbreviations.matcher(literal);
         int lastEscaped = 0;
         boolean wrapInTextBase = !(node.getParent() instanceof TextBase);
         TextBase textBase = wrapInTextBase ? null : (TextBase) node.getParent();
 
-        while (m.find()) {
-            //String found = m.group();
-            if (abbreviationMap.containsKey(m.group(0))) {
-                BasedSequence abbreviation = abbreviationMap.get(m.group(0));
-
-                BasedSequence toDecorateText = literal.subSequence(m.start(0), m.end(0));
-                int startOffset = textMapper.originalOffset(m.start(0));
-                int endOffset = textMapper.originalOffset(m.end(0));
+        for (Range range : abbreviations.findAll(literal)) {
+            BasedSequence toDecorateText = literal.subSequence(range.getStart(), range.getEnd());
+            BasedSequence abbreviation = abbreviationMap.get(toDecorateText.toString());
+            if (abbreviation != null) {
+                int startOffset = textMapper.originalOffset(range.getStart());
+                int endOffset = textMapper.originalOffset(range.getEnd());
 
                 if (wrapInTextBase) {
                     wrapInTextBase = false;
@@ -30,6 +30,11 @@ public class AbbreviationRepository extends NodeRepository<AbbreviationBlock> {
         return AbbreviationExtension.ABBREVIATIONS_KEEP;
     }
 
+    @Override
+    public boolean isShareable() {
+        return true;
+    }
+
     @Override
     public Set<AbbreviationBlock> getReferencedElements(final Node parent) {
         final HashSet<AbbreviationBlock> references = new HashSet<>();
@@ -0,0 +1,82 @@
+package com.vladsch.flexmark.ext.abbreviation;
+
+import com.vladsch.flexmark.ext.abbreviation.internal.AbbreviationMatcher;
+import com.vladsch.flexmark.util.sequence.Range;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class AbbreviationMatcherTest {
+    // alternation of abbreviations in reverse alphabetical order, as previously used to match abbreviations
+    private static List<Range> findWithPattern(List<String> abbreviations, String text) {
+        ArrayList<String> sorted = new ArrayList<String>(abbreviations);
+        Collections.sort(sorted, Collections.<String>reverseOrder());
+
+        StringBuilder sb = new StringBuilder();
+        for (String abbr : sorted) {
+            if (sb.length() > 0) sb.append("|");
+            if (Character.isLetterOrDigit(abbr.charAt(0))) sb.append("\\b");
+            sb.append("\\Q").append(abbr).append("\\E");
+            if (Character.isLetterOrDigit(abbr.charAt(abbr.length() - 1))) sb.append("\\b");
+        }
+
+        ArrayList<Range> ranges = new ArrayList<Range>();
+        Matcher m = Pattern.compile(sb.toString()).matcher(text);
+        while (m.find()) {
+            ranges.add(new Range(m.start(), m.end()));
+        }
+        return ranges;
+    }
+
+    @Test
+    public void test_basic() {
+        List<String> abbreviations = Arrays.asList("HTML", "HTML5", "CSS", "W3C", "C", "-", "a.b", ".");
+        String text = "HTML5 and HTML with CSS, HTMLS W3C C-language_C a.b.c . C_";
+        assertEquals(findWithPattern(abbreviations, text), AbbreviationMatcher.of(abbreviations).findAll(text));
+    }
+
+    @Test
+    public void test_overlapping() {
+        List<String> abbreviations = Arrays.asList("ab", "abc", "bcd", "cd", "b", "abcd!", "d!");
+        String text = "abcd abcd! xabcd bcd cd b d! abcd!abc";
+        assertEquals(findWithPattern(abbreviations, text), AbbreviationMatcher.of(abbreviations).findAll(text));
+    }
+
+    @Test
+    public void test_random() {
+        Random random = new Random(198);
+        String alphabet = "ab1_ .-";
+
+        for (int t = 0; t < 200; t++) {
+            HashSet<String> abbreviations = new HashSet<String>();
+            int count = 1 + random.nextInt(20);
+            for (int i = 0; i < count; i++) {
+                StringBuilder sb = new StringBuilder();
+                int length = 1 + random.nextInt(4);
+                for (int j = 0; j < length; j++) {
+                    sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+                abbreviations.add(sb.toString());
+            }
+
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < 200; i++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+
+            ArrayList<String> list = new ArrayList<String>(abbreviations);
+            assertEquals(list.toString() + " in " + text, findWithPattern(list, text.toString()), AbbreviationMatcher.of(list).findAll(text));
+        }
+    }
+
+    @Test
+    public void test_cached() {
+        AbbreviationMatcher matcher = AbbreviationMatcher.of(Arrays.asList("HTML", "CSS"));
+        assertSame(matcher, AbbreviationMatcher.of(Arrays.asList("CSS", "HTML")));
+    }
+}
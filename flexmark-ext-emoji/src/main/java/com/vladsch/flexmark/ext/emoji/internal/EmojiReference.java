@@ -6,6 +6,7 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class EmojiReference {
@@ -31,53 +32,61 @@ public class EmojiReference {
 
     public static final String githubUrl = "https://github.githubassets.com/images/icons/emoji/";
 
-    private static ArrayList<Emoji> emojiList = null;
+    // emoji list read on first use of the class and never modified, published by class initialization
+    private static class EmojiList {
+        static final List<Emoji> emojiList = Collections.unmodifiableList(readEmojiList());
+    }
 
+    /**
+     * @return unmodifiable list of all emoji, read from EmojiReference.txt on first use
+     */
     public static List<Emoji> getEmojiList() {
-        if (emojiList == null) {
-            // read it in
-            emojiList = new ArrayList<Emoji>(3000);
+        return EmojiList.emojiList;
+    }
 
-            final String emojiReference = "/EmojiReference.txt";
-            InputStream stream = EmojiReference.class.getResourceAsStream(emojiReference);
+    private static ArrayList<Emoji> readEmojiList() {
+        // read it in
+        ArrayList<Emoji> emojiList = new ArrayList<Emoji>(3000);
 
-            if (stream == null) {
-                throw new IllegalStateException("Could not load " + emojiReference + " classpath resource");
-            }
+        final String emojiReference = "/EmojiReference.txt";
+        InputStream stream = EmojiReference.class.getResourceAsStream(emojiReference);
+
+        if (stream == null) {
+            throw new IllegalStateException("Could not load " + emojiReference + " classpath resource");
+        }
 
-            BufferedReader reader = new BufferedReader(new InputStreamReader(stream, Charset.forName("UTF-8")));
-            String line;
-            try {
-                // skip first line, it is column names
-                line = reader.readLine();
-                while ((line = reader.readLine()) != null) {
-                    String[] fields = line.split("\t");
-                    try {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream, Charset.forName("UTF-8")));
+        String line;
+        try {
+            // skip first line, it is column names
+            line = reader.readLine();
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t");
+                try {
 
-                        final Emoji emoji = new Emoji(
-                                fields[0].charAt(0) == ' ' ? null : fields[0], // shortcut
-                                fields[1].charAt(0) == ' ' ? null : fields[1], // category
-                                fields[2].charAt(0) == ' ' ? null : fields[2], // emojiCheatSheetFile
-                                fields[3].charAt(0) == ' ' ? null : fields[3], // githubFile
-                                fields[4].charAt(0) == ' ' ? null : fields[4], // unicodeChars
-                                fields[5].charAt(0) == ' ' ? null : fields[5], // unicodeSampleFile
-                                fields[6].charAt(0) == ' ' ? null : fields[6] // unicodeCldr
-                        );
-                        emojiList.add(emoji);
+                    final Emoji emoji = new Emoji(
+                            fields[0].charAt(0) == ' ' ? null : fields[0], // shortcut
+                            fields[1].charAt(0) == ' ' ? null : fields[1], // category
+                            fields[2].charAt(0) == ' ' ? null : fields[2], // emojiCheatSheetFile
+                            fields[3].charAt(0) == ' ' ? null : fields[3], // githubFile
+                            fields[4].charAt(0) == ' ' ? null : fields[4], // unicodeChars
+                            fields[5].charAt(0) == ' ' ? null : fields[5], // unicodeSampleFile
+                            fields[6].charAt(0) == ' ' ? null : fields[6] // unicodeCldr
+                    );
+                    emojiList.add(emoji);
 
-                        //if (emoji.shortcut != null && emoji.unicodeChars == null) {
-                        //    String type = emoji.githubFile == null ? "cheatSheet " : (emoji.emojiCheatSheetFile == null ? "gitHub " : "");
-                        //    System.out.printf("Non unicode %sshortcut %s\n",type, emoji.shortcut);
-                        //}
-                    } catch (ArrayIndexOutOfBoundsException e) {
-                        //e.printStackTrace();
-                        throw new IllegalStateException("Error processing EmojiReference.txt", e);
-                    }
+                    //if (emoji.shortcut != null && emoji.unicodeChars == null) {
+                    //    String type = emoji.githubFile == null ? "cheatSheet " : (emoji.emojiCheatSheetFile == null ? "gitHub " : "");
+                    //    System.out.printf("Non unicode %sshortcut %s\n",type, emoji.shortcut);
+                    //}
+                } catch (ArrayIndexOutOfBoundsException e) {
+                    //e.printStackTrace();
+                    throw new IllegalStateException("Error processing EmojiReference.txt", e);
                 }
-            } catch (IOException e) {
-                //e.printStackTrace();
-                throw new IllegalStateException("Error processing EmojiReference.txt", e);
             }
+        } catch (IOException e) {
+            //e.printStackTrace();
+            throw new IllegalStateException("Error processing EmojiReference.txt", e);
         }
 
         return emojiList;
@@ -18,11 +18,14 @@ public class EmojiResolvedShortcut {
     }
 
     public static EmojiResolvedShortcut getEmojiText(Emoji node, EmojiShortcutType useShortcutType, EmojiImageType useImageType, String rootImagePath) {
-        return getEmojiText(node.getText().toString(), useShortcutType, useImageType, rootImagePath);
+        return getEmojiText(EmojiShortcuts.getEmojiFromShortcut(node.getText()), useShortcutType, useImageType, rootImagePath);
     }
 
     public static EmojiResolvedShortcut getEmojiText(String emojiId, EmojiShortcutType useShortcutType, EmojiImageType useImageType, String rootImagePath) {
-        EmojiReference.Emoji emoji = EmojiShortcuts.getEmojiFromShortcut(emojiId);
+        return getEmojiText(EmojiShortcuts.getEmojiFromShortcut(emojiId), useShortcutType, useImageType, rootImagePath);
+    }
+
+    private static EmojiResolvedShortcut getEmojiText(EmojiReference.Emoji emoji, EmojiShortcutType useShortcutType, EmojiImageType useImageType, String rootImagePath) {
         String emojiText = null;
         boolean isUnicode = false;
         String alt = null;
@@ -0,0 +1,93 @@
+package com.vladsch.flexmark.ext.emoji.internal;
+
+import com.vladsch.flexmark.ext.emoji.internal.EmojiReference.Emoji;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable trie of emoji shortcuts, looking up shortcuts in character sequences without creating strings
+ * <p>
+ * Each node's transitions are kept in a sorted character array searched with binary search, with the target
+ * nodes in a parallel array.
+ */
+public class EmojiShortcutTrie {
+    private final char[][] transitionChars;
+    private final int[][] transitionNodes;
+    private final Emoji[] emojis;       // emoji of the shortcut ending at the node, null if none
+
+    /**
+     * @param shortcuts emoji by shortcut
+     */
+    public EmojiShortcutTrie(Map<String, Emoji> shortcuts) {
+        ArrayList<TreeMap<Character, Integer>> trie = new ArrayList<TreeMap<Character, Integer>>();
+        ArrayList<Emoji> nodeEmojis = new ArrayList<Emoji>();
+        trie.add(new TreeMap<Character, Integer>());
+        nodeEmojis.add(null);
+
+        for (Map.Entry<String, Emoji> entry : shortcuts.entrySet()) {
+            String shortcut = entry.getKey();
+            int node = 0;
+            for (int i = 0; i < shortcut.length(); i++) {
+                char c = shortcut.charAt(i);
+                Integer next = trie.get(node).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.get(node).put(c, next);
+                    trie.add(new TreeMap<Character, Integer>());
+                    nodeEmojis.add(null);
+                }
+                node = next;
+            }
+            nodeEmojis.set(node, entry.getValue());
+        }
+
+        int nodes = trie.size();
+        transitionChars = new char[nodes][];
+        transitionNodes = new int[nodes][];
+        emojis = nodeEmojis.toArray(new Emoji[nodes]);
+
+        for (int node = 0; node < nodes; node++) {
+            TreeMap<Character, Integer> transitions = trie.get(node);
+            char[] chars = new char[transitions.size()];
+            int[] targets = new int[transitions.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> entry : transitions.entrySet()) {
+                chars[i] = entry.getKey();
+                targets[i] = entry.getValue();
+                i++;
+            }
+            transitionChars[node] = chars;
+            transitionNodes[node] = targets;
+        }
+    }
+
+    // node reached by the characters, -1 if none
+    private int find(CharSequence chars, int start, int end) {
+        int node = 0;
+        for (int i = start; i < end && node != -1; i++) {
+            int index = Arrays.binarySearch(transitionChars[node], chars.charAt(i));
+            node = index < 0 ? -1 : transitionNodes[node][index];
+        }
+        return node;
+    }
+
+    /**
+     * Get emoji of a shortcut
+     *
+     * @param chars characters containing the shortcut
+     * @param start start of shortcut in chars
+     * @param end   end of shortcut in chars
+     * @return emoji or null if the characters are not a shortcut
+     */
+    public Emoji get(CharSequence chars, int start, int end) {
+        int node = find(chars, start, end);
+        return node == -1 ? null : emojis[node];
+    }
+
+    public Emoji get(CharSequence shortcut) {
+        return get(shortcut, 0, shortcut.length());
+    }
+}
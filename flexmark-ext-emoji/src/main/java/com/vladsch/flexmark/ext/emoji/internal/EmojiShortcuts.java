@@ -9,31 +9,66 @@ package com.vladsch.flexmark.ext.emoji.internal;
 import com.vladsch.flexmark.ext.emoji.internal.EmojiReference.Emoji;
 
 import java.io.File;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 
 public class EmojiShortcuts {
     public static final String gitHubUrlPrefix = EmojiReference.githubUrl;
 
-    private static final HashMap<String, Emoji> emojiShortcuts = new HashMap<String, Emoji>();
-    private static final HashMap<String, Emoji> emojiURIs = new HashMap<String, Emoji>();
-    private static final HashMap<Emoji, String> emojiUnicodeChars = new HashMap<Emoji, String>();
+    // unmodifiable lookup tables built on first use of the class, published by class initialization
+    private static class Tables {
+        static final Map<String, Emoji> emojiShortcuts;
+        static final Map<String, Emoji> emojiURIs;
+        static final Map<Emoji, String> emojiUnicodeChars;
+        static final EmojiShortcutTrie emojiShortcutTrie;
 
-    synchronized public static String getUnicodeChars(Emoji emoji) {
+        static {
+            HashMap<String, Emoji> shortcuts = new HashMap<String, Emoji>();
+            HashMap<String, Emoji> uris = new HashMap<String, Emoji>();
+            HashMap<Emoji, String> unicodeChars = new HashMap<Emoji, String>();
+
+            for (Emoji emoji : EmojiReference.getEmojiList()) {
+                if (emoji.shortcut != null) {
+                    shortcuts.put(emoji.shortcut, emoji);
+                }
+                if (emoji.emojiCheatSheetFile != null) {
+                    uris.put(extractFileName(emoji.emojiCheatSheetFile), emoji);
+                }
+                if (emoji.githubFile != null) {
+                    uris.put(extractFileName(emoji.githubFile), emoji);
+                }
+                if (emoji.unicodeSampleFile != null) {
+                    uris.put(extractFileName(emoji.unicodeSampleFile), emoji);
+                }
+                if (emoji.unicodeChars != null) {
+                    unicodeChars.put(emoji, computeUnicodeChars(emoji));
+                }
+            }
+
+            emojiShortcuts = Collections.unmodifiableMap(shortcuts);
+            emojiURIs = Collections.unmodifiableMap(uris);
+            emojiUnicodeChars = Collections.unmodifiableMap(unicodeChars);
+            emojiShortcutTrie = new EmojiShortcutTrie(emojiShortcuts);
+        }
+    }
+
+    private static String computeUnicodeChars(Emoji emoji) {
+        String[] unicodePoints = emoji.unicodeChars.replace("U+", "").split(" ");
+        StringBuilder sb = new StringBuilder(16);
+        for (String unicodePoint : unicodePoints) {
+            sb.appendCodePoint(Integer.parseInt(unicodePoint, 16));
+        }
+        return sb.toString();
+    }
+
+    public static String getUnicodeChars(Emoji emoji) {
         if (emoji == null || emoji.unicodeChars == null) {
             return null;
         }
 
-        String value = emojiUnicodeChars.get(emoji);
-        if (value == null) {
-            String[] unicodePoints = emoji.unicodeChars.replace("U+", "").split(" ");
-            StringBuilder sb = new StringBuilder(16);
-            for (String unicodePoint : unicodePoints) {
-                sb.appendCodePoint(Integer.parseInt(unicodePoint, 16));
-            }
-            value = sb.toString();
-            emojiUnicodeChars.put(emoji, value);
-        }
-        return value;
+        String value = Tables.emojiUnicodeChars.get(emoji);
+        return value != null ? value : computeUnicodeChars(emoji);
     }
 
     public static String extractFileName(String emojiURI) {
@@ -45,51 +80,47 @@ public class EmojiShortcuts {
         return fileName;
     }
 
+    /**
+     * @return copy of the map of emoji by shortcut, use {@link #getEmojiShortcutMap()} to avoid the copy
+     */
     public static HashMap<String, Emoji> getEmojiShortcuts() {
-        updateEmojiShortcuts();
-        return emojiShortcuts;
+        return new HashMap<String, Emoji>(Tables.emojiShortcuts);
     }
 
+    /**
+     * @return copy of the map of emoji by image file name without extension, use {@link #getEmojiURIMap()} to avoid the copy
+     */
     public static HashMap<String, Emoji> getEmojiURIs() {
-        updateEmojiShortcuts();
-        return emojiURIs;
+        return new HashMap<String, Emoji>(Tables.emojiURIs);
     }
 
-    public static Emoji getEmojiFromShortcut(String shortcut) {
-        updateEmojiShortcuts();
-        return emojiShortcuts.get(shortcut);
+    /**
+     * @return unmodifiable map of emoji by shortcut
+     */
+    public static Map<String, Emoji> getEmojiShortcutMap() {
+        return Tables.emojiShortcuts;
     }
 
-    public static Emoji getEmojiFromURI(String imageURI) {
-        updateEmojiURIs();
-        return emojiURIs.get(extractFileName(imageURI));
+    /**
+     * @return unmodifiable map of emoji by image file name without extension
+     */
+    public static Map<String, Emoji> getEmojiURIMap() {
+        return Tables.emojiURIs;
     }
 
-    synchronized private static void updateEmojiShortcuts() {
-        if (emojiShortcuts.isEmpty()) {
-            for (Emoji emoji : EmojiReference.getEmojiList()) {
-                if (emoji.shortcut != null) {
-                    emojiShortcuts.put(emoji.shortcut, emoji);
-                }
-            }
-        }
+    public static EmojiShortcutTrie getEmojiShortcutTrie() {
+        return Tables.emojiShortcutTrie;
     }
 
-    synchronized private static void updateEmojiURIs() {
-        if (emojiURIs.isEmpty()) {
-            // create it
-            for (Emoji emoji : EmojiReference.getEmojiList()) {
-                if (emoji.emojiCheatSheetFile != null) {
-                    emojiURIs.put(extractFileName(emoji.emojiCheatSheetFile), emoji);
-                }
-                if (emoji.githubFile != null) {
-                    emojiURIs.put(extractFileName(emoji.githubFile), emoji);
-                }
-                if (emoji.unicodeSampleFile != null) {
-                    emojiURIs.put(extractFileName(emoji.unicodeSampleFile), emoji);
-                }
-            }
-        }
+    public static Emoji getEmojiFromShortcut(String shortcut) {
+        return Tables.emojiShortcuts.get(shortcut);
     }
-}
 
+    public static Emoji getEmojiFromShortcut(CharSequence shortcut) {
+        return Tables.emojiShortcutTrie.get(shortcut);
+    }
+
+    public static Emoji getEmojiFromURI(String imageURI) {
+        return Tables.emojiURIs.get(extractFileName(imageURI));
+    }
+}
@@ -0,0 +1,70 @@
+package com.vladsch.flexmark.ext.emoji;
+
+import com.vladsch.flexmark.ext.emoji.internal.EmojiReference;
+import com.vladsch.flexmark.ext.emoji.internal.EmojiShortcutTrie;
+import com.vladsch.flexmark.ext.emoji.internal.EmojiShortcuts;
+import com.vladsch.flexmark.util.sequence.BasedSequenceImpl;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class EmojiShortcutsTest {
+    @Test
+    public void test_trieMatchesMap() {
+        EmojiShortcutTrie trie = EmojiShortcuts.getEmojiShortcutTrie();
+        for (Map.Entry<String, EmojiReference.Emoji> entry : EmojiShortcuts.getEmojiShortcutMap().entrySet()) {
+            String shortcut = entry.getKey();
+            assertSame(shortcut, entry.getValue(), trie.get(shortcut));
+            assertSame(shortcut, entry.getValue(), EmojiShortcuts.getEmojiFromShortcut(BasedSequenceImpl.of(":" + shortcut + ":").midSequence(1, -1)));
+            assertNull(shortcut, trie.get(shortcut + "\u0000"));
+        }
+
+        assertNull(trie.get("not-an-emoji-shortcut"));
+        assertNull(trie.get(""));
+    }
+
+    @Test
+    public void test_range() {
+        EmojiShortcutTrie trie = EmojiShortcuts.getEmojiShortcutTrie();
+        String text = " :smile:y";
+        assertSame(EmojiShortcuts.getEmojiFromShortcut("smile"), trie.get(text, 2, 7));
+        assertNull(trie.get(text, 2, 5));
+        assertNull(trie.get(text, 2, 8));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void test_shortcutsUnmodifiable() {
+        EmojiShortcuts.getEmojiShortcutMap().put("not-an-emoji-shortcut", EmojiShortcuts.getEmojiFromShortcut("smile"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void test_urisUnmodifiable() {
+        EmojiShortcuts.getEmojiURIMap().clear();
+    }
+
+    @Test
+    public void test_copiesModifiable() {
+        HashMap<String, EmojiReference.Emoji> shortcuts = EmojiShortcuts.getEmojiShortcuts();
+        assertEquals(EmojiShortcuts.getEmojiShortcutMap(), shortcuts);
+        shortcuts.put("not-an-emoji-shortcut", EmojiShortcuts.getEmojiFromShortcut("smile"));
+        assertNull(EmojiShortcuts.getEmojiFromShortcut("not-an-emoji-shortcut"));
+
+        HashMap<String, EmojiReference.Emoji> uris = EmojiShortcuts.getEmojiURIs();
+        assertEquals(EmojiShortcuts.getEmojiURIMap(), uris);
+        uris.clear();
+        assertFalse(EmojiShortcuts.getEmojiURIMap().isEmpty());
+    }
+
+    @Test
+    public void test_tables() {
+        EmojiReference.Emoji emoji = EmojiShortcuts.getEmojiFromShortcut("+1");
+        assertNotNull(emoji);
+        assertEquals(new String(Character.toChars(0x1F44D)), EmojiShortcuts.getUnicodeChars(emoji));
+        assertEquals("U+1F44D", EmojiShortcuts.getEmojiFromURI("https://github.githubassets.com/images/icons/emoji/unicode/1f44d.png?v7").unicodeChars);
+        assertSame(emoji, EmojiShortcuts.getEmojiFromURI("/img/plus1.png"));
+        assertNull(EmojiShortcuts.getUnicodeChars(null));
+    }
+}
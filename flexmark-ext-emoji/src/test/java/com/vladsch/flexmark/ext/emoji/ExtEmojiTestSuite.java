@@ -7,6 +7,7 @@ import org.junit.runners.Suite;
         ComboEmojiSpecTest.class,
         ComboEmojiJiraTest.class,
         ComboEmojiCrashSpecTest.class,
+        EmojiShortcutsTest.class,
 })
 public class ExtEmojiTestSuite {
 }
@@ -78,6 +78,9 @@ public class FootnoteExtension implements Parser.ParserExtension, HtmlRenderer.H
     public void extend(Parser.Builder parserBuilder) {
         parserBuilder.customBlockParserFactory(new FootnoteBlockParser.Factory());
         parserBuilder.linkRefProcessorFactory(new FootnoteLinkRefProcessor.Factory());
+        if (Parser.PARALLEL_INLINE_PARSING.getFrom(parserBuilder)) {
+            parserBuilder.postProcessorFactory(new FootnoteNodePostProcessor.Factory());
+        }
     }
 
     @Override
@@ -7,6 +7,7 @@ import com.vladsch.flexmark.ext.footnotes.FootnoteBlock;
 import com.vladsch.flexmark.ext.footnotes.FootnoteExtension;
 import com.vladsch.flexmark.parser.LinkRefProcessor;
 import com.vladsch.flexmark.parser.LinkRefProcessorFactory;
+import com.vladsch.flexmark.parser.Parser;
 import com.vladsch.flexmark.util.options.DataHolder;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
 
@@ -15,9 +16,11 @@ public class FootnoteLinkRefProcessor implements LinkRefProcessor {
     static final int BRACKET_NESTING_LEVEL = 0;
 
     private final FootnoteRepository footnoteRepository;
+    private final boolean parallelInlineParsing;
 
     public FootnoteLinkRefProcessor(Document document) {
         this.footnoteRepository = document.get(FootnoteExtension.FOOTNOTES);
+        this.parallelInlineParsing = Parser.PARALLEL_INLINE_PARSING.getFrom(document);
     }
 
     @Override
@@ -43,7 +46,8 @@ public class FootnoteLinkRefProcessor implements LinkRefProcessor {
         Footnote footnote = new Footnote(nodeChars.subSequence(0, 2), footnoteId, nodeChars.endSequence(1));
         footnote.setFootnoteBlock(footnoteBlock);
 
-        if (footnoteBlock != null) {
+        // with parallel inline parsing references are added in document order by FootnoteNodePostProcessor
+        if (footnoteBlock != null && !parallelInlineParsing) {
             footnoteRepository.addFootnoteReference(footnoteBlock, footnote);
         }
         return footnote;
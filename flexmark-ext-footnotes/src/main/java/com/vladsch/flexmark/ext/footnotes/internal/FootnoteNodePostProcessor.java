@@ -0,0 +1,42 @@
+package com.vladsch.flexmark.ext.footnotes.internal;
+
+import com.vladsch.flexmark.ext.footnotes.Footnote;
+import com.vladsch.flexmark.ext.footnotes.FootnoteBlock;
+import com.vladsch.flexmark.ext.footnotes.FootnoteExtension;
+import com.vladsch.flexmark.parser.block.NodePostProcessor;
+import com.vladsch.flexmark.parser.block.NodePostProcessorFactory;
+import com.vladsch.flexmark.util.NodeTracker;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.ast.Node;
+
+/**
+ * Adds footnote references to the footnote repository in document order when inlines are parsed in parallel
+ */
+public class FootnoteNodePostProcessor extends NodePostProcessor {
+    private final FootnoteRepository footnoteRepository;
+
+    public FootnoteNodePostProcessor(Document document) {
+        this.footnoteRepository = document.get(FootnoteExtension.FOOTNOTES);
+    }
+
+    @Override
+    public void process(NodeTracker state, Node node) {
+        Footnote footnote = (Footnote) node;
+        FootnoteBlock footnoteBlock = footnote.getFootnoteBlock();
+        if (footnoteBlock != null) {
+            footnoteRepository.addFootnoteReference(footnoteBlock, footnote);
+        }
+    }
+
+    public static class Factory extends NodePostProcessorFactory {
+        public Factory() {
+            super(false);
+            addNodes(Footnote.class);
+        }
+
+        @Override
+        public NodePostProcessor create(Document document) {
+            return new FootnoteNodePostProcessor(document);
+        }
+    }
+}
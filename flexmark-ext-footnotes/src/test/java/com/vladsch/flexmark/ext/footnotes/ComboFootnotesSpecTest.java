@@ -31,6 +31,7 @@ public class ComboFootnotesSpecTest extends ComboSpecTestCase {
         optionsMap.put("back-link-class-none", new MutableDataSet().set(FootnoteExtension.FOOTNOTE_BACK_LINK_REF_CLASS, ""));
         optionsMap.put("back-link-class-text", new MutableDataSet().set(FootnoteExtension.FOOTNOTE_BACK_LINK_REF_CLASS, "text"));
         optionsMap.put("item-indent-8", new MutableDataSet().set(Parser.LISTS_ITEM_INDENT, 8));
+        optionsMap.put("parallel-inlines", new MutableDataSet(OPTIONS).set(Parser.PARALLEL_INLINE_PARSING, true).set(Parser.PARALLEL_INLINE_PARSING_BATCH_SIZE, 1));
     }
 
     static final Parser PARSER = Parser.builder(OPTIONS).build();
@@ -0,0 +1,42 @@
+package com.vladsch.flexmark.ext.footnotes;
+
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.Consumer;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.ast.Node;
+import com.vladsch.flexmark.util.options.DataHolder;
+import com.vladsch.flexmark.util.options.MutableDataSet;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class FootnoteStreamingTest {
+    private static final DataHolder OPTIONS = new MutableDataSet()
+            .set(Parser.EXTENSIONS, Collections.singleton(FootnoteExtension.create()))
+            .set(Parser.STREAMING_CHUNK_SIZE, 8);
+
+    @Test
+    public void test_rollbackRepositoryEntries() throws IOException {
+        // footnote is closed inside the list item, before the list spanning chunks is re-parsed
+        String input = "* item\n\n  [^1]: first\n\n  item text\n  more item text\n\ntext[^1]\n";
+        final ArrayList<Node> footnoteBlocks = new ArrayList<Node>();
+
+        Document document = Parser.builder(OPTIONS).build().parseReader(new StringReader(input), new Consumer<Node>() {
+            @Override
+            public void accept(Node node) {
+                for (Node child : node.getDescendants()) {
+                    if (child instanceof FootnoteBlock) footnoteBlocks.add(child);
+                }
+            }
+        });
+
+        assertEquals(1, footnoteBlocks.size());
+        assertSame(footnoteBlocks.get(0), FootnoteExtension.FOOTNOTES.getFrom(document).get("1"));
+        assertEquals(1, FootnoteExtension.FOOTNOTES.getFrom(document).values().size());
+    }
+}
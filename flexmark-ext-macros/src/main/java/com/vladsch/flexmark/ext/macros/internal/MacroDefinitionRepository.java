@@ -51,6 +51,11 @@ public class MacroDefinitionRepository extends NodeRepository<MacroDefinitionBlo
         return MacrosExtension.MACRO_DEFINITIONS_KEEP;
     }
 
+    @Override
+    public boolean isShareable() {
+        return true;
+    }
+
     private static class MacroDefinitionBlockComparator implements Comparator<MacroDefinitionBlock> {
         @Override
         public int compare(MacroDefinitionBlock f1, MacroDefinitionBlock f2) {
@@ -11,6 +11,8 @@ import com.vladsch.flexmark.html.renderer.*;
 import com.vladsch.flexmark.util.ast.*;
 import com.vladsch.flexmark.util.options.DataHolder;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -19,6 +21,13 @@ public class MacrosNodeRenderer implements PhasedNodeRenderer {
     final MacroDefinitionRepository repository;
     private boolean recheckUndefinedReferences;
 
+    // rendered macro expansions of this rendering pass, by whether links were rendered
+    private final HashMap<MacroDefinitionBlock, RenderedExpansion> linkExpansions = new HashMap<MacroDefinitionBlock, RenderedExpansion>();
+    private final HashMap<MacroDefinitionBlock, RenderedExpansion> noLinkExpansions = new HashMap<MacroDefinitionBlock, RenderedExpansion>();
+    private HashSet<MacroDefinitionBlock> expandedMacros = null;   // macros expanded by the expansion being rendered
+    private boolean expansionCut = false;                           // a recursive reference was skipped by the expansion being rendered
+    private final HashMap<MacroDefinitionBlock, Boolean> inlineMacros = new HashMap<MacroDefinitionBlock, Boolean>();
+
     public MacrosNodeRenderer(DataHolder options) {
         this.options = new MacrosOptions(options);
         this.repository = options.get(MacrosExtension.MACRO_DEFINITIONS);
@@ -78,30 +87,31 @@ public class MacrosNodeRenderer implements PhasedNodeRenderer {
         // render contents of macro definition
         final MacroDefinitionBlock macroDefinitionBlock = repository.get(repository.normalizeKey(node.getText()));
         if (macroDefinitionBlock != null) {
-            if (macroDefinitionBlock.hasChildren() && !macroDefinitionBlock.isInExpansion()) {
-                try {
-                    macroDefinitionBlock.setInExpansion(true);
-                    Node child = macroDefinitionBlock.getFirstChild();
-                    if (child instanceof Paragraph && child == macroDefinitionBlock.getLastChild()) {
-                        // if a single paragraph then we unwrap it and output only its children as inline text
-                        if (options.sourceWrapMacroReferences) {
-                            html.srcPos(node.getChars()).withAttr(AttributablePart.NODE_POSITION).tag("span");
-                            context.renderChildren(child);
-                            html.tag("/span");
-                        } else {
-                            context.renderChildren(child);
-                        }
+            if (macroDefinitionBlock.hasChildren()) {
+                if (macroDefinitionBlock.isInExpansion()) {
+                    // recursive reference, output depends on the macros being expanded
+                    expansionCut = true;
+                    return;
+                }
+
+                Node child = macroDefinitionBlock.getFirstChild();
+                if (child instanceof Paragraph && child == macroDefinitionBlock.getLastChild()) {
+                    // if a single paragraph then we unwrap it and output only its children as inline text
+                    if (options.sourceWrapMacroReferences) {
+                        html.srcPos(node.getChars()).withAttr(AttributablePart.NODE_POSITION).tag("span");
+                        renderExpansion(macroDefinitionBlock, child, context, html);
+                        html.tag("/span");
+                    } else {
+                        renderExpansion(macroDefinitionBlock, child, context, html);
+                    }
+                } else {
+                    if (options.sourceWrapMacroReferences) {
+                        html.srcPos(node.getChars()).withAttr(AttributablePart.NODE_POSITION).tag("div").indent().line();
+                        renderExpansion(macroDefinitionBlock, macroDefinitionBlock, context, html);
+                        html.unIndent().tag("/div");
                     } else {
-                        if (options.sourceWrapMacroReferences) {
-                            html.srcPos(node.getChars()).withAttr(AttributablePart.NODE_POSITION).tag("div").indent().line();
-                            context.renderChildren(macroDefinitionBlock);
-                            html.unIndent().tag("/div");
-                        } else {
-                            context.renderChildren(macroDefinitionBlock);
-                        }
+                        renderExpansion(macroDefinitionBlock, macroDefinitionBlock, context, html);
                     }
-                } finally {
-                    macroDefinitionBlock.setInExpansion(false);
                 }
             }
         } else {
@@ -109,6 +119,124 @@ public class MacrosNodeRenderer implements PhasedNodeRenderer {
         }
     }
 
+    /**
+     * Render children of a macro definition, or of its single paragraph, reusing the HTML of a previous expansion
+     * <p>
+     * An expansion is cached only if no recursive reference was skipped while rendering it and it is reused only if
+     * none of the macros expanded in it are being expanded, in both cases the output depends on the expanding macros.
+     * <p>
+     * Rendered HTML can only be reused where appending it gives the same result as rendering the nodes: block content
+     * when the writer is not indented, otherwise indentation of list items is applied by the writer as the content is
+     * rendered, and inline content which does not contain block macros.
+     *
+     * @param macroDefinitionBlock macro definition being expanded
+     * @param parent               node whose children are rendered
+     * @param context              rendering context
+     * @param html                 html writer
+     */
+    private void renderExpansion(MacroDefinitionBlock macroDefinitionBlock, Node parent, NodeRendererContext context, HtmlWriter html) {
+        boolean isBlock = parent == macroDefinitionBlock;
+        boolean reusable = isBlock ? html.getIndent() == 0 : isInline(macroDefinitionBlock);
+        HashMap<MacroDefinitionBlock, RenderedExpansion> expansions = context.isDoNotRenderLinks() ? noLinkExpansions : linkExpansions;
+
+        if (reusable) {
+            RenderedExpansion expansion = expansions.get(macroDefinitionBlock);
+            if (expansion != null && !expansion.isAffectedByExpansion()) {
+                appendExpansion(expansion, isBlock, html);
+                if (expandedMacros != null) Collections.addAll(expandedMacros, expansion.expandedMacros);
+                return;
+            }
+        }
+
+        HashSet<MacroDefinitionBlock> outerExpandedMacros = expandedMacros;
+        boolean outerExpansionCut = expansionCut;
+        expandedMacros = new HashSet<MacroDefinitionBlock>();
+        expandedMacros.add(macroDefinitionBlock);
+        expansionCut = false;
+
+        try {
+            macroDefinitionBlock.setInExpansion(true);
+            if (reusable) {
+                StringBuilder out = new StringBuilder();
+                NodeRendererContext subContext = context.getSubContext(out, true);
+                if (context.isDoNotRenderLinks()) subContext.doNotRenderLinks();
+                subContext.renderChildren(parent);
+
+                RenderedExpansion rendered = new RenderedExpansion(out.toString(), subContext.getHtmlWriter().getPendingEOL(), expandedMacros);
+                if (!expansionCut) expansions.put(macroDefinitionBlock, rendered);
+                appendExpansion(rendered, isBlock, html);
+            } else {
+                context.renderChildren(parent);
+            }
+        } finally {
+            macroDefinitionBlock.setInExpansion(false);
+
+            if (outerExpandedMacros != null) outerExpandedMacros.addAll(expandedMacros);
+            expandedMacros = outerExpandedMacros;
+            expansionCut |= outerExpansionCut;
+        }
+    }
+
+    private static void appendExpansion(RenderedExpansion rendered, boolean isBlock, HtmlWriter html) {
+        if (isBlock) {
+            // block content is on its own lines, pre-formatted so that its indentation is kept
+            html.line().openPre().raw(rendered.html).closePre().line();
+        } else {
+            html.raw(rendered.html);
+            if (rendered.pendingEOL > 0) html.raw("\n", rendered.pendingEOL);
+        }
+    }
+
+    /**
+     * Test whether a macro expands to inline content only, ie. its definition is a single paragraph whose macro
+     * references are to macros which expand to inline content only
+     *
+     * @param macroDefinitionBlock macro definition
+     * @return true if expansion of the macro is inline
+     */
+    private boolean isInline(MacroDefinitionBlock macroDefinitionBlock) {
+        Boolean inline = inlineMacros.get(macroDefinitionBlock);
+        if (inline == null) {
+            // recursive references are not expanded, treat them as inline while testing
+            inlineMacros.put(macroDefinitionBlock, true);
+            inline = isInlineContent(macroDefinitionBlock.getFirstChild());
+            inlineMacros.put(macroDefinitionBlock, inline);
+        }
+        return inline;
+    }
+
+    private boolean isInlineContent(Node parent) {
+        for (Node node : parent.getDescendants()) {
+            if (node instanceof MacroReference) {
+                MacroDefinitionBlock referenced = repository.get(repository.normalizeKey(((MacroReference) node).getText()));
+                if (referenced != null && referenced.hasChildren()) {
+                    Node child = referenced.getFirstChild();
+                    if (!(child instanceof Paragraph && child == referenced.getLastChild()) || !isInline(referenced)) return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static class RenderedExpansion {
+        final String html;
+        final int pendingEOL;
+        final MacroDefinitionBlock[] expandedMacros;
+
+        RenderedExpansion(String html, int pendingEOL, Set<MacroDefinitionBlock> expandedMacros) {
+            this.html = html;
+            this.pendingEOL = pendingEOL;
+            this.expandedMacros = expandedMacros.toArray(new MacroDefinitionBlock[0]);
+        }
+
+        boolean isAffectedByExpansion() {
+            for (MacroDefinitionBlock block : expandedMacros) {
+                if (block.isInExpansion()) return true;
+            }
+            return false;
+        }
+    }
+
     private void render(MacroDefinitionBlock node, NodeRendererContext context, HtmlWriter html) {
         // nothing to render
     }
@@ -9,6 +9,7 @@ import org.junit.runners.Suite;
         ComboTableManipulationSpecTest.class,
         TableTextCollectingVisitorTest.class,
         MarkdownTableTest.class,
+        MarkdownTableIncrementalTest.class,
         TableCellOffsetInfoTest.class,
         //JiraTablesSpecTest.class,
 })
@@ -0,0 +1,153 @@
+package com.vladsch.flexmark.ext.tables;
+
+import com.vladsch.flexmark.html.HtmlWriter;
+import com.vladsch.flexmark.util.format.MarkdownTable;
+import com.vladsch.flexmark.util.format.TableCell;
+import com.vladsch.flexmark.util.format.TableCellOffsetInfo;
+import com.vladsch.flexmark.util.options.DataHolder;
+import com.vladsch.flexmark.util.options.MutableDataSet;
+import com.vladsch.flexmark.util.sequence.BasedSequence;
+import com.vladsch.flexmark.util.sequence.BasedSequenceImpl;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MarkdownTableIncrementalTest extends MarkdownTableTestBase {
+    final static private String markdown = "" +
+            "| Left-aligned | Center-aligned | Right-aligned |\n" +
+            "| :---         |     :---:      |          ---: |\n" +
+            "| git status   | git status     | git status1    |\n" +
+            "| git diff     | git diff       | git diff2      |\n" +
+            "| git add      | git add        | git add3       |\n" +
+            "[Table Caption]\n" +
+            "";
+
+    private MarkdownTable incrementalTable(CharSequence markdown) {
+        MarkdownTable table = getTable(markdown, formatOptions("", null));
+        table.setIncremental(true);
+        return table;
+    }
+
+    private String formatTable(MarkdownTable table) {
+        HtmlWriter out = new HtmlWriter(new StringBuilder(), 0, HtmlWriter.FORMAT_ALL);
+        table.appendTable(out);
+        return out.getText();
+    }
+
+    // replace cell text of markdown in the table, returning formatting of the edited markdown
+    private String editCell(MarkdownTable table, String markdown, String original, String edited, String edit) {
+        String editedMarkdown = markdown.replace(original, edited);
+        MarkdownTable editedTable = getTable(editedMarkdown, formatOptions("", null));
+        TableCellOffsetInfo info = editedTable.getCellOffsetInfo(editedMarkdown.indexOf(edit));
+        table.updateCell(info.row, info.column, info.tableCell);
+        return formatTable(editedTable);
+    }
+
+    @Test
+    public void test_fullConversion() {
+        MarkdownTable table = incrementalTable(markdown);
+        String expected = formatTable(getTable(markdown, formatOptions("", null)));
+
+        assertEquals(expected, formatTable(table));
+        assertEquals(5, table.getChangedRows().cardinality());
+
+        assertEquals(expected, formatTable(table));
+        assertEquals(0, table.getChangedRows().cardinality());
+    }
+
+    @Test
+    public void test_editWithinWidth() {
+        MarkdownTable table = incrementalTable(markdown);
+        formatTable(table);
+
+        String expected = editCell(table, markdown, "| git diff2      |", "| git diff4      |", "diff4");
+        assertEquals(expected, formatTable(table));
+        assertEquals(1, table.getChangedRows().cardinality());
+        assertTrue(table.getChangedRows().get(3));
+    }
+
+    @Test
+    public void test_editWidensColumn() {
+        MarkdownTable table = incrementalTable(markdown);
+        formatTable(table);
+
+        String expected = editCell(table, markdown, "| git diff     | git diff  ", "| git diff --cached --name-only | git diff  ", "--cached");
+        assertEquals(expected, formatTable(table));
+        assertEquals(5, table.getChangedRows().cardinality());
+    }
+
+    @Test
+    public void test_editNarrowsColumn() {
+        MarkdownTable table = incrementalTable(markdown.replace("| git diff     | git diff  ", "| git diff --cached --name-only | git diff  "));
+        formatTable(table);
+
+        String editedMarkdown = markdown.replace("| git diff     | git diff  ", "| git diff x | git diff  ");
+        MarkdownTable editedTable = getTable(editedMarkdown, formatOptions("", null));
+        TableCellOffsetInfo info = editedTable.getCellOffsetInfo(editedMarkdown.indexOf("diff x"));
+        table.updateCell(info.row, info.column, info.tableCell);
+
+        assertEquals(formatTable(editedTable), formatTable(table));
+        assertEquals(5, table.getChangedRows().cardinality());
+    }
+
+    @Test
+    public void test_editTracked() {
+        MarkdownTable table = incrementalTable(markdown);
+        formatTable(table);
+
+        // type a character in a cell with the caret after it
+        String editedMarkdown = markdown.replace("| git add      |", "| git addx     |");
+        int pos = editedMarkdown.indexOf("addx") + 4;
+        BasedSequence source = BasedSequenceImpl.of(editedMarkdown);
+        MarkdownTable editedTable = getTable(source, formatOptions("", null));
+        assertTrue(editedTable.addTrackedOffset(pos));
+        TableCellOffsetInfo info = editedTable.getCellOffsetInfo(pos);
+        TableCell trackedCell = info.tableCell;
+
+        table.updateCell(info.row, info.column, trackedCell);
+        String expected = formatTable(editedTable);
+        assertEquals(expected, formatTable(table));
+        assertEquals(editedTable.getTrackedOffsets(), table.getTrackedOffsets());
+        assertEquals(1, table.getChangedRows().cardinality());
+
+        // next edit clears the tracked offset, only the tracked and edited rows are formatted
+        String expected2 = editCell(table, editedMarkdown, "| git status1    |", "| git status2    |", "status2");
+        assertEquals(expected2, formatTable(table));
+        assertTrue(table.getTrackedOffsets().isEmpty());
+        assertEquals(2, table.getChangedRows().cardinality());
+    }
+
+    @Test
+    public void test_noLeadTrailPipes() {
+        DataHolder options = new MutableDataSet(formatOptions("", null))
+                .set(TablesExtension.FORMAT_TABLE_LEAD_TRAIL_PIPES, false)
+                .set(TablesExtension.FORMAT_TABLE_INDENT_PREFIX, "    ");
+
+        MarkdownTable table = getTable(markdown, options);
+        table.setIncremental(true);
+        String expected = formatTable(getTable(markdown, options));
+
+        assertEquals(expected, formatTable(table));
+        assertEquals(expected, formatTable(table));
+        assertEquals(0, table.getChangedRows().cardinality());
+    }
+
+    @Test
+    public void test_columnSpans() {
+        String spanMarkdown = "" +
+                "| Header 1.1 | Header 1.2 |\n" +
+                "|------------|------------|\n" +
+                "| Data 1.1   | Data 1.2   |\n" +
+                "| Data 2.1               ||\n" +
+                "";
+
+        MarkdownTable table = incrementalTable(spanMarkdown);
+        String expected = formatTable(getTable(spanMarkdown, formatOptions("", null)));
+
+        // widths are not retained for column spans
+        assertEquals(expected, formatTable(table));
+        assertEquals(expected, formatTable(table));
+        assertEquals(4, table.getChangedRows().cardinality());
+    }
+}
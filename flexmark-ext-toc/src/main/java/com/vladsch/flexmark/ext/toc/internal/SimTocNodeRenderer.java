@@ -2,7 +2,7 @@ package com.vladsch.flexmark.ext.toc.internal;
 
 import com.vladsch.flexmark.ast.Heading;
 import com.vladsch.flexmark.util.ast.Node;
-import com.vladsch.flexmark.ast.util.HeadingCollectingVisitor;
+import com.vladsch.flexmark.ast.util.HeadingIndex;
 import com.vladsch.flexmark.ext.toc.SimTocBlock;
 import com.vladsch.flexmark.ext.toc.SimTocContent;
 import com.vladsch.flexmark.ext.toc.SimTocOption;
@@ -72,8 +72,7 @@ public class SimTocNodeRenderer implements NodeRenderer {
     }
 
     private void render(SimTocBlock node, NodeRendererContext context, HtmlWriter html) {
-        HeadingCollectingVisitor visitor = new HeadingCollectingVisitor();
-        List<Heading> headings = visitor.collectAndGetHeadings(node.getDocument());
+        List<Heading> headings = HeadingIndex.of(node.getDocument()).getHeadings();
         if (headings != null) {
             SimTocOptionsParser optionsParser = new SimTocOptionsParser();
             TocOptions options = optionsParser.parseOption(node.getStyle(), this.options, null).getFirst();
@@ -2,7 +2,7 @@ package com.vladsch.flexmark.ext.toc.internal;
 
 import com.vladsch.flexmark.ast.Heading;
 import com.vladsch.flexmark.util.ast.Node;
-import com.vladsch.flexmark.ast.util.HeadingCollectingVisitor;
+import com.vladsch.flexmark.ast.util.HeadingIndex;
 import com.vladsch.flexmark.ext.toc.TocBlock;
 import com.vladsch.flexmark.ext.toc.TocExtension;
 import com.vladsch.flexmark.html.CustomNodeRenderer;
@@ -43,8 +43,7 @@ public class TocNodeRenderer implements NodeRenderer {
     }
 
     private void render(TocBlock node, NodeRendererContext context, HtmlWriter html) {
-        HeadingCollectingVisitor visitor = new HeadingCollectingVisitor();
-        List<Heading> headings = visitor.collectAndGetHeadings(node.getDocument());
+        List<Heading> headings = HeadingIndex.of(node.getDocument()).getHeadings();
         if (headings != null) {
             TocOptionsParser optionsParser = new TocOptionsParser();
             TocOptions titleOptions = haveTitle ? this.options : this.options.withTitle("");
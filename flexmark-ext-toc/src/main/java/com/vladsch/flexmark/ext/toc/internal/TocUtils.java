@@ -1,6 +1,7 @@
 package com.vladsch.flexmark.ext.toc.internal;
 
 import com.vladsch.flexmark.ast.Heading;
+import com.vladsch.flexmark.ast.util.HeadingIndex;
 import com.vladsch.flexmark.ast.util.TextCollectingVisitor;
 import com.vladsch.flexmark.ext.toc.SimTocContent;
 import com.vladsch.flexmark.html.HtmlWriter;
@@ -14,6 +15,7 @@ import com.vladsch.flexmark.util.ValueRunnable;
 import com.vladsch.flexmark.util.html.Attribute;
 import com.vladsch.flexmark.util.html.Escaping;
 import com.vladsch.flexmark.util.DelimitedBuilder;
+import com.vladsch.flexmark.util.ast.Document;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
 
 import java.util.*;
@@ -239,7 +241,13 @@ public class TocUtils {
     }
 
     private static String getHeadingText(Heading header) {
-        return Escaping.escapeHtml(new TextCollectingVisitor().collectAndGetText(header), false);
+        return Escaping.escapeHtml(collectHeadingText(header), false);
+    }
+
+    private static String collectHeadingText(Heading header) {
+        // heading text is collected once per render and shared by all tables of contents
+        Document document = header.getDocument();
+        return document != null ? HeadingIndex.of(document).getHeadingText(header) : new TextCollectingVisitor().collectAndGetText(header);
     }
 
     private static TextCollectingAppendable getHeadingContent(NodeRendererContext context, Heading header) {
@@ -256,7 +264,7 @@ public class TocUtils {
             String headerText;
             // need to skip anchor links but render emphasis
             if (tocOptions.isTextOnly) {
-                headerText = new TextCollectingVisitor().collectAndGetText(header);
+                headerText = collectHeadingText(header);
             } else {
                 headerText = header.getChars().toString();
             }
@@ -0,0 +1,33 @@
+package com.vladsch.flexmark.ext.toc;
+
+import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.options.DataHolder;
+import com.vladsch.flexmark.util.options.MutableDataSet;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertTrue;
+
+public class TocChangedDocumentTest {
+    private static final DataHolder OPTIONS = new MutableDataSet()
+            .set(Parser.EXTENSIONS, Collections.singleton(TocExtension.create()));
+
+    @Test
+    public void test_headingAddedAfterRender() {
+        Parser parser = Parser.builder(OPTIONS).build();
+        HtmlRenderer renderer = HtmlRenderer.builder(OPTIONS).build();
+
+        Document document = parser.parse("[TOC]\n\n## One\n");
+        assertTrue(renderer.render(document).contains("<a href=\"#one\">One</a>"));
+
+        // headings added after a render are included in the next render
+        document.appendChild(parser.parse("## Two\n").getFirstChild());
+        String html = renderer.render(document);
+        assertTrue(html, html.contains("<a href=\"#one\">One</a>"));
+        assertTrue(html, html.contains("<a href=\"#two\">Two</a>"));
+        assertTrue(html, html.contains("<h2 id=\"two\">Two</h2>"));
+    }
+}
@@ -0,0 +1,275 @@
+package com.vladsch.flexmark.formatter;
+
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.BatchExecutor;
+import com.vladsch.flexmark.util.Consumer;
+import com.vladsch.flexmark.util.Function;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.options.DataHolder;
+import com.vladsch.flexmark.util.options.DataKey;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Formats markdown files in place on a pool of worker threads
+ * <p>
+ * Each file is read, parsed and formatted by a worker thread and replaced only if the formatted text differs from the
+ * file's text. The formatted text is written to a temporary file in the same directory which is then moved over the
+ * file, atomically where the file system supports it, so an interrupted batch never leaves a partially written file.
+ * <p>
+ * The parser and formatter are shared by all workers, they are immutable and thread-safe. All state of a document's
+ * formatting is created for the document by {@link Formatter#render(com.vladsch.flexmark.util.ast.Node)}, which does
+ * not use a {@link TranslationHandler}. A translation handler holds the state of its document's translation and must
+ * never be shared by documents formatted concurrently, get one from {@link Formatter#getTranslationHandler()} for every
+ * document.
+ * <p>
+ * Files are scheduled by a {@link BatchExecutor}, results are passed to the result handler on the thread calling
+ * {@link #format(Iterator, ResultHandler)} in completion order.
+ */
+public class BatchFormatter {
+    public static final DataKey<Integer> BATCH_THREADS = BatchExecutor.BATCH_THREADS;
+    public static final DataKey<String> BATCH_CHARSET = new DataKey<>("BATCH_CHARSET", "UTF-8"); // charset of formatted files
+
+    private final Parser parser;
+    private final Formatter formatter;
+    private final Charset charset;
+    private final BatchExecutor executor;
+
+    /**
+     * Create a batch formatter with parser and formatter built from options
+     *
+     * @param options parser, formatter and batch options
+     */
+    public BatchFormatter(DataHolder options) {
+        this(Parser.builder(options).build(), Formatter.builder(options).build(), Charset.forName(BATCH_CHARSET.getFrom(options)), BATCH_THREADS.getFrom(options));
+    }
+
+    /**
+     * @param parser    parser for files
+     * @param formatter formatter for files
+     * @param charset   charset of files
+     * @param threads   number of worker threads, 0 or less for number of available processors
+     */
+    public BatchFormatter(Parser parser, Formatter formatter, Charset charset, int threads) {
+        this.parser = parser;
+        this.formatter = formatter;
+        this.charset = charset;
+        this.executor = new BatchExecutor(threads);
+    }
+
+    public int getThreads() {
+        return executor.getThreads();
+    }
+
+    /**
+     * Format files, collecting their results
+     *
+     * @param paths files to format
+     * @return results of all files in completion order
+     * @throws InterruptedException if interrupted while waiting for files to be formatted, pending files are cancelled
+     */
+    public List<Result> format(Iterable<Path> paths) throws InterruptedException {
+        final ArrayList<Result> results = new ArrayList<Result>();
+        format(paths.iterator(), new ResultHandler() {
+            @Override
+            public void handle(Result result) {
+                results.add(result);
+            }
+        });
+        return results;
+    }
+
+    /**
+     * Format files, passing each file's result to the handler as it completes
+     * <p>
+     * A file's failure does not affect other files, it is reported in its result. An exception thrown by the handler
+     * cancels pending files and is propagated.
+     *
+     * @param paths   files to format, taken as workers become available
+     * @param handler handler of results, called on this thread
+     * @throws InterruptedException if interrupted while waiting for files to be formatted, pending files are cancelled
+     */
+    public void format(Iterator<Path> paths, final ResultHandler handler) throws InterruptedException {
+        executor.execute(paths, new Function<Path, Result>() {
+            @Override
+            public Result apply(Path path) {
+                return format(path);
+            }
+        }, new Consumer<Result>() {
+            @Override
+            public void accept(Result result) {
+                handler.handle(result);
+            }
+        });
+    }
+
+    /**
+     * Format a single file on the calling thread
+     *
+     * @param path file to format
+     * @return result of the file
+     */
+    public Result format(Path path) {
+        long start = System.nanoTime();
+        long readNanos = 0;
+        long parseNanos = 0;
+        long formatNanos = 0;
+        long writeNanos = 0;
+        boolean changed = false;
+        Throwable failure = null;
+
+        try {
+            final String text = new String(Files.readAllBytes(path), charset);
+            long read = System.nanoTime();
+            readNanos = read - start;
+
+            final Document document = parser.parse(text);
+            long parsed = System.nanoTime();
+            parseNanos = parsed - read;
+
+            final String formatted = formatter.render(document);
+            long rendered = System.nanoTime();
+            formatNanos = rendered - parsed;
+
+            if (!formatted.equals(text)) {
+                write(path, formatted.getBytes(charset));
+                changed = true;
+                writeNanos = System.nanoTime() - rendered;
+            }
+        } catch (Throwable t) {
+            failure = t;
+        }
+
+        return new Result(path, changed, readNanos, parseNanos, formatNanos, writeNanos, System.nanoTime() - start, failure);
+    }
+
+    // replace the file by moving a temporary file with its new content over it, readers never see a partial file
+    private static void write(Path path, byte[] content) throws IOException {
+        // a symbolic link is kept, the file it links to is replaced
+        Path file = path.toRealPath();
+        Path temp = Files.createTempFile(file.getParent(), "." + file.getFileName(), ".tmp");
+        try {
+            Files.write(temp, content);
+
+            if (!copyAttributes(file, temp)) {
+                // owner or group of the file cannot be given to a replacement, the file is written in place
+                Files.write(file, content);
+                return;
+            }
+
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // give the temporary file the owner, group and permissions of the file, false if owner or group cannot be set
+    private static boolean copyAttributes(Path file, Path temp) throws IOException {
+        PosixFileAttributeView tempView = Files.getFileAttributeView(temp, PosixFileAttributeView.class);
+        if (tempView == null) {
+            // not a posix file system, temporary file has default attributes
+            return true;
+        }
+
+        PosixFileAttributes attributes = Files.readAttributes(file, PosixFileAttributes.class);
+        PosixFileAttributes tempAttributes = tempView.readAttributes();
+        try {
+            if (!attributes.owner().equals(tempAttributes.owner())) tempView.setOwner(attributes.owner());
+            if (!attributes.group().equals(tempAttributes.group())) tempView.setGroup(attributes.group());
+        } catch (FileSystemException e) {
+            return false;
+        }
+
+        tempView.setPermissions(attributes.permissions());
+        return true;
+    }
+
+    /**
+     * Change, timing and failure of a file, times are in nanoseconds
+     */
+    public static class Result {
+        private final Path path;
+        private final boolean changed;
+        private final long readNanos;
+        private final long parseNanos;
+        private final long formatNanos;
+        private final long writeNanos;
+        private final long totalNanos;
+        private final Throwable failure;
+
+        Result(Path path, boolean changed, long readNanos, long parseNanos, long formatNanos, long writeNanos, long totalNanos, Throwable failure) {
+            this.path = path;
+            this.changed = changed;
+            this.readNanos = readNanos;
+            this.parseNanos = parseNanos;
+            this.formatNanos = formatNanos;
+            this.writeNanos = writeNanos;
+            this.totalNanos = totalNanos;
+            this.failure = failure;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        /**
+         * @return true if the formatted text differed from the file's text and was written to the file
+         */
+        public boolean isChanged() {
+            return changed;
+        }
+
+        public long getReadNanos() {
+            return readNanos;
+        }
+
+        public long getParseNanos() {
+            return parseNanos;
+        }
+
+        public long getFormatNanos() {
+            return formatNanos;
+        }
+
+        /**
+         * @return time to write the file, 0 if the file was not changed
+         */
+        public long getWriteNanos() {
+            return writeNanos;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * @return exception or error which failed the file, null if the file was formatted
+         */
+        public Throwable getFailure() {
+            return failure;
+        }
+
+        public boolean isSuccess() {
+            return failure == null;
+        }
+    }
+
+    public interface ResultHandler {
+        void handle(Result result);
+    }
+}
@@ -0,0 +1,200 @@
+package com.vladsch.flexmark.formatter;
+
+import com.vladsch.flexmark.html.renderer.HeaderIdGenerator;
+import com.vladsch.flexmark.html.renderer.HtmlIdGeneratorFactory;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.options.DataHolder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Translates many documents with a single segment store shared by all documents
+ * <p>
+ * Each added document is rendered once for {@link RenderPurpose#TRANSLATION_SPANS} and its translating texts are added
+ * to the {@link TranslationSegmentStore}, so text repeated across documents is translated once. After translations of
+ * the store's segments are set, documents are re-assembled with {@link RenderPurpose#TRANSLATED_SPANS} and
+ * {@link RenderPurpose#TRANSLATED} renders of their own {@link TranslationHandler}.
+ * <p>
+ * Documents with identical text share their translation state and are rendered and re-assembled once. A re-assembled
+ * document is kept until translations of its own segments change, so changing some translations only re-parses the
+ * documents using them.
+ * <p>
+ * Not thread-safe, documents of a batch must be added and translated by one thread at a time.
+ */
+public class BatchTranslator {
+    private final Parser parser;
+    private final Formatter formatter;
+    private final HtmlIdGeneratorFactory idGeneratorFactory;
+    private final TranslationSegmentStore segmentStore;
+    private final ArrayList<DocumentTranslation> documents;
+    private final HashMap<String, DocumentTranslation> documentTranslations;
+
+    /**
+     * Create a batch translator with parser and formatter built from options
+     *
+     * @param options parser and formatter options
+     */
+    public BatchTranslator(DataHolder options) {
+        this(Parser.builder(options).build(), Formatter.builder(options).build());
+    }
+
+    public BatchTranslator(Parser parser, Formatter formatter) {
+        this(parser, formatter, new HeaderIdGenerator.Factory());
+    }
+
+    /**
+     * @param parser             parser of documents and their partially translated text
+     * @param formatter          formatter for translation renders
+     * @param idGeneratorFactory id generator factory for translation handlers of documents
+     */
+    public BatchTranslator(Parser parser, Formatter formatter, HtmlIdGeneratorFactory idGeneratorFactory) {
+        this.parser = parser;
+        this.formatter = formatter;
+        this.idGeneratorFactory = idGeneratorFactory;
+        this.segmentStore = new TranslationSegmentStore();
+        this.documents = new ArrayList<DocumentTranslation>();
+        this.documentTranslations = new HashMap<String, DocumentTranslation>();
+    }
+
+    public TranslationSegmentStore getSegmentStore() {
+        return segmentStore;
+    }
+
+    /**
+     * Parse and add a document
+     *
+     * @param markdown text of the document
+     * @return index of the document in the batch
+     */
+    public int add(CharSequence markdown) {
+        DocumentTranslation translation = documentTranslations.get(markdown.toString());
+        return translation != null ? add(translation) : add(parser.parse(markdown.toString()));
+    }
+
+    /**
+     * Add a parsed document
+     *
+     * @param document document parsed with the batch's parser options
+     * @return index of the document in the batch
+     */
+    public int add(Document document) {
+        String text = document.getChars().toString();
+        DocumentTranslation translation = documentTranslations.get(text);
+
+        if (translation == null) {
+            TranslationHandler handler = formatter.getTranslationHandler(idGeneratorFactory);
+            String spans = formatter.translationRender(document, handler, RenderPurpose.TRANSLATION_SPANS);
+            int[] segmentIndices = segmentStore.addAll(handler.getTranslatingTexts());
+            translation = new DocumentTranslation(document, handler, spans, segmentIndices);
+            documentTranslations.put(text, translation);
+        }
+        return add(translation);
+    }
+
+    private int add(DocumentTranslation translation) {
+        documents.add(translation);
+        return documents.size() - 1;
+    }
+
+    public int getDocumentCount() {
+        return documents.size();
+    }
+
+    public Document getDocument(int index) {
+        return documents.get(index).document;
+    }
+
+    /**
+     * @param index index of the document
+     * @return formatted text of the document with placeholders for translating and non-translating text
+     */
+    public String getTranslationSpans(int index) {
+        return documents.get(index).spans;
+    }
+
+    /**
+     * @param index index of the document
+     * @return indices in the segment store of the document's translating texts
+     */
+    public int[] getSegmentIndices(int index) {
+        return documents.get(index).segmentIndices.clone();
+    }
+
+    /**
+     * @return unique translating texts of all documents, in segment store index order
+     */
+    public List<String> getTranslatingTexts() {
+        return segmentStore.getSegments();
+    }
+
+    /**
+     * @param translatedTexts translations of all texts returned by {@link #getTranslatingTexts()}, in the same order
+     */
+    public void setTranslatedTexts(List<? extends CharSequence> translatedTexts) {
+        segmentStore.setTranslatedTexts(translatedTexts);
+    }
+
+    /**
+     * Re-assemble a document from translations in the segment store
+     *
+     * @param index index of the document
+     * @return translated markdown of the document
+     * @throws IllegalStateException if any of the document's segments is not translated
+     */
+    public String translate(int index) {
+        DocumentTranslation translation = documents.get(index);
+        int modificationCount = segmentStore.getModificationCount();
+
+        // no translations were set since the document was re-assembled
+        if (translation.translated != null && translation.modificationCount == modificationCount) {
+            return translation.translated;
+        }
+
+        List<CharSequence> translatedTexts = segmentStore.getTranslatedTexts(translation.segmentIndices);
+        if (translation.translated == null || !translatedTexts.equals(translation.translatedTexts)) {
+            TranslationHandler handler = translation.handler;
+            handler.setTranslatedTexts(translatedTexts);
+            String partial = formatter.translationRender(translation.document, handler, RenderPurpose.TRANSLATED_SPANS);
+            Document partialDocument = parser.parse(partial);
+            translation.translated = formatter.translationRender(partialDocument, handler, RenderPurpose.TRANSLATED);
+            translation.translatedTexts = translatedTexts;
+        }
+        translation.modificationCount = modificationCount;
+        return translation.translated;
+    }
+
+    /**
+     * Re-assemble all documents from translations in the segment store
+     *
+     * @return translated markdown of documents in batch order
+     * @throws IllegalStateException if any segment of a document is not translated
+     */
+    public List<String> translateAll() {
+        ArrayList<String> translated = new ArrayList<String>(documents.size());
+        int iMax = documents.size();
+        for (int i = 0; i < iMax; i++) {
+            translated.add(translate(i));
+        }
+        return translated;
+    }
+
+    private static class DocumentTranslation {
+        final Document document;
+        final TranslationHandler handler;
+        final String spans;
+        final int[] segmentIndices;
+        List<CharSequence> translatedTexts;     // translations used for translated, null if not translated
+        int modificationCount;                  // segment store modification count when translated was checked
+        String translated;
+
+        DocumentTranslation(Document document, TranslationHandler handler, String spans, int[] segmentIndices) {
+            this.document = document;
+            this.handler = handler;
+            this.spans = spans;
+            this.segmentIndices = segmentIndices;
+        }
+    }
+}
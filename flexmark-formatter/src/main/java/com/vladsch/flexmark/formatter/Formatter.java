@@ -7,6 +7,7 @@ import com.vladsch.flexmark.formatter.internal.TranslationHandlerImpl;
 import com.vladsch.flexmark.util.IRender;
 import com.vladsch.flexmark.util.ast.Document;
 import com.vladsch.flexmark.util.ast.Node;
+import com.vladsch.flexmark.util.ast.NodeTypeMap;
 import com.vladsch.flexmark.html.AttributeProviderFactory;
 import com.vladsch.flexmark.html.LinkResolverFactory;
 import com.vladsch.flexmark.html.renderer.HeaderIdGenerator;
@@ -20,6 +21,7 @@ import com.vladsch.flexmark.util.collection.SubClassingBag;
 import com.vladsch.flexmark.util.format.TableFormatOptions;
 import com.vladsch.flexmark.util.format.options.*;
 import com.vladsch.flexmark.util.html.FormattingAppendable;
+import com.vladsch.flexmark.util.mappers.CachingCharWidthProvider;
 import com.vladsch.flexmark.util.mappers.CharWidthProvider;
 import com.vladsch.flexmark.util.options.*;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
@@ -78,6 +80,8 @@ public class Formatter implements IRender {
     //public static final DataKey<TrailingSpaces> KEEP_TRAILING_SPACES = new DataKey<>("KEEP_TRAILING_SPACES", TrailingSpaces.KEEP_LINE_BREAK);
     //public static final DataKey<TrailingSpaces> CODE_KEEP_TRAILING_SPACES = new DataKey<>("CODE_KEEP_TRAILING_SPACES", TrailingSpaces.KEEP_ALL);
     public static final DataKey<CharWidthProvider> FORMAT_CHAR_WIDTH_PROVIDER = TableFormatOptions.FORMAT_CHAR_WIDTH_PROVIDER;
+    public static final DataKey<Boolean> FORMAT_CHAR_WIDTH_CACHE = new DataKey<>("FORMAT_CHAR_WIDTH_CACHE", true); // wrap char width provider in a CachingCharWidthProvider shared by all renderings
+    public static final DataKey<Boolean> FORMAT_CHAR_WIDTH_ADDITIVE = new DataKey<>("FORMAT_CHAR_WIDTH_ADDITIVE", false); // string width of char width provider is the sum of its char widths, cache measures strings from cached char widths
 
     /**
      * @deprecated use FORMAT_ prefixed name
@@ -109,7 +113,7 @@ public class Formatter implements IRender {
 
     private Formatter(Builder builder) {
         this.builder = new Builder(builder); // take a copy to avoid after creation side effects
-        this.options = new DataSet(builder);
+        this.options = new FrozenDataSet(cachingCharWidths(builder));
         this.formatterOptions = new FormatterOptions(this.options);
         this.nodeFormatterFactories = new ArrayList<NodeFormatterFactory>(builder.nodeFormatterFactories.size() + 1);
         this.nodeFormatterFactories.addAll(builder.nodeFormatterFactories);
@@ -123,6 +127,14 @@ public class Formatter implements IRender {
         });
     }
 
+    private static DataHolder cachingCharWidths(DataHolder options) {
+        if (!FORMAT_CHAR_WIDTH_CACHE.getFrom(options)) return options;
+
+        MutableDataSet cachingOptions = new MutableDataSet(options);
+        cachingOptions.set(FORMAT_CHAR_WIDTH_PROVIDER, CachingCharWidthProvider.of(FORMAT_CHAR_WIDTH_PROVIDER.getFrom(options), CachingCharWidthProvider.DEFAULT_MAX_CACHED_STRINGS, FORMAT_CHAR_WIDTH_ADDITIVE.getFrom(options)));
+        return cachingOptions;
+    }
+
     public TranslationHandler getTranslationHandler(TranslationHandlerFactory translationHandlerFactory, HtmlIdGeneratorFactory idGeneratorFactory) {
         return translationHandlerFactory.create(options, formatterOptions, idGeneratorFactory);
     }
@@ -383,7 +395,7 @@ public class Formatter implements IRender {
 
     private class MainNodeFormatter extends NodeFormatterSubContext {
         private final Document document;
-        private final Map<Class<?>, NodeFormattingHandler> renderers;
+        private final NodeTypeMap<NodeFormattingHandler> renderers;
         private final SubClassingBag<Node> collectedNodes;
 
         private final List<PhasedNodeFormatter> phasedFormatters;
@@ -397,7 +409,7 @@ public class Formatter implements IRender {
             this.myTranslationHandler = translationHandler;
             this.options = new ScopedDataSet(document, options);
             this.document = document;
-            this.renderers = new HashMap<Class<?>, NodeFormattingHandler>(32);
+            this.renderers = new NodeTypeMap<NodeFormattingHandler>(32);
             this.renderingPhases = new HashSet<FormattingPhase>(FormattingPhase.values().length);
             final Set<Class> collectNodeTypes = new HashSet<Class>(100);
             this.phasedFormatters = new ArrayList<PhasedNodeFormatter>(nodeFormatterFactories.size());
@@ -586,7 +598,7 @@ public class Formatter implements IRender {
                     this.phase = phase;
                     // here we render multiple phases
                     if (this.phase == FormattingPhase.DOCUMENT) {
-                        NodeFormattingHandler nodeRenderer = renderers.get(node.getClass());
+                        NodeFormattingHandler nodeRenderer = renderers.get(node);
                         if (nodeRenderer != null) {
                             subContext.renderingNode = node;
                             nodeRenderer.render(node, subContext, subContext.markdown);
@@ -604,7 +616,7 @@ public class Formatter implements IRender {
                     }
                 }
             } else {
-                NodeFormattingHandler nodeRenderer = renderers.get(node.getClass());
+                NodeFormattingHandler nodeRenderer = renderers.get(node);
 
                 if (nodeRenderer == null) {
                     nodeRenderer = renderers.get(Node.class);
@@ -0,0 +1,143 @@
+package com.vladsch.flexmark.formatter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Indexed store of translatable text segments and their translations
+ * <p>
+ * Identical segments are stored once and get the same index, so segments repeated within a document or across
+ * documents are translated once. Indices are assigned in order of first addition and never change.
+ */
+public class TranslationSegmentStore {
+    private final ArrayList<String> segments;
+    private final ArrayList<String> translatedSegments;   // null for segments not yet translated
+    private final HashMap<String, Integer> segmentIndices;
+    private int modificationCount;
+
+    public TranslationSegmentStore() {
+        segments = new ArrayList<String>();
+        translatedSegments = new ArrayList<String>();
+        segmentIndices = new HashMap<String, Integer>();
+        modificationCount = 0;
+    }
+
+    /**
+     * Add a segment
+     *
+     * @param segment text of the segment
+     * @return index of the segment, the index of the identical segment if one was already added
+     */
+    public int add(CharSequence segment) {
+        String text = segment.toString();
+        Integer index = segmentIndices.get(text);
+        if (index == null) {
+            index = segments.size();
+            segmentIndices.put(text, index);
+            segments.add(text);
+            translatedSegments.add(null);
+        }
+        return index;
+    }
+
+    /**
+     * Add segments
+     *
+     * @param segments texts of the segments
+     * @return indices of the segments in the order of the given segments
+     */
+    public int[] addAll(List<? extends CharSequence> segments) {
+        int[] indices = new int[segments.size()];
+        int i = 0;
+        for (CharSequence segment : segments) {
+            indices[i++] = add(segment);
+        }
+        return indices;
+    }
+
+    public int size() {
+        return segments.size();
+    }
+
+    /**
+     * @param segment text of a segment
+     * @return index of the segment or -1 if it was not added
+     */
+    public int indexOf(CharSequence segment) {
+        Integer index = segmentIndices.get(segment.toString());
+        return index == null ? -1 : index;
+    }
+
+    public String getSegment(int index) {
+        return segments.get(index);
+    }
+
+    /**
+     * @return all segments in index order, the texts to be translated
+     */
+    public List<String> getSegments() {
+        return Collections.unmodifiableList(segments);
+    }
+
+    public boolean isTranslated(int index) {
+        return translatedSegments.get(index) != null;
+    }
+
+    /**
+     * @param index index of the segment
+     * @return translation of the segment
+     * @throws IllegalStateException if the segment was not translated
+     */
+    public String getTranslated(int index) {
+        String translated = translatedSegments.get(index);
+        if (translated == null) {
+            throw new IllegalStateException("Segment " + index + " is not translated: " + segments.get(index));
+        }
+        return translated;
+    }
+
+    public void setTranslated(int index, CharSequence translated) {
+        translatedSegments.set(index, translated.toString());
+        modificationCount++;
+    }
+
+    /**
+     * Set translations of all segments
+     *
+     * @param translatedTexts translations in index order of {@link #getSegments()}
+     * @throws IllegalArgumentException if the number of translations is not the number of segments
+     */
+    public void setTranslatedTexts(List<? extends CharSequence> translatedTexts) {
+        if (translatedTexts.size() != segments.size()) {
+            throw new IllegalArgumentException("Expected " + segments.size() + " translated texts, got " + translatedTexts.size());
+        }
+
+        int i = 0;
+        for (CharSequence translated : translatedTexts) {
+            translatedSegments.set(i++, translated.toString());
+        }
+        modificationCount++;
+    }
+
+    /**
+     * @param indices indices of segments
+     * @return translations of segments in the order of the indices
+     * @throws IllegalStateException if any of the segments was not translated
+     */
+    public List<CharSequence> getTranslatedTexts(int[] indices) {
+        ArrayList<CharSequence> translatedTexts = new ArrayList<CharSequence>(indices.length);
+        for (int index : indices) {
+            translatedTexts.add(getTranslated(index));
+        }
+        return translatedTexts;
+    }
+
+    /**
+     * @return count incremented every time translations are set
+     */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+}
@@ -0,0 +1,159 @@
+package com.vladsch.flexmark.formatter;
+
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.options.DataHolder;
+import com.vladsch.flexmark.util.options.MutableDataSet;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class BatchFormatterTest {
+    private static final DataHolder OPTIONS = new MutableDataSet().set(BatchFormatter.BATCH_THREADS, 2);
+    private static final Parser PARSER = Parser.builder(OPTIONS).build();
+    private static final Formatter FORMATTER = Formatter.builder(OPTIONS).build();
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final String UNFORMATTED = "Heading\n=========\n\n*   item\n\n\n\nparagraph\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file(String name, String text, Charset charset) throws Exception {
+        Path path = folder.newFile(name).toPath();
+        Files.write(path, text.getBytes(charset));
+        return path;
+    }
+
+    @Test
+    public void test_formatInPlace() throws Exception {
+        BatchFormatter batchFormatter = new BatchFormatter(OPTIONS);
+        Path path = file("file.md", UNFORMATTED, UTF_8);
+
+        BatchFormatter.Result result = batchFormatter.format(path);
+        assertTrue(result.isSuccess());
+        assertTrue(result.isChanged());
+        assertTrue(result.getTotalNanos() >= result.getReadNanos() + result.getParseNanos() + result.getFormatNanos() + result.getWriteNanos());
+
+        String formatted = new String(Files.readAllBytes(path), UTF_8);
+        assertEquals(FORMATTER.render(PARSER.parse(UNFORMATTED)), formatted);
+
+        // formatting is stable, formatted file is not changed again
+        assertFalse(batchFormatter.format(path).isChanged());
+        assertEquals(formatted, new String(Files.readAllBytes(path), UTF_8));
+    }
+
+    @Test
+    public void test_unchangedNotWritten() throws Exception {
+        BatchFormatter batchFormatter = new BatchFormatter(OPTIONS);
+        Path path = file("formatted.md", FORMATTER.render(PARSER.parse(UNFORMATTED)), UTF_8);
+        FileTime modified = FileTime.fromMillis(1000000000000L);
+        Files.setLastModifiedTime(path, modified);
+
+        BatchFormatter.Result result = batchFormatter.format(path);
+        assertTrue(result.isSuccess());
+        assertFalse(result.isChanged());
+        assertEquals(0, result.getWriteNanos());
+        assertEquals(modified, Files.getLastModifiedTime(path));
+    }
+
+    @Test
+    public void test_replacedWithoutTemporaryFiles() throws Exception {
+        BatchFormatter batchFormatter = new BatchFormatter(OPTIONS);
+        ArrayList<Path> paths = new ArrayList<Path>();
+        for (int i = 0; i < 10; i++) {
+            paths.add(file("file" + i + ".md", UNFORMATTED.replace("item", "item " + i), UTF_8));
+        }
+        paths.add(folder.getRoot().toPath().resolve("missing.md"));
+
+        List<BatchFormatter.Result> results = batchFormatter.format(paths);
+        assertEquals(paths.size(), results.size());
+        for (BatchFormatter.Result result : results) {
+            assertEquals(result.getPath().toString(), !result.getPath().endsWith("missing.md"), result.isSuccess());
+        }
+
+        // only the formatted files remain in the directory
+        HashSet<String> names = new HashSet<String>(Arrays.asList(folder.getRoot().list()));
+        assertEquals(10, names.size());
+        for (int i = 0; i < 10; i++) {
+            assertTrue(names.contains("file" + i + ".md"));
+        }
+    }
+
+    @Test
+    public void test_permissionsKept() throws Exception {
+        Path path = file("file.md", UNFORMATTED, UTF_8);
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r--r--");
+        try {
+            Files.setPosixFilePermissions(path, permissions);
+        } catch (UnsupportedOperationException ignored) {
+            return;
+        }
+
+        assertTrue(new BatchFormatter(OPTIONS).format(path).isChanged());
+        assertEquals(permissions, Files.getPosixFilePermissions(path));
+    }
+
+    @Test
+    public void test_symbolicLinkKept() throws Exception {
+        Path path = file("target.md", UNFORMATTED, UTF_8);
+        Path link = folder.getRoot().toPath().resolve("link.md");
+        try {
+            Files.createSymbolicLink(link, path.getFileName());
+        } catch (UnsupportedOperationException ignored) {
+            return;
+        }
+
+        // file the link points to is formatted, the link is not replaced by a file
+        assertTrue(new BatchFormatter(OPTIONS).format(link).isChanged());
+        assertTrue(Files.isSymbolicLink(link));
+        assertEquals(path.getFileName(), Files.readSymbolicLink(link));
+        assertEquals(FORMATTER.render(PARSER.parse(UNFORMATTED)), new String(Files.readAllBytes(path), UTF_8));
+
+        HashSet<String> names = new HashSet<String>(Arrays.asList(folder.getRoot().list()));
+        assertEquals(new HashSet<String>(Arrays.asList("target.md", "link.md")), names);
+    }
+
+    @Test
+    public void test_charset() throws Exception {
+        Charset latin1 = Charset.forName("ISO-8859-1");
+        BatchFormatter batchFormatter = new BatchFormatter(new MutableDataSet(OPTIONS).set(BatchFormatter.BATCH_CHARSET, latin1.name()));
+        String text = UNFORMATTED.replace("paragraph", "caf\u00e9 na\u00efve");
+        Path path = file("latin1.md", text, latin1);
+
+        assertTrue(batchFormatter.format(path).isChanged());
+        assertEquals(FORMATTER.render(PARSER.parse(text)), new String(Files.readAllBytes(path), latin1));
+    }
+
+    @Test
+    public void test_readOnlyDirectory() throws Exception {
+        File directory = folder.newFolder("readonly");
+        Path path = directory.toPath().resolve("file.md");
+        Files.write(path, UNFORMATTED.getBytes(UTF_8));
+        if (!directory.setWritable(false) || Files.isWritable(directory.toPath())) return;
+
+        try {
+            // temporary file cannot be created, file is left as it was
+            BatchFormatter.Result result = new BatchFormatter(OPTIONS).format(path);
+            assertFalse(result.isSuccess());
+            assertFalse(result.isChanged());
+            assertEquals(UNFORMATTED, new String(Files.readAllBytes(path), UTF_8));
+        } finally {
+            directory.setWritable(true);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.vladsch.flexmark.formatter;
+
+import com.vladsch.flexmark.html.renderer.HeaderIdGenerator;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.options.DataHolder;
+import com.vladsch.flexmark.util.options.MutableDataSet;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BatchTranslatorTest {
+    private static final DataHolder OPTIONS = new MutableDataSet()
+            .set(Parser.BLANK_LINES_IN_AST, true)
+            .set(Parser.HTML_FOR_TRANSLATOR, true)
+            .set(Parser.PARSE_INNER_HTML_COMMENTS, true)
+            .set(Parser.HEADING_NO_ATX_SPACE, true)
+            .set(Formatter.MAX_TRAILING_BLANK_LINES, 0);
+
+    private static final Parser PARSER = Parser.builder(OPTIONS).build();
+    private static final Formatter FORMATTER = Formatter.builder(OPTIONS).build();
+
+    private static final String[] DOCUMENTS = {
+            "# Heading\n\nSome *emphasis* and a [link](http://example.com).\n\n* item `code`\n* other item\n",
+            "# Heading\n\nAnother paragraph with [a ref][ref].\n\n[ref]: http://example.com\n",
+            "Some *emphasis* and a [link](http://example.com).\n\n```\ncode block\n```\n",
+    };
+
+    // three pass round trip of a single document
+    private static String roundTrip(String markdown) {
+        Document document = PARSER.parse(markdown);
+        TranslationHandler handler = FORMATTER.getTranslationHandler(new HeaderIdGenerator.Factory());
+        FORMATTER.translationRender(document, handler, RenderPurpose.TRANSLATION_SPANS);
+
+        handler.setTranslatedTexts(translate(handler.getTranslatingTexts()));
+        String partial = FORMATTER.translationRender(document, handler, RenderPurpose.TRANSLATED_SPANS);
+        return FORMATTER.translationRender(PARSER.parse(partial), handler, RenderPurpose.TRANSLATED);
+    }
+
+    private static List<CharSequence> translate(List<String> texts) {
+        ArrayList<CharSequence> translated = new ArrayList<CharSequence>(texts.size());
+        for (String text : texts) {
+            translated.add(ComboCoreTranslationFormatterSpecTest.translate(text));
+        }
+        return translated;
+    }
+
+    @Test
+    public void test_roundTrip() {
+        BatchTranslator translator = new BatchTranslator(PARSER, FORMATTER);
+        for (String markdown : DOCUMENTS) {
+            translator.add(markdown);
+        }
+
+        translator.setTranslatedTexts(translate(translator.getTranslatingTexts()));
+        List<String> translated = translator.translateAll();
+
+        assertEquals(DOCUMENTS.length, translated.size());
+        for (int i = 0; i < DOCUMENTS.length; i++) {
+            assertEquals(roundTrip(DOCUMENTS[i]), translated.get(i));
+        }
+    }
+
+    @Test
+    public void test_deduplicatedSegments() {
+        BatchTranslator translator = new BatchTranslator(OPTIONS);
+        int segmentCount = 0;
+        HashSet<String> uniqueSegments = new HashSet<String>();
+
+        for (String markdown : DOCUMENTS) {
+            int index = translator.add(markdown);
+            segmentCount += translator.getSegmentIndices(index).length;
+
+            TranslationHandler handler = FORMATTER.getTranslationHandler();
+            FORMATTER.translationRender(PARSER.parse(markdown), handler, RenderPurpose.TRANSLATION_SPANS);
+            uniqueSegments.addAll(handler.getTranslatingTexts());
+        }
+
+        assertEquals(uniqueSegments.size(), translator.getTranslatingTexts().size());
+        assertTrue(translator.getTranslatingTexts().size() < segmentCount);
+    }
+
+    @Test
+    public void test_identicalDocuments() {
+        BatchTranslator translator = new BatchTranslator(PARSER, FORMATTER);
+        int first = translator.add(DOCUMENTS[0]);
+        int second = translator.add(DOCUMENTS[0]);
+
+        assertEquals(2, translator.getDocumentCount());
+        assertSame(translator.getDocument(first), translator.getDocument(second));
+        assertArrayEquals(translator.getSegmentIndices(first), translator.getSegmentIndices(second));
+
+        translator.setTranslatedTexts(translate(translator.getTranslatingTexts()));
+        assertSame(translator.translate(first), translator.translate(second));
+    }
+
+    @Test
+    public void test_changedTranslations() {
+        BatchTranslator translator = new BatchTranslator(PARSER, FORMATTER);
+        int first = translator.add(DOCUMENTS[1]);
+        int second = translator.add(DOCUMENTS[2]);
+
+        TranslationSegmentStore store = translator.getSegmentStore();
+        translator.setTranslatedTexts(translate(translator.getTranslatingTexts()));
+        String firstTranslated = translator.translate(first);
+        String secondTranslated = translator.translate(second);
+
+        // only the document using the changed segment is re-assembled
+        int[] secondIndices = translator.getSegmentIndices(second);
+        int changed = secondIndices[secondIndices.length - 1];
+        for (int index : translator.getSegmentIndices(first)) {
+            assertNotEquals(changed, index);
+        }
+        store.setTranslated(changed, store.getSegment(changed));
+
+        assertSame(firstTranslated, translator.translate(first));
+        assertNotEquals(secondTranslated, translator.translate(second));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_notTranslated() {
+        BatchTranslator translator = new BatchTranslator(PARSER, FORMATTER);
+        translator.translate(translator.add(DOCUMENTS[0]));
+    }
+
+    @Test
+    public void test_segmentStore() {
+        TranslationSegmentStore store = new TranslationSegmentStore();
+        assertArrayEquals(new int[] { 0, 1, 0 }, store.addAll(Arrays.asList("a", "b", new StringBuilder("a"))));
+        assertEquals(2, store.size());
+        assertEquals(1, store.indexOf("b"));
+        assertEquals(-1, store.indexOf("c"));
+        assertFalse(store.isTranslated(0));
+
+        store.setTranslatedTexts(Arrays.asList("A", "B"));
+        assertEquals(Arrays.<CharSequence>asList("A", "B", "A"), store.getTranslatedTexts(new int[] { 0, 1, 0 }));
+    }
+}
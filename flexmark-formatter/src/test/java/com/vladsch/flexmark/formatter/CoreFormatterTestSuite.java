@@ -8,6 +8,8 @@ import org.junit.runners.Suite;
         ComboCoreTranslationFormatterSpecTest.class,
         ComboCoreFormatterNoBlankLinesSpecTest.class,
         FormatterModifiedAST.class,
+        BatchFormatterTest.class,
+        BatchTranslatorTest.class,
 })
 public class CoreFormatterTestSuite {
 }
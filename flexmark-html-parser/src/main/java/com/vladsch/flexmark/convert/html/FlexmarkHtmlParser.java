@@ -25,6 +25,8 @@ import org.jsoup.Jsoup;
 import org.jsoup.nodes.*;
 import org.jsoup.select.Elements;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -67,6 +69,8 @@ public class FlexmarkHtmlParser {
     public static final DataKey<Boolean> BR_AS_EXTRA_BLANK_LINES = new DataKey<>("BR_AS_EXTRA_BLANK_LINES", true);
 
     public static final DataKey<Boolean> ADD_TRAILING_EOL = new DataKey<>("ADD_TRAILING_EOL", true);
+    public static final DataKey<Integer> STREAMING_CHUNK_SIZE = new DataKey<>("STREAMING_CHUNK_SIZE", 65536); // minimum characters of top level elements converted together by parse(FormattingAppendable, Reader)
+    public static final DataKey<Integer> STREAMING_MAX_CHUNK_SIZE = new DataKey<>("STREAMING_MAX_CHUNK_SIZE", 1048576); // characters after which a chunk ends even inside unclosed elements, 0 for no limit
 
     /**
      * @deprecated Use EXT_INLINE_STRONG set to ExtensionConversion.TEXT instead
@@ -357,7 +361,42 @@ public class FlexmarkHtmlParser {
      */
     public void parse(FormattingAppendable out, String html) {
         resetForParse();
+        processBody(out, html);
+        appendDefinitions(out);
+    }
+
+    /**
+     * Parse HTML from a reader and append to out, converting the HTML in chunks as it is read
+     * <p>
+     * The HTML is split into chunks of complete top level elements of at least {@link #STREAMING_CHUNK_SIZE}
+     * characters, each chunk is parsed and converted before the next one is read. Only the current chunk's DOM
+     * is kept in memory, with output going directly to out's appendable. Abbreviations, references and macros are
+     * collected over all chunks and appended at the end, as for {@link #parse(FormattingAppendable, String)}.
+     * <p>
+     * Conversion of an element which depends on its top level siblings, like a list continuing a preceding list,
+     * can differ from converting the whole HTML at once when the siblings end up in different chunks.
+     * <p>
+     * A chunk with an element which is not closed, like a stray div, ends between two of the element's children once it
+     * has {@link #STREAMING_MAX_CHUNK_SIZE} characters. Elements open at the split are opened again at the start of the
+     * next chunk, so an element split this way is converted as two elements.
+     *
+     * @param out  formatting appendable to append the resulting Markdown
+     * @param html reader of html to be parsed, the caller is responsible for closing it
+     * @throws IOException when reading throws an exception
+     */
+    public void parse(FormattingAppendable out, Reader html) throws IOException {
+        resetForParse();
+
+        HtmlChunkReader chunkReader = new HtmlChunkReader(html, myOptions.streamingChunkSize, myOptions.streamingMaxChunkSize);
+        String chunk;
+        while ((chunk = chunkReader.next()) != null) {
+            processBody(out, chunk);
+        }
+
+        appendDefinitions(out);
+    }
 
+    private void processBody(FormattingAppendable out, String html) {
         Document document = Jsoup.parse(html);
 
         Element body = document.body();
@@ -371,7 +410,9 @@ public class FlexmarkHtmlParser {
         }
 
         processHtmlTree(out, body, false);
+    }
 
+    private void appendDefinitions(FormattingAppendable out) {
         // output abbreviations if any
         boolean needTrailingEOL = true;
 
@@ -490,6 +531,67 @@ public class FlexmarkHtmlParser {
         return out.getText(maxBlankLines);
     }
 
+    /**
+     * Parse HTML from a reader with given options and max trailing blank lines, writing the resulting markdown as it is converted
+     *
+     * @param html          reader of html to be parsed, the caller is responsible for closing it
+     * @param markdown      appendable for the resulting markdown, like a {@link java.io.Writer}
+     * @param maxBlankLines max trailing blank lines, -1 will suppress trailing EOL
+     * @param options       data holder for parsing options
+     * @throws IOException when reading or appending throws an exception
+     * @see #parse(FormattingAppendable, Reader)
+     */
+    public static void parse(Reader html, Appendable markdown, int maxBlankLines, DataHolder options) throws IOException {
+        FormattingAppendableImpl out = new FormattingAppendableImpl(new TailAppendable(markdown), FormattingAppendable.SUPPRESS_TRAILING_WHITESPACE | FormattingAppendable.COLLAPSE_WHITESPACE);
+        FlexmarkHtmlParser parser = new FlexmarkHtmlParser(options);
+        parser.parse(out, html);
+        out.flush(maxBlankLines);
+        if (out.getIOException() != null) throw out.getIOException();
+    }
+
+    // keeps the last characters appended so that conversion can check preceding output, as it does with a string builder
+    private static class TailAppendable implements Appendable {
+        private static final int TAIL_LENGTH = 64;
+
+        private final Appendable appendable;
+        private final StringBuilder tail;
+
+        TailAppendable(Appendable appendable) {
+            this.appendable = appendable;
+            this.tail = new StringBuilder();
+        }
+
+        private void trimTail() {
+            if (tail.length() > TAIL_LENGTH * 2) tail.delete(0, tail.length() - TAIL_LENGTH);
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) throws IOException {
+            return append(csq, 0, csq.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws IOException {
+            appendable.append(csq, start, end);
+            tail.append(csq, Math.max(start, end - TAIL_LENGTH), end);
+            trimTail();
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            appendable.append(c);
+            tail.append(c);
+            trimTail();
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return tail.toString();
+        }
+    }
+
     private static class State {
         final Node myParent;
         final List<Node> myElements;
@@ -0,0 +1,311 @@
+package com.vladsch.flexmark.convert.html;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+
+/**
+ * Splits HTML read from a reader into chunks of complete top level body elements
+ * <p>
+ * Tags are tokenized only as far as needed to track element nesting. Quoted attribute values may contain {@code >},
+ * void elements and self closing tags other than block elements are not nested, script, style, textarea and title
+ * content is raw text and an end tag closes all elements opened after its matching start tag. A block start tag
+ * implicitly closes an open paragraph.
+ * <p>
+ * The first chunk includes the head, html tags and processing instructions are dropped and following chunks start
+ * with a body tag so that all their content is parsed as body content. The doctype is added to every chunk so that
+ * all chunks are parsed in the same mode.
+ * <p>
+ * A chunk ends when no element is open and it has at least the minimum number of characters, so elements which
+ * need all their content for conversion, like tables and lists, are not split across chunks. Only the current chunk
+ * is kept in memory.
+ * <p>
+ * So that an element which is never closed does not make the rest of the input one chunk, a chunk with open elements
+ * also ends once it has at least the maximum number of characters, at a tag with no more open elements than the fewest
+ * left open by an end tag in the chunk. This splits between children of the unclosed elements rather than inside a
+ * child. Start tags of the elements open at the split are repeated at the start of the next chunk.
+ */
+class HtmlChunkReader {
+    private static final HashSet<String> VOID_ELEMENTS = new HashSet<String>(Arrays.asList(
+            "area", "base", "br", "col", "embed", "hr", "img", "input", "keygen", "link", "meta", "param", "source", "track", "wbr"
+    ));
+
+    private static final HashSet<String> RAW_TEXT_ELEMENTS = new HashSet<String>(Arrays.asList(
+            "script", "style", "textarea", "title", "xmp"
+    ));
+
+    private static final HashSet<String> WRAPPER_ELEMENTS = new HashSet<String>(Arrays.asList(
+            "html", "body"
+    ));
+
+    private static final HashSet<String> PARAGRAPH_CLOSING_ELEMENTS = new HashSet<String>(Arrays.asList(
+            "address", "article", "aside", "blockquote", "details", "div", "dl", "fieldset", "figcaption", "figure", "footer", "form",
+            "h1", "h2", "h3", "h4", "h5", "h6", "header", "hr", "main", "nav", "ol", "p", "pre", "section", "table", "ul"
+    ));
+
+    private final Reader reader;
+    private final int minChunkSize;
+    private final int maxChunkSize;
+    private final char[] buffer;
+    private int bufferPos;
+    private int bufferEnd;
+    private final ArrayList<String> openElements;
+    private final ArrayList<String> openTags;       // start tags of open elements
+    private StringBuilder chunk;
+    private int continuedLength;                    // length of start tags continuing split elements at start of chunk
+    private int minClosedDepth;                     // fewest open elements left by an end tag in the chunk
+    private String doctype;
+    private boolean firstChunk;
+
+    HtmlChunkReader(Reader reader, int minChunkSize) {
+        this(reader, minChunkSize, 0);
+    }
+
+    /**
+     * @param reader       reader of HTML
+     * @param minChunkSize minimum characters of a chunk ending after a top level element
+     * @param maxChunkSize characters after which a chunk ends at a tag with elements open, 0 for no limit
+     */
+    HtmlChunkReader(Reader reader, int minChunkSize, int maxChunkSize) {
+        this.reader = reader;
+        this.minChunkSize = minChunkSize;
+        this.maxChunkSize = maxChunkSize <= 0 ? Integer.MAX_VALUE : Math.max(minChunkSize, maxChunkSize);
+        this.buffer = new char[8192];
+        this.bufferPos = 0;
+        this.bufferEnd = 0;
+        this.openElements = new ArrayList<String>();
+        this.openTags = new ArrayList<String>();
+        this.chunk = new StringBuilder();
+        this.continuedLength = 0;
+        this.minClosedDepth = Integer.MAX_VALUE;
+        this.doctype = "";
+        this.firstChunk = true;
+    }
+
+    private int read() throws IOException {
+        if (bufferPos == bufferEnd) {
+            bufferEnd = reader.read(buffer, 0, buffer.length);
+            bufferPos = 0;
+            if (bufferEnd <= 0) {
+                bufferEnd = 0;
+                return -1;
+            }
+        }
+        return buffer[bufferPos++];
+    }
+
+    private int peek() throws IOException {
+        int c = read();
+        if (c != -1) bufferPos--;
+        return c;
+    }
+
+    /**
+     * @return next chunk of HTML or null if the reader has no more content
+     * @throws IOException if thrown by the reader
+     */
+    String next() throws IOException {
+        int c;
+        while ((c = read()) != -1) {
+            if (c != '<') {
+                chunk.append((char) c);
+                continue;
+            }
+
+            int next = peek();
+            if (next == '/') {
+                read();
+                if (isLetter(peek())) {
+                    StringBuilder tag = new StringBuilder("</");
+                    String name = readName(tag);
+                    readTagEnd(tag);
+                    if (!WRAPPER_ELEMENTS.contains(name)) {
+                        chunk.append(tag);
+                        closeElement(name);
+                        closedDepth();
+                        // head stays in the chunk with the first body content
+                        if (!name.equals("head") && isChunkEnd()) return takeChunk();
+                    }
+                } else {
+                    chunk.append("</");
+                }
+            } else if (next == '!' || next == '?') {
+                StringBuilder tag = new StringBuilder("<");
+                tag.append((char) read());
+                if (next == '!' && peek() == '-') {
+                    tag.append((char) read());
+                    if (peek() == '-') {
+                        tag.append((char) read());
+                        readUntil(tag, "-->");
+                        chunk.append(tag);
+                        continue;
+                    }
+                }
+
+                readTagEnd(tag);
+                if (next == '!' && tag.length() > 2 && tag.charAt(2) == '[') {
+                    chunk.append(tag);
+                } else if (next == '!' && doctype.isEmpty() && tag.toString().toLowerCase(Locale.ROOT).startsWith("<!doctype")) {
+                    // added to all chunks so they are parsed in the same mode
+                    doctype = tag.toString();
+                }
+            } else if (isLetter(next)) {
+                StringBuilder tag = new StringBuilder("<");
+                String name = readName(tag);
+                boolean selfClosing = readTagEnd(tag);
+                if (WRAPPER_ELEMENTS.contains(name)) {
+                    if (name.equals("body")) chunk.append(tag);
+                    continue;
+                }
+
+                if (PARAGRAPH_CLOSING_ELEMENTS.contains(name) && !openElements.isEmpty() && openElements.get(openElements.size() - 1).equals("p")) {
+                    removeLastElement();
+                    closedDepth();
+                }
+
+                // split unclosed elements before the tag, it starts the next chunk
+                String splitChunk = !openElements.isEmpty() && isChunkEnd() ? takeChunk() : null;
+
+                chunk.append(tag);
+                if (RAW_TEXT_ELEMENTS.contains(name)) {
+                    addElement(name, tag);
+                    readRawText(name);
+                } else if ((!selfClosing || PARAGRAPH_CLOSING_ELEMENTS.contains(name)) && !VOID_ELEMENTS.contains(name)) {
+                    addElement(name, tag);
+                } else if (splitChunk == null && isChunkEnd()) {
+                    return takeChunk();
+                }
+
+                if (splitChunk != null) return splitChunk;
+            } else {
+                chunk.append('<');
+            }
+        }
+
+        return chunk.length() > continuedLength ? takeChunk() : null;
+    }
+
+    private boolean isChunkEnd() {
+        if (openElements.isEmpty()) return chunk.length() >= minChunkSize;
+        return chunk.length() - continuedLength >= maxChunkSize && openElements.size() <= minClosedDepth;
+    }
+
+    private void closedDepth() {
+        minClosedDepth = Math.min(minClosedDepth, openElements.size());
+    }
+
+    private String takeChunk() {
+        String result = firstChunk ? doctype + chunk : doctype + "<body>" + chunk;
+        firstChunk = false;
+        chunk = new StringBuilder();
+
+        // elements split by the chunk end are continued in the next chunk
+        for (String tag : openTags) {
+            chunk.append(tag);
+        }
+        continuedLength = chunk.length();
+        minClosedDepth = Integer.MAX_VALUE;
+        return result;
+    }
+
+    private void addElement(String name, CharSequence tag) {
+        openElements.add(name);
+        openTags.add(tag.toString());
+    }
+
+    private void removeLastElement() {
+        openElements.remove(openElements.size() - 1);
+        openTags.remove(openTags.size() - 1);
+    }
+
+    private void closeElement(String name) {
+        int i = openElements.lastIndexOf(name);
+        if (i >= 0) {
+            while (openElements.size() > i) {
+                removeLastElement();
+            }
+        }
+    }
+
+    private static boolean isLetter(int c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+
+    private String readName(StringBuilder tag) throws IOException {
+        StringBuilder name = new StringBuilder();
+        int c;
+        while ((c = peek()) != -1 && c != '>' && c != '/' && !Character.isWhitespace(c)) {
+            name.append((char) read());
+        }
+        tag.append(name);
+        return name.toString().toLowerCase(Locale.ROOT);
+    }
+
+    // read to end of tag, return true if self closing
+    private boolean readTagEnd(StringBuilder tag) throws IOException {
+        char quote = 0;
+        int last = 0;
+        int c;
+        while ((c = read()) != -1) {
+            tag.append((char) c);
+            if (quote != 0) {
+                if (c == quote) quote = 0;
+            } else if (c == '"' || c == '\'') {
+                quote = (char) c;
+            } else if (c == '>') {
+                return last == '/';
+            }
+            if (!Character.isWhitespace(c)) last = c;
+        }
+        return false;
+    }
+
+    private void readUntil(StringBuilder text, String end) throws IOException {
+        int c;
+        while ((c = read()) != -1) {
+            text.append((char) c);
+            if (c == end.charAt(end.length() - 1) && endsWith(text, end)) return;
+        }
+    }
+
+    // copy raw text up to but not including the element's end tag
+    private void readRawText(String name) throws IOException {
+        String endTag = "</" + name;
+        int c;
+        while ((c = peek()) != -1) {
+            if (c == '<' && matchesAhead(endTag)) return;
+            chunk.append((char) read());
+        }
+    }
+
+    private boolean matchesAhead(String text) throws IOException {
+        if (bufferEnd - bufferPos < text.length()) {
+            // move remaining characters to start of buffer and fill it
+            System.arraycopy(buffer, bufferPos, buffer, 0, bufferEnd - bufferPos);
+            bufferEnd -= bufferPos;
+            bufferPos = 0;
+            int read;
+            while (bufferEnd < text.length() && (read = reader.read(buffer, bufferEnd, buffer.length - bufferEnd)) > 0) {
+                bufferEnd += read;
+            }
+            if (bufferEnd < text.length()) return false;
+        }
+
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.toLowerCase(buffer[bufferPos + i]) != text.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static boolean endsWith(StringBuilder text, String suffix) {
+        int offset = text.length() - suffix.length();
+        if (offset < 0) return false;
+        for (int i = 0; i < suffix.length(); i++) {
+            if (text.charAt(offset + i) != suffix.charAt(i)) return false;
+        }
+        return true;
+    }
+}
@@ -29,6 +29,8 @@ public class HtmlParserOptions implements MutableDataSetter {
     public boolean brAsExtraBlankLines;
     public boolean ignoreTableHeadingAfterRows;
     public boolean addTrailingEol;
+    public int streamingChunkSize;
+    public int streamingMaxChunkSize;
     public boolean skipInlineStrong;
     public boolean skipInlineEmphasis;
     public boolean skipInlineCode;
@@ -94,6 +96,8 @@ public class HtmlParserOptions implements MutableDataSetter {
         brAsExtraBlankLines = other.brAsExtraBlankLines;
         ignoreTableHeadingAfterRows = other.ignoreTableHeadingAfterRows;
         addTrailingEol = other.addTrailingEol;
+        streamingChunkSize = other.streamingChunkSize;
+        streamingMaxChunkSize = other.streamingMaxChunkSize;
         skipInlineStrong = other.skipInlineStrong;
         skipInlineEmphasis = other.skipInlineEmphasis;
         skipInlineCode = other.skipInlineCode;
@@ -156,6 +160,8 @@ public class HtmlParserOptions implements MutableDataSetter {
         brAsExtraBlankLines = FlexmarkHtmlParser.BR_AS_EXTRA_BLANK_LINES.getFrom(options);
         ignoreTableHeadingAfterRows = FlexmarkHtmlParser.IGNORE_TABLE_HEADING_AFTER_ROWS.getFrom(options);
         addTrailingEol = FlexmarkHtmlParser.ADD_TRAILING_EOL.getFrom(options);
+        streamingChunkSize = FlexmarkHtmlParser.STREAMING_CHUNK_SIZE.getFrom(options);
+        streamingMaxChunkSize = FlexmarkHtmlParser.STREAMING_MAX_CHUNK_SIZE.getFrom(options);
         skipInlineStrong = FlexmarkHtmlParser.SKIP_INLINE_STRONG.getFrom(options);
         skipInlineEmphasis = FlexmarkHtmlParser.SKIP_INLINE_EMPHASIS.getFrom(options);
         skipInlineCode = FlexmarkHtmlParser.SKIP_INLINE_CODE.getFrom(options);
@@ -219,6 +225,8 @@ public class HtmlParserOptions implements MutableDataSetter {
         dataHolder.set(FlexmarkHtmlParser.BR_AS_EXTRA_BLANK_LINES, brAsExtraBlankLines);
         dataHolder.set(FlexmarkHtmlParser.IGNORE_TABLE_HEADING_AFTER_ROWS, ignoreTableHeadingAfterRows);
         dataHolder.set(FlexmarkHtmlParser.ADD_TRAILING_EOL, addTrailingEol);
+        dataHolder.set(FlexmarkHtmlParser.STREAMING_CHUNK_SIZE, streamingChunkSize);
+        dataHolder.set(FlexmarkHtmlParser.STREAMING_MAX_CHUNK_SIZE, streamingMaxChunkSize);
         dataHolder.set(FlexmarkHtmlParser.SKIP_INLINE_STRONG, skipInlineStrong);
         dataHolder.set(FlexmarkHtmlParser.SKIP_INLINE_EMPHASIS, skipInlineEmphasis);
         dataHolder.set(FlexmarkHtmlParser.SKIP_INLINE_CODE, skipInlineCode);
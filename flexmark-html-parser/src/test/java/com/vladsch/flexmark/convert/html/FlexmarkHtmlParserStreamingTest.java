@@ -0,0 +1,103 @@
+package com.vladsch.flexmark.convert.html;
+
+import com.vladsch.flexmark.util.options.DataHolder;
+import com.vladsch.flexmark.util.options.MutableDataSet;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FlexmarkHtmlParserStreamingTest {
+    private static String parseStreaming(String html, DataHolder options) throws IOException {
+        StringWriter writer = new StringWriter();
+        FlexmarkHtmlParser.parse(new StringReader(html), writer, 1, options);
+        return writer.toString();
+    }
+
+    private static ArrayList<String> readChunks(String html, int minChunkSize) throws IOException {
+        return readChunks(html, minChunkSize, 0);
+    }
+
+    private static ArrayList<String> readChunks(String html, int minChunkSize, int maxChunkSize) throws IOException {
+        HtmlChunkReader reader = new HtmlChunkReader(new StringReader(html), minChunkSize, maxChunkSize);
+        ArrayList<String> chunks = new ArrayList<String>();
+        String chunk;
+        while ((chunk = reader.next()) != null) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    @Test
+    public void test_chunks() throws IOException {
+        String html = "<!DOCTYPE html><html><head><title>a</p></title></head><body>" +
+                "<div title=\"a > b\"><p>text<!-- </div> --></p></div>" +
+                "<script>if (a < b) document.write('</div>')</script>" +
+                "<p>unclosed\n<ul><li>item<li>item</ul>" +
+                "<hr/><br>\n" +
+                "</body></html>";
+
+        ArrayList<String> chunks = readChunks(html, 1);
+        ArrayList<String> expected = new ArrayList<String>();
+        expected.add("<!DOCTYPE html><head><title>a</p></title></head><body><div title=\"a > b\"><p>text<!-- </div> --></p></div>");
+        expected.add("<!DOCTYPE html><body><script>if (a < b) document.write('</div>')</script>");
+        expected.add("<!DOCTYPE html><body><p>unclosed\n<ul><li>item<li>item</ul>");
+        expected.add("<!DOCTYPE html><body><hr/>");
+        expected.add("<!DOCTYPE html><body><br>");
+        expected.add("<!DOCTYPE html><body>\n");
+        assertEquals(expected, chunks);
+
+        assertEquals(1, readChunks(html, 65536).size());
+    }
+
+    @Test
+    public void test_sameAsParse() throws IOException {
+        StringBuilder html = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            html.append("<h2>Section ").append(i).append("</h2>\n")
+                    .append("<p>Paragraph with <a href=\"http://example.com/").append(i % 3).append("\">link</a> and <em>emphasis</em>.</p>\n")
+                    .append("<ol start=\"").append(i + 1).append("\"><li>first</li><li>second<ul><li>nested</li></ul></li></ol>\n")
+                    .append("<table><thead><tr><th>A</th><th align=\"right\">B</th></tr></thead><tbody><tr><td>").append(i).append("</td><td>x</td></tr></tbody></table>\n")
+                    .append("<pre><code>code ").append(i).append("\n  indented\n</code></pre>\n")
+                    .append("<blockquote><p>quote <abbr title=\"HyperText\">HTML</abbr></p></blockquote>\n");
+        }
+
+        DataHolder[] optionSets = {
+                new MutableDataSet().set(FlexmarkHtmlParser.STREAMING_CHUNK_SIZE, 1),
+                new MutableDataSet().set(FlexmarkHtmlParser.STREAMING_CHUNK_SIZE, 200),
+                new MutableDataSet().set(FlexmarkHtmlParser.STREAMING_CHUNK_SIZE, 1).set(FlexmarkHtmlParser.EXT_INLINE_LINK, LinkConversion.MARKDOWN_REFERENCE),
+        };
+
+        for (DataHolder options : optionSets) {
+            assertEquals(FlexmarkHtmlParser.parse(html.toString(), 1, options), parseStreaming(html.toString(), options));
+        }
+    }
+
+    @Test
+    public void test_unclosedElements() throws IOException {
+        StringBuilder html = new StringBuilder("<div class=\"page\"><font size=\"2\">\n");
+        for (int i = 0; i < 50; i++) {
+            html.append("<p>Paragraph ").append(i).append(" of <b>legacy</b> export</p>\n");
+        }
+
+        ArrayList<String> chunks = readChunks(html.toString(), 1, 200);
+        assertTrue(chunks.size() > 1);
+        assertEquals(1, readChunks(html.toString(), 1, 0).size());
+
+        // split elements are continued in following chunks
+        for (int i = 1; i < chunks.size(); i++) {
+            assertTrue(chunks.get(i), chunks.get(i).startsWith("<body><div class=\"page\"><font size=\"2\">"));
+            assertTrue(chunks.get(i), chunks.get(i).length() < 300);
+        }
+
+        DataHolder options = new MutableDataSet()
+                .set(FlexmarkHtmlParser.STREAMING_CHUNK_SIZE, 1)
+                .set(FlexmarkHtmlParser.STREAMING_MAX_CHUNK_SIZE, 200);
+        assertEquals(FlexmarkHtmlParser.parse(html.toString(), 1, options), parseStreaming(html.toString(), options));
+    }
+}
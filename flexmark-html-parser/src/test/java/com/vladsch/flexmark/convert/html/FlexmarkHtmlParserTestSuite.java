@@ -10,6 +10,7 @@ import org.junit.runners.Suite;
         ComboAppHtmlAttributeParserTest.class,
         ComboHtmlParserIssueTest.class,
         ComboHtmlAttributeParserIssueTest.class,
+        FlexmarkHtmlParserStreamingTest.class,
 })
 public class FlexmarkHtmlParserTestSuite {
 }
@@ -0,0 +1,86 @@
+package com.vladsch.flexmark.util;
+
+import com.vladsch.flexmark.util.options.DataKey;
+
+import java.util.Iterator;
+import java.util.concurrent.*;
+
+/**
+ * Runs a task for each item of a batch on a fixed pool of worker threads, passing results to a handler as tasks complete
+ * <p>
+ * Items are taken from the item iterator as workers become available, at most twice as many items as there are threads
+ * are pending at any time, so the iterator can produce items lazily. Results are passed to the handler on the thread
+ * calling {@link #execute(Iterator, Function, Consumer)} in completion order.
+ * <p>
+ * The task is expected to report failures of an item in its result. An exception thrown by the task, or by the handler,
+ * cancels pending items and is propagated.
+ */
+public class BatchExecutor {
+    public static final DataKey<Integer> BATCH_THREADS = new DataKey<>("BATCH_THREADS", 0); // 0 for number of available processors
+
+    private final int threads;
+
+    /**
+     * @param threads number of worker threads, 0 or less for number of available processors
+     */
+    public BatchExecutor(int threads) {
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Run the task for all items
+     *
+     * @param items   items of the batch, taken as workers become available
+     * @param task    task run by workers for each item
+     * @param handler handler of results, called on this thread
+     * @param <T>     type of item
+     * @param <R>     type of result
+     * @throws InterruptedException if interrupted while waiting for tasks to complete, pending items are cancelled
+     */
+    public <T, R> void execute(Iterator<T> items, final Function<T, R> task, Consumer<R> handler) throws InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CompletionService<R> completionService = new ExecutorCompletionService<R>(executor);
+        final int maxPending = threads * 2;
+        int pending = 0;
+
+        try {
+            while (items.hasNext()) {
+                if (pending == maxPending) {
+                    handler.accept(take(completionService));
+                    pending--;
+                }
+
+                final T item = items.next();
+                completionService.submit(new Callable<R>() {
+                    @Override
+                    public R call() {
+                        return task.apply(item);
+                    }
+                });
+                pending++;
+            }
+
+            while (pending > 0) {
+                handler.accept(take(completionService));
+                pending--;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <R> R take(CompletionService<R> completionService) throws InterruptedException {
+        try {
+            return completionService.take().get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+}
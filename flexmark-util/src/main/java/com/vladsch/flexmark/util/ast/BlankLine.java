@@ -33,4 +33,9 @@ public class BlankLine extends Block {
     public BasedSequence[] getSegments() {
         return EMPTY_SEGMENTS;
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == BlankLine.class;
+    }
 }
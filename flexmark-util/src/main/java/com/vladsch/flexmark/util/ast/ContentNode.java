@@ -2,6 +2,7 @@ package com.vladsch.flexmark.util.ast;
 
 import com.vladsch.flexmark.util.sequence.BasedSequence;
 import com.vladsch.flexmark.util.sequence.SegmentedSequence;
+import com.vladsch.flexmark.util.sequence.SequenceMover;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -45,6 +46,24 @@ public abstract class ContentNode extends Node implements Content {
         this.lineSegments = blockContent.getLines();
     }
 
+    @Override
+    public void moveChars(SequenceMover mover) {
+        super.moveChars(mover);
+
+        ArrayList<BasedSequence> moved = null;
+        int iMax = lineSegments.size();
+        for (int i = 0; i < iMax; i++) {
+            BasedSequence line = lineSegments.get(i);
+            BasedSequence movedLine = mover.move(line);
+            if (movedLine != line) {
+                // line list may be shared, moved lines are kept in a new list
+                if (moved == null) moved = new ArrayList<BasedSequence>(lineSegments);
+                moved.set(i, movedLine);
+            }
+        }
+        if (moved != null) lineSegments = moved;
+    }
+
     @Override
     public BasedSequence getSpanningChars() {
         return getSpanningChars(lineSegments);
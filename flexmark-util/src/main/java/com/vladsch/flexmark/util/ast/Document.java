@@ -6,12 +6,17 @@ import com.vladsch.flexmark.util.options.*;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 
 import static com.vladsch.flexmark.util.sequence.BasedSequence.EMPTY_LIST;
 
 public class Document extends Block implements MutableDataHolder {
-    private final MutableDataSet dataSet;
+    private DataHolder options;     // shared immutable options, null once the document has its own copy of all values
+    private MutableDataSet dataSet; // per document values, created on first write
+    private int firstLineOffset;    // offset of the first line whose text is available, see setFirstLine
+    private int firstLineNumber;    // line number of the line at firstLineOffset
 
     @Override
     public BasedSequence[] getSegments() {
@@ -20,26 +25,69 @@ public class Document extends Block implements MutableDataHolder {
 
     public Document(DataHolder options, BasedSequence chars) {
         super(chars);
-        dataSet = new MutableDataSet(options);
+        if (options instanceof FrozenDataSet) {
+            // frozen options cannot change so they are shared instead of copied for every document
+            this.options = options;
+        } else {
+            dataSet = new MutableDataSet(options);
+        }
+    }
+
+    private MutableDataSet getDataSet() {
+        if (dataSet == null) {
+            dataSet = new MutableDataSet();
+        }
+        return dataSet;
+    }
+
+    /**
+     * Copy shared options into the document's own data set, needed when the values can no longer be layered
+     *
+     * @return document's data set with all values
+     */
+    private MutableDataSet detach() {
+        if (options != null) {
+            MutableDataSet all = new MutableDataSet(options);
+            if (dataSet != null) all.setAll(dataSet);
+            dataSet = all;
+            options = null;
+        }
+        return getDataSet();
     }
 
     @Override
-    public Map<DataKey, Object> getAll() { return dataSet.getAll(); }
+    public Map<DataKey, Object> getAll() {
+        if (options == null) return dataSet.getAll();
+
+        HashMap<DataKey, Object> all = new HashMap<DataKey, Object>(options.getAll());
+        if (dataSet != null) all.putAll(dataSet.getAll());
+        return all;
+    }
 
     @Override
-    public Collection<DataKey> keySet() { return dataSet.keySet(); }
+    public Collection<DataKey> keySet() {
+        if (options == null) return dataSet.keySet();
+        if (dataSet == null) return options.keySet();
+
+        LinkedHashSet<DataKey> all = new LinkedHashSet<DataKey>(options.keySet());
+        all.addAll(dataSet.keySet());
+        return all;
+    }
 
     @Override
-    public boolean contains(DataKey key) { return dataSet.contains(key); }
+    public boolean contains(DataKey key) {
+        return dataSet != null && dataSet.contains(key) || options != null && options.contains(key);
+    }
 
     @Override
     public <T> T get(DataKey<T> key) {
-        return dataSet.get(key);
+        return getOrCompute(key, key.getFactory());
     }
 
     @Override
     public MutableDataHolder setIn(final MutableDataHolder dataHolder) {
-        return dataSet.setIn(dataHolder);
+        dataHolder.setAll(this);
+        return dataHolder;
     }
 
     @Override
@@ -52,11 +100,27 @@ public class Document extends Block implements MutableDataHolder {
         }
     }
 
+    /**
+     * Set the line number of the line starting at the given offset, used when the text before it is no longer available
+     * so that line numbers are counted from this line, as done by a streaming parse
+     *
+     * @param offset     offset of the start of a line in the document text
+     * @param lineNumber line number of the line
+     */
+    public void setFirstLine(int offset, int lineNumber) {
+        this.firstLineOffset = offset;
+        this.firstLineNumber = lineNumber;
+    }
+
     public int getLineNumber(int offset) {
         if (lineSegments == EMPTY_LIST) {
-            BasedSequence preText = getChars().baseSubSequence(0, Utils.maxLimit(offset, getChars().length()));
-            if (preText.isEmpty()) return 0;
-            int lineNumber = 0;
+            if (offset < firstLineOffset) {
+                throw new StringIndexOutOfBoundsException("offset: " + offset + " is before the first available line at: " + firstLineOffset);
+            }
+
+            BasedSequence preText = getChars().baseSubSequence(firstLineOffset, Utils.maxLimit(offset, getChars().length()));
+            if (preText.isEmpty()) return firstLineNumber;
+            int lineNumber = firstLineNumber;
             int nextLineEnd = preText.endOfLineAnyEOL(0);
             final int length = preText.length();
             while (nextLineEnd < length) {
@@ -76,28 +140,42 @@ public class Document extends Block implements MutableDataHolder {
     }
 
     @Override
-    public <T> T getOrCompute(DataKey<T> key, DataValueFactory<T> factory) { return dataSet.getOrCompute(key, factory); }
+    public <T> T getOrCompute(DataKey<T> key, DataValueFactory<T> factory) {
+        if (dataSet != null && dataSet.contains(key)) {
+            return dataSet.get(key);
+        } else if (options != null && options.contains(key)) {
+            return options.get(key);
+        } else {
+            // computed with the document as holder so the factory sees shared options too
+            T newValue = factory.create(this);
+            getDataSet().set(key, newValue);
+            return newValue;
+        }
+    }
 
     @Override
-    public <T> MutableDataHolder remove(final DataKey<T> key) { return dataSet.remove(key); }
+    public <T> MutableDataHolder remove(final DataKey<T> key) {
+        if (options != null && options.contains(key)) detach();
+        return dataSet == null ? this : dataSet.remove(key);
+    }
 
     @Override
-    public <T> MutableDataHolder set(DataKey<? extends T> key, T value) { return dataSet.set(key, value);}
+    public <T> MutableDataHolder set(DataKey<? extends T> key, T value) { return getDataSet().set(key, value);}
 
     @Override
-    public MutableDataHolder setFrom(MutableDataSetter dataSetter) { return dataSet.setFrom(dataSetter); }
+    public MutableDataHolder setFrom(MutableDataSetter dataSetter) { return dataSetter.setIn(this); }
 
     @Override
     public MutableDataHolder setAll(DataHolder other) {
-        dataSet.setAll(other);
+        getDataSet().setAll(other);
         return dataSet;
     }
 
     @Override
-    public MutableDataHolder toMutable() { return dataSet.toMutable(); }
+    public MutableDataHolder toMutable() { return detach(); }
 
     @Override
-    public DataHolder toImmutable() { return dataSet.toImmutable(); }
+    public DataHolder toImmutable() { return options != null && dataSet == null ? options : new DataSet(this); }
 
     @Override
     public MutableDataHolder clear() {
@@ -6,6 +6,7 @@ import com.vladsch.flexmark.util.collection.iteration.ReversiblePeekingIterator;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
 import com.vladsch.flexmark.util.sequence.PrefixedSubSequence;
 import com.vladsch.flexmark.util.sequence.SegmentedSequence;
+import com.vladsch.flexmark.util.sequence.SequenceMover;
 import com.vladsch.flexmark.util.sequence.SubSequence;
 
 import java.util.ArrayList;
@@ -21,6 +22,7 @@ public abstract class Node {
     private Node prev = null;
     private Node next = null;
     private BasedSequence chars = BasedSequence.NULL;
+    private int typeId;
 
     public Node() {
     }
@@ -29,6 +31,18 @@ public abstract class Node {
         this.chars = chars;
     }
 
+    /**
+     * @return type id of this node's class, see {@link NodeTypeRegistry}
+     */
+    public final int getTypeId() {
+        int typeId = this.typeId;
+        if (typeId == 0) {
+            typeId = NodeTypeRegistry.getTypeId(getClass());
+            this.typeId = typeId;
+        }
+        return typeId;
+    }
+
     public Node getAncestorOfType(Class... classes) {
         Node parent = getParent();
         while (parent != null) {
@@ -216,6 +230,32 @@ public abstract class Node {
         this.chars = chars == null ? BasedSequence.NULL : chars;
     }
 
+    /**
+     * Move the sequences of this node to the same characters in another text, used to keep nodes when the text of
+     * their document is edited
+     * <p>
+     * Node classes holding sequences other than chars override this method, moving their own sequences after calling
+     * the super class method. Each field must be set to the sequence returned by the mover, which is the same sequence
+     * when it is not moved.
+     *
+     * @param mover mover of sequences to the other text
+     */
+    public void moveChars(SequenceMover mover) {
+        chars = mover.move(chars);
+    }
+
+    /**
+     * Whether {@link #moveChars(SequenceMover)} moves all sequences held by this node
+     * <p>
+     * False by default so nodes of classes which do not declare it, including subclasses of movable nodes which
+     * add sequences of their own, are parsed again instead of being moved.
+     *
+     * @return true if the node can be moved
+     */
+    public boolean isMovable() {
+        return false;
+    }
+
     public Node getNext() {
         return next;
     }
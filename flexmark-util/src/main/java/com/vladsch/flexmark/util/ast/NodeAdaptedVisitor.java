@@ -1,7 +1,6 @@
 package com.vladsch.flexmark.util.ast;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -9,7 +8,8 @@ import java.util.Map;
  * @param <H> subclass of {@link NodeAdaptingVisitHandler}
  */
 public abstract class NodeAdaptedVisitor<H extends NodeAdaptingVisitHandler<?, ?>> {
-    protected final Map<Class<?>, H> myCustomHandlersMap = new HashMap<Class<?>, H>();
+    private final NodeTypeMap<H> myHandlerTypeMap = new NodeTypeMap<H>();
+    protected final Map<Class<?>, H> myCustomHandlersMap = myHandlerTypeMap;   // same map, modifications are reflected in type id lookup
 
     // Usage:
     //myVisitor = new NodeVisitor(
@@ -30,6 +30,14 @@ public abstract class NodeAdaptedVisitor<H extends NodeAdaptingVisitHandler<?, ?
         addHandlers(handlers);
     }
 
+    /**
+     * @param node node
+     * @return handler for the node's exact class or null if none
+     */
+    protected H getHandler(Node node) {
+        return myHandlerTypeMap.get(node);
+    }
+
     public NodeAdaptedVisitor<H> addHandlers(H... handlers) {
         for (H handler : handlers) {
             myCustomHandlersMap.put(handler.getNodeType(), handler);
@@ -10,6 +10,9 @@ public abstract class NodeRepository<T> implements Map<String, T> {
     protected final ArrayList<T> nodeList = new ArrayList<T>();
     protected final Map<String, T> nodeMap = new HashMap<String, T>();
     protected final KeepType keepType;
+    protected NodeRepository<T> library = null;
+    private Map<String, T> mergedMap = null;     // entries of this repository and its library, null until used after a change
+    private List<T> mergedValues = null;         // values of the library and this repository, null until used after a change
 
     public abstract DataKey<? extends NodeRepository<T>> getDataKey();
     public abstract DataKey<KeepType> getKeepDataKey();
@@ -42,7 +45,74 @@ public abstract class NodeRepository<T> implements Map<String, T> {
     }
 
     public T getFromRaw(CharSequence rawKey) {
-        return nodeMap.get(normalizeKey(rawKey));
+        return get(normalizeKey(rawKey));
+    }
+
+    public NodeRepository<T> getLibrary() {
+        return library;
+    }
+
+    /**
+     * Whether the repository can be a library of other documents, see {@link RepositoryLibrary}
+     * <p>
+     * A repository is shareable when processing documents which reference its nodes does not modify them, as is
+     * the case for definitions only looked up by key. Repositories whose nodes keep per document state, like
+     * reference counts or ordinals, must not be shared between documents.
+     *
+     * @return true if the repository's nodes are only read by documents referencing them
+     */
+    public boolean isShareable() {
+        return false;
+    }
+
+    /**
+     * Make the entries of a library repository visible in this repository without copying them
+     * <p>
+     * Entries of this repository take precedence over library entries with the same key, which is the
+     * result of {@link #transferReferences(NodeRepository, NodeRepository, boolean)} with onlyIfUndefined true.
+     * The library is only read, it must not be modified while attached.
+     *
+     * @param library repository whose entries are visible in this one or null to detach the library
+     */
+    public void setLibrary(NodeRepository<T> library) {
+        this.library = library;
+        mergedChanged();
+    }
+
+    /**
+     * Replace the entries and library of this repository with those of another repository
+     * <p>
+     * Used to work on a copy of a repository's state or to restore a copied state, the keep type is not checked.
+     *
+     * @param other repository whose entries and library are copied
+     */
+    public void setEntriesFrom(NodeRepository<T> other) {
+        nodeList.clear();
+        nodeList.addAll(other.nodeList);
+        nodeMap.clear();
+        nodeMap.putAll(other.nodeMap);
+        library = other.library;
+        mergedChanged();
+    }
+
+    /**
+     * @return map of this repository's entries and visible library entries, nodeMap when there is no library
+     */
+    private Map<String, T> getMergedMap() {
+        if (library == null || library.isEmpty()) return nodeMap;
+
+        // library is not modified while attached, merged map is only rebuilt after this repository changes
+        if (mergedMap == null) {
+            HashMap<String, T> merged = new HashMap<String, T>(library.getMergedMap());
+            merged.putAll(nodeMap);
+            mergedMap = Collections.unmodifiableMap(merged);
+        }
+        return mergedMap;
+    }
+
+    private void mergedChanged() {
+        mergedMap = null;
+        mergedValues = null;
     }
 
     public T putRawKey(CharSequence key, T t) {
@@ -50,7 +120,7 @@ public abstract class NodeRepository<T> implements Map<String, T> {
     }
 
     public Collection<T> getValues() {
-        return nodeMap.values();
+        return getMergedMap().values();
     }
 
     public static <T> boolean transferReferences(NodeRepository<T> destination, NodeRepository<T> included, boolean onlyIfUndefined) {
@@ -68,6 +138,7 @@ public abstract class NodeRepository<T> implements Map<String, T> {
     @Override
     public T put(String s, T t) {
         nodeList.add(t);
+        mergedChanged();
 
         if (keepType == KeepType.LOCKED) throw new IllegalStateException("Not allowed to modify LOCKED repository");
         if (keepType != KeepType.LAST) {
@@ -83,6 +154,7 @@ public abstract class NodeRepository<T> implements Map<String, T> {
     @Override
     public void putAll(Map<? extends String, ? extends T> map) {
         if (keepType == KeepType.LOCKED) throw new IllegalStateException("Not allowed to modify LOCKED repository");
+        mergedChanged();
         if (keepType != KeepType.LAST) {
             for (String key : map.keySet()) {
                 nodeMap.put(key, map.get(key));
@@ -95,43 +167,77 @@ public abstract class NodeRepository<T> implements Map<String, T> {
     @Override
     public T remove(Object o) {
         if (keepType == KeepType.LOCKED) throw new IllegalStateException("Not allowed to modify LOCKED repository");
+        mergedChanged();
         return nodeMap.remove(o);
     }
 
+    /**
+     * Remove the given values from the repository, used when nodes defining them are removed from the document
+     *
+     * @param values values to remove
+     * @return true if any values were removed
+     */
+    public boolean removeValues(Collection<?> values) {
+        if (keepType == KeepType.LOCKED) throw new IllegalStateException("Not allowed to modify LOCKED repository");
+        mergedChanged();
+        boolean removed = nodeList.removeAll(values);
+        Iterator<Map.Entry<String, T>> iterator = nodeMap.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (values.contains(iterator.next().getValue())) {
+                iterator.remove();
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
     @Override
     public void clear() {
         if (keepType == KeepType.LOCKED) throw new IllegalStateException("Not allowed to modify LOCKED repository");
+        mergedChanged();
         nodeMap.clear();
     }
 
     @Override
-    public int size() {return nodeMap.size();}
+    public int size() {return library == null ? nodeMap.size() : getMergedMap().size();}
 
     @Override
-    public boolean isEmpty() {return nodeMap.isEmpty();}
+    public boolean isEmpty() {return nodeMap.isEmpty() && (library == null || library.isEmpty());}
 
     @Override
-    public boolean containsKey(Object o) {return nodeMap.containsKey(o);}
+    public boolean containsKey(Object o) {return nodeMap.containsKey(o) || library != null && library.containsKey(o);}
 
     @Override
-    public boolean containsValue(Object o) {return nodeMap.containsValue(o);}
+    public boolean containsValue(Object o) {return nodeMap.containsValue(o) || library != null && getMergedMap().containsValue(o);}
 
     @Override
-    public T get(Object o) {return nodeMap.get(o);}
+    public T get(Object o) {
+        T value = nodeMap.get(o);
+        return value == null && library != null ? library.get(o) : value;
+    }
 
     @Override
-    public Set<String> keySet() {return nodeMap.keySet();}
+    public Set<String> keySet() {return getMergedMap().keySet();}
 
     @Override
-    public List<T> values() {return nodeList;}
+    public List<T> values() {
+        if (library == null || library.isEmpty()) return nodeList;
+
+        if (mergedValues == null) {
+            ArrayList<T> values = new ArrayList<T>(library.values());
+            values.addAll(nodeList);
+            mergedValues = Collections.unmodifiableList(values);
+        }
+        return mergedValues;
+    }
 
     @Override
-    public Set<Entry<String, T>> entrySet() {return nodeMap.entrySet();}
+    public Set<Entry<String, T>> entrySet() {return getMergedMap().entrySet();}
 
     @SuppressWarnings("EqualsWhichDoesntCheckParameterClass")
     @Override
-    public boolean equals(Object o) { return nodeMap.equals(o); }
+    public boolean equals(Object o) { return getMergedMap().equals(o); }
 
     @Override
-    public int hashCode() {return nodeMap.hashCode();}
+    public int hashCode() {return getMergedMap().hashCode();}
 }
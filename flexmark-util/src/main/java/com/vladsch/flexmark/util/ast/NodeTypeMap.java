@@ -0,0 +1,75 @@
+package com.vladsch.flexmark.util.ast;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Map of node class to value which also keeps its values in an array indexed by {@link NodeTypeRegistry} type id
+ * <p>
+ * Use {@link #get(Node)} for lookup of the value for a node's exact class without hashing. The array is kept in sync by
+ * put, putAll, remove and clear. Other modifications, such as through entry or key set views, are not reflected in it.
+ *
+ * @param <V> type of value
+ */
+public class NodeTypeMap<V> extends HashMap<Class<?>, V> {
+    private Object[] values = new Object[0];
+
+    public NodeTypeMap() {
+    }
+
+    public NodeTypeMap(int initialCapacity) {
+        super(initialCapacity);
+    }
+
+    /**
+     * @param node node
+     * @return value for the node's class or null if none
+     */
+    @SuppressWarnings("unchecked")
+    public V get(Node node) {
+        int typeId = node.getTypeId();
+        Object[] values = this.values;
+        return typeId < values.length ? (V) values[typeId] : null;
+    }
+
+    @Override
+    public V put(Class<?> key, V value) {
+        V oldValue = super.put(key, value);
+        setValue(key, value);
+        return oldValue;
+    }
+
+    @Override
+    public void putAll(Map<? extends Class<?>, ? extends V> m) {
+        for (Map.Entry<? extends Class<?>, ? extends V> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public V remove(Object key) {
+        V oldValue = super.remove(key);
+        if (key instanceof Class<?>) {
+            setValue((Class<?>) key, null);
+        }
+        return oldValue;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        values = new Object[0];
+    }
+
+    private void setValue(Class<?> key, V value) {
+        int typeId = NodeTypeRegistry.getTypeId(key);
+        if (typeId >= values.length) {
+            if (value == null) return;
+
+            Object[] newValues = new Object[Math.max(typeId + 1, NodeTypeRegistry.getTypeCount())];
+            System.arraycopy(values, 0, newValues, 0, values.length);
+            values = newValues;
+        }
+        values[typeId] = value;
+    }
+}
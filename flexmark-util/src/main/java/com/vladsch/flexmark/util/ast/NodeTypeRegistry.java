@@ -0,0 +1,37 @@
+package com.vladsch.flexmark.util.ast;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns each class a small integer type id on first request, used for array indexed dispatch on node class
+ * <p>
+ * Ids start at 1 and are dense, so they can be used as indices into tables sized by {@link #getTypeCount()}.
+ */
+public final class NodeTypeRegistry {
+    private static final AtomicInteger ourNextId = new AtomicInteger(1);
+
+    private static final ClassValue<Integer> ourTypeIds = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return ourNextId.getAndIncrement();
+        }
+    };
+
+    private NodeTypeRegistry() {
+    }
+
+    /**
+     * @param type class
+     * @return type id of the class, same value for every call with the same class
+     */
+    public static int getTypeId(Class<?> type) {
+        return ourTypeIds.get(type);
+    }
+
+    /**
+     * @return upper bound of type ids assigned so far
+     */
+    public static int getTypeCount() {
+        return ourNextId.get();
+    }
+}
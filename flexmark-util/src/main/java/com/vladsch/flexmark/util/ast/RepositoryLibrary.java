@@ -0,0 +1,73 @@
+package com.vladsch.flexmark.util.ast;
+
+import com.vladsch.flexmark.util.options.DataKey;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Node repositories of a parsed library document, attached to documents so that the library's definitions
+ * are visible in them without parsing or copying the definitions for every document
+ * <p>
+ * A library is created from a document holding shared definitions: references, abbreviations, macros or any
+ * other {@link NodeRepository} kept in the document's data which is {@link NodeRepository#isShareable()}. Repositories
+ * whose nodes are modified by documents referencing them, like footnotes with their reference counts, are not part
+ * of a library. Attaching the library to a document sets each library
+ * repository as the {@link NodeRepository#setLibrary(NodeRepository)} of the document's repository with the same key.
+ * <p>
+ * The library document and its repositories must not be modified once the library is created, the same library
+ * can then be attached to any number of documents. As with {@link NodeRepository#transferReferences(NodeRepository, NodeRepository, boolean)}
+ * the documents share the library's definition nodes.
+ */
+public class RepositoryLibrary {
+    private final Document document;
+    private final Map<DataKey<? extends NodeRepository>, NodeRepository> repositories;
+
+    private RepositoryLibrary(Document document, Map<DataKey<? extends NodeRepository>, NodeRepository> repositories) {
+        this.document = document;
+        this.repositories = Collections.unmodifiableMap(repositories);
+    }
+
+    public Document getDocument() {
+        return document;
+    }
+
+    public Map<DataKey<? extends NodeRepository>, NodeRepository> getRepositories() {
+        return repositories;
+    }
+
+    /**
+     * Attach library repositories to the repositories of a document, creating them if needed
+     *
+     * @param document document to which to attach the library
+     */
+    @SuppressWarnings("unchecked")
+    public void attachTo(Document document) {
+        for (Map.Entry<DataKey<? extends NodeRepository>, NodeRepository> entry : repositories.entrySet()) {
+            NodeRepository repository = entry.getKey().getFrom(document);
+            if (repository != entry.getValue()) {
+                repository.setLibrary(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Create a library from the non-empty shareable repositories of a parsed document
+     *
+     * @param document library document
+     * @return library
+     */
+    public static RepositoryLibrary of(Document document) {
+        LinkedHashMap<DataKey<? extends NodeRepository>, NodeRepository> repositories = new LinkedHashMap<DataKey<? extends NodeRepository>, NodeRepository>();
+        Collection<Object> values = document.getAll().values();
+        for (Object value : values) {
+            if (value instanceof NodeRepository && ((NodeRepository) value).isShareable() && !((NodeRepository) value).isEmpty()) {
+                NodeRepository repository = (NodeRepository) value;
+                repositories.put(repository.getDataKey(), repository);
+            }
+        }
+        return new RepositoryLibrary(document, repositories);
+    }
+}
@@ -8,6 +8,7 @@ import com.vladsch.flexmark.util.collection.MinAggregator;
 import com.vladsch.flexmark.util.format.options.DiscretionaryText;
 import com.vladsch.flexmark.util.html.CellAlignment;
 import com.vladsch.flexmark.util.html.FormattingAppendable;
+import com.vladsch.flexmark.util.html.FormattingAppendableImpl;
 import com.vladsch.flexmark.util.options.DataHolder;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
 import com.vladsch.flexmark.util.sequence.BasedSequenceImpl;
@@ -15,6 +16,7 @@ import com.vladsch.flexmark.util.sequence.PrefixedSubSequence;
 import com.vladsch.flexmark.util.sequence.RepeatedCharSequence;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
@@ -48,7 +50,19 @@ public class MarkdownTable {
     // generated by conversion to text
     private HashMap<Integer, Integer> trackedOffsets = new HashMap<>();
 
-    private final TableSection[] ALL_SECTIONS;      // includes  header, separator, body, caption
+    // retained between conversions to text in incremental mode
+    private boolean incremental;
+    private TableFormatOptions retainedOptions;   // options of retained widths, null if none retained
+    private TableCell[][] measuredCells;          // cells of retained widths by all rows index
+    private int[][] cellWidths;                   // widths of measured cells, null for separator rows
+    private int[] contentWidths;                  // maximum header and body cell width by column
+    private int[] separatorWidths;                // separator width by column
+    private String[] rowTexts;                    // formatted text by all rows index, null if not formatted
+    private String separatorText;                 // formatted separator, null if not formatted
+    private final BitSet trackedRows = new BitSet();
+    private final BitSet changedRows = new BitSet();
+
+    private final TableSection[] ALL_SECTIONS;     // includes  header, separator, body, caption
     private final TableSection[] ALL_TABLE_ROWS;    // includes header, separator, body
     private final TableSection[] ALL_CONTENT_ROWS;  // header, body
 
@@ -170,6 +184,83 @@ public class MarkdownTable {
         return trackedOffsets;
     }
 
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * Set incremental mode
+     * <p>
+     * In incremental mode the table retains cell widths, column widths and formatted rows of a conversion to text so
+     * that the next conversion only measures cells which were replaced since and only formats rows which were changed
+     * or have tracked offsets. All rows are formatted if a column width changes.
+     * <p>
+     * Changing table structure, separator cells, heading cell alignment or options, or using column spans results in
+     * a full conversion.
+     *
+     * @param incremental true to retain widths between conversions to text
+     */
+    public void setIncremental(final boolean incremental) {
+        this.incremental = incremental;
+        if (!incremental) clearRetainedWidths();
+    }
+
+    /**
+     * Replace a cell after an edit and remove tracked offsets of the previous conversion to text
+     * <p>
+     * To track an offset in the edited cell pass a cell with its tracked text offset set, see
+     * {@link TableCell#withTrackedOffset(int, boolean, boolean)}.
+     *
+     * @param row    index of row in all rows
+     * @param column index of cell in row
+     * @param cell   new cell
+     */
+    public void updateCell(final int row, final int column, final TableCell cell) {
+        clearTrackedOffsets();
+        int index = row;
+        for (TableSection section : ALL_TABLE_ROWS) {
+            if (index < section.rows.size()) {
+                section.rows.get(index).cells.set(column, cell);
+                return;
+            }
+            index -= section.rows.size();
+        }
+        throw new IndexOutOfBoundsException("row " + row + " is not in the table");
+    }
+
+    /**
+     * Remove tracked offsets from rows and their cells, when widths are retained only rows which were tracked by the
+     * last conversion to text are checked
+     */
+    public void clearTrackedOffsets() {
+        List<TableRow> rows = getAllRows();
+        int i = retainedOptions == null ? 0 : trackedRows.nextSetBit(0);
+        while (i >= 0 && i < rows.size()) {
+            TableRow row = rows.get(i);
+            row.beforeOffset = NOT_TRACKED;
+            row.afterOffset = NOT_TRACKED;
+
+            List<TableCell> cells = row.cells;
+            int kMax = cells.size();
+            for (int k = 0; k < kMax; k++) {
+                TableCell cell = cells.get(k);
+                if (cell != null && (cell.trackedTextOffset != NOT_TRACKED || cell.spanTrackedOffset != NOT_TRACKED)) {
+                    cells.set(k, cell.withTrackedOffset(NOT_TRACKED).withSpanTrackedOffset(NOT_TRACKED));
+                }
+            }
+            i = retainedOptions == null ? i + 1 : trackedRows.nextSetBit(i + 1);
+        }
+        trackedRows.clear();
+    }
+
+    /**
+     * @return all rows indices of rows which were formatted by the last conversion to text, rows not included were
+     *         copied from the conversion before it
+     */
+    public BitSet getChangedRows() {
+        return changedRows;
+    }
+
     public int getTableStartOffset() {
         List<TableRow> rows = getAllRows();
         TableRow row = rows.get(0);
@@ -608,6 +699,8 @@ public class MarkdownTable {
         BitSet spanAlignment = new BitSet(sepColumns);
         List<ColumnSpan> columnSpans = new ArrayList<ColumnSpan>();
         Ref<Integer> delta = new Ref<Integer>(0);
+        int[][] widths = incremental ? new int[getAllRowsCount()][] : null;
+        int[] sepWidths = incremental ? new int[sepColumns] : null;
 
         if (separator.rows.size() > 0) {
             TableRow row = separator.rows.get(0);
@@ -632,6 +725,7 @@ public class MarkdownTable {
                 int jSpan = 0;
                 delta.value = 0;
                 int kMax = row.cells.size();
+                int[] rowWidths = widths == null ? null : (widths[i] = new int[kMax]);
                 for (int k = 0; k < kMax; k++) {
                     TableCell cell = row.cells.get(k);
 
@@ -643,6 +737,7 @@ public class MarkdownTable {
 
                     BasedSequence cellText = cellText(row.cells, k, false, true, 0, null, delta);
                     int width = options.charWidthProvider.charWidth(cellText) + options.spacePad + options.pipeWidth * cell.columnSpan;
+                    if (rowWidths != null) rowWidths[k] = width;
                     if (cell.columnSpan > 1) {
                         columnSpans.add(new ColumnSpan(j, cell.columnSpan, width));
                     } else {
@@ -663,10 +758,12 @@ public class MarkdownTable {
                 int j = 0;
                 int jSpan = 0;
                 int kMax = row.cells.size();
+                int[] rowWidths = widths == null ? null : (widths[header.rows.size() + separator.rows.size() + i] = new int[kMax]);
                 for (int k = 0; k < kMax; k++) {
                     TableCell cell = row.cells.get(k);
                     BasedSequence cellText = cellText(row.cells, k, false, false, 0, null, delta);
                     int width = options.charWidthProvider.charWidth(cellText) + options.spacePad + options.pipeWidth * cell.columnSpan;
+                    if (rowWidths != null) rowWidths[k] = width;
                     if (cell.columnSpan > 1) {
                         columnSpans.add(new ColumnSpan(jSpan, cell.columnSpan, width));
                     } else {
@@ -691,6 +788,7 @@ public class MarkdownTable {
                 int dashesOnly = Utils.minLimit(dashCount, options.minSeparatorColumnWidth - colonCount, options.minSeparatorDashes);
                 if (dashCount < dashesOnly) dashCount = dashesOnly;
                 int width = dashCount * options.dashWidth + colonCount * options.colonWidth + options.pipeWidth;
+                if (sepWidths != null) sepWidths[j] = width;
                 if (columnWidths[j] < width) columnWidths[j] = width;
                 j++;
             }
@@ -706,11 +804,18 @@ public class MarkdownTable {
                 int dashesOnly = Utils.minLimit(dashCount, options.minSeparatorColumnWidth - colonCount, options.minSeparatorDashes);
                 if (dashCount < dashesOnly) dashCount = dashesOnly;
                 int width = dashCount * options.dashWidth + colonCount * options.colonWidth + options.pipeWidth;
+                if (sepWidths != null) sepWidths[j] = width;
                 if (columnWidths[j] < width) columnWidths[j] = width;
                 j++;
             }
         }
 
+        if (widths != null && columnSpans.isEmpty()) {
+            retainWidths(widths, sepWidths);
+        } else {
+            clearRetainedWidths();
+        }
+
         if (!columnSpans.isEmpty()) {
             // now need to distribute extra width from spans to contained columns
             int[] additionalWidths = new int[sepColumns];
@@ -777,6 +882,118 @@ public class MarkdownTable {
         }
     }
 
+    private void retainWidths(int[][] widths, int[] sepWidths) {
+        List<TableRow> rows = getAllRows();
+        int iMax = rows.size();
+        measuredCells = new TableCell[iMax][];
+        contentWidths = new int[columnWidths.length];
+
+        for (int i = 0; i < iMax; i++) {
+            measuredCells[i] = rows.get(i).cells.toArray(new TableCell[0]);
+            if (widths[i] != null) {
+                for (int k = 0; k < widths[i].length; k++) {
+                    if (contentWidths[k] < widths[i][k]) contentWidths[k] = widths[i][k];
+                }
+            }
+        }
+
+        cellWidths = widths;
+        separatorWidths = sepWidths;
+        rowTexts = new String[iMax];
+        separatorText = null;
+        retainedOptions = options;
+    }
+
+    private void clearRetainedWidths() {
+        retainedOptions = null;
+        measuredCells = null;
+        cellWidths = null;
+        contentWidths = null;
+        separatorWidths = null;
+        rowTexts = null;
+        separatorText = null;
+    }
+
+    /*
+     * Measure cells replaced since widths were retained and update column widths, rows are only compared by cell
+     * identity. Column maximum is only recomputed from retained widths if the cell which had it became narrower.
+     *
+     * return false if the table needs to be finalized
+     */
+    private boolean updateRetainedWidths() {
+        if (retainedOptions != options || getAllRowsCount() != measuredCells.length) return false;
+
+        List<TableRow> rows = getAllRows();
+        int separatorStart = header.rows.size();
+        int bodyStart = separatorStart + separator.rows.size();
+        BitSet replacedRows = new BitSet();
+
+        for (int i = 0; i < measuredCells.length; i++) {
+            List<TableCell> cells = rows.get(i).cells;
+            TableCell[] measured = measuredCells[i];
+            if (cells.size() != measured.length) return false;
+
+            for (int k = 0; k < measured.length; k++) {
+                TableCell cell = cells.get(k);
+                if (cell != measured[k]) {
+                    // separator cells and heading cell alignments determine column alignments
+                    if (cell == null || cell.columnSpan != 1 || i >= separatorStart && i < bodyStart) return false;
+                    if (i < separatorStart && cell.alignment != measured[k].alignment) return false;
+                    replacedRows.set(i);
+                }
+            }
+        }
+
+        Ref<Integer> delta = new Ref<Integer>(0);
+        BitSet narrowedColumns = new BitSet();
+
+        for (int i = replacedRows.nextSetBit(0); i >= 0; i = replacedRows.nextSetBit(i + 1)) {
+            List<TableCell> cells = rows.get(i).cells;
+            TableCell[] measured = measuredCells[i];
+            int[] widths = cellWidths[i];
+
+            for (int k = 0; k < measured.length; k++) {
+                TableCell cell = cells.get(k);
+                if (cell != measured[k]) {
+                    delta.value = 0;
+                    BasedSequence cellText = cellText(cells, k, false, i < separatorStart, 0, null, delta);
+                    int width = options.charWidthProvider.charWidth(cellText) + options.spacePad + options.pipeWidth;
+                    if (width > contentWidths[k]) {
+                        contentWidths[k] = width;
+                    } else if (width < widths[k] && widths[k] == contentWidths[k]) {
+                        narrowedColumns.set(k);
+                    }
+                    widths[k] = width;
+                    measured[k] = cell;
+                }
+            }
+            rowTexts[i] = null;
+        }
+
+        for (int j = narrowedColumns.nextSetBit(0); j >= 0; j = narrowedColumns.nextSetBit(j + 1)) {
+            int width = 0;
+            for (int[] widths : cellWidths) {
+                if (widths != null && j < widths.length && width < widths[j]) width = widths[j];
+            }
+            contentWidths[j] = width;
+        }
+
+        boolean widthsChanged = false;
+        for (int j = 0; j < columnWidths.length; j++) {
+            int width = Math.max(contentWidths[j], separatorWidths[j]);
+            if (columnWidths[j] != width) {
+                columnWidths[j] = width;
+                widthsChanged = true;
+            }
+        }
+
+        if (widthsChanged) {
+            Arrays.fill(rowTexts, null);
+            separatorText = null;
+        }
+        return true;
+    }
+
     public void fillMissingColumns() {
         fillMissingColumns(null);
     }
@@ -801,137 +1018,36 @@ public class MarkdownTable {
         Ref<Integer> delta = new Ref<Integer>(0);
         String linePrefix = options.formatTableIndentPrefix;
         trackedOffsets.clear();
+        trackedRows.clear();
+        changedRows.clear();
 
         int formatterOptions = out.getOptions();
         out.setOptions((formatterOptions & ~FormattingAppendable.COLLAPSE_WHITESPACE) | FormattingAppendable.ALLOW_LEADING_WHITESPACE);
 
-        finalizeTable();
-
-        appendRows(out, header.rows, true, linePrefix, delta);
-
-        {
-            out.append(linePrefix);
-
-            TableRow row = separator.rows.size() > 0 ? separator.rows.get(0) : null;
-
-            if (row != null && row.beforeOffset != NOT_TRACKED) {
-                trackedOffsets.put(row.beforeOffset, out.offsetWithPending());
-            }
-
-            int j = 0;
-            delta.value = 0;
-            for (CellAlignment alignment : alignments) {
-                CellAlignment alignment1 = adjustCellAlignment(alignment);
-                int colonCount = alignment1 == CellAlignment.LEFT || alignment1 == CellAlignment.RIGHT ? 1 : alignment1 == CellAlignment.CENTER ? 2 : 0;
-                int dashCount = (columnWidths[j] - colonCount * options.colonWidth - options.pipeWidth) / options.dashWidth;
-                int dashesOnly = Utils.minLimit(dashCount, options.minSeparatorColumnWidth - colonCount, options.minSeparatorDashes);
-                if (dashCount < dashesOnly) dashCount = dashesOnly;
-
-                if (delta.value * 2 >= options.dashWidth) {
-                    dashCount++;
-                    delta.value -= options.dashWidth;
-                }
-
-                boolean handled = false;
-
-                int trackedPos = NOT_TRACKED;
-                TableCell cell = null;
-
-                TableCell previousCell = null;
-                if (row != null) {
-                    List<TableCell> cells = row.cells;
-                    if (j < cells.size()) {
-                        cell = cells.get(j);
-                        if (j > 0) previousCell = cells.get(j - 1);
-                    }
-                }
-
-                trackedPos = cell == null ? NOT_TRACKED : minLimit(cell.trackedTextOffset, 0);
-
-                if (trackedPos != NOT_TRACKED) {
-                    if (options.leadTrailPipes && j == 0) out.append('|');
-                    boolean beforeFirstColon = trackedPos == 0 && cell.text.charAt(trackedPos) == ':';
-                    boolean afterFirstColon = trackedPos == 1 && cell.text.charAt(trackedPos - 1) == ':';
-                    boolean beforeLastColon = trackedPos == cell.text.length() - 1 && cell.text.charAt(trackedPos) == ':';
-                    boolean afterLastColon = trackedPos == cell.text.length() && cell.text.charAt(trackedPos - 1) == ':';
-                    boolean afterLastDash = trackedPos == cell.text.length() && cell.text.charAt(trackedPos - 1) == '-';
-
-                    if (alignment1 == CellAlignment.LEFT || alignment1 == CellAlignment.CENTER) {
-                        if (beforeFirstColon) {
-                            trackedOffsets.put(cell.trackedTextOffset + cell.getInsideStartOffset(previousCell), out.offsetWithPending());
-                            trackedPos = NOT_TRACKED;
-                            out.append(':');
-                        } else if (afterFirstColon) {
-                            out.append(':');
-                            trackedOffsets.put(cell.trackedTextOffset + cell.getInsideStartOffset(previousCell), out.offsetWithPending());
-                            trackedPos = NOT_TRACKED;
-                        } else {
-                            out.append(':');
-                        }
-                    } else {
-                        beforeFirstColon = false;
-                        afterFirstColon = false;
-                    }
-
-                    if (!afterFirstColon && !beforeFirstColon && !afterLastColon && !beforeLastColon) {
-                        if (trackedPos == 0) {
-                            trackedOffsets.put(cell.trackedTextOffset + cell.getInsideStartOffset(previousCell), out.offsetWithPending());
-                            trackedPos = NOT_TRACKED;
-                            out.repeat('-', dashCount);
-                        } else if (!afterLastDash && trackedPos < dashCount) {
-                            out.repeat('-', trackedPos);
-                            trackedOffsets.put(cell.trackedTextOffset + cell.getInsideStartOffset(previousCell), out.offsetWithPending());
-                            out.repeat('-', dashCount - trackedPos);
-                            trackedPos = NOT_TRACKED;
-                        } else {
-                            out.repeat('-', dashCount);
-                            trackedOffsets.put(cell.trackedTextOffset + cell.getInsideStartOffset(previousCell), out.offsetWithPending());
-                            trackedPos = NOT_TRACKED;
-                        }
-                    } else {
-                        out.repeat('-', dashCount);
-                    }
-
-                    if (alignment1 == CellAlignment.RIGHT || alignment1 == CellAlignment.CENTER) {
-                        if (afterLastColon) {
-                            out.append(':');
-                            trackedOffsets.put(cell.trackedTextOffset + cell.getInsideStartOffset(previousCell), out.offsetWithPending());
-                            trackedPos = NOT_TRACKED;
-                        } else if (beforeLastColon) {
-                            trackedOffsets.put(cell.trackedTextOffset + cell.getInsideStartOffset(previousCell), out.offsetWithPending());
-                            trackedPos = NOT_TRACKED;
-                            out.append(':');
-                        } else {
-                            out.append(':');
-                        }
-                    } else if (afterLastColon || beforeLastColon) {
-                        trackedOffsets.put(cell.trackedTextOffset + cell.getInsideStartOffset(previousCell), out.offsetWithPending());
-                        trackedPos = NOT_TRACKED;
-                    }
-
-                    assert trackedPos == NOT_TRACKED;
-                } else {
-                    if (options.leadTrailPipes && j == 0) out.append('|');
-                    if (alignment1 == CellAlignment.LEFT || alignment1 == CellAlignment.CENTER)
-                        out.append(':');
-
-                    out.repeat('-', dashCount);
-                    if (alignment1 == CellAlignment.RIGHT || alignment1 == CellAlignment.CENTER)
-                        out.append(':');
-                }
+        if (retainedOptions == null || !updateRetainedWidths()) {
+            finalizeTable();
+        }
 
-                j++;
-                if (options.leadTrailPipes || j < alignments.length) out.append('|');
-            }
+        appendRows(out, header.rows, 0, true, linePrefix, delta);
 
-            if (row != null && row.afterOffset != NOT_TRACKED) {
-                trackedOffsets.put(row.afterOffset, out.offsetWithPending());
+        int separatorIndex = header.rows.size();
+        TableRow separatorRow = separator.rows.size() > 0 ? separator.rows.get(0) : null;
+        if (retainedOptions == null || isTracked(separatorRow)) {
+            appendSeparator(out, linePrefix, delta);
+            if (separatorRow != null) trackedRows.set(separatorIndex);
+            separatorText = null;
+            changedRows.set(separatorIndex);
+        } else {
+            if (separatorText == null) {
+                FormattingAppendable rowOut = new FormattingAppendableImpl(out.getOptions());
+                appendSeparator(rowOut, "", delta);
+                separatorText = rowOut.getAppendable().toString();
+                changedRows.set(separatorIndex);
             }
-
-            out.line();
+            out.append(linePrefix).append(separatorText).line();
         }
 
-        appendRows(out, body.rows, false, linePrefix, delta);
+        appendRows(out, body.rows, separatorIndex + separator.rows.size(), false, linePrefix, delta);
 
         TableCell captionCell = getCaptionCell();
         String captionText = formattedCaption(captionCell.text, options);
@@ -1016,6 +1132,132 @@ public class MarkdownTable {
         out.setOptions(formatterOptions);
     }
 
+    private void appendSeparator(
+            final FormattingAppendable out,
+            final String linePrefix,
+            final Ref<Integer> delta
+    ) {
+        out.append(linePrefix);
+
+        TableRow row = separator.rows.size() > 0 ? separator.rows.get(0) : null;
+
+        if (row != null && row.beforeOffset != NOT_TRACKED) {
+            trackedOffsets.put(row.beforeOffset, out.offsetWithPending());
+        }
+
+        int j = 0;
+        delta.value = 0;
+        for (CellAlignment alignment : alignments) {
+            CellAlignment alignment1 = adjustCellAlignment(alignment);
+            int colonCount = alignment1 == CellAlignment.LEFT || alignment1 == CellAlignment.RIGHT ? 1 : alignment1 == CellAlignment.CENTER ? 2 : 0;
+            int dashCount = (columnWidths[j] - colonCount * options.colonWidth - options.pipeWidth) / options.dashWidth;
+            int dashesOnly = Utils.minLimit(dashCount, options.minSeparatorColumnWidth - colonCount, options.minSeparatorDashes);
+            if (dashCount < dashesOnly) dashCount = dashesOnly;
+
+            if (delta.value * 2 >= options.dashWidth) {
+                dashCount++;
+                delta.value -= options.dashWidth;
+            }
+
+            boolean handled = false;
+
+            int trackedPos = NOT_TRACKED;
+            TableCell cell = null;
+
+            TableCell previousCell = null;
+            if (row != null) {
+                List<TableCell> cells = row.cells;
+                if (j < cells.size()) {
+                    cell = cells.get(j);
+                    if (j > 0) previousCell = cells.get(j - 1);
+                }
+            }
+
+            trackedPos = cell == null ? NOT_TRACKED : minLimit(cell.trackedTextOffset, 0);
+
+            if (trackedPos != NOT_TRACKED) {
+                if (options.leadTrailPipes && j == 0) out.append('|');
+                boolean beforeFirstColon = trackedPos == 0 && cell.text.charAt(trackedPos) == ':';
+                boolean afterFirstColon = trackedPos == 1 && cell.text.charAt(trackedPos - 1) == ':';
+                boolean beforeLastColon = trackedPos == cell.text.length() - 1 && cell.text.charAt(trackedPos) == ':';
+                boolean afterLastColon = trackedPos == cell.text.length() && cell.text.charAt(trackedPos - 1) == ':';
+                boolean afterLastDash = trackedPos == cell.text.length() && cell.text.charAt(trackedPos - 1) == '-';
+
+                if (alignment1 == CellAlignment.LEFT || alignment1 == CellAlignment.CENTER) {
+                    if (beforeFirstColon) {
+                        trackedOffsets.put(cell.trackedTextOffset + cell.getInsideStartOffset(previousCell), out.offsetWithPending());
+                        trackedPos = NOT_TRACKED;
+                        out.append(':');
+                    } else if (afterFirstColon) {
+                        out.append(':');
+                        trackedOffsets.put(cell.trackedTextOffset + cell.getInsideStartOffset(previousCell), out.offsetWithPending());
+                        trackedPos = NOT_TRACKED;
+                    } else {
+                        out.append(':');
+                    }
+                } else {
+                    beforeFirstColon = false;
+                    afterFirstColon = false;
+                }
+
+                if (!afterFirstColon && !beforeFirstColon && !afterLastColon && !beforeLastColon) {
+                    if (trackedPos == 0) {
+                        trackedOffsets.put(cell.trackedTextOffset + cell.getInsideStartOffset(previousCell), out.offsetWithPending());
+                        trackedPos = NOT_TRACKED;
+                        out.repeat('-', dashCount);
+                    } else if (!afterLastDash && trackedPos < dashCount) {
+                        out.repeat('-', trackedPos);
+                        trackedOffsets.put(cell.trackedTextOffset + cell.getInsideStartOffset(previousCell), out.offsetWithPending());
+                        out.repeat('-', dashCount - trackedPos);
+                        trackedPos = NOT_TRACKED;
+                    } else {
+                        out.repeat('-', dashCount);
+                        trackedOffsets.put(cell.trackedTextOffset + cell.getInsideStartOffset(previousCell), out.offsetWithPending());
+                        trackedPos = NOT_TRACKED;
+                    }
+                } else {
+                    out.repeat('-', dashCount);
+                }
+
+                if (alignment1 == CellAlignment.RIGHT || alignment1 == CellAlignment.CENTER) {
+                    if (afterLastColon) {
+                        out.append(':');
+                        trackedOffsets.put(cell.trackedTextOffset + cell.getInsideStartOffset(previousCell), out.offsetWithPending());
+                        trackedPos = NOT_TRACKED;
+                    } else if (beforeLastColon) {
+                        trackedOffsets.put(cell.trackedTextOffset + cell.getInsideStartOffset(previousCell), out.offsetWithPending());
+                        trackedPos = NOT_TRACKED;
+                        out.append(':');
+                    } else {
+                        out.append(':');
+                    }
+                } else if (afterLastColon || beforeLastColon) {
+                    trackedOffsets.put(cell.trackedTextOffset + cell.getInsideStartOffset(previousCell), out.offsetWithPending());
+                    trackedPos = NOT_TRACKED;
+                }
+
+                assert trackedPos == NOT_TRACKED;
+            } else {
+                if (options.leadTrailPipes && j == 0) out.append('|');
+                if (alignment1 == CellAlignment.LEFT || alignment1 == CellAlignment.CENTER)
+                    out.append(':');
+
+                out.repeat('-', dashCount);
+                if (alignment1 == CellAlignment.RIGHT || alignment1 == CellAlignment.CENTER)
+                    out.append(':');
+            }
+
+            j++;
+            if (options.leadTrailPipes || j < alignments.length) out.append('|');
+        }
+
+        if (row != null && row.afterOffset != NOT_TRACKED) {
+            trackedOffsets.put(row.afterOffset, out.offsetWithPending());
+        }
+
+        out.line();
+    }
+
     public static void appendFormattedCaption(
             final FormattingAppendable out,
             final BasedSequence caption,
@@ -1086,76 +1328,119 @@ public class MarkdownTable {
         return cell.text.equals(" ") || !cell.text.startsWith(" ");
     }
 
+    private boolean isTracked(TableRow row) {
+        if (row == null) return false;
+        if (row.beforeOffset != NOT_TRACKED || row.afterOffset != NOT_TRACKED) return true;
+
+        for (TableCell cell : row.cells) {
+            if (cell.trackedTextOffset != NOT_TRACKED || cell.spanTrackedOffset != NOT_TRACKED) return true;
+        }
+        return false;
+    }
+
     private void appendRows(
             final FormattingAppendable out,
             List<TableRow> rows,
+            final int firstIndex,
             final boolean isHeader,
             final String linePrefix,
             final Ref<Integer> delta
     ) {
+        int index = firstIndex;
         for (TableRow row : rows) {
-            int j = 0;
-            int jSpan = 0;
-            delta.value = 0;
-
-            out.append(linePrefix);
+            if (retainedOptions == null || isTracked(row)) {
+                // tracked offsets are relative to out
+                appendRow(out, row, isHeader, linePrefix, delta);
+                if (retainedOptions != null) {
+                    trackedRows.set(index);
+                    rowTexts[index] = null;
+                }
+                changedRows.set(index);
+            } else {
+                String text = rowTexts[index];
+                if (text == null) {
+                    FormattingAppendable rowOut = new FormattingAppendableImpl(out.getOptions());
+                    appendRow(rowOut, row, isHeader, "", delta);
+                    text = rowOut.getAppendable().toString();
+                    rowTexts[index] = text;
+                    changedRows.set(index);
+                }
 
-            if (row.beforeOffset != NOT_TRACKED) {
-                trackedOffsets.put(row.beforeOffset, out.offsetWithPending());
+                out.append(linePrefix).append(text);
+                if (!row.cells.isEmpty()) out.line();
             }
+            index++;
+        }
+    }
 
-            int iMax = row.cells.size();
-            for (int i = 0; i < iMax; i++) {
-                TableCell cell = row.cells.get(i);
+    private void appendRow(
+            final FormattingAppendable out,
+            final TableRow row,
+            final boolean isHeader,
+            final String linePrefix,
+            final Ref<Integer> delta
+    ) {
+        int j = 0;
+        int jSpan = 0;
+        delta.value = 0;
 
-                if (j == 0) {
-                    if (options.leadTrailPipes) {
-                        out.append('|');
-                        if (options.spaceAroundPipes && pipeNeedsSpaceAfter(cell))
-                            out.append(' ');
-                    }
-                } else {
-                    if (options.spaceAroundPipes && pipeNeedsSpaceAfter(cell)) out.append(' ');
-                }
+        out.append(linePrefix);
 
-                CellAlignment cellAlignment = isHeader && cell.alignment != CellAlignment.NONE ? cell.alignment : alignments[jSpan];
+        if (row.beforeOffset != NOT_TRACKED) {
+            trackedOffsets.put(row.beforeOffset, out.offsetWithPending());
+        }
 
-                BasedSequence cellText = cellText(row.cells, i, true, isHeader,
-                        spanWidth(jSpan, cell.columnSpan) - options.spacePad - options.pipeWidth * cell.columnSpan,
-                        cellAlignment, delta);
+        int iMax = row.cells.size();
+        for (int i = 0; i < iMax; i++) {
+            TableCell cell = row.cells.get(i);
 
-                if (cell.trackedTextOffset != NOT_TRACKED) {
-                    TableCell adjustedCell = row.cells.get(i);
-                    if (adjustedCell.trackedTextOffset != NOT_TRACKED) {
-                        int cellOffset = out.offsetWithPending();
-                        int adjustForBlank = cell.text.isBlank() ? -1 : 0;
-                        trackedOffsets.put(cell.trackedTextOffset + cell.getTextStartOffset(i == 0 ? null : row.cells.get(i - 1)), cellOffset + minLimit(adjustedCell.trackedTextOffset + adjustForBlank, 0) + adjustedCell.trackedTextAdjust);
-                    }
+            if (j == 0) {
+                if (options.leadTrailPipes) {
+                    out.append('|');
+                    if (options.spaceAroundPipes && pipeNeedsSpaceAfter(cell))
+                        out.append(' ');
                 }
+            } else {
+                if (options.spaceAroundPipes && pipeNeedsSpaceAfter(cell)) out.append(' ');
+            }
 
-                out.append(cellText);
+            CellAlignment cellAlignment = isHeader && cell.alignment != CellAlignment.NONE ? cell.alignment : alignments[jSpan];
 
-                j++;
-                jSpan += cell.columnSpan;
+            BasedSequence cellText = cellText(row.cells, i, true, isHeader,
+                    spanWidth(jSpan, cell.columnSpan) - options.spacePad - options.pipeWidth * cell.columnSpan,
+                    cellAlignment, delta);
 
-                if (j < alignments.length) {
-                    if (options.spaceAroundPipes && pipeNeedsSpaceBefore(cell)) out.append(' ');
-                    appendColumnSpan(out, cell.columnSpan, cell.getInsideEndOffset(), cell.spanTrackedOffset, trackedOffsets);
-                } else if (options.leadTrailPipes) {
-                    if (options.spaceAroundPipes && pipeNeedsSpaceBefore(cell)) out.append(' ');
-                    appendColumnSpan(out, cell.columnSpan, cell.getInsideEndOffset(), cell.spanTrackedOffset, trackedOffsets);
-                } else {
-                    if (options.spaceAroundPipes && pipeNeedsSpaceBefore(cell)) out.append(' ');
-                    appendColumnSpan(out, cell.columnSpan - 1, cell.getInsideEndOffset(), cell.spanTrackedOffset, trackedOffsets);
+            if (cell.trackedTextOffset != NOT_TRACKED) {
+                TableCell adjustedCell = row.cells.get(i);
+                if (adjustedCell.trackedTextOffset != NOT_TRACKED) {
+                    int cellOffset = out.offsetWithPending();
+                    int adjustForBlank = cell.text.isBlank() ? -1 : 0;
+                    trackedOffsets.put(cell.trackedTextOffset + cell.getTextStartOffset(i == 0 ? null : row.cells.get(i - 1)), cellOffset + minLimit(adjustedCell.trackedTextOffset + adjustForBlank, 0) + adjustedCell.trackedTextAdjust);
                 }
             }
 
-            if (row.afterOffset != NOT_TRACKED && true) {
-                trackedOffsets.put(row.afterOffset, out.offsetWithPending());
+            out.append(cellText);
+
+            j++;
+            jSpan += cell.columnSpan;
+
+            if (j < alignments.length) {
+                if (options.spaceAroundPipes && pipeNeedsSpaceBefore(cell)) out.append(' ');
+                appendColumnSpan(out, cell.columnSpan, cell.getInsideEndOffset(), cell.spanTrackedOffset, trackedOffsets);
+            } else if (options.leadTrailPipes) {
+                if (options.spaceAroundPipes && pipeNeedsSpaceBefore(cell)) out.append(' ');
+                appendColumnSpan(out, cell.columnSpan, cell.getInsideEndOffset(), cell.spanTrackedOffset, trackedOffsets);
+            } else {
+                if (options.spaceAroundPipes && pipeNeedsSpaceBefore(cell)) out.append(' ');
+                appendColumnSpan(out, cell.columnSpan - 1, cell.getInsideEndOffset(), cell.spanTrackedOffset, trackedOffsets);
             }
+        }
 
-            if (j > 0) out.line();
+        if (row.afterOffset != NOT_TRACKED && true) {
+            trackedOffsets.put(row.afterOffset, out.offsetWithPending());
         }
+
+        if (j > 0) out.line();
     }
 
     private void appendColumnSpan(
@@ -0,0 +1,95 @@
+package com.vladsch.flexmark.util.html;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Appendable with a bounded buffer which writes to a {@link Writer}
+ * <p>
+ * Unlike appending to the writer directly, appending a range of a char sequence does not create a sub-sequence and
+ * its string, characters are copied straight into the buffer. The buffer is written out whenever it fills up and on
+ * {@link #flush()}, which also flushes the writer. Not thread safe.
+ */
+public class WriterAppendable implements Appendable, Flushable {
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final Writer myWriter;
+    private final char[] myBuffer;
+    private int myCount;
+
+    public WriterAppendable(final Writer writer) {
+        this(writer, DEFAULT_BUFFER_SIZE);
+    }
+
+    public WriterAppendable(final Writer writer, final int bufferSize) {
+        if (bufferSize <= 0) throw new IllegalArgumentException("bufferSize must be > 0, got " + bufferSize);
+        myWriter = writer;
+        myBuffer = new char[bufferSize];
+        myCount = 0;
+    }
+
+    public Writer getWriter() {
+        return myWriter;
+    }
+
+    /**
+     * @return number of characters in the buffer which were not written out yet
+     */
+    public int getBufferedLength() {
+        return myCount;
+    }
+
+    @Override
+    public WriterAppendable append(final CharSequence csq) throws IOException {
+        CharSequence chars = csq == null ? "null" : csq;
+        return append(chars, 0, chars.length());
+    }
+
+    @Override
+    public WriterAppendable append(final CharSequence csq, final int start, final int end) throws IOException {
+        if (csq == null) return append("null", start, end);
+
+        int pos = start;
+        while (pos < end) {
+            if (myCount == myBuffer.length) writeBuffer();
+
+            int count = Math.min(end - pos, myBuffer.length - myCount);
+            if (csq instanceof String) {
+                ((String) csq).getChars(pos, pos + count, myBuffer, myCount);
+            } else {
+                for (int i = 0; i < count; i++) {
+                    myBuffer[myCount + i] = csq.charAt(pos + i);
+                }
+            }
+            myCount += count;
+            pos += count;
+        }
+        return this;
+    }
+
+    @Override
+    public WriterAppendable append(final char c) throws IOException {
+        if (myCount == myBuffer.length) writeBuffer();
+        myBuffer[myCount++] = c;
+        return this;
+    }
+
+    private void writeBuffer() throws IOException {
+        if (myCount > 0) {
+            myWriter.write(myBuffer, 0, myCount);
+            myCount = 0;
+        }
+    }
+
+    /**
+     * Write out buffered characters and flush the writer
+     *
+     * @throws IOException if thrown by the writer
+     */
+    @Override
+    public void flush() throws IOException {
+        writeBuffer();
+        myWriter.flush();
+    }
+}
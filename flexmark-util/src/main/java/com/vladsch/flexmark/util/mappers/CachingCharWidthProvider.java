@@ -0,0 +1,204 @@
+package com.vladsch.flexmark.util.mappers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Char width provider caching the widths measured by another provider
+ * <p>
+ * Character widths are kept in a table covering the basic multilingual plane, allocated in pages of 256 characters as
+ * they are used, and read without locking.
+ * <p>
+ * For an additive provider, whose string width is the sum of its character widths, string widths are summed from the
+ * character table, without locking or copying the string. Otherwise string widths are kept for the most recently
+ * measured strings, up to a maximum count, in stripes selected by the string's hash which are locked independently.
+ * <p>
+ * Widths are measured by the wrapped provider on first use, which must return the same width for the same characters
+ * every time. The cache is thread-safe when the wrapped provider is.
+ */
+public class CachingCharWidthProvider implements CharWidthProvider {
+    public static final int DEFAULT_MAX_CACHED_STRINGS = 4096;
+    private static final int MAX_STRIPES = 16;
+    private static final int MIN_STRIPE_STRINGS = 16;
+
+    private final CharWidthProvider provider;
+    private final boolean additive;
+    private final int spaceWidth;
+    private final int[][] charWidths;     // pages of width + 1 by character high byte, 0 for not measured
+    private final Map<StringKey, Integer>[] stringWidths;     // null if string widths are not cached
+    private final int stripeMask;
+
+    public CachingCharWidthProvider(CharWidthProvider provider) {
+        this(provider, DEFAULT_MAX_CACHED_STRINGS, false);
+    }
+
+    public CachingCharWidthProvider(CharWidthProvider provider, final int maxCachedStrings) {
+        this(provider, maxCachedStrings, false);
+    }
+
+    /**
+     * @param provider          provider of widths
+     * @param maxCachedStrings  maximum number of string widths to keep, 0 to measure strings every time, not used if
+     *                          additive
+     * @param additive          true if the provider's string width is the sum of its character widths, string widths
+     *                          are then summed from cached character widths
+     */
+    @SuppressWarnings("unchecked")
+    public CachingCharWidthProvider(CharWidthProvider provider, final int maxCachedStrings, boolean additive) {
+        this.provider = provider;
+        this.additive = additive;
+        this.spaceWidth = provider.spaceWidth();
+        this.charWidths = new int[256][];
+
+        if (additive || maxCachedStrings <= 0) {
+            this.stringWidths = null;
+            this.stripeMask = 0;
+        } else {
+            // power of 2 stripes of at least MIN_STRIPE_STRINGS each, a small cache is a single stripe
+            int stripes = Integer.highestOneBit(Math.max(1, Math.min(MAX_STRIPES, maxCachedStrings / MIN_STRIPE_STRINGS)));
+            final int maxStripeStrings = (maxCachedStrings + stripes - 1) / stripes;
+
+            this.stringWidths = new Map[stripes];
+            this.stripeMask = stripes - 1;
+            for (int i = 0; i < stripes; i++) {
+                stringWidths[i] = new LinkedHashMap<StringKey, Integer>(64, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(final Map.Entry<StringKey, Integer> eldest) {
+                        return size() > maxStripeStrings;
+                    }
+                };
+            }
+        }
+    }
+
+    public CharWidthProvider getProvider() {
+        return provider;
+    }
+
+    public boolean isAdditive() {
+        return additive;
+    }
+
+    @Override
+    public int spaceWidth() {
+        return spaceWidth;
+    }
+
+    @Override
+    public int charWidth(final char c) {
+        // pages and widths are published without locking, a thread not seeing them measures the character again
+        int[] page = charWidths[c >>> 8];
+        if (page == null) {
+            page = new int[256];
+            charWidths[c >>> 8] = page;
+        }
+
+        int width = page[c & 0xff];
+        if (width == 0) {
+            width = provider.charWidth(c) + 1;
+            page[c & 0xff] = width;
+        }
+        return width - 1;
+    }
+
+    @Override
+    public int charWidth(final CharSequence s) {
+        if (additive) {
+            int width = 0;
+            int iMax = s.length();
+            for (int i = 0; i < iMax; i++) {
+                width += charWidth(s.charAt(i));
+            }
+            return width;
+        }
+
+        if (stringWidths == null) return provider.charWidth(s);
+
+        // lookup key wraps the sequence, only a new entry's key is copied to a string
+        StringKey key = new StringKey(s);
+        Map<StringKey, Integer> stripe = stringWidths[key.hash & stripeMask];
+        Integer width;
+        synchronized (stripe) {
+            width = stripe.get(key);
+        }
+
+        if (width == null) {
+            width = provider.charWidth(s);
+            StringKey stringKey = new StringKey(s.toString(), key.hash);
+            synchronized (stripe) {
+                stripe.put(stringKey, width);
+            }
+        }
+        return width;
+    }
+
+    /**
+     * Get a caching provider for a provider
+     *
+     * @param provider provider of widths
+     * @return provider if it is {@link CharWidthProvider#NULL}, which needs no caching, or already caching, otherwise
+     *         a new caching provider for it
+     */
+    public static CharWidthProvider of(CharWidthProvider provider) {
+        return of(provider, DEFAULT_MAX_CACHED_STRINGS, false);
+    }
+
+    public static CharWidthProvider of(CharWidthProvider provider, int maxCachedStrings) {
+        return of(provider, maxCachedStrings, false);
+    }
+
+    public static CharWidthProvider of(CharWidthProvider provider, int maxCachedStrings, boolean additive) {
+        if (provider == null || provider == NULL || provider instanceof CachingCharWidthProvider) return provider;
+        return new CachingCharWidthProvider(provider, maxCachedStrings, additive);
+    }
+
+    // string cache key comparing characters of any char sequence, with a string hash code
+    private static final class StringKey {
+        final CharSequence chars;
+        final int hash;
+
+        StringKey(CharSequence chars) {
+            this.chars = chars;
+
+            int h = 0;
+            if (chars instanceof String) {
+                // cached by the string, same as computed below
+                h = chars.hashCode();
+            } else {
+                int iMax = chars.length();
+                for (int i = 0; i < iMax; i++) {
+                    h = 31 * h + chars.charAt(i);
+                }
+            }
+
+            // spread high bits to the low bits used for stripe selection
+            this.hash = h ^ (h >>> 16);
+        }
+
+        StringKey(String chars, int hash) {
+            this.chars = chars;
+            this.hash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof StringKey)) return false;
+
+            StringKey other = (StringKey) o;
+            if (hash != other.hash) return false;
+
+            int iMax = chars.length();
+            if (iMax != other.chars.length()) return false;
+            for (int i = 0; i < iMax; i++) {
+                if (chars.charAt(i) != other.chars.charAt(i)) return false;
+            }
+            return true;
+        }
+    }
+}
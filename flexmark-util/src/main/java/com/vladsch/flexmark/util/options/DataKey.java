@@ -2,15 +2,21 @@ package com.vladsch.flexmark.util.options;
 
 import com.vladsch.flexmark.util.collection.DataValueFactory;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class DataKey<T> {
+    private static final AtomicInteger ourNextIndex = new AtomicInteger();
+
     private final String name;
     private final DataValueFactory<T> factory;
     private final T defaultValue;
+    private final int index;
 
     public DataKey(String name, DataValueFactory<T> factory) {
         this.name = name;
         this.defaultValue = factory.create(null);
         this.factory = factory;
+        this.index = ourNextIndex.getAndIncrement();
     }
 
     /**
@@ -42,12 +48,20 @@ public class DataKey<T> {
                 return defaultValue;
             }
         };
+        this.index = ourNextIndex.getAndIncrement();
     }
 
     public String getName() {
         return name;
     }
 
+    /**
+     * @return unique index assigned to this key at creation in order of creation, used by {@link FrozenDataSet} for array lookup
+     */
+    public int getIndex() {
+        return index;
+    }
+
     public DataValueFactory<T> getFactory() {
         return factory;
     }
@@ -0,0 +1,73 @@
+package com.vladsch.flexmark.util.options;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable data set which keeps the values of its keys in a flat array indexed by {@link DataKey#getIndex()}
+ * <p>
+ * Only values contained in the set are kept in the array, so {@link #get(DataKey)} of a contained key is an array load.
+ * Keys not contained in the set return {@link DataKey#getDefaultValue(DataHolder)} on every call without a map lookup,
+ * defaults are never cached because computed defaults of {@link com.vladsch.flexmark.util.collection.DynamicDefaultKey}
+ * can be new mutable instances for every call.
+ */
+public class FrozenDataSet extends DataSet {
+    private static final Object NOT_CONTAINED = new Object();
+
+    private final Object[] values;
+
+    public FrozenDataSet(DataHolder other) {
+        super(other);
+
+        int maxIndex = -1;
+        for (DataKey key : dataSet.keySet()) {
+            if (maxIndex < key.getIndex()) maxIndex = key.getIndex();
+        }
+
+        values = new Object[maxIndex + 1];
+        Arrays.fill(values, NOT_CONTAINED);
+
+        for (Map.Entry<DataKey, Object> entry : dataSet.entrySet()) {
+            values[entry.getKey().getIndex()] = entry.getValue();
+        }
+    }
+
+    @Override
+    public Map<DataKey, Object> getAll() {
+        return Collections.unmodifiableMap(dataSet);
+    }
+
+    @Override
+    public Collection<DataKey> keySet() {
+        return Collections.unmodifiableSet(dataSet.keySet());
+    }
+
+    @Override
+    public <T> T get(DataKey<T> key) {
+        int index = key.getIndex();
+        if (index < values.length) {
+            Object value = values[index];
+            if (value != NOT_CONTAINED) {
+                return key.getValue(value);
+            }
+        }
+        return key.getDefaultValue(this);
+    }
+
+    @Override
+    public DataHolder toImmutable() {
+        return this;
+    }
+
+    /**
+     * Freeze a data holder
+     *
+     * @param other data holder
+     * @return other if it is already frozen, otherwise a frozen copy of its values
+     */
+    public static FrozenDataSet of(DataHolder other) {
+        return other instanceof FrozenDataSet ? (FrozenDataSet) other : new FrozenDataSet(other);
+    }
+}
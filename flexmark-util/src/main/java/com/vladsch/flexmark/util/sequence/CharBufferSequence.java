@@ -0,0 +1,203 @@
+package com.vladsch.flexmark.util.sequence;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A CharSequence that references original CharBuffer and maps '\0' to '\uFFFD'
+ * a subSequence() returns a sub-sequence from the original base sequence
+ * <p>
+ * Characters are accessed with absolute gets, the buffer's position and limit at creation define the sequence's
+ * characters and are not used afterwards.
+ */
+public final class CharBufferSequence extends BasedSequenceImpl {
+    private final CharBuffer baseChars;
+    private final CharBufferSequence base;
+    private final int startOffset;
+    private final int endOffset;
+
+    @Override
+    public CharBufferSequence getBaseSequence() {
+        return base;
+    }
+
+    @Override
+    public CharBuffer getBase() {
+        return baseChars;
+    }
+
+    public int getStartOffset() {
+        return startOffset;
+    }
+
+    public int getEndOffset() {
+        return endOffset;
+    }
+
+    private CharBufferSequence(CharBuffer chars) {
+        baseChars = chars;
+        startOffset = 0;
+        endOffset = chars.limit();
+        base = this;
+    }
+
+    private CharBufferSequence(CharBufferSequence baseSeq, int start, int end) {
+        assert start >= 0 && end >= 0 && end >= start;
+        assert start > 0 || end < baseSeq.length();
+        base = baseSeq;
+        baseChars = baseSeq.baseChars;
+        startOffset = base.startOffset + start;
+        endOffset = base.startOffset + end;
+    }
+
+    @Override
+    public int length() {
+        return endOffset - startOffset;
+    }
+
+    @Override
+    public Range getSourceRange() {
+        return new Range(startOffset, endOffset);
+    }
+
+    @Override
+    public int getIndexOffset(int index) {
+        if (index >= 0 && index <= endOffset - startOffset) {
+            return startOffset + index;
+        }
+        throw new StringIndexOutOfBoundsException("CharBufferSequence index: " + index + " out of range: 0, " + length());
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index >= 0 && index < endOffset - startOffset) {
+            return baseChars.get(index + startOffset);
+        }
+        throw new StringIndexOutOfBoundsException("CharBufferSequence index: " + index + " out of range: 0, " + length());
+    }
+
+    @Override
+    public CharBufferSequence subSequence(final Range range) {
+        return subSequence(range.getStart(), range.getEnd());
+    }
+
+    @Override
+    public CharBufferSequence subSequence(final int start) {
+        return subSequence(start, length());
+    }
+
+    @Override
+    public CharBufferSequence subSequence(int start, int end) {
+        if (start >= 0 && end <= endOffset - startOffset) {
+            return base.baseSubSequence(startOffset + start, startOffset + end);
+        }
+        if (start < 0 || startOffset + start > endOffset) {
+            throw new StringIndexOutOfBoundsException("CharBufferSequence index: " + start + " out of range: 0, " + length());
+        }
+        throw new StringIndexOutOfBoundsException("CharBufferSequence index: " + end + " out of range: 0, " + length());
+    }
+
+    @Override
+    public CharBufferSequence baseSubSequence(int start, int end) {
+        if (start >= 0 && end <= base.length()) {
+            return start == startOffset && end == endOffset ? this : base != this ? base.baseSubSequence(start, end) : new CharBufferSequence(base, start, end);
+        }
+        if (start < 0 || start > base.length()) {
+            throw new StringIndexOutOfBoundsException("CharBufferSequence index: " + start + " out of range: 0, " + length());
+        }
+        throw new StringIndexOutOfBoundsException("CharBufferSequence index: " + end + " out of range: 0, " + length());
+    }
+
+    @Override
+    public BasedSequence appendTo(final StringBuilder out, final int start, final int end) {
+        if (baseChars.hasArray()) {
+            out.append(baseChars.array(), baseChars.arrayOffset() + startOffset + start, end - start);
+        } else {
+            for (int i = startOffset + start; i < startOffset + end; i++) {
+                out.append(baseChars.get(i));
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public int hashCode() {
+        return toString().hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj == this || (obj instanceof CharSequence && toString().equals(obj.toString()));
+    }
+
+    @Override
+    public String toString() {
+        if (baseChars.hasArray()) {
+            return String.valueOf(baseChars.array(), baseChars.arrayOffset() + startOffset, endOffset - startOffset);
+        }
+        StringBuilder sb = new StringBuilder(length());
+        appendTo(sb, 0, length());
+        return sb.toString();
+    }
+
+    /**
+     * Create a based sequence for the characters of a buffer from its position to its limit
+     * <p>
+     * '\0' characters are replaced by '\uFFFD' in the buffer, a read-only buffer containing '\0' is copied first.
+     * The buffer should not be modified while the sequence is in use.
+     *
+     * @param chars buffer
+     * @return based sequence of the buffer's remaining characters
+     */
+    public static CharBufferSequence of(CharBuffer chars) {
+        CharBuffer useChars = chars.slice();
+        int iMax = useChars.limit();
+
+        for (int i = 0; i < iMax; i++) {
+            if (useChars.get(i) == '\0') {
+                if (useChars.isReadOnly()) {
+                    CharBuffer copy = CharBuffer.allocate(iMax);
+                    copy.put(useChars).flip();
+                    useChars = copy;
+                }
+
+                for (; i < iMax; i++) {
+                    if (useChars.get(i) == '\0') useChars.put(i, '\uFFFD');
+                }
+                break;
+            }
+        }
+        return new CharBufferSequence(useChars);
+    }
+
+    /**
+     * Create a based sequence for the contents of a file
+     * <p>
+     * The file is memory mapped and decoded directly into a char buffer, without reading it into a byte array or
+     * creating a string of its contents. Malformed and unmappable input is replaced with the charset's replacement.
+     *
+     * @param path    path of file
+     * @param charset charset of the file
+     * @return based sequence of the file's contents
+     * @throws IOException if thrown while opening, mapping or decoding the file
+     */
+    public static CharBufferSequence of(Path path, Charset charset) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            CharBuffer chars = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                    .decode(bytes);
+            return of(chars);
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -12,12 +12,14 @@ import static java.lang.Integer.MIN_VALUE;
  */
 public final class SegmentedSequence extends BasedSequenceImpl {
     private final BasedSequence baseSeq;  // base sequence
-    private final char[] nonBaseChars;    // all non-base characters, offset by baseStartOffset. When baseOffsets[] < 0, take -ve - 1 to get index into this array
-    private final int[] baseOffsets;      // list of base offsets, offset by baseStartOffset
-    private final int baseStartOffset;    // start offset for baseOffsets of this sequence, offset from baseSeq for all chars, including non-base chars
+    private final char[] nonBaseChars;    // all non-base characters, null if there are none
+    private final int[] segStarts;        // index of the first character of each run, offset by baseStartOffset, last entry is the length of all runs
+    private final int[] segOffsets;       // base offset of each run's first character. When < 0, take -ve - 1 to get index into nonBaseChars
+    private final int baseStartOffset;    // start index of this sequence in the runs, shared with the sequence it is a sub-sequence of
     private final int length;             // length of this sequence
     private final int startOffset;        // this sequence's start offset in base
     private final int endOffset;          // this sequence's end offset in base
+    private int lastSegment;              // run found by last lookup, sequential access does not need a search
 
     @Override
     public Object getBase() {
@@ -52,12 +54,16 @@ public final class SegmentedSequence extends BasedSequenceImpl {
         // we assume that start/end is within our range
         int start = MIN_VALUE;
         int end = MIN_VALUE;
-        for (int i = 0; i < baseOffsets.length; i++) {
-            if (baseOffsets[i] == startOffset) {
-                start = i;
+        for (int i = 0; i < segOffsets.length; i++) {
+            int offset = segOffsets[i];
+            if (offset < 0) continue;
+
+            int runLength = segStarts[i + 1] - segStarts[i];
+            if (start == MIN_VALUE && startOffset >= offset && startOffset < offset + runLength) {
+                start = segStarts[i] + startOffset - offset;
             }
-            if (baseOffsets[i] == endOffset) {
-                end = i;
+            if (end == MIN_VALUE && endOffset >= offset && endOffset < offset + runLength) {
+                end = segStarts[i] + endOffset - offset;
             }
             if (start != MIN_VALUE && end != MIN_VALUE) break;
         }
@@ -68,12 +74,38 @@ public final class SegmentedSequence extends BasedSequenceImpl {
         return Range.of(start, end);
     }
 
+    /**
+     * Base offsets of all characters of this sequence, non-base characters have offsets &lt; 0, take -ve - 1
+     * to get the index into the sequence's non-base characters
+     *
+     * @return new array of base offsets, one per character
+     * @deprecated offsets are kept as runs of contiguous characters, this expands them into a new array on every call
+     */
+    @Deprecated
     public int[] getBaseOffsets() {
+        int[] baseOffsets = new int[length];
+        for (int i = 0; i < length; i++) {
+            int index = baseStartOffset + i;
+            int seg = findSegment(index);
+            baseOffsets[i] = segOffsets[seg] + (segOffsets[seg] < 0 ? -(index - segStarts[seg]) : index - segStarts[seg]);
+        }
         return baseOffsets;
     }
 
+    /**
+     * @return start index of {@link #getBaseOffsets()}, always 0 since the array is created for this sequence
+     * @deprecated see {@link #getBaseOffsets()}
+     */
+    @Deprecated
     public int getBaseStartOffset() {
-        return baseStartOffset;
+        return 0;
+    }
+
+    /**
+     * @return number of runs of contiguous base or non-base characters used by the full sequence
+     */
+    public int getSegmentCount() {
+        return segOffsets.length;
     }
 
     @Override
@@ -86,15 +118,14 @@ public final class SegmentedSequence extends BasedSequenceImpl {
             if (length == 0) {
                 throw new StringIndexOutOfBoundsException("String index: " + index + " out of range: 0, " + length());
             }
-            int offset = baseOffsets[baseStartOffset + index - 1];
+            int offset = offsetAt(baseStartOffset + index - 1);
             if (offset < 0) {
                 return -1;
             } else {
                 return offset + 1;
             }
         }
-        int offset = baseOffsets[baseStartOffset + index];
-        return offset < 0 ? -1 : offset;
+        return offsetAt(baseStartOffset + index);
     }
 
     /**
@@ -103,6 +134,8 @@ public final class SegmentedSequence extends BasedSequenceImpl {
      * sequence from the document.
      * <p>
      * If you need the location where content would have been use the FencedCodeBlock.getOpeningMarker().getEndOffset() + 1
+     * <p>
+     * The result stores one entry per run of contiguous base characters or non-base characters, not one per character.
      *
      * @param segments list of based sequences to put into a based sequence
      * @return based sequence of segments. Result is a sequence which looks like
@@ -180,40 +213,40 @@ public final class SegmentedSequence extends BasedSequenceImpl {
             index++;
         }
 
-        this.baseStartOffset = 0;
-        this.length = length;
-        this.baseOffsets = new int[length];
-        int len = 0;
-        StringBuilder sb = null;
+        Runs runs = new Runs();
 
         for (BasedSequence basedSequence : segments) {
-            int ciMax = basedSequence.length();
-
-            for (int ci = 0; ci < ciMax; ci++) {
-                int offset = basedSequence.getIndexOffset(ci);
-                if (offset < 0) {
-                    if (sb == null) sb = new StringBuilder();
-                    sb.append(basedSequence.charAt(ci));
-                    offset = -sb.length();
+            if (basedSequence instanceof SegmentedSequence) {
+                runs.add((SegmentedSequence) basedSequence);
+            } else if (basedSequence instanceof SubSequence || basedSequence instanceof CharSubSequence || basedSequence instanceof CharBufferSequence) {
+                // all characters are contiguous in base
+                runs.addBase(basedSequence.getStartOffset(), basedSequence.length());
+            } else {
+                int ciMax = basedSequence.length();
+                for (int ci = 0; ci < ciMax; ci++) {
+                    int offset = basedSequence.getIndexOffset(ci);
+                    if (offset < 0) {
+                        runs.addNonBase(basedSequence.charAt(ci));
+                    } else {
+                        runs.addBase(offset, 1);
+                    }
                 }
-
-                assert ci + len < this.baseOffsets.length : "Incorrect array size calculation: length: " + length + " ci + len: " + (ci + len);
-                this.baseOffsets[ci + len] = offset;
             }
-
-            len += ciMax;
         }
 
-        if (sb != null) {
-            this.nonBaseChars = sb.toString().toCharArray();
-        } else {
-            this.nonBaseChars = null;
-        }
+        assert runs.length == length : "Incorrect length calculation: length: " + length + " runs: " + runs.length;
+
+        this.baseStartOffset = 0;
+        this.length = length;
+        this.segStarts = runs.getStarts();
+        this.segOffsets = runs.getOffsets();
+        this.nonBaseChars = runs.getNonBaseChars();
     }
 
-    private SegmentedSequence(BasedSequence baseSeq, int[] baseOffsets, int baseStartOffset, char[] nonBaseChars, int length) {
+    private SegmentedSequence(BasedSequence baseSeq, int[] segStarts, int[] segOffsets, int baseStartOffset, char[] nonBaseChars, int length) {
         this.baseSeq = baseSeq;
-        this.baseOffsets = baseOffsets;
+        this.segStarts = segStarts;
+        this.segOffsets = segOffsets;
         this.baseStartOffset = baseStartOffset;
         this.nonBaseChars = nonBaseChars;
         this.length = length;
@@ -221,42 +254,75 @@ public final class SegmentedSequence extends BasedSequenceImpl {
         this.endOffset = computeEndOffset();
     }
 
+    /**
+     * Find the run containing a character
+     *
+     * @param index index of character in the runs, not offset by baseStartOffset
+     * @return index of run
+     */
+    private int findSegment(int index) {
+        int seg = lastSegment;
+        if (segStarts[seg] <= index && index < segStarts[seg + 1]) return seg;
+
+        // sequential access moves to the next run
+        if (++seg < segOffsets.length && segStarts[seg] <= index && index < segStarts[seg + 1]) {
+            lastSegment = seg;
+            return seg;
+        }
+
+        int lo = 0;
+        int hi = segOffsets.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (segStarts[mid] <= index) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        lastSegment = lo;
+        return lo;
+    }
+
+    private int offsetAt(int index) {
+        int seg = findSegment(index);
+        int offset = segOffsets[seg];
+        return offset < 0 ? -1 : offset + index - segStarts[seg];
+    }
+
     private int computeStartOffset() {
-        int iMax = baseOffsets.length;
+        int iMax = segStarts[segOffsets.length];
         assert baseStartOffset + length <= iMax : "Sub-sequence offsets list length < baseStartOffset + sub-sequence length";
 
-        if (nonBaseChars != null) {
-            // start is the first real start in this sequence or after it, in the parent 
-            for (int i = baseStartOffset; i < iMax; i++) {
-                if (baseOffsets[i] >= 0) return baseOffsets[i];
-            }
+        if (baseStartOffset < iMax) {
+            // start is the first real start in this sequence or after it, in the parent
+            int seg = findSegment(baseStartOffset);
+            if (segOffsets[seg] >= 0) return segOffsets[seg] + baseStartOffset - segStarts[seg];
 
-            // if no real start after then it is the base's end since we had no real start after, these chars and after are all out of base chars
-            return baseSeq.getEndOffset();
+            for (int i = seg + 1; i < segOffsets.length; i++) {
+                if (segOffsets[i] >= 0) return segOffsets[i];
+            }
         }
 
-        // here there are no nonBaseChars, all sequences are based sequences or we are at end of parent base sequence
-        return baseStartOffset < iMax ? baseOffsets[baseStartOffset] : baseSeq.getEndOffset();
+        // if no real start after then it is the base's end since we had no real start after, these chars and after are all out of base chars
+        return baseSeq.getEndOffset();
     }
 
     private int computeEndOffset() {
         // ensure that 0 length end returns start
         if (length == 0) return getStartOffset();
 
-        int iMax = baseOffsets.length;
-
-        if (nonBaseChars != null) {
-            // end is the last real end in this sequence
-            for (int i = baseStartOffset + length; i-- > 0; ) {
-                if (baseOffsets[i] >= 0) return baseOffsets[i] + 1;
-            }
+        // end is the last real end in this sequence
+        int lastIndex = baseStartOffset + length - 1;
+        int seg = findSegment(lastIndex);
+        if (segOffsets[seg] >= 0) return segOffsets[seg] + lastIndex - segStarts[seg] + 1;
 
-            // failing that it is the same as startOffset
-            return getStartOffset();
+        for (int i = seg; i-- > 0; ) {
+            if (segOffsets[i] >= 0) return segOffsets[i] + segStarts[i + 1] - segStarts[i];
         }
 
-        // here there are no nonBaseChars, all sequences are based sequences
-        return baseOffsets[baseStartOffset + length - 1] + 1;
+        // failing that it is the same as startOffset
+        return getStartOffset();
     }
 
     @Override
@@ -275,7 +341,9 @@ public final class SegmentedSequence extends BasedSequenceImpl {
             throw new StringIndexOutOfBoundsException("String index: " + index + " out of range: 0, " + length());
         }
 
-        int offset = baseOffsets[baseStartOffset + index];
+        int i = baseStartOffset + index;
+        int seg = findSegment(i);
+        int offset = segOffsets[seg];
 
         if (offset < 0) {
             /* KLUDGE: allows having characters which are not from original base sequence
@@ -283,9 +351,9 @@ public final class SegmentedSequence extends BasedSequenceImpl {
                        which is a small price to pay for having the flexibility of adding out of 
                        context text to the based sequence.
              */
-            return nonBaseChars[-offset - 1];
+            return nonBaseChars[-offset - 1 + i - segStarts[seg]];
         }
-        return baseSeq.charAt(offset);
+        return baseSeq.charAt(offset + i - segStarts[seg]);
     }
 
     @Override
@@ -313,7 +381,7 @@ public final class SegmentedSequence extends BasedSequenceImpl {
         if (start == 0 && end == length) {
             return this;
         } else {
-            return new SegmentedSequence(baseSeq, baseOffsets, baseStartOffset + start, nonBaseChars, end - start);
+            return new SegmentedSequence(baseSeq, segStarts, segOffsets, baseStartOffset + start, nonBaseChars, end - start);
         }
     }
 
@@ -331,4 +399,90 @@ public final class SegmentedSequence extends BasedSequenceImpl {
     public static BasedSequence of(BasedSequence... segments) {
         return of(Arrays.asList(segments));
     }
+
+    /**
+     * Run table under construction, adjacent runs of contiguous base characters and adjacent non-base characters are merged
+     */
+    private static class Runs {
+        int[] starts = new int[16];
+        int[] offsets = new int[16];
+        int count = 0;
+        int length = 0;
+        StringBuilder nonBase = null;
+
+        void addBase(int offset, int runLength) {
+            if (runLength <= 0) return;
+
+            if (count > 0 && offsets[count - 1] >= 0 && offsets[count - 1] + length - starts[count - 1] == offset) {
+                length += runLength;
+            } else {
+                addRun(offset, runLength);
+            }
+        }
+
+        void addNonBase(char c) {
+            startNonBase();
+            nonBase.append(c);
+            length++;
+        }
+
+        void addNonBase(char[] chars, int start, int runLength) {
+            startNonBase();
+            nonBase.append(chars, start, runLength);
+            length += runLength;
+        }
+
+        private void startNonBase() {
+            if (nonBase == null) nonBase = new StringBuilder();
+
+            // non-base characters are only appended, so a trailing non-base run continues at the end of nonBase
+            if (count == 0 || offsets[count - 1] >= 0) addRun(-nonBase.length() - 1, 0);
+        }
+
+        void add(SegmentedSequence sequence) {
+            int index = sequence.baseStartOffset;
+            int end = index + sequence.length;
+            int seg = sequence.findSegment(index);
+
+            while (index < end) {
+                int runEnd = Math.min(sequence.segStarts[seg + 1], end);
+                int offset = sequence.segOffsets[seg];
+                int delta = index - sequence.segStarts[seg];
+
+                if (offset >= 0) {
+                    addBase(offset + delta, runEnd - index);
+                } else {
+                    addNonBase(sequence.nonBaseChars, -offset - 1 + delta, runEnd - index);
+                }
+
+                index = runEnd;
+                seg++;
+            }
+        }
+
+        private void addRun(int offset, int runLength) {
+            if (count == offsets.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            starts[count] = length;
+            offsets[count] = offset;
+            count++;
+            length += runLength;
+        }
+
+        int[] getStarts() {
+            int[] result = Arrays.copyOf(starts, count + 1);
+            result[count] = length;
+            return result;
+        }
+
+        int[] getOffsets() {
+            return Arrays.copyOf(offsets, count);
+        }
+
+        char[] getNonBaseChars() {
+            return nonBase == null ? null : nonBase.toString().toCharArray();
+        }
+    }
 }
@@ -0,0 +1,12 @@
+package com.vladsch.flexmark.util.sequence;
+
+/**
+ * Moves sequences of one text to the same characters in another text, see {@link com.vladsch.flexmark.util.ast.Node#moveChars(SequenceMover)}
+ */
+public interface SequenceMover {
+    /**
+     * @param sequence sequence held by a node
+     * @return sequence of the same characters in the other text, the sequence itself if it is not moved
+     */
+    BasedSequence move(BasedSequence sequence);
+}
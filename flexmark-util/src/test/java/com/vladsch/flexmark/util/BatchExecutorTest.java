@@ -0,0 +1,87 @@
+package com.vladsch.flexmark.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class BatchExecutorTest {
+    // iterator of items 0 until count, recording the most items taken but not yet handled
+    static class Items implements Iterator<Integer> {
+        final int count;
+        final AtomicInteger handled = new AtomicInteger();
+        int next = 0;
+        int maxPending = 0;
+
+        Items(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < count;
+        }
+
+        @Override
+        public Integer next() {
+            maxPending = Math.max(maxPending, next + 1 - handled.get());
+            return next++;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Test
+    public void test_execute() throws InterruptedException {
+        BatchExecutor executor = new BatchExecutor(3);
+        final Items items = new Items(100);
+        final ArrayList<Integer> results = new ArrayList<Integer>();
+
+        executor.execute(items, new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer item) {
+                return item * 2;
+            }
+        }, new Consumer<Integer>() {
+            @Override
+            public void accept(Integer result) {
+                items.handled.incrementAndGet();
+                results.add(result);
+            }
+        });
+
+        assertEquals(100, results.size());
+        assertEquals(100, new HashSet<Integer>(results).size());
+        assertEquals((Integer) 198, Collections.max(results));
+        assertTrue(items.maxPending <= 2 * executor.getThreads() + 1);
+    }
+
+    @Test
+    public void test_threads() {
+        assertEquals(Runtime.getRuntime().availableProcessors(), new BatchExecutor(0).getThreads());
+        assertEquals(5, new BatchExecutor(5).getThreads());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_taskException() throws InterruptedException {
+        new BatchExecutor(2).execute(new Items(10), new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer item) {
+                if (item == 5) throw new IllegalArgumentException("item " + item);
+                return item;
+            }
+        }, new Consumer<Integer>() {
+            @Override
+            public void accept(Integer result) {
+            }
+        });
+    }
+}
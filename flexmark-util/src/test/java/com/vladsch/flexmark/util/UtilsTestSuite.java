@@ -1,14 +1,19 @@
 package com.vladsch.flexmark.util;
 
+import com.vladsch.flexmark.util.ast.DocumentTest;
+import com.vladsch.flexmark.util.ast.NodeTypeMapTest;
 import com.vladsch.flexmark.util.collection.*;
 import com.vladsch.flexmark.util.html.HtmlFormattingAppendableBaseTest;
 import com.vladsch.flexmark.util.html.ui.HtmlBuilderTest;
 import com.vladsch.flexmark.util.html.ui.HtmlHelpersTest;
+import com.vladsch.flexmark.util.mappers.CachingCharWidthProviderTest;
 import com.vladsch.flexmark.util.options.AttributeTest;
 import com.vladsch.flexmark.util.options.AttributesTest;
+import com.vladsch.flexmark.util.options.FrozenDataSetTest;
 import com.vladsch.flexmark.util.options.MutableAttributeTest;
 import com.vladsch.flexmark.util.sequence.BasedSequenceImplTest;
 import com.vladsch.flexmark.util.sequence.RepeatedCharSequenceTest;
+import com.vladsch.flexmark.util.sequence.SegmentedSequenceTest;
 import org.junit.runners.Suite;
 
 @org.junit.runner.RunWith(Suite.class)
@@ -22,8 +27,12 @@ import org.junit.runners.Suite;
         AttributeTest.class,
         MutableAttributeTest.class,
         AttributesTest.class,
+        FrozenDataSetTest.class,
+        DocumentTest.class,
+        NodeTypeMapTest.class,
         FormattingAppendableImplTest.class,
         RepeatedCharSequenceTest.class,
+        SegmentedSequenceTest.class,
         HtmlFormattingAppendableBaseTest.class,
         MaxAggregatorTest.class,
         MinAggregatorTest.class,
@@ -33,6 +42,8 @@ import org.junit.runners.Suite;
         HtmlHelpersTest.class,
         TemplateUtilTest.class,
         UtilsTest.class,
+        CachingCharWidthProviderTest.class,
+        BatchExecutorTest.class,
 })
 public class UtilsTestSuite {
 }
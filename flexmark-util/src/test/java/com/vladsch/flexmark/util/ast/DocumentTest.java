@@ -0,0 +1,94 @@
+package com.vladsch.flexmark.util.ast;
+
+import com.vladsch.flexmark.util.collection.DataValueFactory;
+import com.vladsch.flexmark.util.options.DataHolder;
+import com.vladsch.flexmark.util.options.DataKey;
+import com.vladsch.flexmark.util.options.FrozenDataSet;
+import com.vladsch.flexmark.util.options.MutableDataSet;
+import com.vladsch.flexmark.util.sequence.CharSubSequence;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+public class DocumentTest {
+    private static final DataKey<String> NAME = new DataKey<>("NAME", "default");
+    private static final DataKey<Integer> COUNT = new DataKey<>("COUNT", 1);
+    private static final DataKey<ArrayList<String>> ITEMS = new DataKey<>("ITEMS", new DataValueFactory<ArrayList<String>>() {
+        @Override
+        public ArrayList<String> create(DataHolder holder) {
+            ArrayList<String> items = new ArrayList<>();
+            items.add(NAME.getFrom(holder));
+            return items;
+        }
+    });
+
+    private static Document document(DataHolder options) {
+        return new Document(options, CharSubSequence.of(""));
+    }
+
+    @Test
+    public void test_sharedOptions() {
+        FrozenDataSet options = new FrozenDataSet(new MutableDataSet().set(NAME, "shared"));
+        Document document = document(options);
+
+        assertEquals("shared", NAME.getFrom(document));
+        assertSame(options, document.toImmutable());
+
+        document.set(COUNT, 5);
+        assertEquals((Integer) 5, COUNT.getFrom(document));
+        assertFalse(options.contains(COUNT));
+        assertTrue(document.contains(COUNT));
+        assertTrue(document.contains(NAME));
+        assertEquals(2, document.keySet().size());
+        assertEquals(2, document.getAll().size());
+    }
+
+    @Test
+    public void test_computedValues() {
+        FrozenDataSet options = new FrozenDataSet(new MutableDataSet().set(NAME, "shared"));
+        Document document1 = document(options);
+        Document document2 = document(options);
+
+        ArrayList<String> items = ITEMS.getFrom(document1);
+        assertEquals("shared", items.get(0));
+        assertSame(items, ITEMS.getFrom(document1));
+        assertNotSame(items, ITEMS.getFrom(document2));
+        assertFalse(options.contains(ITEMS));
+    }
+
+    @Test
+    public void test_overrideAndRemove() {
+        FrozenDataSet options = new FrozenDataSet(new MutableDataSet().set(NAME, "shared"));
+        Document document = document(options);
+
+        document.set(NAME, "document");
+        assertEquals("document", NAME.getFrom(document));
+        assertEquals("shared", NAME.getFrom(options));
+
+        document.remove(NAME);
+        assertFalse(document.contains(NAME));
+        assertEquals("default", NAME.getFrom(document));
+        assertEquals("shared", NAME.getFrom(options));
+    }
+
+    @Test
+    public void test_mutableOptions() {
+        MutableDataSet options = new MutableDataSet().set(NAME, "copied");
+        Document document = document(options);
+
+        options.set(NAME, "changed");
+        assertEquals("copied", NAME.getFrom(document));
+    }
+
+    @Test
+    public void test_toMutable() {
+        FrozenDataSet options = new FrozenDataSet(new MutableDataSet().set(NAME, "shared"));
+        Document document = document(options);
+
+        document.toMutable().set(COUNT, 3);
+        assertEquals("shared", NAME.getFrom(document));
+        assertEquals((Integer) 3, COUNT.getFrom(document));
+    }
+}
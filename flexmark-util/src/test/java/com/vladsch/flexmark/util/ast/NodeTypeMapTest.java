@@ -0,0 +1,61 @@
+package com.vladsch.flexmark.util.ast;
+
+import com.vladsch.flexmark.util.sequence.BasedSequence;
+import org.junit.Test;
+
+import java.util.HashMap;
+
+import static org.junit.Assert.*;
+
+public class NodeTypeMapTest {
+    static class Node1 extends Block {
+        @Override
+        public BasedSequence[] getSegments() {
+            return EMPTY_SEGMENTS;
+        }
+    }
+
+    static class Node2 extends Node1 {
+    }
+
+    static class Node3 extends Node1 {
+    }
+
+    @Test
+    public void test_typeIds() {
+        Node1 node1 = new Node1();
+        Node2 node2 = new Node2();
+
+        assertTrue(node1.getTypeId() > 0);
+        assertNotEquals(node1.getTypeId(), node2.getTypeId());
+        assertEquals(node1.getTypeId(), new Node1().getTypeId());
+        assertEquals(NodeTypeRegistry.getTypeId(Node2.class), node2.getTypeId());
+        assertTrue(node2.getTypeId() < NodeTypeRegistry.getTypeCount());
+    }
+
+    @Test
+    public void test_get() {
+        NodeTypeMap<String> map = new NodeTypeMap<>();
+        map.put(Node1.class, "node1");
+
+        assertEquals("node1", map.get(new Node1()));
+        assertNull("exact class only", map.get(new Node2()));
+        assertNull(map.get(new Node3()));
+
+        map.put(Node2.class, "node2");
+        assertEquals("node2", map.get(new Node2()));
+        assertEquals("node2", map.get((Object) Node2.class));
+
+        map.remove(Node1.class);
+        assertNull(map.get(new Node1()));
+        assertEquals("node2", map.get(new Node2()));
+
+        map.clear();
+        assertNull(map.get(new Node2()));
+
+        HashMap<Class<?>, String> other = new HashMap<>();
+        other.put(Node1.class, "other");
+        map.putAll(other);
+        assertEquals("other", map.get(new Node1()));
+    }
+}
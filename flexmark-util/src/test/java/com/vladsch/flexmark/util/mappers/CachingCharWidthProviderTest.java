@@ -0,0 +1,121 @@
+package com.vladsch.flexmark.util.mappers;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CachingCharWidthProviderTest {
+    // wide characters are 2, string width is not the sum of character widths
+    static class CountingProvider implements CharWidthProvider {
+        int charCount = 0;
+        int stringCount = 0;
+
+        @Override
+        public int spaceWidth() {
+            return 1;
+        }
+
+        @Override
+        public int charWidth(final char c) {
+            charCount++;
+            return c >= '\u3000' ? 2 : c == '\u200b' ? 0 : 1;
+        }
+
+        @Override
+        public int charWidth(final CharSequence s) {
+            stringCount++;
+            return s.length() * 10;
+        }
+    }
+
+    @Test
+    public void test_charWidth() {
+        CountingProvider provider = new CountingProvider();
+        CachingCharWidthProvider caching = new CachingCharWidthProvider(provider);
+
+        assertEquals(1, caching.charWidth('a'));
+        assertEquals(2, caching.charWidth('\u4e2d'));
+        assertEquals(0, caching.charWidth('\u200b'));
+        assertEquals(3, provider.charCount);
+
+        assertEquals(1, caching.charWidth('a'));
+        assertEquals(2, caching.charWidth('\u4e2d'));
+        assertEquals(0, caching.charWidth('\u200b'));
+        assertEquals(3, provider.charCount);
+
+        assertEquals(2, caching.charWidth('\uffff'));
+        assertEquals(4, provider.charCount);
+    }
+
+    @Test
+    public void test_stringWidth() {
+        CountingProvider provider = new CountingProvider();
+        CachingCharWidthProvider caching = new CachingCharWidthProvider(provider, 2);
+
+        assertEquals(30, caching.charWidth("abc"));
+        assertEquals(30, caching.charWidth(new StringBuilder("abc")));
+        assertEquals(1, provider.stringCount);
+
+        assertEquals(20, caching.charWidth("de"));
+        assertEquals(30, caching.charWidth("abc"));
+        assertEquals(2, provider.stringCount);
+
+        // least recently used is evicted
+        assertEquals(10, caching.charWidth("f"));
+        assertEquals(30, caching.charWidth("abc"));
+        assertEquals(3, provider.stringCount);
+        assertEquals(20, caching.charWidth("de"));
+        assertEquals(4, provider.stringCount);
+    }
+
+    @Test
+    public void test_noStringCache() {
+        CountingProvider provider = new CountingProvider();
+        CachingCharWidthProvider caching = new CachingCharWidthProvider(provider, 0);
+
+        assertEquals(30, caching.charWidth("abc"));
+        assertEquals(30, caching.charWidth("abc"));
+        assertEquals(2, provider.stringCount);
+    }
+
+    @Test
+    public void test_additive() {
+        CountingProvider provider = new CountingProvider();
+        CachingCharWidthProvider caching = new CachingCharWidthProvider(provider, 0, true);
+
+        assertEquals(6, caching.charWidth("a\u4e2d\u200ba\u4e2d"));
+        assertEquals(3, provider.charCount);
+        assertEquals(0, provider.stringCount);
+
+        assertEquals(4, caching.charWidth(new StringBuilder("\u4e2d\u4e2d")));
+        assertEquals(3, provider.charCount);
+        assertEquals(0, provider.stringCount);
+    }
+
+    @Test
+    public void test_stripedStrings() {
+        CountingProvider provider = new CountingProvider();
+        CachingCharWidthProvider caching = new CachingCharWidthProvider(provider);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(("cell " + i).length() * 10, caching.charWidth("cell " + i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(("cell " + i).length() * 10, caching.charWidth(new StringBuilder("cell ").append(i)));
+        }
+        assertEquals(1000, provider.stringCount);
+    }
+
+    @Test
+    public void test_of() {
+        CountingProvider provider = new CountingProvider();
+        CharWidthProvider caching = CachingCharWidthProvider.of(provider);
+
+        assertSame(provider, ((CachingCharWidthProvider) caching).getProvider());
+        assertSame(caching, CachingCharWidthProvider.of(caching));
+        assertSame(CharWidthProvider.NULL, CachingCharWidthProvider.of(CharWidthProvider.NULL));
+        assertTrue(((CachingCharWidthProvider) CachingCharWidthProvider.of(provider, 0, true)).isAdditive());
+    }
+}
@@ -0,0 +1,95 @@
+package com.vladsch.flexmark.util.options;
+
+import com.vladsch.flexmark.util.collection.DataValueFactory;
+import com.vladsch.flexmark.util.collection.DynamicDefaultKey;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FrozenDataSetTest {
+    private static final DataKey<String> NAME = new DataKey<>("NAME", "default");
+    private static final DataKey<Integer> COUNT = new DataKey<>("COUNT", 1);
+    private static final DataKey<Integer> LIMIT = new DynamicDefaultKey<>("LIMIT", COUNT);
+    private static final DataKey<Integer> DOUBLE_LIMIT = new DynamicDefaultKey<>("DOUBLE_LIMIT", new DataValueFactory<Integer>() {
+        @Override
+        public Integer create(DataHolder holder) {
+            return LIMIT.getFrom(holder) * 2;
+        }
+    });
+
+    @Test
+    public void test_values() {
+        MutableDataSet options = new MutableDataSet().set(NAME, "name").set(COUNT, 5);
+        FrozenDataSet frozen = new FrozenDataSet(options);
+
+        assertEquals("name", NAME.getFrom(frozen));
+        assertEquals((Integer) 5, COUNT.getFrom(frozen));
+        assertTrue(frozen.contains(NAME));
+        assertFalse(frozen.contains(LIMIT));
+        assertEquals(2, frozen.keySet().size());
+    }
+
+    @Test
+    public void test_defaults() {
+        FrozenDataSet frozen = new FrozenDataSet(new MutableDataSet());
+
+        assertEquals("default", NAME.getFrom(frozen));
+        assertEquals((Integer) 1, COUNT.getFrom(frozen));
+        assertEquals((Integer) 1, LIMIT.getFrom(frozen));
+        assertEquals((Integer) 2, DOUBLE_LIMIT.getFrom(frozen));
+    }
+
+    @Test
+    public void test_dynamicDefaults() {
+        FrozenDataSet frozen = new FrozenDataSet(new MutableDataSet().set(COUNT, 10));
+
+        assertEquals((Integer) 10, LIMIT.getFrom(frozen));
+        assertEquals((Integer) 20, DOUBLE_LIMIT.getFrom(frozen));
+
+        frozen = new FrozenDataSet(new MutableDataSet().set(COUNT, 10).set(LIMIT, 3));
+        assertEquals((Integer) 3, LIMIT.getFrom(frozen));
+        assertEquals((Integer) 6, DOUBLE_LIMIT.getFrom(frozen));
+    }
+
+    @Test
+    public void test_keyCreatedAfterFreeze() {
+        FrozenDataSet frozen = new FrozenDataSet(new MutableDataSet().set(COUNT, 7));
+        DataKey<Integer> late = new DynamicDefaultKey<>("LATE", COUNT);
+
+        assertEquals((Integer) 7, late.getFrom(frozen));
+        assertEquals((Integer) 7, late.getFrom(new FrozenDataSet(frozen)));
+    }
+
+    @Test
+    public void test_matchesDataSet() {
+        MutableDataSet options = new MutableDataSet().set(NAME, "name").set(COUNT, 3);
+        DataSet dataSet = new DataSet(options);
+        FrozenDataSet frozen = new FrozenDataSet(options);
+
+        for (DataKey key : new DataKey[] { NAME, COUNT, LIMIT, DOUBLE_LIMIT }) {
+            assertEquals(key.getName(), dataSet.get(key), frozen.get(key));
+        }
+    }
+
+    @Test
+    public void test_computedDefaultsNotCached() {
+        DataKey<StringBuilder> builder = new DynamicDefaultKey<>("BUILDER", new DataValueFactory<StringBuilder>() {
+            @Override
+            public StringBuilder create(DataHolder holder) {
+                return new StringBuilder();
+            }
+        });
+        FrozenDataSet frozen = new FrozenDataSet(new MutableDataSet());
+
+        assertNotSame(builder.getFrom(frozen), builder.getFrom(frozen));
+        assertFalse(frozen.contains(builder));
+    }
+
+    @Test
+    public void test_of() {
+        FrozenDataSet frozen = FrozenDataSet.of(new MutableDataSet().set(COUNT, 7));
+        assertSame(frozen, FrozenDataSet.of(frozen));
+        assertSame(frozen, frozen.toImmutable());
+        assertEquals((Integer) 7, COUNT.getFrom(frozen.toMutable()));
+    }
+}
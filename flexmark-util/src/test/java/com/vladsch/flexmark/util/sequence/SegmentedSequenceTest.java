@@ -0,0 +1,152 @@
+package com.vladsch.flexmark.util.sequence;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SegmentedSequenceTest {
+    private static final String TEXT = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    // expected offsets for a list of segments, computed per character
+    private static List<Integer> offsets(List<BasedSequence> segments) {
+        ArrayList<Integer> offsets = new ArrayList<Integer>();
+        for (BasedSequence segment : segments) {
+            for (int i = 0; i < segment.length(); i++) {
+                offsets.add(segment.getIndexOffset(i));
+            }
+        }
+        return offsets;
+    }
+
+    private static String text(List<BasedSequence> segments) {
+        StringBuilder sb = new StringBuilder();
+        for (BasedSequence segment : segments) {
+            sb.append(segment);
+        }
+        return sb.toString();
+    }
+
+    private static void assertSegmented(String expectedText, List<Integer> expectedOffsets, BasedSequence sequence) {
+        assertEquals(expectedText, sequence.toString());
+        assertEquals(expectedText.length(), sequence.length());
+
+        for (int i = 0; i < expectedText.length(); i++) {
+            assertEquals("charAt(" + i + ")", expectedText.charAt(i), sequence.charAt(i));
+            assertEquals("getIndexOffset(" + i + ")", (int) expectedOffsets.get(i), sequence.getIndexOffset(i));
+        }
+
+        // random access after sequential access
+        for (int i = expectedText.length(); i-- > 0; ) {
+            assertEquals("charAt(" + i + ")", expectedText.charAt(i), sequence.charAt(i));
+        }
+    }
+
+    @Test
+    public void test_contiguous() throws Exception {
+        BasedSequence base = SubSequence.of(TEXT);
+        BasedSequence sequence = SegmentedSequence.of(base.subSequence(0, 5), base.subSequence(5, 10), base.subSequence(10, 20));
+        assertEquals(base.subSequence(0, 20), sequence);
+        assertFalse(sequence instanceof SegmentedSequence);
+    }
+
+    @Test
+    public void test_runs() throws Exception {
+        BasedSequence base = SubSequence.of(TEXT);
+        List<BasedSequence> segments = new ArrayList<BasedSequence>();
+        segments.add(base.subSequence(0, 5));
+        segments.add(PrefixedSubSequence.of("<>", base.subSequence(5, 10)));
+        segments.add(base.subSequence(12, 20));
+        segments.add(PrefixedSubSequence.of("[", base.subSequence(20, 20)));
+        segments.add(PrefixedSubSequence.of("]", base.subSequence(20, 30)));
+        segments.add(base.subSequence(40, 50));
+
+        BasedSequence sequence = SegmentedSequence.of(segments);
+        assertTrue(sequence instanceof SegmentedSequence);
+        assertSegmented(text(segments), offsets(segments), sequence);
+
+        // base 0-5, non-base 2, base 5-10, base 12-20, non-base 2, base 20-30, base 40-50
+        assertEquals(7, ((SegmentedSequence) sequence).getSegmentCount());
+        assertEquals(0, sequence.getStartOffset());
+        assertEquals(50, sequence.getEndOffset());
+        assertEquals(50, sequence.getIndexOffset(sequence.length()));
+    }
+
+    @Test
+    public void test_subSequence() throws Exception {
+        BasedSequence base = SubSequence.of(TEXT);
+        List<BasedSequence> segments = new ArrayList<BasedSequence>();
+        segments.add(PrefixedSubSequence.of("<<", base.subSequence(3, 8)));
+        segments.add(base.subSequence(10, 15));
+        segments.add(PrefixedSubSequence.of(">>", base.subSequence(15, 15)));
+        segments.add(PrefixedSubSequence.of("--", base.subSequence(20, 25)));
+
+        BasedSequence sequence = SegmentedSequence.of(segments);
+        String text = text(segments);
+        List<Integer> offsets = offsets(segments);
+
+        for (int start = 0; start <= text.length(); start++) {
+            for (int end = start; end <= text.length(); end++) {
+                BasedSequence subSequence = sequence.subSequence(start, end);
+                assertSegmented(text.substring(start, end), offsets.subList(start, end), subSequence);
+
+                // start is the first base offset at or after start, end is one past the last base offset before end
+                int expectedStart = base.getEndOffset();
+                for (int i = start; i < offsets.size(); i++) {
+                    if (offsets.get(i) >= 0) {
+                        expectedStart = offsets.get(i);
+                        break;
+                    }
+                }
+
+                int expectedEnd = expectedStart;
+                if (start < end) {
+                    for (int i = end; i-- > 0; ) {
+                        if (offsets.get(i) >= 0) {
+                            expectedEnd = offsets.get(i) + 1;
+                            break;
+                        }
+                    }
+                }
+
+                assertEquals("start of [" + start + ", " + end + ")", expectedStart, subSequence.getStartOffset());
+                assertEquals("end of [" + start + ", " + end + ")", expectedEnd, subSequence.getEndOffset());
+            }
+        }
+    }
+
+    @Test
+    public void test_nested() throws Exception {
+        BasedSequence base = SubSequence.of(TEXT);
+        BasedSequence inner = SegmentedSequence.of(PrefixedSubSequence.of("ab", base.subSequence(5, 10)), PrefixedSubSequence.of("cd", base.subSequence(10, 15)));
+        List<BasedSequence> segments = new ArrayList<BasedSequence>();
+        segments.add(base.subSequence(0, 3));
+        segments.add(inner.subSequence(3, 12));
+        segments.add(PrefixedSubSequence.of("ef", base.subSequence(20, 22)));
+
+        BasedSequence sequence = SegmentedSequence.of(segments);
+        assertSegmented(text(segments), offsets(segments), sequence);
+        assertEquals(0, sequence.getStartOffset());
+        assertEquals(22, sequence.getEndOffset());
+    }
+
+    @Test
+    public void test_largeSequence() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            sb.append(TEXT);
+        }
+
+        BasedSequence base = SubSequence.of(sb);
+        List<BasedSequence> segments = new ArrayList<BasedSequence>();
+        for (int i = 0; i < 10000; i++) {
+            segments.add(PrefixedSubSequence.of("> ", base.subSequence(i * TEXT.length(), i * TEXT.length() + 10)));
+        }
+
+        SegmentedSequence sequence = (SegmentedSequence) SegmentedSequence.of(segments);
+        assertEquals(20000, sequence.getSegmentCount());
+        assertSegmented(text(segments), offsets(segments), sequence);
+    }
+}
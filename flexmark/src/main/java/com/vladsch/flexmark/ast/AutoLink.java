@@ -40,4 +40,9 @@ public class AutoLink extends DelimitedLinkNode {
         super(openingMarker, text, closingMarker);
         setUrlChars(text);
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == AutoLink.class;
+    }
 }
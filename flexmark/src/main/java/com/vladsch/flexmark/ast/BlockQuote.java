@@ -4,6 +4,7 @@ import com.vladsch.flexmark.util.ast.Block;
 import com.vladsch.flexmark.util.ast.BlockContent;
 import com.vladsch.flexmark.util.ast.KeepTrailingBlankLineContainer;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
+import com.vladsch.flexmark.util.sequence.SequenceMover;
 
 import java.util.List;
 
@@ -42,4 +43,15 @@ public class BlockQuote extends Block implements KeepTrailingBlankLineContainer
     public void setOpeningMarker(BasedSequence openingMarker) {
         this.openingMarker = openingMarker;
     }
+
+    @Override
+    public void moveChars(SequenceMover mover) {
+        super.moveChars(mover);
+        openingMarker = mover.move(openingMarker);
+    }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == BlockQuote.class;
+    }
 }
@@ -35,4 +35,9 @@ public class BulletList extends ListBlock {
     public void setOpeningMarker(char openingMarker) {
         this.openingMarker = openingMarker;
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == BulletList.class;
+    }
 }
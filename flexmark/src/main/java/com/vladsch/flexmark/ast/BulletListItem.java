@@ -21,4 +21,9 @@ public class BulletListItem extends ListItem {
     public BulletListItem(BlockContent blockContent) {
         super(blockContent);
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == BulletListItem.class;
+    }
 }
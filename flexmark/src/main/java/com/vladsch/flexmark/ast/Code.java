@@ -19,4 +19,9 @@ public class Code extends DelimitedNodeImpl implements DoNotLinkDecorate {
     public void getAstExtra(StringBuilder out) {
         delimitedSegmentSpan(out, openingMarker, text, closingMarker, "text");
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == Code.class;
+    }
 }
@@ -27,4 +27,9 @@ public class CodeBlock extends Block {
     public CodeBlock(BlockContent blockContent) {
         super(blockContent);
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == CodeBlock.class;
+    }
 }
@@ -1,6 +1,7 @@
 package com.vladsch.flexmark.ast;
 
 import com.vladsch.flexmark.util.sequence.BasedSequence;
+import com.vladsch.flexmark.util.sequence.SequenceMover;
 import com.vladsch.flexmark.util.sequence.BasedSequenceImpl;
 
 public class DelimitedLinkNode extends LinkNode {
@@ -60,4 +61,12 @@ public class DelimitedLinkNode extends LinkNode {
     public void setClosingMarker(BasedSequence closingMarker) {
         this.closingMarker = closingMarker;
     }
+
+    @Override
+    public void moveChars(SequenceMover mover) {
+        super.moveChars(mover);
+        openingMarker = mover.move(openingMarker);
+        text = mover.move(text);
+        closingMarker = mover.move(closingMarker);
+    }
 }
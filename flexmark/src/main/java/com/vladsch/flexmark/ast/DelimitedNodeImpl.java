@@ -2,6 +2,7 @@ package com.vladsch.flexmark.ast;
 
 import com.vladsch.flexmark.util.ast.Node;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
+import com.vladsch.flexmark.util.sequence.SequenceMover;
 
 public abstract class DelimitedNodeImpl extends Node implements DelimitedNode {
     protected BasedSequence openingMarker = BasedSequence.NULL;
@@ -56,4 +57,12 @@ public abstract class DelimitedNodeImpl extends Node implements DelimitedNode {
     public void setClosingMarker(BasedSequence closingMarker) {
         this.closingMarker = closingMarker;
     }
+
+    @Override
+    public void moveChars(SequenceMover mover) {
+        super.moveChars(mover);
+        openingMarker = mover.move(openingMarker);
+        text = mover.move(text);
+        closingMarker = mover.move(closingMarker);
+    }
 }
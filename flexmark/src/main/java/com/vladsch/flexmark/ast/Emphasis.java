@@ -13,4 +13,9 @@ public class Emphasis extends DelimitedNodeImpl {
     public Emphasis(BasedSequence openingMarker, BasedSequence content, BasedSequence closingMarker) {
         super(openingMarker, content, closingMarker);
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == Emphasis.class;
+    }
 }
@@ -3,6 +3,7 @@ package com.vladsch.flexmark.ast;
 import com.vladsch.flexmark.util.ast.Block;
 import com.vladsch.flexmark.util.ast.DoNotDecorate;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
+import com.vladsch.flexmark.util.sequence.SequenceMover;
 
 import java.util.List;
 
@@ -102,4 +103,17 @@ public class FencedCodeBlock extends Block implements DoNotDecorate {
     public void setFenceIndent(int fenceIndent) {
         this.fenceIndent = fenceIndent;
     }
+
+    @Override
+    public void moveChars(SequenceMover mover) {
+        super.moveChars(mover);
+        openingMarker = mover.move(openingMarker);
+        info = mover.move(info);
+        closingMarker = mover.move(closingMarker);
+    }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == FencedCodeBlock.class;
+    }
 }
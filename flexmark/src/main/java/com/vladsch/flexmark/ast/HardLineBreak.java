@@ -15,4 +15,9 @@ public class HardLineBreak extends Node {
     public HardLineBreak(BasedSequence chars) {
         super(chars);
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == HardLineBreak.class;
+    }
 }
@@ -4,6 +4,7 @@ import com.vladsch.flexmark.ast.util.TextCollectingVisitor;
 import com.vladsch.flexmark.util.ast.Block;
 import com.vladsch.flexmark.util.ast.BlockContent;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
+import com.vladsch.flexmark.util.sequence.SequenceMover;
 
 import java.util.List;
 
@@ -98,4 +99,17 @@ public class Heading extends Block implements AnchorRefTarget {
     public void setLevel(int level) {
         this.level = level;
     }
+
+    @Override
+    public void moveChars(SequenceMover mover) {
+        super.moveChars(mover);
+        openingMarker = mover.move(openingMarker);
+        text = mover.move(text);
+        closingMarker = mover.move(closingMarker);
+    }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == Heading.class;
+    }
 }
@@ -30,4 +30,9 @@ public class HtmlBlock extends HtmlBlockBase {
     public HtmlBlock(BlockContent blockContent) {
         super(blockContent);
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == HtmlBlock.class;
+    }
 }
@@ -25,4 +25,9 @@ public class HtmlCommentBlock extends HtmlBlockBase {
     public HtmlCommentBlock(BlockContent blockContent) {
         super(blockContent);
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == HtmlCommentBlock.class;
+    }
 }
@@ -26,4 +26,9 @@ public class HtmlEntity extends Node {
     public HtmlEntity(BasedSequence chars) {
         super(chars);
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == HtmlEntity.class;
+    }
 }
@@ -24,4 +24,9 @@ public class HtmlInline extends HtmlInlineBase {
     public HtmlInline(BasedSequence chars) {
         super(chars);
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == HtmlInline.class;
+    }
 }
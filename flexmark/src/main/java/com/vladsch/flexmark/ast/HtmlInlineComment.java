@@ -24,4 +24,9 @@ public class HtmlInlineComment extends HtmlInlineBase {
     public HtmlInlineComment(BasedSequence chars) {
         super(chars);
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == HtmlInlineComment.class;
+    }
 }
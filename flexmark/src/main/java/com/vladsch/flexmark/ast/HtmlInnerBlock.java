@@ -24,4 +24,9 @@ public class HtmlInnerBlock extends HtmlBlockBase {
     public HtmlInnerBlock(BasedSequence chars) {
         super(chars);
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == HtmlInnerBlock.class;
+    }
 }
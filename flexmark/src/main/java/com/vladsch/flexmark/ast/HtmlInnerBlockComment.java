@@ -24,4 +24,9 @@ public class HtmlInnerBlockComment extends HtmlBlockBase {
     public HtmlInnerBlockComment(BasedSequence chars) {
         super(chars);
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == HtmlInnerBlockComment.class;
+    }
 }
@@ -1,6 +1,7 @@
 package com.vladsch.flexmark.ast;
 
 import com.vladsch.flexmark.util.sequence.BasedSequence;
+import com.vladsch.flexmark.util.sequence.SequenceMover;
 
 public class Image extends InlineLinkNode {
     private BasedSequence urlContent = BasedSequence.NULL;
@@ -78,4 +79,15 @@ public class Image extends InlineLinkNode {
     public BasedSequence getUrlContent() {
         return urlContent;
     }
+
+    @Override
+    public void moveChars(SequenceMover mover) {
+        super.moveChars(mover);
+        urlContent = mover.move(urlContent);
+    }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == Image.class;
+    }
 }
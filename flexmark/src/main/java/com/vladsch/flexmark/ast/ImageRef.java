@@ -37,4 +37,9 @@ public class ImageRef extends RefNode {
         this.text = textChars.subSequence(2, textCharsLength - 1).trim();
         this.textClosingMarker = textChars.subSequence(textCharsLength - 1, textCharsLength);
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == ImageRef.class;
+    }
 }
@@ -27,4 +27,9 @@ public class IndentedCodeBlock extends Block {
     public IndentedCodeBlock(BlockContent blockContent) {
         super(blockContent);
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == IndentedCodeBlock.class;
+    }
 }
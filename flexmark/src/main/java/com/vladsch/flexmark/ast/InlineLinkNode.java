@@ -1,6 +1,7 @@
 package com.vladsch.flexmark.ast;
 
 import com.vladsch.flexmark.util.sequence.BasedSequence;
+import com.vladsch.flexmark.util.sequence.SequenceMover;
 
 public abstract class InlineLinkNode extends LinkNode {
     protected BasedSequence textOpeningMarker = BasedSequence.NULL;
@@ -163,4 +164,14 @@ public abstract class InlineLinkNode extends LinkNode {
     protected String toStringAttributes() {
         return "text=" + text + ", url=" + url + ", title=" + title;
     }
+
+    @Override
+    public void moveChars(SequenceMover mover) {
+        super.moveChars(mover);
+        textOpeningMarker = mover.move(textOpeningMarker);
+        text = mover.move(text);
+        textClosingMarker = mover.move(textClosingMarker);
+        linkOpeningMarker = mover.move(linkOpeningMarker);
+        linkClosingMarker = mover.move(linkClosingMarker);
+    }
 }
@@ -33,4 +33,9 @@ public class Link extends InlineLinkNode {
         this.text = textChars.subSequence(1, textCharsLength - 1).trim();
         this.textClosingMarker = textChars.subSequence(textCharsLength - 1, textCharsLength);
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == Link.class;
+    }
 }
@@ -2,6 +2,7 @@ package com.vladsch.flexmark.ast;
 
 import com.vladsch.flexmark.util.ast.Node;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
+import com.vladsch.flexmark.util.sequence.SequenceMover;
 
 public abstract class LinkNodeBase extends Node {
     protected BasedSequence urlOpeningMarker = BasedSequence.NULL;
@@ -132,4 +133,18 @@ public abstract class LinkNodeBase extends Node {
     public void setTitleClosingMarker(BasedSequence titleClosingMarker) {
         this.titleClosingMarker = titleClosingMarker;
     }
+
+    @Override
+    public void moveChars(SequenceMover mover) {
+        super.moveChars(mover);
+        urlOpeningMarker = mover.move(urlOpeningMarker);
+        url = mover.move(url);
+        pageRef = mover.move(pageRef);
+        anchorMarker = mover.move(anchorMarker);
+        anchorRef = mover.move(anchorRef);
+        urlClosingMarker = mover.move(urlClosingMarker);
+        titleOpeningMarker = mover.move(titleOpeningMarker);
+        title = mover.move(title);
+        titleClosingMarker = mover.move(titleClosingMarker);
+    }
 }
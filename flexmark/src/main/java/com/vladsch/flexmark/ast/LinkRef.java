@@ -29,4 +29,9 @@ public class LinkRef extends RefNode {
     public LinkRef(BasedSequence textOpenMarker, BasedSequence text, BasedSequence textCloseMarker, BasedSequence referenceOpenMarker, BasedSequence referenceCloseMarker) {
         super(textOpenMarker, text, textCloseMarker, referenceOpenMarker, referenceCloseMarker);
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == LinkRef.class;
+    }
 }
@@ -7,6 +7,7 @@ import com.vladsch.flexmark.util.ast.BlockContent;
 import com.vladsch.flexmark.util.ast.Node;
 import com.vladsch.flexmark.util.options.DataHolder;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
+import com.vladsch.flexmark.util.sequence.SequenceMover;
 
 import java.util.List;
 
@@ -140,4 +141,11 @@ public abstract class ListItem extends Block implements ParagraphItemContainer,
     public ListItem(BlockContent blockContent) {
         super(blockContent);
     }
+
+    @Override
+    public void moveChars(SequenceMover mover) {
+        super.moveChars(mover);
+        openingMarker = mover.move(openingMarker);
+        markerSuffix = mover.move(markerSuffix);
+    }
 }
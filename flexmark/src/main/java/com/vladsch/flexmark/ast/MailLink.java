@@ -13,4 +13,9 @@ public class MailLink extends DelimitedLinkNode {
     public MailLink(BasedSequence openingMarker, BasedSequence text, BasedSequence closingMarker) {
         super(openingMarker, text, closingMarker);
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == MailLink.class;
+    }
 }
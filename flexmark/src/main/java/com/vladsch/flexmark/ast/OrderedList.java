@@ -51,4 +51,9 @@ public class OrderedList extends ListBlock {
     public void setDelimiter(char delimiter) {
         this.delimiter = delimiter;
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == OrderedList.class;
+    }
 }
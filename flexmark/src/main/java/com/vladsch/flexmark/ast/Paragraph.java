@@ -125,4 +125,9 @@ public class Paragraph extends Block {
     public boolean hasTableSeparator() {
         return hasTableSeparator;
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == Paragraph.class;
+    }
 }
@@ -5,6 +5,7 @@ import com.vladsch.flexmark.parser.Parser;
 import com.vladsch.flexmark.util.ast.Document;
 import com.vladsch.flexmark.util.ast.ReferencingNode;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
+import com.vladsch.flexmark.util.sequence.SequenceMover;
 
 public abstract class RefNode extends LinkNode implements LinkRefDerived, ReferencingNode<ReferenceRepository, Reference> {
     protected BasedSequence textOpeningMarker = BasedSequence.NULL;
@@ -208,4 +209,15 @@ public abstract class RefNode extends LinkNode implements LinkRefDerived, Refere
     protected String toStringAttributes() {
         return "text=" + text + ", reference=" + reference;
     }
+
+    @Override
+    public void moveChars(SequenceMover mover) {
+        super.moveChars(mover);
+        textOpeningMarker = mover.move(textOpeningMarker);
+        text = mover.move(text);
+        textClosingMarker = mover.move(textClosingMarker);
+        referenceOpeningMarker = mover.move(referenceOpeningMarker);
+        reference = mover.move(reference);
+        referenceClosingMarker = mover.move(referenceClosingMarker);
+    }
 }
@@ -4,6 +4,7 @@ import com.vladsch.flexmark.ast.util.ReferenceRepository;
 import com.vladsch.flexmark.util.ast.Node;
 import com.vladsch.flexmark.util.ast.ReferenceNode;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
+import com.vladsch.flexmark.util.sequence.SequenceMover;
 import com.vladsch.flexmark.util.sequence.PrefixedSubSequence;
 
 public class Reference extends LinkNodeBase implements ReferenceNode<ReferenceRepository, Reference, RefNode> {
@@ -181,4 +182,17 @@ public class Reference extends LinkNodeBase implements ReferenceNode<ReferenceRe
     protected String toStringAttributes() {
         return "reference=" + reference + ", url=" + url;
     }
+
+    @Override
+    public void moveChars(SequenceMover mover) {
+        super.moveChars(mover);
+        openingMarker = mover.move(openingMarker);
+        reference = mover.move(reference);
+        closingMarker = mover.move(closingMarker);
+    }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == Reference.class;
+    }
 }
@@ -16,4 +16,9 @@ public class SoftLineBreak extends Node implements DoNotAttributeDecorate {
     public SoftLineBreak(BasedSequence chars) {
         super(chars);
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == SoftLineBreak.class;
+    }
 }
@@ -13,4 +13,9 @@ public class StrongEmphasis extends DelimitedNodeImpl {
     public StrongEmphasis(BasedSequence openingMarker, BasedSequence content, BasedSequence closingMarker) {
         super(openingMarker, content, closingMarker);
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == StrongEmphasis.class;
+    }
 }
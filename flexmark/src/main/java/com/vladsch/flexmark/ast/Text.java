@@ -38,4 +38,9 @@ public final class Text extends Node {
     protected String toStringAttributes() {
         return "text=" + getChars();
     }
+
+    @Override
+    public boolean isMovable() {
+        return true;
+    }
 }
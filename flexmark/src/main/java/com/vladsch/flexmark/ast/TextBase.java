@@ -30,4 +30,9 @@ public class TextBase extends Node {
     protected String toStringAttributes() {
         return "text=" + getChars();
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == TextBase.class;
+    }
 }
@@ -26,4 +26,9 @@ public class ThematicBreak extends Block {
     public ThematicBreak(BlockContent blockContent) {
         super(blockContent);
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == ThematicBreak.class;
+    }
 }
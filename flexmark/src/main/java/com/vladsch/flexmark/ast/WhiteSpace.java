@@ -28,4 +28,9 @@ public class WhiteSpace extends Node {
     protected String toStringAttributes() {
         return "text=" + getChars();
     }
+
+    @Override
+    public boolean isMovable() {
+        return getClass() == WhiteSpace.class;
+    }
 }
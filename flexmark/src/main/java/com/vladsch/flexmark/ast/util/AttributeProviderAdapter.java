@@ -22,7 +22,7 @@ public class AttributeProviderAdapter extends NodeAdaptedVisitor<AttributeProvid
 
     @Override
     public void setAttributes(Node node, AttributablePart part, Attributes attributes) {
-        AttributeProvidingHandler<?> handler = myCustomHandlersMap.get(node.getClass());
+        AttributeProvidingHandler<?> handler = getHandler(node);
         if (handler != null) {
             handler.setAttributes(node, part, attributes);
         }
@@ -0,0 +1,132 @@
+package com.vladsch.flexmark.ast.util;
+
+import com.vladsch.flexmark.ast.AnchorRefTarget;
+import com.vladsch.flexmark.ast.Heading;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.options.DataKey;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Anchor ref targets and headings of a document, collected with a single traversal of the document's blocks
+ * <p>
+ * A renderer shares one index for the duration of a render so that id generation, table of contents rendering and
+ * other heading consumers use it instead of each traversing the document, see {@link #share(Document)}. Outside of a
+ * render {@link #of(Document)} creates a new index since the document can be changed between uses.
+ * Headings are collected when first requested and heading text is kept for following requests.
+ */
+public class HeadingIndex {
+    public static final DataKey<HeadingIndex> HEADING_INDEX = new DataKey<>("HEADING_INDEX", (HeadingIndex) null);
+
+    private final Document document;
+    private List<AnchorRefTarget> anchorRefTargets;
+    private List<Heading> headings;
+    private final HashMap<Heading, String> headingTexts;
+
+    private HeadingIndex(Document document) {
+        this.document = document;
+        this.headingTexts = new HashMap<Heading, String>();
+    }
+
+    private synchronized void collect() {
+        if (anchorRefTargets != null) return;
+
+        final ArrayList<AnchorRefTarget> anchorRefTargets = new ArrayList<AnchorRefTarget>();
+        final ArrayList<Heading> headings = new ArrayList<Heading>();
+
+        new AnchorRefTargetBlockVisitor() {
+            @Override
+            protected void visit(AnchorRefTarget node) {
+                anchorRefTargets.add(node);
+                if (node instanceof Heading) headings.add((Heading) node);
+            }
+        }.visit(document);
+
+        this.headings = Collections.unmodifiableList(headings);
+        this.anchorRefTargets = Collections.unmodifiableList(anchorRefTargets);
+    }
+
+    /**
+     * @return anchor ref targets of the document in document order
+     */
+    public List<AnchorRefTarget> getAnchorRefTargets() {
+        collect();
+        return anchorRefTargets;
+    }
+
+    /**
+     * @return headings of the document in document order
+     */
+    public List<Heading> getHeadings() {
+        collect();
+        return headings;
+    }
+
+    /**
+     * Get text of a heading as collected by {@link TextCollectingVisitor}
+     *
+     * @param heading heading of the document
+     * @return heading text
+     */
+    public String getHeadingText(Heading heading) {
+        synchronized (headingTexts) {
+            String text = headingTexts.get(heading);
+            if (text == null) {
+                text = new TextCollectingVisitor().collectAndGetText(heading);
+                headingTexts.put(heading, text);
+            }
+            return text;
+        }
+    }
+
+    /**
+     * Get text of an anchor ref target from which its id is generated, same as {@link AnchorRefTarget#getAnchorRefText()}
+     *
+     * @param target anchor ref target of the document
+     * @return anchor ref text
+     */
+    public String getAnchorRefText(AnchorRefTarget target) {
+        return target instanceof Heading ? getHeadingText((Heading) target).trim() : target.getAnchorRefText();
+    }
+
+    /**
+     * Get the heading index of a document, the one shared by the current render of the document or a new index
+     *
+     * @param document document
+     * @return heading index of the document
+     */
+    public static HeadingIndex of(Document document) {
+        HeadingIndex index = HEADING_INDEX.getFrom(document);
+        return index != null ? index : new HeadingIndex(document);
+    }
+
+    /**
+     * Share a heading index of the document until {@link #unshare(Document, HeadingIndex)}, used by a renderer for the
+     * duration of a render during which the document is not changed
+     *
+     * @param document document
+     * @return shared index, null if the document already has a shared index which is used instead
+     */
+    public static HeadingIndex share(Document document) {
+        if (HEADING_INDEX.getFrom(document) != null) return null;
+
+        HeadingIndex index = new HeadingIndex(document);
+        document.set(HEADING_INDEX, index);
+        return index;
+    }
+
+    /**
+     * Stop sharing a heading index of the document
+     *
+     * @param document document
+     * @param index    index returned by {@link #share(Document)}, nothing is done if null
+     */
+    public static void unshare(Document document, HeadingIndex index) {
+        if (index != null && HEADING_INDEX.getFrom(document) == index) {
+            document.remove(HEADING_INDEX);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.vladsch.flexmark.util.format.TableFormatOptions;
 import com.vladsch.flexmark.util.html.Escaping;
 import com.vladsch.flexmark.util.options.DataHolder;
 
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import static com.vladsch.flexmark.parser.Parser.*;
@@ -92,10 +93,102 @@ public class Parsing {
     public final String REG_CHAR_SP_PARENS;
 
     public Parsing(DataHolder options) {
+        this(options, getPatterns(options));
+    }
+
+    private Parsing(DataHolder options, Parsing patterns) {
         this.options = options;
-        this.intellijDummyIdentifier = Parser.INTELLIJ_DUMMY_IDENTIFIER.getFrom(options);
-        this.htmlForTranslator = Parser.HTML_FOR_TRANSLATOR.getFrom(options);
-        this.translationHtmlInlineTagPattern = Parser.TRANSLATION_HTML_INLINE_TAG_PATTERN.getFrom(options);
+        this.ADDITIONAL_CHARS = patterns.ADDITIONAL_CHARS;
+        this.EXCLUDED_0_TO_SPACE = patterns.EXCLUDED_0_TO_SPACE;
+        this.EOL = patterns.EOL;
+        this.ESCAPED_CHAR = patterns.ESCAPED_CHAR;
+        this.LINK_LABEL = patterns.LINK_LABEL;
+        this.LINK_DESTINATION_ANGLES = patterns.LINK_DESTINATION_ANGLES;
+        this.LINK_TITLE_STRING = patterns.LINK_TITLE_STRING;
+        this.LINK_TITLE = patterns.LINK_TITLE;
+        this.REG_CHAR = patterns.REG_CHAR;
+        this.REG_CHAR_SP = patterns.REG_CHAR_SP;
+        this.IN_PARENS_NOSP = patterns.IN_PARENS_NOSP;
+        this.IN_PARENS_W_SP = patterns.IN_PARENS_W_SP;
+        this.IN_BRACES_W_SP = patterns.IN_BRACES_W_SP;
+        this.LINK_DESTINATION = patterns.LINK_DESTINATION;
+        this.LINK_DESTINATION_MATCHED_PARENS = patterns.LINK_DESTINATION_MATCHED_PARENS;
+        this.HTMLCOMMENT = patterns.HTMLCOMMENT;
+        this.PROCESSINGINSTRUCTION = patterns.PROCESSINGINSTRUCTION;
+        this.DECLARATION = patterns.DECLARATION;
+        this.CDATA = patterns.CDATA;
+        this.ENTITY = patterns.ENTITY;
+        this.ENTITY_HERE = patterns.ENTITY_HERE;
+        this.ASCII_PUNCTUATION = patterns.ASCII_PUNCTUATION;
+        this.ASCII_OPEN_PUNCTUATION = patterns.ASCII_OPEN_PUNCTUATION;
+        this.ASCII_CLOSE_PUNCTUATION = patterns.ASCII_CLOSE_PUNCTUATION;
+        this.PUNCTUATION = patterns.PUNCTUATION;
+        this.PUNCTUATION_OPEN = patterns.PUNCTUATION_OPEN;
+        this.PUNCTUATION_CLOSE = patterns.PUNCTUATION_CLOSE;
+        this.PUNCTUATION_ONLY = patterns.PUNCTUATION_ONLY;
+        this.PUNCTUATION_OPEN_ONLY = patterns.PUNCTUATION_OPEN_ONLY;
+        this.PUNCTUATION_CLOSE_ONLY = patterns.PUNCTUATION_CLOSE_ONLY;
+        this.ESCAPABLE = patterns.ESCAPABLE;
+        this.TICKS = patterns.TICKS;
+        this.TICKS_HERE = patterns.TICKS_HERE;
+        this.EMAIL_AUTOLINK = patterns.EMAIL_AUTOLINK;
+        this.AUTOLINK = patterns.AUTOLINK;
+        this.WWW_AUTOLINK = patterns.WWW_AUTOLINK;
+        this.SPNL = patterns.SPNL;
+        this.SPNL_URL = patterns.SPNL_URL;
+        this.SPNI = patterns.SPNI;
+        this.SP = patterns.SP;
+        this.REST_OF_LINE = patterns.REST_OF_LINE;
+        this.UNICODE_WHITESPACE_CHAR = patterns.UNICODE_WHITESPACE_CHAR;
+        this.WHITESPACE = patterns.WHITESPACE;
+        this.FINAL_SPACE = patterns.FINAL_SPACE;
+        this.LINE_END = patterns.LINE_END;
+        this.TAGNAME = patterns.TAGNAME;
+        this.ATTRIBUTENAME = patterns.ATTRIBUTENAME;
+        this.UNQUOTEDVALUE = patterns.UNQUOTEDVALUE;
+        this.SINGLEQUOTEDVALUE = patterns.SINGLEQUOTEDVALUE;
+        this.DOUBLEQUOTEDVALUE = patterns.DOUBLEQUOTEDVALUE;
+        this.ATTRIBUTEVALUE = patterns.ATTRIBUTEVALUE;
+        this.ATTRIBUTEVALUESPEC = patterns.ATTRIBUTEVALUESPEC;
+        this.ATTRIBUTE = patterns.ATTRIBUTE;
+        this.OPENTAG = patterns.OPENTAG;
+        this.CLOSETAG = patterns.CLOSETAG;
+        this.HTMLTAG = patterns.HTMLTAG;
+        this.HTML_TAG = patterns.HTML_TAG;
+        this.LIST_ITEM_MARKER = patterns.LIST_ITEM_MARKER;
+        this.CODE_BLOCK_INDENT = patterns.CODE_BLOCK_INDENT;
+        this.intellijDummyIdentifier = patterns.intellijDummyIdentifier;
+        this.htmlForTranslator = patterns.htmlForTranslator;
+        this.translationHtmlInlineTagPattern = patterns.translationHtmlInlineTagPattern;
+        this.INVALID_LINK_CHARS = patterns.INVALID_LINK_CHARS;
+        this.IN_MATCHED_PARENS_NOSP = patterns.IN_MATCHED_PARENS_NOSP;
+        this.IN_MATCHED_PARENS_W_SP = patterns.IN_MATCHED_PARENS_W_SP;
+        this.REG_CHAR_PARENS = patterns.REG_CHAR_PARENS;
+        this.REG_CHAR_SP_PARENS = patterns.REG_CHAR_SP_PARENS;
+    }
+
+    /**
+     * Get the shared instance holding compiled patterns for the option values which affect them
+     *
+     * @param options options
+     * @return shared parsing instance with patterns for these options
+     */
+    private static Parsing getPatterns(DataHolder options) {
+        PatternOptions patternOptions = new PatternOptions(options);
+        Parsing patterns = ourPatternsCache.get(patternOptions);
+        if (patterns == null) {
+            patterns = new Parsing(patternOptions);
+            Parsing cached = ourPatternsCache.putIfAbsent(patternOptions, patterns);
+            if (cached != null) patterns = cached;
+        }
+        return patterns;
+    }
+
+    private Parsing(PatternOptions patternOptions) {
+        this.options = null;
+        this.intellijDummyIdentifier = patternOptions.intellijDummyIdentifier;
+        this.htmlForTranslator = patternOptions.htmlForTranslator;
+        this.translationHtmlInlineTagPattern = patternOptions.translationHtmlInlineTagPattern;
 
         this.EOL = "(?:\r\n|\r|\n)";
         this.ADDITIONAL_CHARS = ADDITIONAL_CHARS();
@@ -104,7 +197,7 @@ public class Parsing {
         this.ESCAPED_CHAR = "\\\\" + Escaping.ESCAPABLE;
         this.LINK_LABEL = Pattern
                 .compile("^\\[(?:[^\\\\\\[\\]]|" + ESCAPED_CHAR + "|\\\\){0,999}\\]");
-        this.LINK_DESTINATION_ANGLES = Parser.SPACE_IN_LINK_URLS.getFrom(options)
+        this.LINK_DESTINATION_ANGLES = patternOptions.spaceInLinkUrls
                 ? Pattern.compile("^(?:[<](?:[^<> \\t\\n\\\\\\x00]" + '|' + ESCAPED_CHAR + '|' + "\\\\| (?![\"]))*[>])")
                 : Pattern.compile("^(?:[<](?:[^<> \\t\\n\\\\\\x00]" + '|' + ESCAPED_CHAR + '|' + "\\\\)*[>])");
         this.LINK_TITLE_STRING = "(?:\"(" + ESCAPED_CHAR + "|[^\"\\x00])*\"" +
@@ -123,12 +216,12 @@ public class Parsing {
         this.IN_MATCHED_PARENS_W_SP = "\\((" + REG_CHAR_SP + '|' + ESCAPED_CHAR + ")*\\)";
         this.IN_BRACES_W_SP = "\\{\\{(?:[^{}\\\\" + EXCLUDED_0_TO_SPACE + "]| |\t)*\\}\\}";
         this.LINK_DESTINATION = Pattern.compile(
-                "^(?:" + (Parser.PARSE_JEKYLL_MACROS_IN_URLS.getFrom(options) ? IN_BRACES_W_SP + "|" : "") +
-                        (Parser.SPACE_IN_LINK_URLS.getFrom(options) ? "(?:" + REG_CHAR_SP + ")+|" : REG_CHAR + "+|") +
-                        ESCAPED_CHAR + "|\\\\|" + (Parser.SPACE_IN_LINK_URLS.getFrom(options) ? IN_PARENS_W_SP : IN_PARENS_NOSP) + ")*");
+                "^(?:" + (patternOptions.parseJekyllMacrosInUrls ? IN_BRACES_W_SP + "|" : "") +
+                        (patternOptions.spaceInLinkUrls ? "(?:" + REG_CHAR_SP + ")+|" : REG_CHAR + "+|") +
+                        ESCAPED_CHAR + "|\\\\|" + (patternOptions.spaceInLinkUrls ? IN_PARENS_W_SP : IN_PARENS_NOSP) + ")*");
         this.LINK_DESTINATION_MATCHED_PARENS = Pattern.compile(
-                "^(?:" + (Parser.PARSE_JEKYLL_MACROS_IN_URLS.getFrom(options) ? IN_BRACES_W_SP + "|" : "")
-                        + (Parser.SPACE_IN_LINK_URLS.getFrom(options) ? "(?:" + REG_CHAR_SP + ")+|" : REG_CHAR + "+|") +
+                "^(?:" + (patternOptions.parseJekyllMacrosInUrls ? IN_BRACES_W_SP + "|" : "")
+                        + (patternOptions.spaceInLinkUrls ? "(?:" + REG_CHAR_SP + ")+|" : REG_CHAR + "+|") +
                         ESCAPED_CHAR + "|\\\\|\\(|\\))*");
         this.HTMLCOMMENT = "<!---->|<!--(?:-?[^>-])(?:-?[^-])*-->";
         this.PROCESSINGINSTRUCTION = "[<][?].*?[?][>]";
@@ -191,15 +284,15 @@ public class Parsing {
                 (htmlForTranslator ? "|<(?:" + translationHtmlInlineTagPattern + ")>|</(?:" + translationHtmlInlineTagPattern + ")>" : "") + ")";
         this.HTML_TAG = Pattern.compile('^' + HTMLTAG, Pattern.CASE_INSENSITIVE);
 
-        final String itemPrefixChars = LISTS_ITEM_PREFIX_CHARS.getFrom(options);
-        if (LISTS_ITEM_MARKER_SPACE.getFrom(options)) {
-            if (LISTS_ORDERED_ITEM_DOT_ONLY.getFrom(options)) {
+        final String itemPrefixChars = patternOptions.listsItemPrefixChars;
+        if (patternOptions.listsItemMarkerSpace) {
+            if (patternOptions.listsOrderedItemDotOnly) {
                 this.LIST_ITEM_MARKER = Pattern.compile("^([\\Q" + itemPrefixChars + "\\E])(?=[ \t])|^(\\d{1,9})([.])(?=[ \t])");
             } else {
                 this.LIST_ITEM_MARKER = Pattern.compile("^([\\Q" + itemPrefixChars + "\\E])(?=[ \t])|^(\\d{1,9})([.)])(?=[ \t])");
             }
         } else {
-            if (LISTS_ORDERED_ITEM_DOT_ONLY.getFrom(options)) {
+            if (patternOptions.listsOrderedItemDotOnly) {
                 this.LIST_ITEM_MARKER = Pattern.compile("^([\\Q" + itemPrefixChars + "\\E])(?= |\t|$)|^(\\d{1,9})([.])(?= |\t|$)");
             } else {
                 this.LIST_ITEM_MARKER = Pattern.compile("^([\\Q" + itemPrefixChars + "\\E])(?= |\t|$)|^(\\d{1,9})([.)])(?= |\t|$)");
@@ -207,12 +300,72 @@ public class Parsing {
         }
 
         // make sure this is consistent with lists settings
-        this.CODE_BLOCK_INDENT = Parser.CODE_BLOCK_INDENT.getFrom(options);
+        this.CODE_BLOCK_INDENT = patternOptions.codeBlockIndent;
 
         // list of characters not allowed in link URL
         this.INVALID_LINK_CHARS = " \t";
     }
 
+    private static final ConcurrentHashMap<PatternOptions, Parsing> ourPatternsCache = new ConcurrentHashMap<PatternOptions, Parsing>();
+
+    /**
+     * Option values used to build the patterns, instances with equal values share compiled patterns
+     */
+    private static class PatternOptions {
+        final boolean intellijDummyIdentifier;
+        final boolean htmlForTranslator;
+        final String translationHtmlInlineTagPattern;
+        final boolean spaceInLinkUrls;
+        final boolean parseJekyllMacrosInUrls;
+        final String listsItemPrefixChars;
+        final boolean listsItemMarkerSpace;
+        final boolean listsOrderedItemDotOnly;
+        final int codeBlockIndent;
+
+        PatternOptions(DataHolder options) {
+            this.intellijDummyIdentifier = Parser.INTELLIJ_DUMMY_IDENTIFIER.getFrom(options);
+            this.htmlForTranslator = Parser.HTML_FOR_TRANSLATOR.getFrom(options);
+            this.translationHtmlInlineTagPattern = Parser.TRANSLATION_HTML_INLINE_TAG_PATTERN.getFrom(options);
+            this.spaceInLinkUrls = Parser.SPACE_IN_LINK_URLS.getFrom(options);
+            this.parseJekyllMacrosInUrls = Parser.PARSE_JEKYLL_MACROS_IN_URLS.getFrom(options);
+            this.listsItemPrefixChars = LISTS_ITEM_PREFIX_CHARS.getFrom(options);
+            this.listsItemMarkerSpace = LISTS_ITEM_MARKER_SPACE.getFrom(options);
+            this.listsOrderedItemDotOnly = LISTS_ORDERED_ITEM_DOT_ONLY.getFrom(options);
+            this.codeBlockIndent = Parser.CODE_BLOCK_INDENT.getFrom(options);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PatternOptions)) return false;
+
+            PatternOptions other = (PatternOptions) o;
+            return intellijDummyIdentifier == other.intellijDummyIdentifier
+                    && htmlForTranslator == other.htmlForTranslator
+                    && translationHtmlInlineTagPattern.equals(other.translationHtmlInlineTagPattern)
+                    && spaceInLinkUrls == other.spaceInLinkUrls
+                    && parseJekyllMacrosInUrls == other.parseJekyllMacrosInUrls
+                    && listsItemPrefixChars.equals(other.listsItemPrefixChars)
+                    && listsItemMarkerSpace == other.listsItemMarkerSpace
+                    && listsOrderedItemDotOnly == other.listsOrderedItemDotOnly
+                    && codeBlockIndent == other.codeBlockIndent;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = intellijDummyIdentifier ? 1 : 0;
+            result = 31 * result + (htmlForTranslator ? 1 : 0);
+            result = 31 * result + translationHtmlInlineTagPattern.hashCode();
+            result = 31 * result + (spaceInLinkUrls ? 1 : 0);
+            result = 31 * result + (parseJekyllMacrosInUrls ? 1 : 0);
+            result = 31 * result + listsItemPrefixChars.hashCode();
+            result = 31 * result + (listsItemMarkerSpace ? 1 : 0);
+            result = 31 * result + (listsOrderedItemDotOnly ? 1 : 0);
+            result = 31 * result + codeBlockIndent;
+            return result;
+        }
+    }
+
     public String EXCLUDED_0_TO_SPACE() {
         return intellijDummyIdentifier ? "\u0000-\u001e\u0020" : "\u0000-\u0020";
     }
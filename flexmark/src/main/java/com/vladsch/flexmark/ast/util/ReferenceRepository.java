@@ -31,6 +31,11 @@ public class ReferenceRepository extends NodeRepository<Reference> {
         return Parser.REFERENCES_KEEP;
     }
 
+    @Override
+    public boolean isShareable() {
+        return true;
+    }
+
     @Override
     public String normalizeKey(CharSequence key) {
         return Escaping.normalizeReference(key, true);
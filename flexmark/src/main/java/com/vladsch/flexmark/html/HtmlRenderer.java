@@ -3,12 +3,14 @@ package com.vladsch.flexmark.html;
 import com.vladsch.flexmark.Extension;
 import com.vladsch.flexmark.ast.HtmlBlock;
 import com.vladsch.flexmark.ast.HtmlInline;
+import com.vladsch.flexmark.ast.util.HeadingIndex;
 import com.vladsch.flexmark.html.renderer.*;
 import com.vladsch.flexmark.parser.Parser;
 import com.vladsch.flexmark.util.IRender;
 import com.vladsch.flexmark.util.Pair;
 import com.vladsch.flexmark.util.ast.Document;
 import com.vladsch.flexmark.util.ast.Node;
+import com.vladsch.flexmark.util.ast.NodeTypeMap;
 import com.vladsch.flexmark.util.collection.DataValueFactory;
 import com.vladsch.flexmark.util.collection.DynamicDefaultKey;
 import com.vladsch.flexmark.util.dependency.DependencyHandler;
@@ -17,9 +19,16 @@ import com.vladsch.flexmark.util.dependency.ResolvedDependencies;
 import com.vladsch.flexmark.util.html.Attributes;
 import com.vladsch.flexmark.util.html.Escaping;
 import com.vladsch.flexmark.util.html.FormattingAppendable;
+import com.vladsch.flexmark.util.html.WriterAppendable;
 import com.vladsch.flexmark.util.options.*;
 import com.vladsch.flexmark.util.sequence.TagRange;
 
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
 import java.util.*;
 
 /**
@@ -97,6 +106,11 @@ public class HtmlRenderer implements IRender {
     public static final DataKey<Integer> FORMAT_FLAGS = new DataKey<>("FORMAT_FLAGS", 0);
     public static final DataKey<Integer> MAX_TRAILING_BLANK_LINES = new DataKey<>("MAX_TRAILING_BLANK_LINES", 1);
 
+    /**
+     * size in characters of the output buffer used by {@link #renderTo(Node, Writer)}
+     */
+    public static final DataKey<Integer> STREAM_BUFFER_SIZE = new DataKey<>("STREAM_BUFFER_SIZE", WriterAppendable.DEFAULT_BUFFER_SIZE);
+
     // convenience pass through
     public static final int CONVERT_TABS = FormattingAppendable.CONVERT_TABS;
     public static final int COLLAPSE_WHITESPACE = FormattingAppendable.COLLAPSE_WHITESPACE;
@@ -130,7 +144,7 @@ public class HtmlRenderer implements IRender {
 
     HtmlRenderer(Builder builder) {
         this.builder = new Builder(builder); // take a copy to avoid after creation side effects
-        this.options = new DataSet(builder);
+        this.options = new FrozenDataSet(builder);
         this.htmlOptions = new HtmlRendererOptions(this.options);
 
         this.htmlIdGeneratorFactory = builder.htmlIdGeneratorFactory;
@@ -196,9 +210,13 @@ public class HtmlRenderer implements IRender {
      */
     public void render(Node node, Appendable output) {
         MainNodeRenderer renderer = new MainNodeRenderer(options, new HtmlWriter(output, htmlOptions.indentSize, htmlOptions.formatFlags, !htmlOptions.htmlBlockOpenTagEol, !htmlOptions.htmlBlockCloseTagEol), node.getDocument());
-        renderer.render(node);
-        renderer.flush(htmlOptions.maxTrailingBlankLines);
-        renderer.dispose();
+        try {
+            renderer.render(node);
+            renderer.flush(htmlOptions.maxTrailingBlankLines);
+        } finally {
+            // releases the document's heading index shared by the render
+            renderer.dispose();
+        }
     }
 
     /**
@@ -209,9 +227,56 @@ public class HtmlRenderer implements IRender {
      */
     public void render(Node node, Appendable output, int maxTrailingBlankLines) {
         MainNodeRenderer renderer = new MainNodeRenderer(options, new HtmlWriter(output, htmlOptions.indentSize, htmlOptions.formatFlags, !htmlOptions.htmlBlockOpenTagEol, !htmlOptions.htmlBlockCloseTagEol), node.getDocument());
-        renderer.render(node);
-        renderer.flush(maxTrailingBlankLines);
-        renderer.dispose();
+        try {
+            renderer.render(node);
+            renderer.flush(maxTrailingBlankLines);
+        } finally {
+            // releases the document's heading index shared by the render
+            renderer.dispose();
+        }
+    }
+
+    /**
+     * Render a node to the writer, streaming the output
+     * <p>
+     * Output goes through a buffer of {@link #STREAM_BUFFER_SIZE} characters instead of being accumulated, and is
+     * flushed to the writer after each top level block so the start of a large document is available while the rest
+     * is rendered. The writer is flushed but not closed.
+     *
+     * @param node   node to render
+     * @param output writer to use for the output
+     * @throws IOException if thrown by the writer
+     */
+    public void renderTo(Node node, Writer output) throws IOException {
+        WriterAppendable appendable = new WriterAppendable(output, STREAM_BUFFER_SIZE.getFrom(options));
+        HtmlWriter htmlWriter = new HtmlWriter(appendable, htmlOptions.indentSize, htmlOptions.formatFlags, !htmlOptions.htmlBlockOpenTagEol, !htmlOptions.htmlBlockCloseTagEol);
+        MainNodeRenderer renderer = new MainNodeRenderer(options, htmlWriter, node.getDocument());
+        renderer.streamOutput = appendable;
+        IOException exception;
+        try {
+            renderer.render(node);
+            renderer.flush(htmlOptions.maxTrailingBlankLines);
+            exception = renderer.streamException != null ? renderer.streamException : htmlWriter.getIOException();
+        } finally {
+            renderer.dispose();
+        }
+
+        if (exception != null) throw exception;
+        appendable.flush();
+    }
+
+    /**
+     * Render a node to the output stream, streaming the output
+     * <p>
+     * see {@link #renderTo(Node, Writer)}, the output stream is flushed but not closed.
+     *
+     * @param node    node to render
+     * @param output  output stream to use for the output
+     * @param charset charset used to encode the output
+     * @throws IOException if thrown by the output stream
+     */
+    public void renderTo(Node node, OutputStream output, Charset charset) throws IOException {
+        renderTo(node, new OutputStreamWriter(output, charset));
     }
 
     /**
@@ -565,18 +630,23 @@ public class HtmlRenderer implements IRender {
 
     private class MainNodeRenderer extends NodeRendererSubContext implements NodeRendererContext, Disposable {
         private Document document;
-        private Map<Class<?>, NodeRenderingHandlerWrapper> renderers;
+        private HeadingIndex headingIndex;
+        private NodeTypeMap<NodeRenderingHandlerWrapper> renderers;
         private List<PhasedNodeRenderer> phasedRenderers;
         private LinkResolver[] myLinkResolvers;
         private Set<RenderingPhase> renderingPhases;
         private DataHolder options;
         private RenderingPhase phase;
         private HtmlIdGenerator htmlIdGenerator;
+        private Flushable streamOutput;
+        private IOException streamException;
         private HashMap<LinkType, HashMap<String, ResolvedLink>> resolvedLinkMap = new HashMap<LinkType, HashMap<String, ResolvedLink>>();
         private AttributeProvider[] attributeProviders;
 
         @Override
         public void dispose() {
+            if (document != null) HeadingIndex.unshare(document, headingIndex);
+            headingIndex = null;
             document = null;
             renderers = null;
             phasedRenderers = null;
@@ -603,7 +673,9 @@ public class HtmlRenderer implements IRender {
             super(htmlWriter);
             this.options = new ScopedDataSet(document, options);
             this.document = document;
-            this.renderers = new HashMap<Class<?>, NodeRenderingHandlerWrapper>(32);
+            // headings are indexed once per render, the document can be changed between renders
+            this.headingIndex = document != null ? HeadingIndex.share(document) : null;
+            this.renderers = new NodeTypeMap<NodeRenderingHandlerWrapper>(32);
             this.renderingPhases = new HashSet<RenderingPhase>(RenderingPhase.values().length);
             this.phasedRenderers = new ArrayList<PhasedNodeRenderer>(nodeRendererFactories.size());
             this.myLinkResolvers = new LinkResolver[linkResolverFactories.size()];
@@ -815,7 +887,7 @@ public class HtmlRenderer implements IRender {
                     }
 
                     if (getRenderingPhase() == RenderingPhase.BODY) {
-                        NodeRenderingHandlerWrapper nodeRenderer = renderers.get(node.getClass());
+                        NodeRenderingHandlerWrapper nodeRenderer = renderers.get(node);
                         if (nodeRenderer != null) {
                             subContext.doNotRenderLinksNesting = documentDoNotRenderLinksNesting;
                             NodeRenderingHandlerWrapper prevWrapper = subContext.renderingHandlerWrapper;
@@ -832,7 +904,7 @@ public class HtmlRenderer implements IRender {
                     }
                 }
             } else {
-                NodeRenderingHandlerWrapper nodeRenderer = renderers.get(node.getClass());
+                NodeRenderingHandlerWrapper nodeRenderer = renderers.get(node);
                 if (nodeRenderer != null) {
                     Node oldNode = this.renderingNode;
                     int oldDoNotRenderLinksNesting = subContext.doNotRenderLinksNesting;
@@ -846,6 +918,16 @@ public class HtmlRenderer implements IRender {
                         subContext.doNotRenderLinksNesting = oldDoNotRenderLinksNesting;
                         subContext.renderingHandlerWrapper = prevWrapper;
                     }
+
+                    if (streamOutput != null && subContext == this && node.getParent() instanceof Document) {
+                        // top level block is complete, only pending EOLs are held back by the html writer
+                        try {
+                            streamOutput.flush();
+                        } catch (IOException e) {
+                            streamException = e;
+                            streamOutput = null;
+                        }
+                    }
                 }
             }
         }
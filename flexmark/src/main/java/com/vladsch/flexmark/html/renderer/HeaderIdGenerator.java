@@ -3,7 +3,7 @@ package com.vladsch.flexmark.html.renderer;
 import com.vladsch.flexmark.ast.AnchorRefTarget;
 import com.vladsch.flexmark.util.ast.Document;
 import com.vladsch.flexmark.util.ast.Node;
-import com.vladsch.flexmark.ast.util.AnchorRefTargetBlockVisitor;
+import com.vladsch.flexmark.ast.util.HeadingIndex;
 import com.vladsch.flexmark.html.Disposable;
 import com.vladsch.flexmark.html.HtmlRenderer;
 
@@ -30,21 +30,19 @@ public class HeaderIdGenerator implements HtmlIdGenerator, Disposable {
         noDupedDashes = HtmlRenderer.HEADER_ID_GENERATOR_NO_DUPED_DASHES.getFrom(document);
         nonAsciiToLowercase = HtmlRenderer.HEADER_ID_GENERATOR_NON_ASCII_TO_LOWERCASE.getFrom(document);
 
-        new AnchorRefTargetBlockVisitor() {
-            @Override
-            protected void visit(AnchorRefTarget node) {
-                if (node.getAnchorRefId().isEmpty()) {
-                    String text = node.getAnchorRefText();
-                    String refId = null;
+        HeadingIndex headingIndex = HeadingIndex.of(document);
+        for (AnchorRefTarget node : headingIndex.getAnchorRefTargets()) {
+            if (node.getAnchorRefId().isEmpty()) {
+                String text = headingIndex.getAnchorRefText(node);
+                String refId = null;
 
-                    refId = generateId(text);
+                refId = generateId(text);
 
-                    if (refId != null) {
-                        node.setAnchorRefId(refId);
-                    }
+                if (refId != null) {
+                    node.setAnchorRefId(refId);
                 }
             }
-        }.visit(document);
+        }
     }
 
     String generateId(final String text) {
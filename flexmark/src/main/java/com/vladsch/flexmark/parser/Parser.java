@@ -1,6 +1,8 @@
 package com.vladsch.flexmark.parser;
 
 import com.vladsch.flexmark.Extension;
+import com.vladsch.flexmark.ast.RefNode;
+import com.vladsch.flexmark.ast.Reference;
 import com.vladsch.flexmark.ast.util.ReferenceRepository;
 import com.vladsch.flexmark.html.HtmlRenderer;
 import com.vladsch.flexmark.parser.block.BlockPreProcessorFactory;
@@ -10,20 +12,29 @@ import com.vladsch.flexmark.parser.delimiter.DelimiterProcessor;
 import com.vladsch.flexmark.parser.internal.DocumentParser;
 import com.vladsch.flexmark.parser.internal.InlineParserImpl;
 import com.vladsch.flexmark.parser.internal.LinkRefProcessorData;
+import com.vladsch.flexmark.parser.internal.NodeOffsetShifter;
 import com.vladsch.flexmark.parser.internal.PostProcessorManager;
+import com.vladsch.flexmark.util.Consumer;
+import com.vladsch.flexmark.util.Factory;
 import com.vladsch.flexmark.util.IParse;
 import com.vladsch.flexmark.util.KeepType;
 import com.vladsch.flexmark.util.ast.Document;
 import com.vladsch.flexmark.util.ast.Node;
 import com.vladsch.flexmark.util.ast.NodeRepository;
+import com.vladsch.flexmark.util.ast.ReferenceNode;
+import com.vladsch.flexmark.util.ast.ReferencingNode;
+import com.vladsch.flexmark.util.ast.RepositoryLibrary;
 import com.vladsch.flexmark.util.collection.DataValueFactory;
 import com.vladsch.flexmark.util.collection.DynamicDefaultKey;
 import com.vladsch.flexmark.util.options.*;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
+import com.vladsch.flexmark.util.sequence.CharBufferSequence;
 import com.vladsch.flexmark.util.sequence.CharSubSequence;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.*;
 
 /**
@@ -49,6 +60,31 @@ public class Parser implements IParse {
 
     public static final DataKey<Boolean> TRACK_DOCUMENT_LINES = new DataKey<>("TRACK_DOCUMENT_LINES", false);
 
+    /**
+     * Minimum number of characters read at a time by {@link #parseReader(Reader, Consumer)}
+     */
+    public static final DataKey<Integer> STREAMING_CHUNK_SIZE = new DataKey<>("STREAMING_CHUNK_SIZE", 65536);
+
+    /**
+     * Parse inlines of leaf blocks in batches on a shared fork-join pool, each running batch using its own inline parser.
+     * <p>
+     * Extensions whose inline parsing has document level side effects defer them to post processing, so the option
+     * has to be set on the options used to build the parser rather than added with {@link #withOptions(DataHolder)}.
+     */
+    public static final DataKey<Boolean> PARALLEL_INLINE_PARSING = new DataKey<>("PARALLEL_INLINE_PARSING", false);
+
+    /**
+     * Number of block parsers whose inlines are parsed in one batch when {@link #PARALLEL_INLINE_PARSING} is set,
+     * documents with fewer blocks are parsed sequentially
+     */
+    public static final DataKey<Integer> PARALLEL_INLINE_PARSING_BATCH_SIZE = new DataKey<>("PARALLEL_INLINE_PARSING_BATCH_SIZE", 64);
+
+    /**
+     * Use character scanners instead of regex patterns for link destinations, link titles, entities, autolinks and inline HTML
+     * in the default inline parser
+     */
+    public static final DataKey<Boolean> INLINE_SCANNERS = new DataKey<>("INLINE_SCANNERS", false);
+
     public static final DataKey<Boolean> BLOCK_QUOTE_PARSER = new DataKey<>("BLOCK_QUOTE_PARSER", true);
     public static final DataKey<Boolean> BLOCK_QUOTE_EXTEND_TO_BLANK_LINE = new DataKey<>("BLOCK_QUOTE_EXTEND_TO_BLANK_LINE", false);
     public static final DataKey<Boolean> BLOCK_QUOTE_IGNORE_BLANK_LINE = new DataKey<>("BLOCK_QUOTE_IGNORE_BLANK_LINE", false);
@@ -320,7 +356,7 @@ public class Parser implements IParse {
 
     private Parser(Builder builder) {
         this.builder = new Builder(builder); // make a copy to avoid after creation side effects
-        this.options = new DataSet(builder);
+        this.options = new FrozenDataSet(builder);
         this.blockParserFactories = DocumentParser.calculateBlockParserFactories(this.options, builder.blockParserFactories);
         this.inlineParserFactory = builder.inlineParserFactory == null ? DocumentParser.INLINE_PARSER_FACTORY : builder.inlineParserFactory;
         this.paragraphPreProcessorFactories = DocumentParser.calculateParagraphPreProcessors(this.options, builder.paragraphPreProcessorFactories, this.inlineParserFactory);
@@ -346,6 +382,13 @@ public class Parser implements IParse {
         return new Builder(options);
     }
 
+    /**
+     * Repositories of a pre-parsed library document whose definitions are visible in every parsed document, see {@link RepositoryLibrary}
+     * <p>
+     * Definitions in a document take precedence over library definitions with the same key.
+     */
+    public static final DataKey<RepositoryLibrary> REPOSITORY_LIBRARY = new DataKey<>("REPOSITORY_LIBRARY", (RepositoryLibrary) null);
+
     /**
      * Parse the specified input text into a tree of nodes.
      * <p>
@@ -355,8 +398,7 @@ public class Parser implements IParse {
      * @return the root node
      */
     public Document parse(BasedSequence input) {
-        DocumentParser documentParser = new DocumentParser(options, blockParserFactories, paragraphPreProcessorFactories,
-                blockPreProcessorDependencies, inlineParserFactory.inlineParser(options, specialCharacters, delimiterCharacters, delimiterProcessors, linkRefProcessors, inlineParserExtensionFactories));
+        DocumentParser documentParser = createDocumentParser();
         Document document = documentParser.parse(input);
         return postProcess(document);
     }
@@ -370,12 +412,28 @@ public class Parser implements IParse {
      * @return the root node
      */
     public Document parse(String input) {
-        DocumentParser documentParser = new DocumentParser(options, blockParserFactories, paragraphPreProcessorFactories,
-                blockPreProcessorDependencies, inlineParserFactory.inlineParser(options, specialCharacters, delimiterCharacters, delimiterProcessors, linkRefProcessors, inlineParserExtensionFactories));
+        DocumentParser documentParser = createDocumentParser();
         Document document = documentParser.parse(CharSubSequence.of(input));
         return postProcess(document);
     }
 
+    /**
+     * Parse the specified file into a tree of nodes.
+     * <p>
+     * The file is memory mapped and decoded into a char buffer which is the base sequence of the document,
+     * its contents are not copied into a string.
+     * <p>
+     * Note that this method is thread-safe (a new parser state is used for each invocation).
+     *
+     * @param path    the file to parse
+     * @param charset charset of the file
+     * @return the root node
+     * @throws IOException when opening, mapping or decoding the file throws an exception
+     */
+    public Document parseFile(Path path, Charset charset) throws IOException {
+        return parse(CharBufferSequence.of(path, charset));
+    }
+
     /**
      * Parse the specified reader into a tree of nodes. The caller is responsible for closing the reader.
      * <p>
@@ -386,12 +444,269 @@ public class Parser implements IParse {
      * @throws IOException when reading throws an exception
      */
     public Document parseReader(Reader input) throws IOException {
-        DocumentParser documentParser = new DocumentParser(options, blockParserFactories, paragraphPreProcessorFactories,
-                blockPreProcessorDependencies, inlineParserFactory.inlineParser(options, specialCharacters, delimiterCharacters, delimiterProcessors, linkRefProcessors, inlineParserExtensionFactories));
+        DocumentParser documentParser = createDocumentParser();
         Document document = documentParser.parse(input);
         return postProcess(document);
     }
 
+    /**
+     * Parse the specified reader passing top level blocks to the consumer as soon as they are parsed.
+     * The caller is responsible for closing the reader.
+     * <p>
+     * Only the text of the currently open top level block is kept in memory, making this suitable for
+     * very large inputs. Each top level block is fully parsed, inline parsed and post processed before
+     * being passed to the consumer. During the call the block is still attached to the document, it is removed
+     * from the document after the consumer returns.
+     * <p>
+     * Since references, abbreviations and other repository entries are collected as the input is read,
+     * only those defined before a block are available when it is parsed. References to definitions which follow
+     * a block are not resolved, they are parsed as they are when the definition does not exist.
+     * <p>
+     * Node post processors are run on the blocks of each part of the input. Global scope document post processors
+     * need the whole document, when any are used the whole input is read and parsed before blocks are passed
+     * to the consumer, as with {@link #parseReader(Reader)}, so the whole input is kept in memory.
+     * <p>
+     * Note that this method is thread-safe (a new parser state is used for each invocation).
+     *
+     * @param input         the reader to parse
+     * @param blockConsumer consumer of top level blocks
+     * @return the document node, without children, holding the document properties
+     * @throws IOException when reading throws an exception
+     */
+    public Document parseReader(Reader input, final Consumer<Node> blockConsumer) throws IOException {
+        if (postProcessorDependencies.isWithGlobalScope()) {
+            // document post processors run once on the whole document
+            Document document = parseReader(input);
+            Node node = document.getFirstChild();
+            while (node != null) {
+                Node next = node.getNext();
+                blockConsumer.accept(node);
+                node.unlink();
+                node = next;
+            }
+            return document;
+        }
+
+        DocumentParser documentParser = createDocumentParser();
+        return documentParser.parse(input, new Consumer<Document>() {
+            @Override
+            public void accept(Document document) {
+                Document processed = postProcess(document);
+                Node node = processed.getFirstChild();
+                while (node != null) {
+                    Node next = node.getNext();
+                    blockConsumer.accept(node);
+                    node = next;
+                }
+            }
+        });
+    }
+
+    /**
+     * Re-parse a document after an edit, reusing the top level blocks preceding and following the edit.
+     * <p>
+     * The top level block affected by the edit and the one preceding it are re-parsed, continuing until the re-parsed
+     * blocks are closed where a following block of the original document starts. The re-parsed blocks replace the original
+     * blocks in the document, whose text is updated to the edited text. Blocks before and after the re-parsed ones keep
+     * their nodes, which are moved to the edited text with {@link Node#moveChars(com.vladsch.flexmark.util.sequence.SequenceMover)},
+     * offsets of following blocks are shifted by the length change of the edit. If following blocks contain nodes which
+     * are not {@link Node#isMovable()} they are re-parsed, if preceding blocks do a full parse is done.
+     * <p>
+     * Only parsing is proportional to the re-parsed blocks. Copying the edited text, copying the document's repositories
+     * and moving the nodes of all other blocks still take time proportional to the size of the document.
+     * <p>
+     * A full parse of the edited text is done when the document has no blocks, when document lines are tracked, when
+     * global scope post processors are used, when the edit changes which link reference definitions exist, or when the
+     * replaced blocks contain extension reference definitions or references since these have document wide state.
+     * The re-parse uses copies of the document's repositories so the document is not modified when a full parse is done.
+     * <p>
+     * Note that this method is thread-safe (a new parser state is used for each invocation) but the given document is modified
+     * and should not be accessed concurrently.
+     *
+     * @param document  document previously parsed by this parser
+     * @param editStart start offset of the edit in the document text
+     * @param editEnd   end offset of the edit in the document text
+     * @param newText   text replacing the document text from editStart to editEnd
+     * @return the updated document, or a new document if a full parse was needed
+     */
+    public Document reparse(Document document, int editStart, int editEnd, CharSequence newText) {
+        BasedSequence oldChars = document.getChars();
+        if (editStart < 0 || editEnd < editStart || editEnd > oldChars.length()) {
+            throw new IllegalArgumentException("edit range [" + editStart + ", " + editEnd + ") is outside document text range [0, " + oldChars.length() + ")");
+        }
+
+        String input = oldChars.subSequence(0, editStart).toString() + newText + oldChars.subSequence(editEnd).toString();
+
+        if (!document.hasChildren() || options.get(TRACK_DOCUMENT_LINES) || postProcessorDependencies.isWithGlobalScope()) {
+            return parse(input);
+        }
+
+        // find the first top level block touched by the edit, include the one before to handle blocks merged by the edit
+        int baseOffset = oldChars.getStartOffset();
+        Node firstAffected = document.getFirstChild();
+        while (firstAffected.getNext() != null && firstAffected.getEndOffset() - baseOffset < editStart) {
+            firstAffected = firstAffected.getNext();
+        }
+
+        if (firstAffected.getPrevious() != null) firstAffected = firstAffected.getPrevious();
+
+        int reparseStart = oldChars.startOfLineAnyEOL(Math.min(firstAffected.getStartOffset() - baseOffset, editStart));
+        while (firstAffected.getPrevious() != null && firstAffected.getPrevious().getEndOffset() - baseOffset > reparseStart) {
+            firstAffected = firstAffected.getPrevious();
+            reparseStart = oldChars.startOfLineAnyEOL(firstAffected.getStartOffset() - baseOffset);
+        }
+
+        // blocks preceding the re-parsed ones are kept at the same offsets
+        BasedSequence chars = CharSubSequence.of(input);
+        NodeOffsetShifter precedingShifter = new NodeOffsetShifter(oldChars, chars);
+        for (Node node = document.getFirstChild(); node != firstAffected; node = node.getNext()) {
+            if (!precedingShifter.add(node, 0)) return parse(input);
+        }
+
+        // lines of top level blocks following the edit, where the re-parse stops if all re-parsed blocks are closed
+        int delta = newText.length() - (editEnd - editStart);
+        BitSet stopOffsets = new BitSet();
+        for (Node node = firstAffected.getNext(); node != null; node = node.getNext()) {
+            int lineStart = oldChars.startOfLineAnyEOL(node.getStartOffset() - baseOffset);
+            if (lineStart >= editEnd && node.getPrevious().getEndOffset() - baseOffset <= lineStart) {
+                stopOffsets.set(lineStart + delta - reparseStart);
+            }
+        }
+
+        DocumentParser documentParser = createDocumentParser();
+        Document reparsed = postProcess(documentParser.parse(chars.subSequence(reparseStart), copyRepositories(document), stopOffsets));
+
+        // blocks following the re-parsed ones are kept and moved to the edited text
+        Node firstKept = null;
+        NodeOffsetShifter shifter = new NodeOffsetShifter(oldChars, chars);
+        if (documentParser.getParsedLength() < chars.length() - reparseStart) {
+            int keptStart = reparseStart + documentParser.getParsedLength() - delta;
+            firstKept = firstAffected.getNext();
+            while (oldChars.startOfLineAnyEOL(firstKept.getStartOffset() - baseOffset) != keptStart) {
+                firstKept = firstKept.getNext();
+            }
+
+            for (Node node = firstKept; node != null; node = node.getNext()) {
+                if (!shifter.add(node, delta)) {
+                    // blocks cannot be moved, re-parse them
+                    documentParser = createDocumentParser();
+                    reparsed = postProcess(documentParser.parse(chars.subSequence(reparseStart), copyRepositories(document)));
+                    shifter = new NodeOffsetShifter(oldChars, chars);
+                    firstKept = null;
+                    break;
+                }
+            }
+        }
+
+        // reference definitions are re-added by the re-parse, other repositories have document wide state
+        ArrayList<Reference> replacedReferences = new ArrayList<Reference>();
+        for (Node node = firstAffected; node != firstKept; node = node.getNext()) {
+            if (hasExtensionRepositoryNodes(node, replacedReferences)) return parse(input);
+        }
+
+        ArrayList<Reference> reparsedReferences = new ArrayList<Reference>();
+        if (hasExtensionRepositoryNodes(reparsed, reparsedReferences)) return parse(input);
+
+        ArrayList<Reference> keptReferences = new ArrayList<Reference>();
+        for (Node node = firstKept; node != null; node = node.getNext()) {
+            hasExtensionRepositoryNodes(node, keptReferences);
+        }
+
+        // references in document order: preceding blocks, re-parsed blocks then kept blocks
+        ReferenceRepository references = REFERENCES.getFrom(document);
+        ReferenceRepository updatedReferences = new ReferenceRepository(document);
+        updatedReferences.setEntriesFrom(references);
+        if (!replacedReferences.isEmpty() || !keptReferences.isEmpty()) {
+            updatedReferences.removeValues(replacedReferences);
+            updatedReferences.removeValues(keptReferences);
+        }
+
+        for (Reference reference : reparsedReferences) {
+            updatedReferences.putRawKey(reference.getReference(), reference);
+        }
+
+        for (Reference reference : keptReferences) {
+            updatedReferences.putRawKey(reference.getReference(), reference);
+        }
+
+        // changed reference definitions can change link references in preceding blocks
+        if (!new HashSet<String>(references.keySet()).equals(updatedReferences.keySet())) {
+            return parse(input);
+        }
+
+        // re-parse is accepted, update the document
+        Node node = firstAffected;
+        while (node != firstKept) {
+            Node next = node.getNext();
+            node.unlink();
+            node = next;
+        }
+
+        node = reparsed.getFirstChild();
+        while (node != null) {
+            Node next = node.getNext();
+            if (firstKept != null) firstKept.insertBefore(node);
+            else document.appendChild(node);
+            node = next;
+        }
+
+        precedingShifter.apply();
+        shifter.apply();
+        references.setEntriesFrom(updatedReferences);
+        document.setChars(chars);
+        return document;
+    }
+
+    /**
+     * Copy the document's properties with copies of its node repositories, for a re-parse which must not modify the document
+     *
+     * @param document document
+     * @return properties for the re-parsed blocks
+     */
+    @SuppressWarnings("unchecked")
+    private static MutableDataSet copyRepositories(Document document) {
+        MutableDataSet properties = new MutableDataSet(document);
+
+        for (Object value : document.getAll().values()) {
+            if (value instanceof NodeRepository) {
+                NodeRepository repository = (NodeRepository) value;
+                DataKey key = repository.getDataKey();
+                NodeRepository copy = (NodeRepository) key.getFactory().create(properties);
+                copy.setEntriesFrom(repository);
+                properties.set(key, copy);
+            }
+        }
+        return properties;
+    }
+
+    private static boolean isExtensionRepositoryNode(Node node) {
+        return node instanceof ReferenceNode && !(node instanceof Reference) || node instanceof ReferencingNode && !(node instanceof RefNode);
+    }
+
+    private static boolean hasExtensionRepositoryNodes(Node node, List<Reference> references) {
+        if (isExtensionRepositoryNode(node)) return true;
+        if (node instanceof Reference) references.add((Reference) node);
+
+        for (Node child : node.getDescendants()) {
+            if (isExtensionRepositoryNode(child)) return true;
+            if (child instanceof Reference) references.add((Reference) child);
+        }
+        return false;
+    }
+
+    private InlineParser createInlineParser() {
+        return inlineParserFactory.inlineParser(options, specialCharacters, delimiterCharacters, delimiterProcessors, linkRefProcessors, inlineParserExtensionFactories);
+    }
+
+    private DocumentParser createDocumentParser() {
+        return new DocumentParser(options, blockParserFactories, paragraphPreProcessorFactories, blockPreProcessorDependencies, createInlineParser(), new Factory<InlineParser>() {
+            @Override
+            public InlineParser create() {
+                return createInlineParser();
+            }
+        });
+    }
+
     private Document postProcess(Document document) {
         document = PostProcessorManager.processDocument(document, postProcessorDependencies);
         return document;
@@ -3,6 +3,7 @@ package com.vladsch.flexmark.parser.core;
 import com.vladsch.flexmark.util.ast.BlankLineContainer;
 import com.vladsch.flexmark.util.ast.Block;
 import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.ast.RepositoryLibrary;
 import com.vladsch.flexmark.parser.block.AbstractBlockParser;
 import com.vladsch.flexmark.parser.block.BlockContinue;
 import com.vladsch.flexmark.parser.block.BlockParser;
@@ -10,6 +11,7 @@ import com.vladsch.flexmark.parser.block.ParserState;
 import com.vladsch.flexmark.util.options.DataHolder;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
 
+import static com.vladsch.flexmark.parser.Parser.REPOSITORY_LIBRARY;
 import static com.vladsch.flexmark.parser.Parser.TRACK_DOCUMENT_LINES;
 
 public class DocumentBlockParser extends AbstractBlockParser implements BlankLineContainer {
@@ -20,6 +22,9 @@ public class DocumentBlockParser extends AbstractBlockParser implements BlankLin
 
     public void initializeDocument(DataHolder options, BasedSequence charSequence) {
         document = new Document(options, charSequence);
+
+        RepositoryLibrary library = REPOSITORY_LIBRARY.getFrom(options);
+        if (library != null) library.attachTo(document);
     }
 
     @Override
@@ -7,6 +7,7 @@ import com.vladsch.flexmark.util.ast.Block;
 import com.vladsch.flexmark.util.ast.Document;
 import com.vladsch.flexmark.util.ast.KeepTrailingBlankLineContainer;
 import com.vladsch.flexmark.util.ast.Node;
+import com.vladsch.flexmark.util.ast.NodeRepository;
 import com.vladsch.flexmark.ast.Paragraph;
 import com.vladsch.flexmark.ast.util.ClassifyingBlockTracker;
 import com.vladsch.flexmark.ast.util.Parsing;
@@ -17,6 +18,8 @@ import com.vladsch.flexmark.parser.Parser;
 import com.vladsch.flexmark.parser.block.*;
 import com.vladsch.flexmark.parser.delimiter.DelimiterProcessor;
 import com.vladsch.flexmark.util.Computable;
+import com.vladsch.flexmark.util.Consumer;
+import com.vladsch.flexmark.util.Factory;
 import com.vladsch.flexmark.util.collection.ItemFactoryMap;
 import com.vladsch.flexmark.util.collection.iteration.ReversibleIterable;
 import com.vladsch.flexmark.util.dependency.DependencyHandler;
@@ -39,8 +42,13 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import static com.vladsch.flexmark.parser.Parser.BLANK_LINES_IN_AST;
+import static com.vladsch.flexmark.parser.Parser.PARALLEL_INLINE_PARSING;
+import static com.vladsch.flexmark.parser.Parser.PARALLEL_INLINE_PARSING_BATCH_SIZE;
 import static com.vladsch.flexmark.parser.Parser.TRACK_DOCUMENT_LINES;
 
 public class DocumentParser implements ParserState {
@@ -55,6 +63,9 @@ public class DocumentParser implements ParserState {
                 LinkRefProcessorData linkRefProcessors,
                 List<InlineParserExtensionFactory> inlineParserExtensions
         ) {
+            if (Parser.INLINE_SCANNERS.getFrom(options)) {
+                return new ScanningInlineParser(options, specialCharacters, delimiterCharacters, delimiterProcessors, linkRefProcessors, inlineParserExtensions);
+            }
             return new CommonmarkInlineParser(options, specialCharacters, delimiterCharacters, delimiterProcessors, linkRefProcessors, inlineParserExtensions);
         }
     };
@@ -99,6 +110,11 @@ public class DocumentParser implements ParserState {
      */
     private int lineNumber = 0;
 
+    /**
+     * length of source parsed by the last parse
+     */
+    private int parsedLength = 0;
+
     /**
      * current start of line offset in the input
      */
@@ -139,14 +155,17 @@ public class DocumentParser implements ParserState {
     private final ParagraphPreProcessorDependencies paragraphPreProcessorDependencies;
     private final BlockPreProcessorDependencies blockPreProcessorDependencies;
     private final InlineParser inlineParser;
+    private final Factory<InlineParser> inlineParserFactory;
     private final DocumentBlockParser documentBlockParser;
     private final boolean blankLinesInAst;
-    private final boolean trackDocumentLines;
+    private final boolean parallelInlineParsing;
+    private final int parallelInlineParsingBatchSize;
+    private boolean trackDocumentLines;
     private final List<BasedSequence> lineSegments = new ArrayList<BasedSequence>();
 
     private List<BlockParser> activeBlockParsers = new ArrayList<BlockParser>();
 
-    private final ClassifyingBlockTracker blockTracker = new ClassifyingBlockTracker();
+    private ClassifyingBlockTracker blockTracker = new ClassifyingBlockTracker();
 
     @Override
     public List<BasedSequence> getLineSegments() {
@@ -337,6 +356,27 @@ public class DocumentParser implements ParserState {
             ParagraphPreProcessorDependencies paragraphPreProcessorDependencies,
             BlockPreProcessorDependencies blockPreProcessorDependencies,
             InlineParser inlineParser
+    ) {
+        this(options, customBlockParserFactories, paragraphPreProcessorDependencies, blockPreProcessorDependencies, inlineParser, null);
+    }
+
+    /**
+     * Create a document parser
+     *
+     * @param options                           parser options
+     * @param customBlockParserFactories        block parser factories
+     * @param paragraphPreProcessorDependencies paragraph pre-processors
+     * @param blockPreProcessorDependencies     block pre-processors
+     * @param inlineParser                      inline parser
+     * @param inlineParserFactory               factory for additional inline parsers used by {@link Parser#PARALLEL_INLINE_PARSING}, null to parse inlines sequentially
+     */
+    public DocumentParser(
+            DataHolder options,
+            List<CustomBlockParserFactory> customBlockParserFactories,
+            ParagraphPreProcessorDependencies paragraphPreProcessorDependencies,
+            BlockPreProcessorDependencies blockPreProcessorDependencies,
+            InlineParser inlineParser,
+            Factory<InlineParser> inlineParserFactory
     ) {
         this.options = options;
         this.myParsing = new Parsing(options);
@@ -350,12 +390,15 @@ public class DocumentParser implements ParserState {
         this.paragraphPreProcessorDependencies = paragraphPreProcessorDependencies;
         this.blockPreProcessorDependencies = blockPreProcessorDependencies;
         this.inlineParser = inlineParser;
+        this.inlineParserFactory = inlineParserFactory;
 
         this.documentBlockParser = new DocumentBlockParser();
         activateBlockParser(this.documentBlockParser);
         this.currentPhase = ParserPhase.STARTING;
         this.blankLinesInAst = options.get(BLANK_LINES_IN_AST);
         this.trackDocumentLines = options.get(TRACK_DOCUMENT_LINES);
+        this.parallelInlineParsing = inlineParserFactory != null && options.get(PARALLEL_INLINE_PARSING);
+        this.parallelInlineParsingBatchSize = Math.max(1, options.get(PARALLEL_INLINE_PARSING_BATCH_SIZE));
     }
 
     @Override
@@ -447,19 +490,55 @@ public class DocumentParser implements ParserState {
      * @return Document node of the resulting AST
      */
     public Document parse(CharSequence source) {
+        return parse(source, options);
+    }
+
+    /**
+     * Parse source with document properties initialized from the given data holder.
+     * <p>
+     * Used when re-parsing part of an existing document so that the re-parsed blocks
+     * share the node repositories of the original document.
+     *
+     * @param source             source sequence to parse
+     * @param documentProperties data holder used to initialize the document properties
+     * @return Document node of the resulting AST
+     */
+    public Document parse(CharSequence source, DataHolder documentProperties) {
+        return parse(source, documentProperties, null);
+    }
+
+    /**
+     * Parse source with document properties initialized from the given data holder, stopping before the first line
+     * starting at one of the given offsets when all blocks of preceding lines are closed.
+     * <p>
+     * Used when re-parsing part of an existing document to stop once the re-parsed blocks end where blocks of the
+     * original document start. {@link #getParsedLength()} gives the length of source parsed.
+     *
+     * @param source             source sequence to parse
+     * @param documentProperties data holder used to initialize the document properties
+     * @param stopOffsets        offsets into source of lines where parsing can stop, null to parse all lines
+     * @return Document node of the resulting AST
+     */
+    public Document parse(CharSequence source, DataHolder documentProperties, BitSet stopOffsets) {
         BasedSequence input = SubSequence.of(source);
         int lineStart = 0;
         int lineBreak;
         int lineEOL;
         int lineEnd;
         lineNumber = 0;
+        parsedLength = input.length();
 
-        documentBlockParser.initializeDocument(options, input);
+        documentBlockParser.initializeDocument(documentProperties, input);
         inlineParser.initializeDocument(myParsing, documentBlockParser.getBlock());
 
         currentPhase = ParserPhase.PARSE_BLOCKS;
 
         while ((lineBreak = Parsing.findLineBreak(input, lineStart)) != -1) {
+            if (isStopLine(stopOffsets, lineStart)) {
+                parsedLength = lineStart;
+                return finalizeAndProcess();
+            }
+
             BasedSequence line = input.subSequence(lineStart, lineBreak);
             lineEOL = lineBreak;
             if (lineBreak + 1 < input.length() && input.charAt(lineBreak) == '\r' && input.charAt(lineBreak + 1) == '\n') {
@@ -478,6 +557,11 @@ public class DocumentParser implements ParserState {
         }
 
         if (input.length() > 0 && (lineStart == 0 || lineStart < input.length())) {
+            if (isStopLine(stopOffsets, lineStart)) {
+                parsedLength = lineStart;
+                return finalizeAndProcess();
+            }
+
             this.lineWithEOL = input.subSequence(lineStart, input.length());
             this.lineStart = lineStart;
             this.lineEOLIndex = input.length();
@@ -512,6 +596,208 @@ public class DocumentParser implements ParserState {
         return parse(source);
     }
 
+    /**
+     * Streaming parse of the reader. Lines are fed to the block parsers as they are read and
+     * every time all top level blocks are closed, the closed blocks are pre-processed, inline parsed
+     * and passed to the window processor in the document.
+     * <p>
+     * Once the window processor returns, the blocks are removed from the document so
+     * that only the text of the currently open top level block is retained.
+     * <p>
+     * Text is read in chunks of {@link Parser#STREAMING_CHUNK_SIZE} characters ending on a line
+     * boundary. If a top level block is still open at the end of the chunk then the lines
+     * from the last point where all top level blocks were closed are re-parsed together with the next chunk,
+     * so node offsets are offsets into the whole input even though only the window text is kept in memory.
+     * <p>
+     * NOTE: reference definitions and other repository entries are only visible to blocks which follow
+     * them in the input since each window is inline parsed before the rest of the input is read.
+     * {@link Parser#TRACK_DOCUMENT_LINES} is ignored, line numbers of the window's nodes are counted from the
+     * line number of the window start, see {@link Document#setFirstLine(int, int)}.
+     *
+     * @param reader          reader to parse
+     * @param windowProcessor processor for the document each time it contains only closed top level blocks
+     * @return document without any children, holding the document properties
+     * @throws IOException when reading throws an exception
+     */
+    public Document parse(Reader reader, Consumer<Document> windowProcessor) throws IOException {
+        LineChunkReader chunkReader = new LineChunkReader(reader);
+        int chunkSize = Math.max(1, options.get(Parser.STREAMING_CHUNK_SIZE));
+        int readSize = chunkSize;
+        int windowStart = 0;
+        String pending = "";
+        lineNumber = 0;
+        trackDocumentLines = false;
+
+        String text = chunkReader.readLines(readSize);
+        BasedSequence input = SubSequence.of(new WindowCharSequence(windowStart, text));
+        documentBlockParser.initializeDocument(options, input);
+        Document document = documentBlockParser.getBlock();
+        inlineParser.initializeDocument(myParsing, document);
+
+        currentPhase = ParserPhase.PARSE_BLOCKS;
+
+        while (!text.isEmpty()) {
+            int lineStart = windowStart;
+            int cleanStart = windowStart;
+            int cleanLineNumber = lineNumber;
+            int lineBreak;
+            int lineEnd;
+
+            while ((lineBreak = Parsing.findLineBreak(input, lineStart)) != -1) {
+                BasedSequence line = input.subSequence(lineStart, lineBreak);
+                if (lineBreak + 1 < input.length() && input.charAt(lineBreak) == '\r' && input.charAt(lineBreak + 1) == '\n') {
+                    lineEnd = lineBreak + 2;
+                } else {
+                    lineEnd = lineBreak + 1;
+                }
+
+                this.lineWithEOL = input.subSequence(lineStart, lineEnd);
+                this.lineStart = lineStart;
+                this.lineEOLIndex = lineBreak;
+                this.lineEndIndex = lineEnd;
+                incorporateLine(line);
+                lineNumber++;
+                lineStart = lineEnd;
+
+                if (activeBlockParsers.size() == 1) {
+                    processWindow(windowProcessor);
+                    cleanStart = lineStart;
+                    cleanLineNumber = lineNumber;
+                }
+            }
+
+            if (chunkReader.isEof()) {
+                if (lineStart < input.length()) {
+                    this.lineWithEOL = input.subSequence(lineStart, input.length());
+                    this.lineStart = lineStart;
+                    this.lineEOLIndex = input.length();
+                    this.lineEndIndex = this.lineEOLIndex;
+                    incorporateLine(lineWithEOL);
+                    lineNumber++;
+                }
+                break;
+            }
+
+            if (activeBlockParsers.size() == 1) {
+                pending = "";
+                readSize = chunkSize;
+            } else {
+                // open block spans the end of the chunk, re-parse it from the last clean point with a larger window
+                pending = text.substring(cleanStart - windowStart);
+                readSize = Math.max(readSize, pending.length()) * 2;
+                lineNumber = cleanLineNumber;
+                rollbackWindow();
+            }
+
+            windowStart = cleanStart;
+            text = pending + chunkReader.readLines(readSize - pending.length());
+            input = SubSequence.of(new WindowCharSequence(windowStart, text));
+            document.setChars(input);
+            document.setFirstLine(windowStart, lineNumber);
+        }
+
+        finalizeBlocks(this.activeBlockParsers);
+        processWindow(windowProcessor);
+
+        currentPhase = ParserPhase.DONE;
+        inlineParser.finalizeDocument(document);
+        return document;
+    }
+
+    // line where a parse can stop, all blocks of preceding lines are closed
+    private boolean isStopLine(BitSet stopOffsets, int lineStart) {
+        return stopOffsets != null && lineStart > 0 && stopOffsets.get(lineStart) && activeBlockParsers.size() == 1;
+    }
+
+    /**
+     * Process closed top level blocks of the document and pass them to the window processor,
+     * then remove them from the document and reset tracked block state.
+     *
+     * @param windowProcessor window processor
+     */
+    private void processWindow(Consumer<Document> windowProcessor) {
+        Document document = documentBlockParser.getBlock();
+
+        if (document.hasChildren()) {
+            currentPhase = ParserPhase.PRE_PROCESS_PARAGRAPHS;
+            this.preProcessParagraphs();
+
+            currentPhase = ParserPhase.PRE_PROCESS_BLOCKS;
+            this.preProcessBlocks();
+
+            currentPhase = ParserPhase.PARSE_INLINES;
+            this.processInlines();
+
+            windowProcessor.accept(document);
+            currentPhase = ParserPhase.PARSE_BLOCKS;
+        }
+
+        removeWindowBlocks();
+    }
+
+    /**
+     * Discard all blocks added since the last processed window, the caller will re-parse their lines.
+     */
+    private void rollbackWindow() {
+        activeBlockParsers.subList(1, activeBlockParsers.size()).clear();
+        removeWindowRepositoryEntries();
+        removeWindowBlocks();
+    }
+
+    /**
+     * Restore node repositories to their state at the last processed window by removing entries of blocks
+     * discarded by a rollback. Nested blocks closed inside a still open top level block add their entries
+     * when closed, these are added again when the lines are re-parsed.
+     */
+    private void removeWindowRepositoryEntries() {
+        Document document = documentBlockParser.getBlock();
+        HashSet<Node> windowNodes = new HashSet<Node>();
+        for (Node node = document.getFirstChild(); node != null; node = node.getNext()) {
+            windowNodes.add(node);
+            for (Node child : node.getDescendants()) {
+                windowNodes.add(child);
+            }
+        }
+
+        if (windowNodes.isEmpty()) return;
+
+        for (Object value : document.getAll().values()) {
+            if (value instanceof NodeRepository) {
+                NodeRepository<?> repository = (NodeRepository<?>) value;
+                for (Object entry : repository.values()) {
+                    if (windowNodes.contains(entry)) {
+                        repository.removeValues(windowNodes);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private void removeWindowBlocks() {
+        Document document = documentBlockParser.getBlock();
+        Node node = document.getFirstChild();
+        while (node != null) {
+            Node next = node.getNext();
+            node.unlink();
+            node = next;
+        }
+
+        Boolean documentLastLineBlank = lastLineBlank.get(document);
+        lastLineBlank.clear();
+        if (documentLastLineBlank != null) setLastLineBlank(document, documentLastLineBlank);
+
+        blockTracker = new ClassifyingBlockTracker();
+        if (!activeBlockParsers.isEmpty()) blockParserAdded(documentBlockParser);
+    }
+
+    /**
+     * @return length of the source parsed by the last parse, less than the source length if the parse stopped
+     */
+    public int getParsedLength() {
+        return parsedLength;
+    }
+
     @Override
     public int getLineNumber() {
         return lineNumber;
@@ -918,11 +1204,75 @@ public class DocumentParser implements ParserState {
      * Walk through a block & children recursively, parsing string content into inline content where appropriate.
      */
     private void processInlines() {
+        if (parallelInlineParsing && blockTracker.allBlockParsers().size() > parallelInlineParsingBatchSize) {
+            processInlinesParallel(new ArrayList<BlockParser>(blockTracker.allBlockParsers()));
+            return;
+        }
+
         for (BlockParser blockParser : blockTracker.allBlockParsers()) {
             blockParser.parseInlines(inlineParser);
         }
     }
 
+    private static ForkJoinPool inlineParsingPool;
+
+    private static synchronized ForkJoinPool getInlineParsingPool() {
+        if (inlineParsingPool == null) {
+            inlineParsingPool = new ForkJoinPool();
+        }
+        return inlineParsingPool;
+    }
+
+    /**
+     * Parse inlines of consecutive batches of block parsers on the fork-join pool.
+     * <p>
+     * Each running batch uses its own inline parser instance, additional inline parsers are initialized
+     * on this thread before any batch is started and finalized in creation order after all batches complete.
+     *
+     * @param blockParsers block parsers whose inlines are to be parsed
+     */
+    private void processInlinesParallel(List<BlockParser> blockParsers) {
+        ForkJoinPool pool = getInlineParsingPool();
+        Document document = documentBlockParser.getBlock();
+        int batchCount = (blockParsers.size() + parallelInlineParsingBatchSize - 1) / parallelInlineParsingBatchSize;
+
+        // a thread waiting for the batches can also run one, so up to parallelism + 1 batches run at the same time
+        ArrayList<InlineParser> inlineParsers = new ArrayList<InlineParser>();
+        inlineParsers.add(inlineParser);
+        for (int i = Math.min(batchCount, pool.getParallelism() + 1); i > 1; i--) {
+            InlineParser parser = inlineParserFactory.create();
+            parser.initializeDocument(myParsing, document);
+            inlineParsers.add(parser);
+        }
+
+        final ConcurrentLinkedQueue<InlineParser> availableParsers = new ConcurrentLinkedQueue<InlineParser>(inlineParsers);
+        ArrayList<ForkJoinTask<?>> batches = new ArrayList<ForkJoinTask<?>>(batchCount);
+        for (int start = 0; start < blockParsers.size(); start += parallelInlineParsingBatchSize) {
+            final List<BlockParser> batch = blockParsers.subList(start, Math.min(blockParsers.size(), start + parallelInlineParsingBatchSize));
+            batches.add(pool.submit(new Runnable() {
+                @Override
+                public void run() {
+                    InlineParser parser = availableParsers.poll();
+                    try {
+                        for (BlockParser blockParser : batch) {
+                            blockParser.parseInlines(parser);
+                        }
+                    } finally {
+                        availableParsers.add(parser);
+                    }
+                }
+            }));
+        }
+
+        for (ForkJoinTask<?> batch : batches) {
+            batch.join();
+        }
+
+        for (int i = 1; i < inlineParsers.size(); i++) {
+            inlineParsers.get(i).finalizeDocument(document);
+        }
+    }
+
     @Override
     public boolean endsWithBlankLine(Node block) {
         while (block != null) {
@@ -1144,6 +1494,118 @@ public class DocumentParser implements ParserState {
         }
     }
 
+    /**
+     * Reads text from a reader in chunks ending on a line boundary
+     */
+    private static class LineChunkReader {
+        private final Reader reader;
+        private final char[] buffer = new char[16384];
+        private int bufferStart = 0;
+        private int bufferEnd = 0;
+        private boolean eof = false;
+
+        LineChunkReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        boolean isEof() {
+            return eof && bufferStart == bufferEnd;
+        }
+
+        private boolean fill() throws IOException {
+            if (bufferStart == bufferEnd && !eof) {
+                int charsRead;
+                do {
+                    charsRead = reader.read(buffer);
+                } while (charsRead == 0);
+
+                bufferStart = 0;
+                bufferEnd = Math.max(charsRead, 0);
+                if (charsRead < 0) eof = true;
+            }
+            return bufferStart < bufferEnd;
+        }
+
+        /**
+         * Read at least minLength characters, or to end of input, extended to the end of the last line
+         *
+         * @param minLength minimum number of characters to read
+         * @return text of complete lines, last line can be without EOL only at end of input
+         * @throws IOException when reading throws an exception
+         */
+        String readLines(int minLength) throws IOException {
+            StringBuilder sb = new StringBuilder(Math.max(minLength, 0) + 256);
+
+            while (sb.length() < minLength && fill()) {
+                int count = Math.min(bufferEnd - bufferStart, minLength - sb.length());
+                sb.append(buffer, bufferStart, count);
+                bufferStart += count;
+            }
+
+            while (fill()) {
+                char c = buffer[bufferStart++];
+                sb.append(c);
+                if (c == '\n') break;
+                if (c == '\r') {
+                    if (fill() && buffer[bufferStart] == '\n') {
+                        sb.append(buffer[bufferStart++]);
+                    }
+                    break;
+                }
+            }
+
+            // detect end of input so the last chunk does not need to be re-parsed
+            fill();
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Window of input text at a given offset, so offsets are the same as in the whole input.
+     * Characters before the window are no longer available and read as {@link #NOT_AVAILABLE}.
+     */
+    private static class WindowCharSequence implements CharSequence {
+        static final char NOT_AVAILABLE = '\0';
+
+        private final int offset;
+        private final String text;
+
+        WindowCharSequence(int offset, String text) {
+            this.offset = offset;
+            this.text = text;
+        }
+
+        @Override
+        public int length() {
+            return offset + text.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index >= 0 && index < offset) return NOT_AVAILABLE;
+            return text.charAt(index - offset);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length() || start > end) {
+                throw new StringIndexOutOfBoundsException("subSequence(" + start + ", " + end + ") is out of range: 0, " + length());
+            }
+
+            if (start >= offset) return text.subSequence(start - offset, end - offset);
+
+            StringBuilder sb = new StringBuilder(end - start);
+            for (int i = start; i < end && i < offset; i++) sb.append(NOT_AVAILABLE);
+            if (end > offset) sb.append(text, 0, end - offset);
+            return sb.toString();
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, length()).toString();
+        }
+    }
+
     //private static Logger LOG = Logger.getLogger(DocumentParser.class);
 
     private Document finalizeAndProcess() {
@@ -0,0 +1,135 @@
+package com.vladsch.flexmark.parser.internal;
+
+import com.vladsch.flexmark.util.ast.Node;
+import com.vladsch.flexmark.util.sequence.BasedSequence;
+import com.vladsch.flexmark.util.sequence.CharSubSequence;
+import com.vladsch.flexmark.util.sequence.PrefixedSubSequence;
+import com.vladsch.flexmark.util.sequence.SegmentedSequence;
+import com.vladsch.flexmark.util.sequence.SequenceMover;
+import com.vladsch.flexmark.util.sequence.SubSequence;
+
+import java.util.ArrayList;
+
+/**
+ * Moves nodes parsed from one text to the same characters at shifted offsets of another text
+ * <p>
+ * Used when re-parsing a document after an edit, the nodes of blocks preceding and following the edit are moved to the
+ * edited text instead of being parsed again. Nodes are moved with {@link Node#moveChars(SequenceMover)}, sequences of the
+ * old text are replaced with sequences of the new text shifted by the given offset change.
+ * <p>
+ * Nodes are added first and changed only by {@link #apply()}. A node which is not {@link Node#isMovable()} or holds a
+ * sequence of the old text which is not a sub-sequence, prefixed or segmented sequence cannot be moved and is not added.
+ */
+public class NodeOffsetShifter {
+    private final Object oldBase;
+    private final BasedSequence newChars;
+    private final ArrayList<Node> nodes;
+    private final ArrayList<Integer> deltas;
+
+    /**
+     * @param oldChars text of the nodes
+     * @param newChars text to which nodes are moved
+     */
+    public NodeOffsetShifter(BasedSequence oldChars, BasedSequence newChars) {
+        this.oldBase = oldChars.getBase();
+        this.newChars = newChars;
+        this.nodes = new ArrayList<Node>();
+        this.deltas = new ArrayList<Integer>();
+    }
+
+    /**
+     * Add a node and its descendants to the nodes to move
+     *
+     * @param node  node to add
+     * @param delta offset of the node's characters in the new text relative to the old one
+     * @return false if the node or one of its descendants cannot be moved, nothing is added
+     */
+    public boolean add(Node node, int delta) {
+        Mover checker = new Mover(delta, true);
+        if (!canMove(node, checker)) return false;
+
+        for (Node child : node.getDescendants()) {
+            if (!canMove(child, checker)) return false;
+        }
+
+        nodes.add(node);
+        deltas.add(delta);
+        return true;
+    }
+
+    /**
+     * Move all added nodes to the new text
+     */
+    public void apply() {
+        int iMax = nodes.size();
+        for (int i = 0; i < iMax; i++) {
+            Node node = nodes.get(i);
+            Mover mover = new Mover(deltas.get(i), false);
+
+            node.moveChars(mover);
+            for (Node child : node.getDescendants()) {
+                child.moveChars(mover);
+            }
+        }
+        nodes.clear();
+        deltas.clear();
+    }
+
+    private static boolean canMove(Node node, Mover checker) {
+        if (!node.isMovable()) return false;
+        node.moveChars(checker);
+        return !checker.failed;
+    }
+
+    private class Mover implements SequenceMover {
+        final int delta;
+        final boolean check;
+        boolean failed;
+
+        Mover(int delta, boolean check) {
+            this.delta = delta;
+            this.check = check;
+        }
+
+        @Override
+        public BasedSequence move(BasedSequence sequence) {
+            if (sequence.getBase() != oldBase) return sequence;
+
+            boolean segmented = sequence instanceof SegmentedSequence || sequence instanceof PrefixedSubSequence;
+            if (!(segmented || sequence instanceof SubSequence || sequence instanceof CharSubSequence)) {
+                failed = true;
+                return sequence;
+            }
+
+            // checking leaves the node unchanged
+            if (check) return sequence;
+            if (!segmented || sequence.isEmpty()) {
+                return newChars.baseSubSequence(sequence.getStartOffset() + delta, sequence.getEndOffset() + delta);
+            }
+            return moveSegments(sequence);
+        }
+
+        // segments of runs of base characters and of non-base characters, these are prefixed to an empty sequence
+        private BasedSequence moveSegments(BasedSequence sequence) {
+            ArrayList<BasedSequence> segments = new ArrayList<BasedSequence>();
+            int lastEnd = sequence.getStartOffset() + delta;
+            int iMax = sequence.length();
+            int i = 0;
+
+            while (i < iMax) {
+                int offset = sequence.getIndexOffset(i);
+                int j = i + 1;
+                if (offset < 0) {
+                    while (j < iMax && sequence.getIndexOffset(j) < 0) j++;
+                    segments.add(PrefixedSubSequence.of(sequence.subSequence(i, j).toString(), newChars.baseSubSequence(lastEnd, lastEnd)));
+                } else {
+                    while (j < iMax && sequence.getIndexOffset(j) == offset + j - i) j++;
+                    lastEnd = offset + j - i + delta;
+                    segments.add(newChars.baseSubSequence(offset + delta, lastEnd));
+                }
+                i = j;
+            }
+            return SegmentedSequence.of(segments);
+        }
+    }
+}
@@ -171,22 +171,35 @@ public class PostProcessorManager {
 
     public static class PostProcessorDependencies extends ResolvedDependencies<PostProcessorDependencyStage> {
         private final boolean myWithExclusions;
+        private final boolean myWithGlobalScope;
 
         public PostProcessorDependencies(List<PostProcessorDependencyStage> dependentStages) {
             super(dependentStages);
             boolean haveExclusions = false;
+            boolean haveGlobalScope = false;
             for (PostProcessorDependencyStage stage : dependentStages) {
                 if (stage.myWithExclusions) {
                     haveExclusions = true;
-                    break;
+                }
+
+                for (PostProcessorFactory dependent : stage.dependents) {
+                    if (dependent.affectsGlobalScope()) {
+                        haveGlobalScope = true;
+                        break;
+                    }
                 }
             }
             myWithExclusions = haveExclusions;
+            myWithGlobalScope = haveGlobalScope;
         }
 
         public boolean isWithExclusions() {
             return myWithExclusions;
         }
+
+        public boolean isWithGlobalScope() {
+            return myWithGlobalScope;
+        }
     }
 
     private static class PostProcessDependencyHandler extends DependencyHandler<PostProcessorFactory, PostProcessorDependencyStage, PostProcessorDependencies> {
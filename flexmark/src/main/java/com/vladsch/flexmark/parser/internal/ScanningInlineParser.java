@@ -0,0 +1,430 @@
+package com.vladsch.flexmark.parser.internal;
+
+import com.vladsch.flexmark.ast.*;
+import com.vladsch.flexmark.parser.InlineParserExtensionFactory;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.parser.delimiter.DelimiterProcessor;
+import com.vladsch.flexmark.util.options.DataHolder;
+import com.vladsch.flexmark.util.sequence.BasedSequence;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inline parser which scans link destinations, link titles, entities, autolinks and inline HTML
+ * directly over the input instead of matching {@link com.vladsch.flexmark.ast.util.Parsing} patterns.
+ * <p>
+ * Results are identical to the pattern based {@link InlineParserImpl}. Inputs the scanners do not handle,
+ * such as backslash escapes in link destinations and titles, and options which change the patterns
+ * (IntelliJ dummy identifier, HTML for translator, Jekyll macros in URLs, spec 0.27 link destinations)
+ * are passed on to the pattern based implementation.
+ * <p>
+ * Selected with {@link Parser#INLINE_SCANNERS}
+ */
+public class ScanningInlineParser extends CommonmarkInlineParser {
+    private static final String ESCAPABLE_CHARS = "!\"#$%&'()*+,./:;<=>?@[\\]^_`{|}~-";
+    private static final String EMAIL_LOCAL_CHARS = ".!#$%&'*+/=?^_`{|}~-";
+    private static final int MAX_SCHEME_LENGTH = 32;
+    private static final int MAX_DOMAIN_LABEL_LENGTH = 63;
+
+    private final boolean usePatterns;
+    private final boolean usePatternsForUrls;
+    private final boolean usePatternsForHtml;
+
+    public ScanningInlineParser(DataHolder options, BitSet specialCharacters, BitSet delimiterCharacters,
+            Map<Character, DelimiterProcessor> delimiterProcessors, LinkRefProcessorData referenceLinkProcessors, List<InlineParserExtensionFactory> inlineParserExtensions) {
+        super(options, specialCharacters, delimiterCharacters, delimiterProcessors, referenceLinkProcessors, inlineParserExtensions);
+        this.usePatterns = Parser.INTELLIJ_DUMMY_IDENTIFIER.getFrom(options);
+        this.usePatternsForUrls = Parser.PARSE_JEKYLL_MACROS_IN_URLS.getFrom(options) || !this.options.linksAllowMatchedParentheses;
+        this.usePatternsForHtml = Parser.HTML_FOR_TRANSLATOR.getFrom(options);
+    }
+
+    static boolean isEscapable(char c) {
+        return ESCAPABLE_CHARS.indexOf(c) != -1;
+    }
+
+    static boolean isAsciiLetter(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+
+    static boolean isAsciiLetterOrDigit(char c) {
+        return isAsciiLetter(c) || c >= '0' && c <= '9';
+    }
+
+    static boolean isHexDigit(char c) {
+        return c >= '0' && c <= '9' || c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F';
+    }
+
+    /**
+     * @param c character
+     * @return true if character is matched by {@code \s} pattern
+     */
+    static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * @param c character
+     * @return true if character is a line terminator, not matched by {@code .} pattern
+     */
+    static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private char charAt(int i) {
+        return i < input.length() ? input.charAt(i) : '\0';
+    }
+
+    private BasedSequence matched(int endIndex) {
+        BasedSequence match = input.subSequence(index, endIndex);
+        index = endIndex;
+        return match;
+    }
+
+    @Override
+    public BasedSequence parseLinkDestination() {
+        if (usePatterns || usePatternsForUrls || index >= input.length()) {
+            return super.parseLinkDestination();
+        }
+
+        int iMax = input.length();
+        if (input.charAt(index) == '<') {
+            for (int i = index + 1; i < iMax; i++) {
+                char c = input.charAt(i);
+                if (c == '>') {
+                    return matched(i + 1);
+                } else if (c == '\\') {
+                    return super.parseLinkDestination();
+                } else if (c == ' ' && options.spaceInLinkUrls) {
+                    if (charAt(i + 1) == '"') break;
+                } else if (c == '<' || c == ' ' || c == '\t' || c == '\n' || c == '\0') {
+                    break;
+                }
+            }
+        }
+
+        // characters up to control or space, keeping ')' without a matching '(' for the link
+        int openCount = 0;
+        int i;
+        for (i = index; i < iMax; i++) {
+            char c = input.charAt(i);
+            if (c == '\\') {
+                if (i + 1 < iMax && isEscapable(input.charAt(i + 1))) i++;
+            } else if (c == '(') {
+                openCount++;
+            } else if (c == ')') {
+                if (openCount == 0) break;
+                openCount--;
+            } else if (c <= ' ') {
+                if (c != ' ' || !options.spaceInLinkUrls || charAt(i + 1) == '"') break;
+            }
+        }
+
+        BasedSequence destination = matched(i);
+        return options.spaceInLinkUrls ? destination.trimEnd(BasedSequence.SPACE) : destination;
+    }
+
+    @Override
+    public BasedSequence parseLinkTitle() {
+        if (usePatterns || index >= input.length()) {
+            return super.parseLinkTitle();
+        }
+
+        char open = input.charAt(index);
+        char close = open == '(' ? ')' : open;
+        if (open != '"' && open != '\'' && open != '(') return null;
+
+        int iMax = input.length();
+        for (int i = index + 1; i < iMax; i++) {
+            char c = input.charAt(i);
+            if (c == close) {
+                return matched(i + 1);
+            } else if (c == '\\') {
+                return super.parseLinkTitle();
+            } else if (c == '\0') {
+                break;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean parseEntity() {
+        if (usePatterns || index >= input.length()) {
+            return super.parseEntity();
+        }
+
+        int end = scanEntity(input, index);
+        if (end == -1) return false;
+
+        appendNode(new HtmlEntity(matched(end)));
+        return true;
+    }
+
+    /**
+     * Scan an entity: {@code &#x[hex]{1,8};}, {@code &#[digit]{1,8};} or {@code &[letter][letter or digit]{1,31};}
+     *
+     * @param s     characters
+     * @param start index of {@code &}
+     * @return index after {@code ;} or -1 if not an entity
+     */
+    static int scanEntity(BasedSequence s, int start) {
+        int iMax = s.length();
+        int i = start + 1;
+        if (start >= iMax || s.charAt(start) != '&' || i >= iMax) return -1;
+
+        char c = s.charAt(i);
+        if (c == '#') {
+            i++;
+            boolean hex = i < iMax && (s.charAt(i) == 'x' || s.charAt(i) == 'X');
+            if (hex) i++;
+
+            int digitStart = i;
+            while (i < iMax && (hex ? isHexDigit(s.charAt(i)) : s.charAt(i) >= '0' && s.charAt(i) <= '9')) i++;
+            if (i - digitStart < 1 || i - digitStart > 8) return -1;
+        } else {
+            if (!isAsciiLetter(c)) return -1;
+            int nameStart = i;
+            while (i < iMax && isAsciiLetterOrDigit(s.charAt(i))) i++;
+            if (i - nameStart < 2 || i - nameStart > 32) return -1;
+        }
+
+        return i < iMax && s.charAt(i) == ';' ? i + 1 : -1;
+    }
+
+    @Override
+    public boolean parseAutolink() {
+        if (usePatterns || index >= input.length()) {
+            return super.parseAutolink();
+        }
+
+        int end = scanEmailAutolink(input, index);
+        if (end != -1) {
+            BasedSequence m = matched(end);
+            appendNode(new MailLink(m.subSequence(0, 1), m.subSequence(1, m.length() - 1), m.subSequence(m.length() - 1, m.length())));
+            return true;
+        }
+
+        end = scanUrlAutolink(input, index);
+        if (end == -1 && options.wwwAutoLinkElement) {
+            end = scanWwwAutolink(input, index);
+        }
+
+        if (end != -1) {
+            BasedSequence m = matched(end);
+            appendNode(new AutoLink(m.subSequence(0, 1), m.subSequence(1, m.length() - 1), m.subSequence(m.length() - 1, m.length())));
+            return true;
+        }
+        return false;
+    }
+
+    static int scanEmailAutolink(BasedSequence s, int start) {
+        int iMax = s.length();
+        if (s.charAt(start) != '<') return -1;
+
+        int i = start + 1;
+        while (i < iMax && (isAsciiLetterOrDigit(s.charAt(i)) || EMAIL_LOCAL_CHARS.indexOf(s.charAt(i)) != -1)) i++;
+        if (i == start + 1 || i >= iMax || s.charAt(i) != '@') return -1;
+
+        // dot separated labels of letters, digits and '-', not starting or ending with '-'
+        while (true) {
+            int labelStart = ++i;
+            while (i < iMax && (isAsciiLetterOrDigit(s.charAt(i)) || s.charAt(i) == '-')) i++;
+            int length = i - labelStart;
+            if (length == 0 || length > MAX_DOMAIN_LABEL_LENGTH || s.charAt(labelStart) == '-' || s.charAt(i - 1) == '-') return -1;
+            if (i >= iMax) return -1;
+
+            char c = s.charAt(i);
+            if (c == '>') return i + 1;
+            if (c != '.') return -1;
+        }
+    }
+
+    static int scanUrlAutolink(BasedSequence s, int start) {
+        int iMax = s.length();
+        int i = start + 1;
+        if (s.charAt(start) != '<' || i >= iMax || !isAsciiLetter(s.charAt(i))) return -1;
+
+        while (i < iMax && (isAsciiLetterOrDigit(s.charAt(i)) || s.charAt(i) == '.' || s.charAt(i) == '+' || s.charAt(i) == '-')) i++;
+        int length = i - start - 1;
+        if (length < 2 || length > MAX_SCHEME_LENGTH || i >= iMax || s.charAt(i) != ':') return -1;
+
+        return scanAutolinkEnd(s, i + 1);
+    }
+
+    static int scanWwwAutolink(BasedSequence s, int start) {
+        // pattern allows up to 3 'w' before the '.'
+        int iMax = s.length();
+        if (s.charAt(start) != '<') return -1;
+
+        int i = start + 1;
+        while (i < iMax && i - start <= 3 && s.charAt(i) == 'w') i++;
+        if (i >= iMax || s.charAt(i) != '.') return -1;
+        return scanAutolinkEnd(s, i + 1);
+    }
+
+    private static int scanAutolinkEnd(BasedSequence s, int start) {
+        int iMax = s.length();
+        for (int i = start; i < iMax; i++) {
+            char c = s.charAt(i);
+            if (c == '>') return i + 1;
+            if (c == '<' || c <= ' ') break;
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean parseHtmlInline() {
+        if (usePatterns || usePatternsForHtml || index >= input.length()) {
+            return super.parseHtmlInline();
+        }
+
+        int end = scanHtmlTag(input, index);
+        if (end == -1) return false;
+
+        BasedSequence m = matched(end);
+        if (m.startsWith("<!--") && m.endsWith("-->")) {
+            appendNode(new HtmlInlineComment(m));
+        } else {
+            appendNode(new HtmlInline(m));
+        }
+        return true;
+    }
+
+    /**
+     * Scan inline HTML: open tag, close tag, comment, processing instruction, declaration or CDATA section
+     *
+     * @param s     characters
+     * @param start index of {@code <}
+     * @return index after the tag or -1 if not inline HTML
+     */
+    static int scanHtmlTag(BasedSequence s, int start) {
+        int iMax = s.length();
+        if (start + 1 >= iMax || s.charAt(start) != '<') return -1;
+
+        char c = s.charAt(start + 1);
+        if (isAsciiLetter(c)) {
+            return scanOpenTag(s, start + 1);
+        } else if (c == '/') {
+            int i = scanTagName(s, start + 2);
+            if (i == -1) return -1;
+            while (i < iMax && isWhitespace(s.charAt(i))) i++;
+            return i < iMax && s.charAt(i) == '>' ? i + 1 : -1;
+        } else if (c == '?') {
+            for (int i = start + 2; i < iMax; i++) {
+                char p = s.charAt(i);
+                if (p == '?' && i + 1 < iMax && s.charAt(i + 1) == '>') return i + 2;
+                if (isLineTerminator(p)) break;
+            }
+            return -1;
+        } else if (c == '!') {
+            if (s.matchChars("--", start + 2)) {
+                return scanComment(s, start + 4);
+            } else if (s.matchChars("[CDATA[", start + 2, true)) {
+                int end = indexOf(s, "]]>", start + 9);
+                return end == -1 ? -1 : end + 3;
+            } else {
+                // declaration
+                int i = start + 2;
+                while (i < iMax && isAsciiLetter(s.charAt(i))) i++;
+                if (i == start + 2 || i >= iMax || !isWhitespace(s.charAt(i))) return -1;
+                int end = s.indexOf('>', i);
+                return end == -1 ? -1 : end + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(BasedSequence s, String chars, int fromIndex) {
+        int iMax = s.length() - chars.length();
+        for (int i = fromIndex; i <= iMax; i++) {
+            if (s.matchChars(chars, i)) return i;
+        }
+        return -1;
+    }
+
+    private static int scanTagName(BasedSequence s, int start) {
+        int iMax = s.length();
+        if (start >= iMax || !isAsciiLetter(s.charAt(start))) return -1;
+
+        int i = start + 1;
+        while (i < iMax && (isAsciiLetterOrDigit(s.charAt(i)) || s.charAt(i) == '-')) i++;
+        return i;
+    }
+
+    private static boolean isAttributeNameStart(char c) {
+        return isAsciiLetter(c) || c == '_' || c == ':';
+    }
+
+    private static boolean isAttributeNameChar(char c) {
+        return isAsciiLetterOrDigit(c) || c == '_' || c == ':' || c == '.' || c == '-';
+    }
+
+    private static boolean isUnquotedValueChar(char c) {
+        return c > ' ' && c != '"' && c != '\'' && c != '=' && c != '<' && c != '>' && c != '{' && c != '}' && c != '`';
+    }
+
+    private static int scanOpenTag(BasedSequence s, int start) {
+        int iMax = s.length();
+        int i = scanTagName(s, start);
+
+        while (true) {
+            int wsStart = i;
+            while (i < iMax && isWhitespace(s.charAt(i))) i++;
+            if (i >= iMax) return -1;
+
+            char c = s.charAt(i);
+            if (c == '/') {
+                return i + 1 < iMax && s.charAt(i + 1) == '>' ? i + 2 : -1;
+            } else if (c == '>') {
+                return i + 1;
+            } else if (i == wsStart || !isAttributeNameStart(c)) {
+                return -1;
+            }
+
+            // attribute name with optional value
+            i++;
+            while (i < iMax && isAttributeNameChar(s.charAt(i))) i++;
+
+            int valueStart = i;
+            while (valueStart < iMax && isWhitespace(s.charAt(valueStart))) valueStart++;
+            if (valueStart < iMax && s.charAt(valueStart) == '=') {
+                valueStart++;
+                while (valueStart < iMax && isWhitespace(s.charAt(valueStart))) valueStart++;
+                if (valueStart >= iMax) return -1;
+
+                char q = s.charAt(valueStart);
+                if (q == '"' || q == '\'') {
+                    int end = s.indexOf(q, valueStart + 1);
+                    if (end == -1) return -1;
+                    i = end + 1;
+                } else {
+                    i = valueStart;
+                    while (i < iMax && isUnquotedValueChar(s.charAt(i))) i++;
+                    if (i == valueStart) return -1;
+                }
+            }
+        }
+    }
+
+    private static int scanComment(BasedSequence s, int start) {
+        // start is after <!--
+        int iMax = s.length();
+        if (s.matchChars("-->", start)) return start + 3;
+
+        int i = start;
+        if (i >= iMax) return -1;
+        char c = s.charAt(i);
+        if (c == '>') return -1;
+        if (c == '-') {
+            if (i + 1 >= iMax || s.charAt(i + 1) == '>' || s.charAt(i + 1) == '-') return -1;
+            i++;
+        }
+        i++;
+
+        // text may not contain --, comment ends at the first one
+        int end = indexOf(s, "--", i);
+        return end != -1 && end + 2 < iMax && s.charAt(end + 2) == '>' ? end + 3 : -1;
+    }
+}
@@ -0,0 +1,34 @@
+package com.vladsch.flexmark.ast.util;
+
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.options.MutableDataSet;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ParsingTest {
+    @Test
+    public void test_sharedPatterns() {
+        MutableDataSet options1 = new MutableDataSet();
+        MutableDataSet options2 = new MutableDataSet().set(Parser.HEADING_NO_ATX_SPACE, true);
+        Parsing parsing1 = new Parsing(options1);
+        Parsing parsing2 = new Parsing(options2);
+
+        assertSame(options1, parsing1.options);
+        assertSame(options2, parsing2.options);
+        assertSame(parsing1.LINK_DESTINATION, parsing2.LINK_DESTINATION);
+        assertSame(parsing1.HTML_TAG, parsing2.HTML_TAG);
+    }
+
+    @Test
+    public void test_optionPatterns() {
+        Parsing parsing1 = new Parsing(new MutableDataSet());
+        Parsing parsing2 = new Parsing(new MutableDataSet().set(Parser.SPACE_IN_LINK_URLS, true));
+        Parsing parsing3 = new Parsing(new MutableDataSet().set(Parser.LISTS_ITEM_PREFIX_CHARS, "*"));
+
+        assertNotSame(parsing1.LINK_DESTINATION, parsing2.LINK_DESTINATION);
+        assertNotSame(parsing1.LIST_ITEM_MARKER, parsing3.LIST_ITEM_MARKER);
+        assertTrue(parsing1.LIST_ITEM_MARKER.matcher("- item").find());
+        assertFalse(parsing3.LIST_ITEM_MARKER.matcher("- item").find());
+    }
+}
@@ -0,0 +1,102 @@
+package com.vladsch.flexmark.parser.internal;
+
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.spec.SpecReader;
+import com.vladsch.flexmark.test.AstCollectingVisitor;
+import com.vladsch.flexmark.util.options.DataHolder;
+import com.vladsch.flexmark.util.options.MutableDataSet;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class ScanningInlineParserTest {
+    private static final String[] FRAGMENTS = {
+            "<", ">", "<!--", "-->", "-", "--", "<?", "?>", "<![CDATA[", "<![cdata[", "]]>", "<!DOCTYPE", "</", "/>",
+            "&", "&#", "&#x", "&#X", ";", "amp", "1", "F", "a", "b", "div", " ", "\t", "\n", "\r", " ", "\\",
+            "\"", "'", "(", ")", "[", "]", "](", "[x]: ", "[x]", "=", "/", "@", ".", ":", "http", "<www.", "_", "{", "}", "`",
+    };
+
+    private static DataHolder[] optionSets() {
+        return new DataHolder[] {
+                new MutableDataSet(),
+                new MutableDataSet().set(Parser.SPACE_IN_LINK_URLS, true),
+                new MutableDataSet().set(Parser.WWW_AUTO_LINK_ELEMENT, true),
+        };
+    }
+
+    private static void assertSameAst(DataHolder options, String source) {
+        Parser patternParser = Parser.builder(options).build();
+        Parser scanningParser = Parser.builder(new MutableDataSet(options).set(Parser.INLINE_SCANNERS, true)).build();
+        assertSameAst(patternParser, scanningParser, source);
+    }
+
+    private static void assertSameAst(Parser patternParser, Parser scanningParser, String source) {
+        String expected = new AstCollectingVisitor().collectAndGetAstText(patternParser.parse(source));
+        String actual = new AstCollectingVisitor().collectAndGetAstText(scanningParser.parse(source));
+        assertEquals(source, expected, actual);
+    }
+
+    @Test
+    public void test_spec() {
+        String spec = SpecReader.readSpec();
+        for (DataHolder options : optionSets()) {
+            assertSameAst(options, spec);
+        }
+    }
+
+    @Test
+    public void test_constructs() {
+        String[] sources = {
+                "<a href=\"x\" title='y' data-z=w/>",
+                "<a\nhref = x >",
+                "<a href=>",
+                "<a b=\"c\"d>",
+                "</div >",
+                "<!---->",
+                "<!--->",
+                "<!-- a -- b -->",
+                "<!-- a --->",
+                "<? pi ?>",
+                "<? pi\n?>",
+                "<!DOCTYPE html>",
+                "<![CDATA[ x ]]>",
+                "<user@example.com>",
+                "<user@-example.com>",
+                "<http://example.com/path>",
+                "<a+b:c>",
+                "<www.example.com>",
+                "&amp; &#123; &#x1F; &#123456789; &aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa;",
+                "[link](<url with spaces>) [link](</url\\>) [link](url(with)parens) [link](url\\)paren)",
+                "[link](url \"title\") [link](url 'title') [link](url (title)) [link](url \"ti\\\"tle\")",
+                "[x]: <url> \"title\"\n\n[x]",
+        };
+
+        for (DataHolder options : optionSets()) {
+            for (String source : sources) {
+                assertSameAst(options, source);
+            }
+        }
+    }
+
+    @Test
+    public void test_random() {
+        Random random = new Random(1);
+        StringBuilder sb = new StringBuilder();
+
+        for (DataHolder options : optionSets()) {
+            Parser patternParser = Parser.builder(options).build();
+            Parser scanningParser = Parser.builder(new MutableDataSet(options).set(Parser.INLINE_SCANNERS, true)).build();
+
+            for (int i = 0; i < 10000; i++) {
+                sb.setLength(0);
+                int count = 1 + random.nextInt(16);
+                for (int j = 0; j < count; j++) {
+                    sb.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+                }
+                assertSameAst(patternParser, scanningParser, sb.toString());
+            }
+        }
+    }
+}
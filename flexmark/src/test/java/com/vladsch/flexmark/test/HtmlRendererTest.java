@@ -7,10 +7,18 @@ import com.vladsch.flexmark.util.ast.Node;
 import com.vladsch.flexmark.html.*;
 import com.vladsch.flexmark.html.renderer.*;
 import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.spec.SpecReader;
 import com.vladsch.flexmark.util.html.Attributes;
 import com.vladsch.flexmark.util.options.DataHolder;
+import com.vladsch.flexmark.util.options.MutableDataSet;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -399,6 +407,68 @@ public class HtmlRendererTest {
                 defaultRenderer().render(parse("![foo &auml;](/url)\n")));
     }
 
+    @Test
+    public void renderToWriterMatchesRender() throws IOException {
+        String spec = SpecReader.readSpec();
+        Node document = parse(spec);
+        HtmlRenderer renderer = HtmlRenderer.builder(new MutableDataSet().set(HtmlRenderer.STREAM_BUFFER_SIZE, 100)).build();
+
+        StringWriter writer = new StringWriter();
+        renderer.renderTo(document, writer);
+        assertEquals(renderer.render(document), writer.toString());
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        renderer.renderTo(document, stream, Charset.forName("UTF-8"));
+        assertEquals(renderer.render(document), new String(stream.toByteArray(), "UTF-8"));
+    }
+
+    @Test
+    public void renderToWriterFlushesTopLevelBlocks() throws IOException {
+        final ArrayList<String> flushed = new ArrayList<String>();
+        final StringBuilder sb = new StringBuilder();
+        Writer writer = new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) {
+                sb.append(cbuf, off, len);
+            }
+
+            @Override
+            public void flush() {
+                flushed.add(sb.toString());
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        defaultRenderer().renderTo(parse("# Heading\n\nparagraph\n\n- item\n"), writer);
+        assertEquals("<h1>Heading</h1>\n<p>paragraph</p>\n<ul>\n<li>item</li>\n</ul>\n", sb.toString());
+        assertEquals("<h1>Heading</h1>", flushed.get(0));
+        assertEquals("<h1>Heading</h1>\n<p>paragraph</p>", flushed.get(1));
+        assertEquals(sb.toString(), flushed.get(flushed.size() - 1));
+    }
+
+    @Test(expected = IOException.class)
+    public void renderToWriterThrowsIOException() throws IOException {
+        Writer writer = new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) throws IOException {
+                throw new IOException("closed");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        defaultRenderer().renderTo(parse("paragraph\n"), writer);
+    }
+
     private static HtmlRenderer defaultRenderer() {
         return HtmlRenderer.builder().build();
     }
@@ -1,25 +1,37 @@
 package com.vladsch.flexmark.test;
 
 import com.vladsch.flexmark.ast.*;
+import com.vladsch.flexmark.ast.util.HeadingIndex;
+import com.vladsch.flexmark.ast.util.ReferenceRepository;
 import com.vladsch.flexmark.html.HtmlRenderer;
 import com.vladsch.flexmark.parser.Parser;
 import com.vladsch.flexmark.parser.block.*;
 import com.vladsch.flexmark.spec.SpecReader;
+import com.vladsch.flexmark.util.Consumer;
 import com.vladsch.flexmark.util.ast.Block;
 import com.vladsch.flexmark.util.ast.Block;
 import com.vladsch.flexmark.util.ast.Document;
 import com.vladsch.flexmark.util.ast.Node;
+import com.vladsch.flexmark.util.ast.RepositoryLibrary;
 import com.vladsch.flexmark.util.options.DataHolder;
 import com.vladsch.flexmark.util.options.MutableDataHolder;
 import com.vladsch.flexmark.util.options.MutableDataSet;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
+import com.vladsch.flexmark.util.sequence.SegmentedSequence;
 import org.junit.Test;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.StringReader;
+import java.nio.CharBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
@@ -51,6 +63,377 @@ public class ParserTest {
         assertEquals(renderer.render(document2), renderer.render(document1));
     }
 
+    @Test
+    public void fileTest() throws IOException {
+        Parser parser = Parser.builder().build();
+
+        String spec = SpecReader.readSpec();
+        Path file = Files.createTempFile("spec", ".md");
+        try {
+            Files.write(file, (spec + "\u0000").getBytes(StandardCharsets.UTF_8));
+            Document document1 = parser.parseFile(file, StandardCharsets.UTF_8);
+            Node document2 = parser.parse(spec + "\u0000");
+
+            assertThat(document1.getChars().getBase(), instanceOf(CharBuffer.class));
+            assertEquals(spec.length() + 1, document1.getChars().length());
+
+            HtmlRenderer renderer = HtmlRenderer.builder().escapeHtml(true).build();
+            assertEquals(renderer.render(document2), renderer.render(document1));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static String renderStreaming(Parser parser, final HtmlRenderer renderer, String input) throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        parser.parseReader(new StringReader(input), new Consumer<Node>() {
+            @Override
+            public void accept(Node node) {
+                sb.append(renderer.render(node));
+            }
+        });
+        return sb.toString();
+    }
+
+    @Test
+    public void streamingReaderTest() throws IOException {
+        // streaming only resolves references defined before use
+        String spec = SpecReader.readSpec();
+        StringBuilder references = new StringBuilder();
+        for (Node node : Parser.builder().build().parse(spec).getChildren()) {
+            if (node instanceof Reference) references.append(node.getChars()).append("\n");
+        }
+        spec = references.toString() + "\n" + spec;
+
+        HtmlRenderer renderer = HtmlRenderer.builder().escapeHtml(true).build();
+        StringBuilder expected = new StringBuilder();
+        for (Node node : Parser.builder().build().parse(spec).getChildren()) {
+            expected.append(renderer.render(node));
+        }
+
+        assertEquals(expected.toString(), renderStreaming(Parser.builder().build(), renderer, spec));
+        assertEquals(expected.toString(), renderStreaming(Parser.builder(new MutableDataSet().set(Parser.STREAMING_CHUNK_SIZE, 1)).build(), renderer, spec));
+        assertEquals(expected.toString(), renderStreaming(Parser.builder(new MutableDataSet().set(Parser.STREAMING_CHUNK_SIZE, 100)).build(), renderer, spec));
+    }
+
+    @Test
+    public void streamingReaderOffsetsTest() throws IOException {
+        final String input = "# Heading\n\nparagraph\ntext\n\n* item 1\n\n  item 1 paragraph\n* item 2\n\n```\ncode\n\nfence\n```\nlast";
+        Parser parser = Parser.builder(new MutableDataSet().set(Parser.STREAMING_CHUNK_SIZE, 8)).build();
+        final List<String> blocks = new ArrayList<String>();
+
+        Document document = parser.parseReader(new StringReader(input), new Consumer<Node>() {
+            @Override
+            public void accept(Node node) {
+                assertEquals(input.substring(node.getStartOffset(), node.getEndOffset()), node.getChars().toString());
+                blocks.add(node.getNodeName());
+            }
+        });
+
+        assertFalse(document.hasChildren());
+        assertEquals(Arrays.asList("Heading", "Paragraph", "BulletList", "FencedCodeBlock", "Paragraph"), blocks);
+    }
+
+    @Test
+    public void streamingLineNumbersTest() throws IOException {
+        String spec = SpecReader.readSpec();
+        List<String> expected = new ArrayList<String>();
+        for (Node node : Parser.builder().build().parse(spec).getChildren()) {
+            expected.add(node.getStartLineNumber() + "-" + node.getEndLineNumber());
+        }
+
+        // line numbers of nodes in later windows do not need the text before the window
+        for (int chunkSize : new int[] { 8, 256 }) {
+            final List<String> lines = new ArrayList<String>();
+            Parser.builder(new MutableDataSet().set(Parser.STREAMING_CHUNK_SIZE, chunkSize)).build().parseReader(new StringReader(spec), new Consumer<Node>() {
+                @Override
+                public void accept(Node node) {
+                    BasedSequence documentChars = node.getDocument().getChars();
+                    assertEquals(documentChars.length(), documentChars.toString().length());
+                    lines.add(node.getStartLineNumber() + "-" + node.getEndLineNumber());
+                }
+            });
+            assertEquals(expected, lines);
+        }
+    }
+
+    @Test
+    public void streamingForwardReferenceTest() throws IOException {
+        // references are only resolved in blocks following their definition
+        final List<Boolean> defined = new ArrayList<Boolean>();
+        Parser.builder().build().parseReader(new StringReader("[foo]\n\n[foo]: /url\n\n[foo]\n"), new Consumer<Node>() {
+            @Override
+            public void accept(Node node) {
+                if (node instanceof Paragraph) {
+                    defined.add(node.getFirstChild() instanceof LinkRef && ((LinkRef) node.getFirstChild()).isDefined());
+                }
+            }
+        });
+
+        assertEquals(Arrays.asList(false, true), defined);
+    }
+
+    @Test
+    public void streamingDocumentPostProcessorTest() throws IOException {
+        final int[] processed = { 0 };
+        final int[] blocks = { 0 };
+        Parser parser = Parser.builder(new MutableDataSet().set(Parser.STREAMING_CHUNK_SIZE, 1)).postProcessorFactory(new DocumentPostProcessorFactory() {
+            @Override
+            public DocumentPostProcessor create(Document document) {
+                return new DocumentPostProcessor() {
+                    @Override
+                    public Document processDocument(Document document) {
+                        processed[0]++;
+                        for (Node node : document.getChildren()) {
+                            blocks[0]++;
+                        }
+                        return document;
+                    }
+                };
+            }
+        }).build();
+
+        // document post processor runs once on the whole document
+        String input = "# Heading\n\nparagraph\n\n* item\n";
+        assertEquals(renderStreaming(Parser.builder().build(), HtmlRenderer.builder().build(), input), renderStreaming(parser, HtmlRenderer.builder().build(), input));
+        assertEquals(1, processed[0]);
+        assertEquals(3, blocks[0]);
+    }
+
+    @Test
+    public void repositoryLibraryTest() {
+        Parser libraryParser = Parser.builder().build();
+        RepositoryLibrary library = RepositoryLibrary.of(libraryParser.parse("[foo]: /library-foo\n[bar]: /library-bar \"Bar\"\n"));
+
+        Parser parser = Parser.builder(new MutableDataSet().set(Parser.REPOSITORY_LIBRARY, library)).build();
+        HtmlRenderer renderer = HtmlRenderer.builder().build();
+
+        Document document = parser.parse("[foo] [bar] [baz]\n\n[foo]: /document-foo\n");
+        assertEquals("<p><a href=\"/document-foo\">foo</a> <a href=\"/library-bar\" title=\"Bar\">bar</a> [baz]</p>\n", renderer.render(document));
+
+        ReferenceRepository references = Parser.REFERENCES.getFrom(document);
+        assertEquals(2, references.size());
+        assertSame(library.getRepositories().get(Parser.REFERENCES), references.getLibrary());
+
+        // library is not modified by documents using it
+        assertEquals(2, Parser.REFERENCES.getFrom(library.getDocument()).size());
+        assertEquals("/library-foo", Parser.REFERENCES.getFrom(library.getDocument()).get("foo").getUrl().toString());
+
+        // merged entries are built once and rebuilt after the document's repository changes
+        assertSame(references.keySet(), references.keySet());
+        assertSame(references.values(), references.values());
+        Set<String> keys = references.keySet();
+        references.remove("foo");
+        assertNotSame(keys, references.keySet());
+        assertEquals("/library-foo", references.get("foo").getUrl().toString());
+    }
+
+    @Test
+    public void repositoryLibraryShareableTest() {
+        Document libraryDocument = Parser.builder().build().parse("[foo]: /library-foo\n");
+        assertEquals(1, RepositoryLibrary.of(libraryDocument).getRepositories().size());
+
+        // repositories whose nodes are modified by referencing documents are not part of the library
+        ReferenceRepository unshared = new ReferenceRepository(libraryDocument) {
+            @Override
+            public boolean isShareable() {
+                return false;
+            }
+        };
+        unshared.putAll(Parser.REFERENCES.getFrom(libraryDocument));
+        libraryDocument.set(Parser.REFERENCES, unshared);
+        assertTrue(RepositoryLibrary.of(libraryDocument).getRepositories().isEmpty());
+    }
+
+    @Test
+    public void headingIndexTest() {
+        Parser parser = Parser.builder().build();
+        HtmlRenderer renderer = HtmlRenderer.builder(new MutableDataSet().set(HtmlRenderer.RENDER_HEADER_ID, true)).build();
+
+        Document document = parser.parse("# Heading *1*\n\n> ## Quoted\n\n* item\n\n  Heading 2\n  ---------\n\n# Heading 1\n");
+
+        HeadingIndex index = HeadingIndex.of(document);
+        assertNotSame(index, HeadingIndex.of(document));
+        assertEquals(4, index.getHeadings().size());
+        assertEquals(index.getHeadings(), index.getAnchorRefTargets());
+        assertEquals("Heading 1", index.getHeadingText(index.getHeadings().get(0)));
+        assertEquals("Quoted", index.getHeadingText(index.getHeadings().get(1)));
+        assertEquals(2, index.getHeadings().get(2).getLevel());
+
+        // index is shared only while shared, as done for the duration of a render
+        HeadingIndex shared = HeadingIndex.share(document);
+        assertSame(shared, HeadingIndex.of(document));
+        assertNull(HeadingIndex.share(document));
+        HeadingIndex.unshare(document, shared);
+        assertNull(HeadingIndex.HEADING_INDEX.getFrom(document));
+
+        assertEquals("<h1 id=\"heading-1\">Heading <em>1</em></h1>\n" +
+                "<blockquote>\n" +
+                "<h2 id=\"quoted\">Quoted</h2>\n" +
+                "</blockquote>\n" +
+                "<ul>\n" +
+                "<li>\n" +
+                "<p>item</p>\n" +
+                "<h2 id=\"heading-2\">Heading 2</h2>\n" +
+                "</li>\n" +
+                "</ul>\n" +
+                "<h1 id=\"heading-1-1\">Heading 1</h1>\n", renderer.render(document));
+        assertNull(HeadingIndex.HEADING_INDEX.getFrom(document));
+    }
+
+    @Test
+    public void headingIndexChangedDocumentTest() {
+        Parser parser = Parser.builder().build();
+        HtmlRenderer renderer = HtmlRenderer.builder(new MutableDataSet().set(HtmlRenderer.RENDER_HEADER_ID, true)).build();
+
+        Document document = parser.parse("# One\n");
+        assertEquals("<h1 id=\"one\">One</h1>\n", renderer.render(document));
+
+        // headings added after a render get ids in the next render
+        document.appendChild(parser.parse("# Two\n").getFirstChild());
+        assertEquals("<h1 id=\"one\">One</h1>\n<h1 id=\"two\">Two</h1>\n", renderer.render(document));
+    }
+
+    @Test
+    public void headingIndexReparseTest() {
+        Parser parser = Parser.builder().build();
+        String text = "# First\n\nparagraph\n\n# Last\n";
+        Document document = parser.parse(text);
+        assertEquals(2, HeadingIndex.of(document).getHeadings().size());
+
+        // index of the edited document includes headings added by the edit
+        int editStart = text.indexOf("paragraph");
+        Document reparsed = parser.reparse(document, editStart, editStart + "paragraph".length(), "## Second");
+        assertSame(document, reparsed);
+
+        HeadingIndex index = HeadingIndex.of(reparsed);
+        assertEquals(3, index.getHeadings().size());
+        assertEquals("Second", index.getHeadingText(index.getHeadings().get(1)));
+    }
+
+    @Test
+    public void reparseTest() {
+        String spec = SpecReader.readSpec();
+        Parser parser = Parser.builder().build();
+        HtmlRenderer renderer = HtmlRenderer.builder().escapeHtml(true).build();
+        String[] insertions = { "x", "\n", "\n\n", "# ", "```\n", "* ", "> ", "    ", "---\n", "<div>\n", "===\n", "[link](url) *emphasis* `code`", "[foo]: /other\n", "[foo] [bar][]" };
+        Random random = new Random(1);
+
+        String text = spec + "\n[foo]: /url\n[bar]: /bar\n";
+        Document document = parser.parse(text);
+
+        for (int i = 0; i < 100; i++) {
+            int editStart = random.nextInt(text.length() + 1);
+            int editEnd = Math.min(text.length(), editStart + random.nextInt(3) * random.nextInt(40));
+            String insertion = insertions[random.nextInt(insertions.length)];
+            Node firstChild = document.getFirstChild();
+
+            document = parser.reparse(document, editStart, editEnd, insertion);
+            text = text.substring(0, editStart) + insertion + text.substring(editEnd);
+
+            assertEquals(text, document.getChars().toString());
+            assertMovedToDocumentChars(document);
+            assertEquals(renderer.render(parser.parse(text)), renderer.render(document));
+            assertEquals(new AstCollectingVisitor().collectAndGetAstText(parser.parse(text)), new AstCollectingVisitor().collectAndGetAstText(document));
+            if (firstChild.getEndOffset() < editStart && firstChild.getNext() != null && firstChild.getNext().getEndOffset() < editStart) {
+                assertSame(firstChild, document.getFirstChild());
+            }
+        }
+    }
+
+    @Test
+    public void reparseKeptBlocksTest() {
+        Parser parser = Parser.builder().build();
+        String text = "# Heading\n\nintro\n\nfirst [foo]\n\nsecond *emphasis*\n\n* item\n\n[foo]: /url\n\nlast\n";
+        Document document = parser.parse(text);
+        Node heading = document.getFirstChild();
+        Node list = heading.getNext().getNext().getNext().getNext();
+        Node last = document.getLastChild();
+
+        // only blocks around the edit are re-parsed, following blocks are moved to the edited text
+        int editStart = text.indexOf("first");
+        document = parser.reparse(document, editStart, editStart + "first".length(), "changed\n\nadded");
+        text = text.substring(0, editStart) + "changed\n\nadded" + text.substring(editStart + "first".length());
+
+        assertSame(heading, document.getFirstChild());
+        assertSame(list, heading.getNext().getNext().getNext().getNext().getNext());
+        assertSame(last, document.getLastChild());
+        assertEquals("last", last.getChars().trimEOL().toString());
+        assertEquals(text.indexOf("last"), last.getStartOffset());
+        assertEquals(new AstCollectingVisitor().collectAndGetAstText(parser.parse(text)), new AstCollectingVisitor().collectAndGetAstText(document));
+        assertEquals("/url", Parser.REFERENCES.getFrom(document).get("foo").getUrl().toString());
+
+        // kept blocks before and after the edit are in the edited text and can be combined with re-parsed ones
+        assertMovedToDocumentChars(document);
+        assertEquals(heading.getChars().toString() + last.getChars(), SegmentedSequence.of(heading.getChars(), last.getChars()).toString());
+    }
+
+    @Test
+    public void reparseNotMovableTest() {
+        Parser parser = Parser.builder().customBlockParserFactory(new DashBlockParserFactory()).build();
+        String text = "intro\n\nfirst\n\nsecond\n\n---\n\nmore\n\nlast\n";
+        Document document = parser.parse(text);
+        Node intro = document.getFirstChild();
+        Node last = document.getLastChild();
+
+        // following blocks with nodes which cannot be moved are re-parsed
+        int editStart = text.indexOf("second");
+        Document reparsed = parser.reparse(document, editStart, editStart + "second".length(), "changed");
+        text = text.substring(0, editStart) + "changed" + text.substring(editStart + "second".length());
+
+        assertSame(document, reparsed);
+        assertSame(intro, document.getFirstChild());
+        assertNotSame(last, document.getLastChild());
+        assertThat(document.getLastChild().getPrevious().getPrevious(), instanceOf(DashBlock.class));
+        assertMovedToDocumentChars(document);
+        assertEquals(new AstCollectingVisitor().collectAndGetAstText(parser.parse(text)), new AstCollectingVisitor().collectAndGetAstText(document));
+
+        // preceding blocks which cannot be moved need a full parse
+        editStart = text.indexOf("last");
+        reparsed = parser.reparse(document, editStart, editStart + "last".length(), "changed");
+        text = text.substring(0, editStart) + "changed" + text.substring(editStart + "last".length());
+
+        assertNotSame(document, reparsed);
+        assertEquals(new AstCollectingVisitor().collectAndGetAstText(parser.parse(text)), new AstCollectingVisitor().collectAndGetAstText(reparsed));
+    }
+
+    private static void assertMovedToDocumentChars(Document document) {
+        Object base = document.getChars().getBaseSequence();
+        for (Node node : document.getDescendants()) {
+            if (node.getChars() != BasedSequence.NULL) {
+                assertSame(node.toString(), base, node.getChars().getBaseSequence());
+            }
+        }
+    }
+
+    @Test
+    public void reparseFullParseTest() {
+        Parser parser = Parser.builder().build();
+        String text = "[foo] [bar]\n\nparagraph\n\n[foo]: /url\n";
+        Document document = parser.parse(text);
+        String ast = new AstCollectingVisitor().collectAndGetAstText(document);
+
+        // added reference definition needs a full parse, original document is not changed
+        int editStart = text.indexOf("paragraph");
+        Document reparsed = parser.reparse(document, editStart, editStart + "paragraph".length(), "[bar]: /bar");
+        assertNotSame(document, reparsed);
+        assertEquals(ast, new AstCollectingVisitor().collectAndGetAstText(document));
+        assertEquals(1, Parser.REFERENCES.getFrom(document).size());
+        assertEquals(2, Parser.REFERENCES.getFrom(reparsed).size());
+    }
+
+    @Test
+    public void parallelInlineParsingTest() {
+        String spec = SpecReader.readSpec();
+        HtmlRenderer renderer = HtmlRenderer.builder().build();
+        String expected = renderer.render(Parser.builder().build().parse(spec));
+
+        for (int batchSize : new int[] { 1, 7, 64 }) {
+            Parser parser = Parser.builder(new MutableDataSet().set(Parser.PARALLEL_INLINE_PARSING, true).set(Parser.PARALLEL_INLINE_PARSING_BATCH_SIZE, batchSize)).build();
+            assertEquals(expected, renderer.render(parser.parse(spec)));
+        }
+    }
+
     @Test
     public void customBlockParserFactory() {
         Parser parser = Parser.builder().customBlockParserFactory(new DashBlockParserFactory()).build();